@@ -1,7 +1,19 @@
 package com.example.mcp;
 
+import com.example.mcp.cache.AnalysisCache;
+import com.example.mcp.cache.PersistentAnalysisStore;
+import com.example.mcp.config.ConfigurationManager;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.maven.DependencyGraphResolver;
+import com.example.mcp.maven.ReactorAnalyzer;
+import com.example.mcp.parsing.CompilationUnitCache;
+import com.example.mcp.parsing.ParsingService;
+import com.example.mcp.protocol.HttpServerTransport;
 import com.example.mcp.protocol.McpServer;
 import com.example.mcp.protocol.StdioTransport;
+import com.example.mcp.security.HistoryScanner;
+import com.example.mcp.security.RulePackRegistry;
+import com.example.mcp.security.VulnerabilityDatabase;
 import com.example.mcp.tools.*;
 import com.example.mcp.tools.jira.*;
 import com.example.mcp.tools.confluence.*;
@@ -10,6 +22,8 @@ import com.example.mcp.prompts.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.Map;
 
 /**
@@ -54,6 +68,8 @@ import java.util.Map;
  * </pre>
  *
  * <p>The server communicates via standard input/output using JSON-RPC 2.0 protocol.
+ * With {@code server.transport=http} it instead serves any number of clients
+ * over streamable HTTP from one process.
  *
  * @author SDLC Tools Team
  * @version 2.0.0
@@ -80,11 +96,47 @@ public class SdlcToolsMcpServer {
                     createServerInfo()
             );
 
+            ConfigurationManager config = ConfigurationManager.getInstance();
+            server.setConcurrentDispatch(config.isConcurrentDispatchEnabled());
+            server.setWorkerThreads(config.getDispatchWorkerThreads());
+            server.setHeavyWorkerThreads(config.getDispatchHeavyWorkerThreads());
+            server.setDispatchQueueCapacity(config.getDispatchQueueCapacity());
+            config.getToolConcurrencyLimits().forEach(server::setToolConcurrencyLimit);
+            server.setListPageSize(config.getListPageSize());
+            server.setToolTimeoutMillis(config.getToolTimeoutMillis());
+            AnalysisCache.shared().setMaxBytes(config.getAnalysisCacheMaxMegabytes() * 1024L * 1024);
+            openAnalysisStore(config);
+            server.getMetrics().registerGauge("analysisCache", AnalysisCache.shared()::stats);
+            ProjectIndex.setWatchEvents(config.isIndexWatchEnabled());
+            server.getMetrics().registerGauge("projectIndex", ProjectIndex::sharedStats);
+            CompilationUnitCache.shared().setMaxBytes(config.getAstCacheMaxMegabytes() * 1024L * 1024);
+            server.getMetrics().registerGauge("astCache", CompilationUnitCache.shared()::stats);
+            ParsingService.shared().setParallelism(config.getParserThreads());
+            DependencyGraphResolver.shared().setLocalRepository(config.getMavenLocalRepository());
+            server.getMetrics().registerGauge("dependencyResolver", DependencyGraphResolver.shared()::stats);
+            server.getMetrics().registerGauge("reactorAnalyzer", ReactorAnalyzer.shared()::stats);
+            VulnerabilityDatabase.shared().configure(config.getVulnerabilityDatabase(),
+                    config.getCacheDirectory().resolve("vulnerabilities.idx"));
+            server.getMetrics().registerGauge("vulnerabilityIndex", VulnerabilityDatabase.shared()::stats);
+            HistoryScanner.shared().setStateDirectory(config.getCacheDirectory().resolve("history"));
+            server.getMetrics().registerGauge("rulePacks", RulePackRegistry.shared()::stats);
+
             // Register tools, resources, and prompts
             registerTools(server);
             registerResources(server);
             registerPrompts(server);
 
+            if ("http".equals(config.getTransport())) {
+                // One process serves every client over streamable HTTP
+                HttpServerTransport http = new HttpServerTransport(server,
+                        new InetSocketAddress(config.getHttpHost(), config.getHttpPort()));
+                http.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(http::close, "mcp-http-shutdown"));
+                logger.info("Server ready, waiting for HTTP clients...");
+                http.awaitTermination();
+                return;
+            }
+
             // Create stdio transport
             StdioTransport transport = new StdioTransport();
 
@@ -98,6 +150,34 @@ public class SdlcToolsMcpServer {
         }
     }
 
+    /**
+     * Attaches the persistent analysis store so results survive restarts.
+     * The server runs with the in-memory cache alone if the store cannot be
+     * opened, for example because another server process owns it.
+     *
+     * @param config the configuration
+     */
+    private static void openAnalysisStore(ConfigurationManager config) {
+        int maxMegabytes = config.getAnalysisStoreMaxMegabytes();
+        if (maxMegabytes == 0) {
+            return;
+        }
+        try {
+            PersistentAnalysisStore store = PersistentAnalysisStore.open(
+                    config.getCacheDirectory(), maxMegabytes * 1024L * 1024);
+            AnalysisCache.shared().setStore(store);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close analysis store", e);
+                }
+            }, "analysis-store-close"));
+        } catch (IOException e) {
+            logger.warn("Analysis results will not persist across restarts: {}", e.getMessage());
+        }
+    }
+
     /**
      * Registers all available tools with the server.
      *
@@ -109,6 +189,7 @@ public class SdlcToolsMcpServer {
         // Maven project analysis tools
         server.registerTool(new AnalyzeMavenProjectTool());
         server.registerTool(new AnalyzeDependenciesTool());
+        server.registerTool(new QueryDependencyGraphTool());
 
         // Maven execution tools
         server.registerTool(new RunMavenCommandTool());
@@ -152,6 +233,9 @@ public class SdlcToolsMcpServer {
         // Cache resources
         server.registerResource(new AnalysisCacheResource());
 
+        // Server metrics
+        server.registerResource(new ServerMetricsResource(server.getMetrics()));
+
         logger.info("Registered {} resources", server.getResourceCount());
     }
 
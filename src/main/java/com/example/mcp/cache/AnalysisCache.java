@@ -0,0 +1,353 @@
+package com.example.mcp.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of analysis tool results.
+ *
+ * <p>Entries are keyed by tool, project path and canonical arguments, and
+ * carry the {@link ProjectFingerprint} of the project taken before the
+ * analysis ran. A lookup only hits when the project's current fingerprint
+ * matches, so a result is never served after a pom.xml or source file has
+ * changed; stale entries are dropped on lookup.
+ *
+ * <p>Each entry is weighted by the size of its serialized result. When the
+ * total weight exceeds the memory budget the least recently used entries are
+ * evicted; results larger than the whole budget are not cached.
+ *
+ * <p>Only results reporting {@code "success": true} are stored, so failed
+ * analyses are retried on the next call.
+ *
+ * <p>With a {@link PersistentAnalysisStore} attached, results are also
+ * written to disk, and a memory miss is answered from the store when it
+ * holds a result for the same call and fingerprint. Results computed by a
+ * previous server process are thus served after a restart.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class AnalysisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+    /** Default memory budget: 64 MiB of serialized results. */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    // Rough per-entry cost of the key strings and bookkeeping
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private static final AnalysisCache SHARED = new AnalysisCache(DEFAULT_MAX_BYTES);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private final LinkedHashMap<Slot, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile long maxBytes;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long staleHits;
+    private long diskHits;
+    private long evictions;
+    private volatile PersistentAnalysisStore store;
+
+    /**
+     * Creates a cache with the given memory budget.
+     *
+     * @param maxBytes the total serialized size of cached results; 0 disables caching in memory
+     */
+    public AnalysisCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Gets the cache shared by the analysis tools and the analysis cache resource.
+     *
+     * @return the shared cache
+     */
+    public static AnalysisCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sets the memory budget, evicting entries if the cache is now over it.
+     *
+     * @param maxBytes the total serialized size of cached results; 0 disables caching in memory
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        evictOverBudget();
+    }
+
+    /**
+     * Attaches the on-disk store that results are written through to.
+     *
+     * @param store the store, or null to cache in memory only
+     */
+    public void setStore(PersistentAnalysisStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Builds the key of a tool call, fingerprinting the project as it is now.
+     *
+     * @param tool the tool name
+     * @param projectPath the project root
+     * @param arguments the call arguments
+     * @return the key
+     * @throws IOException if the project tree cannot be read
+     */
+    public Key keyFor(String tool, Path projectPath, Map<String, Object> arguments) throws IOException {
+        String path = normalize(projectPath);
+        String canonicalArguments;
+        try {
+            canonicalArguments = objectMapper.writeValueAsString(arguments);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Arguments cannot be serialized", e);
+        }
+        return new Key(tool, path, canonicalArguments, ProjectFingerprint.of(projectPath));
+    }
+
+    /**
+     * Gets the cached result of a call if the project has not changed since.
+     *
+     * @param key the call's key
+     * @return the cached result, or null on a miss
+     */
+    public Object get(Key key) {
+        Slot slot = key.slot();
+        synchronized (this) {
+            Entry entry = entries.get(slot);
+            if (entry != null && entry.fingerprint().equals(key.fingerprint())) {
+                hits++;
+                return entry.result();
+            }
+            if (entry != null) {
+                remove(slot);
+                staleHits++;
+            }
+        }
+
+        PersistentAnalysisStore persistent = store;
+        byte[] stored = persistent != null ? persistent.get(key) : null;
+        Object result = null;
+        if (stored != null) {
+            try {
+                result = objectMapper.readValue(stored, Object.class);
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable stored {} result", key.tool(), e);
+            }
+        }
+        synchronized (this) {
+            if (result == null) {
+                misses++;
+                return null;
+            }
+            diskHits++;
+            insert(slot, new Entry(key.fingerprint(), result, stored.length + ENTRY_OVERHEAD_BYTES,
+                    System.currentTimeMillis()));
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result of a call if it was successful.
+     *
+     * @param key the call's key, built before the analysis ran
+     * @param result the tool result
+     * @return the result, for chaining
+     */
+    public Object put(Key key, Object result) {
+        PersistentAnalysisStore persistent = store;
+        if (!isSuccess(result) || (maxBytes == 0 && persistent == null)) {
+            return result;
+        }
+        byte[] serialized;
+        try {
+            serialized = objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            logger.debug("Not caching unserializable {} result", key.tool(), e);
+            return result;
+        }
+        synchronized (this) {
+            insert(key.slot(), new Entry(key.fingerprint(), result, serialized.length + ENTRY_OVERHEAD_BYTES,
+                    System.currentTimeMillis()));
+        }
+        if (persistent != null) {
+            try {
+                persistent.put(key, serialized);
+            } catch (IOException e) {
+                logger.warn("Failed to persist {} result for {}", key.tool(), key.projectPath(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lists the cached entries of a project: those on disk first, then those
+     * in memory, most recently used last.
+     *
+     * @param projectPath the project root
+     * @return the project's entries
+     */
+    public List<CachedResult> entriesFor(Path projectPath) {
+        String path = normalize(projectPath);
+        List<CachedResult> inMemory = new ArrayList<>();
+        synchronized (this) {
+            entries.forEach((slot, entry) -> {
+                if (slot.projectPath().equals(path)) {
+                    inMemory.add(new CachedResult(slot.tool(), slot.arguments(), entry.fingerprint(),
+                            entry.result(), entry.weight(), entry.cachedAtMillis()));
+                }
+            });
+        }
+
+        List<CachedResult> results = new ArrayList<>();
+        PersistentAnalysisStore persistent = store;
+        if (persistent != null) {
+            for (PersistentAnalysisStore.StoredResult stored : persistent.entriesFor(path)) {
+                Key key = stored.key();
+                boolean alsoInMemory = inMemory.stream().anyMatch(cached -> cached.tool().equals(key.tool())
+                        && cached.arguments().equals(key.arguments()) && cached.fingerprint().equals(key.fingerprint()));
+                if (alsoInMemory) {
+                    continue;
+                }
+                try {
+                    results.add(new CachedResult(key.tool(), key.arguments(), key.fingerprint(),
+                            objectMapper.readValue(stored.value(), Object.class), stored.value().length,
+                            stored.createdAtMillis()));
+                } catch (IOException e) {
+                    logger.warn("Ignoring unreadable stored {} result", key.tool(), e);
+                }
+            }
+        }
+        results.addAll(inMemory);
+        return results;
+    }
+
+    /**
+     * Drops every in-memory entry of a project. Stored results stay on disk;
+     * they are only served again while their fingerprint matches.
+     *
+     * @param projectPath the project root
+     */
+    public synchronized void invalidate(Path projectPath) {
+        String path = normalize(projectPath);
+        new ArrayList<>(entries.keySet()).stream()
+                .filter(slot -> slot.projectPath().equals(path))
+                .forEach(this::remove);
+        logger.info("Invalidated analysis cache for: {}", path);
+    }
+
+    /**
+     * Drops every in-memory entry.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+        logger.info("Cleared analysis cache");
+    }
+
+    /**
+     * Summarizes the cache's size and effectiveness.
+     *
+     * @return entries, weight, budget, hits, misses, stale hits, evictions and store statistics
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("weightBytes", weight);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("staleHits", staleHits);
+        stats.put("diskHits", diskHits);
+        stats.put("evictions", evictions);
+        PersistentAnalysisStore persistent = store;
+        if (persistent != null) {
+            stats.put("persistent", persistent.stats());
+        }
+        return stats;
+    }
+
+    private void insert(Slot slot, Entry entry) {
+        remove(slot);
+        if (entry.weight() > maxBytes) {
+            logger.debug("Not caching {} result of {} bytes in memory, over the {} byte budget",
+                    slot.tool(), entry.weight(), maxBytes);
+            return;
+        }
+        entries.put(slot, entry);
+        weight += entry.weight();
+        evictOverBudget();
+    }
+
+    private void remove(Slot slot) {
+        Entry removed = entries.remove(slot);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<Slot, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            Map.Entry<Slot, Entry> evicted = eldest.next();
+            eldest.remove();
+            weight -= evicted.getValue().weight();
+            evictions++;
+            logger.debug("Evicted {} result for {}", evicted.getKey().tool(), evicted.getKey().projectPath());
+        }
+    }
+
+    private static boolean isSuccess(Object result) {
+        return result instanceof Map<?, ?> map && Boolean.TRUE.equals(map.get("success"));
+    }
+
+    private static String normalize(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Identifies a tool call and the state of the project it analyzed.
+     *
+     * @param tool the tool name
+     * @param projectPath the absolute, normalized project root
+     * @param arguments the call arguments as JSON with sorted keys
+     * @param fingerprint the project fingerprint
+     */
+    public record Key(String tool, String projectPath, String arguments, String fingerprint) {
+
+        private Slot slot() {
+            return new Slot(tool, projectPath, arguments);
+        }
+    }
+
+    /**
+     * A cached result as listed by {@link #entriesFor(Path)}.
+     *
+     * @param tool the tool name
+     * @param arguments the call arguments as JSON with sorted keys
+     * @param fingerprint the project fingerprint the result was computed for
+     * @param result the tool result
+     * @param weightBytes the serialized size charged against the budget
+     * @param cachedAtMillis when the result was cached
+     */
+    public record CachedResult(String tool, String arguments, String fingerprint, Object result,
+                               long weightBytes, long cachedAtMillis) {}
+
+    private record Slot(String tool, String projectPath, String arguments) {}
+
+    private record Entry(String fingerprint, Object result, long weight, long cachedAtMillis) {}
+}
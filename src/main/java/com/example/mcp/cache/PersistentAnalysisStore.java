@@ -0,0 +1,594 @@
+package com.example.mcp.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk store of analysis results that survives server restarts.
+ *
+ * <p>Results are appended to a segment file as self-describing records:
+ * <pre>
+ *   int magic | int keyLength | int valueLength | long createdAtMillis | key | value | int crc32
+ * </pre>
+ * where the key is the tool, project path, canonical arguments and project
+ * fingerprint, and the value is the serialized result. A memory-mapped,
+ * open-addressing hash index maps a 128-bit hash of the key to the record's
+ * offset and tracks when each record was last read. A lookup costs one probe
+ * of the mapped index and one positional read of the segment.
+ *
+ * <p>Records are never rewritten in place. Once the segment would grow past
+ * the size cap, or when more than half of it is dead, it is compacted: the
+ * most recently used records are copied into a new segment and the index is
+ * rebuilt. If the index does not match the segment after a crash, it is
+ * rebuilt by scanning the segment and dropping any torn record at its end.
+ *
+ * <p>A store directory is owned by one process at a time, enforced with a
+ * file lock; {@link #open(Path, long)} fails if another server holds it.
+ * Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class PersistentAnalysisStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentAnalysisStore.class);
+
+    static final String SEGMENT_FILE = "analysis.seg";
+    static final String INDEX_FILE = "analysis.idx";
+    private static final String LOCK_FILE = "analysis.lock";
+
+    private static final int INDEX_MAGIC = 0x53444958;
+    private static final int RECORD_MAGIC = 0x53445245;
+    private static final int VERSION = 1;
+
+    // Index header: magic, version, capacity, used slots, live entries, segment length, live bytes
+    private static final int HEADER_BYTES = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_CAPACITY = 8;
+    private static final int H_USED = 12;
+    private static final int H_LIVE = 16;
+    private static final int H_SEGMENT_LENGTH = 24;
+    private static final int H_LIVE_BYTES = 32;
+
+    // Index slot: key hash (two longs), record offset, record length, last access time.
+    // A length of 0 marks an empty slot and -1 a deleted one.
+    private static final int SLOT_BYTES = 40;
+    private static final int S_HASH_HI = 0;
+    private static final int S_HASH_LO = 8;
+    private static final int S_OFFSET = 16;
+    private static final int S_LENGTH = 24;
+    private static final int S_LAST_ACCESS = 32;
+    private static final int DELETED = -1;
+
+    private static final int RECORD_HEADER_BYTES = 20;
+    private static final int RECORD_TRAILER_BYTES = 4;
+    private static final int MIN_CAPACITY = 1024;
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private FileChannel segment;
+    private MappedByteBuffer index;
+    private int capacity;
+    private long compactions;
+    private boolean closed;
+
+    private PersistentAnalysisStore(Path directory, long maxBytes, FileChannel lockChannel, FileLock lock) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * Opens the store in the given directory, creating it if needed.
+     *
+     * @param directory the store directory, e.g. {@code ~/.sdlc-tools/cache}
+     * @param maxBytes the size cap of the segment file
+     * @return the open store
+     * @throws IOException if the store cannot be opened or another process owns it
+     */
+    public static PersistentAnalysisStore open(Path directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Analysis store is in use by another process: " + directory);
+        }
+        PersistentAnalysisStore store = new PersistentAnalysisStore(directory, maxBytes, lockChannel, lock);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Reads the stored result of a call.
+     *
+     * @param key the call's key, including the project fingerprint
+     * @return the serialized result, or null if none is stored
+     */
+    public synchronized byte[] get(AnalysisCache.Key key) {
+        if (closed) {
+            return null;
+        }
+        byte[] keyBytes = keyBytes(key);
+        long[] hash = hash(keyBytes);
+        int slot = find(hash[0], hash[1]);
+        if (slot < 0) {
+            return null;
+        }
+        Record record = readRecord(slot);
+        if (record == null || !MessageDigest.isEqual(record.key(), keyBytes)) {
+            return null;
+        }
+        index.putLong(slotPosition(slot) + S_LAST_ACCESS, System.currentTimeMillis());
+        return record.value();
+    }
+
+    /**
+     * Appends the result of a call, replacing any stored result of the same key.
+     *
+     * @param key the call's key, including the project fingerprint
+     * @param value the serialized result
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void put(AnalysisCache.Key key, byte[] value) throws IOException {
+        if (closed) {
+            return;
+        }
+        byte[] keyBytes = keyBytes(key);
+        ByteBuffer record = encodeRecord(keyBytes, value, System.currentTimeMillis());
+        int length = record.remaining();
+        if (length > maxBytes) {
+            logger.debug("Not persisting {} result of {} bytes, over the {} byte cap", key.tool(), length, maxBytes);
+            return;
+        }
+        if (segmentLength() + length > maxBytes) {
+            compact(maxBytes / 2 - length);
+        }
+
+        long offset = segmentLength();
+        while (record.hasRemaining()) {
+            segment.write(record, offset + record.position());
+        }
+
+        long[] hash = hash(keyBytes);
+        int slot = find(hash[0], hash[1]);
+        if (slot >= 0) {
+            setLiveBytes(liveBytes() - index.getInt(slotPosition(slot) + S_LENGTH));
+        } else {
+            slot = freeSlot(hash[0], hash[1]);
+            if (index.getInt(slotPosition(slot) + S_LENGTH) == 0) {
+                index.putInt(H_USED, index.getInt(H_USED) + 1);
+            }
+            index.putInt(H_LIVE, index.getInt(H_LIVE) + 1);
+        }
+        writeSlot(slot, hash[0], hash[1], offset, length, System.currentTimeMillis());
+        setLiveBytes(liveBytes() + length);
+        index.putLong(H_SEGMENT_LENGTH, offset + length);
+
+        if (index.getInt(H_USED) > capacity * 3 / 4) {
+            rewrite(liveSlots(), false);
+        } else if (segmentLength() > MIN_COMPACTION_BYTES && liveBytes() * 2 < segmentLength()) {
+            compact(maxBytes);
+        }
+    }
+
+    /**
+     * Lists the stored results of a project.
+     *
+     * @param projectPath the absolute, normalized project root
+     * @return the stored results, most recently used last
+     */
+    public synchronized List<StoredResult> entriesFor(String projectPath) {
+        List<StoredResult> results = new ArrayList<>();
+        if (closed) {
+            return results;
+        }
+        List<long[]> slots = liveSlots();
+        slots.sort(Comparator.comparingLong(slot -> slot[5]));
+        for (long[] slot : slots) {
+            Record record = readRecord((int) slot[0]);
+            if (record == null) {
+                continue;
+            }
+            String[] parts = new String(record.key(), StandardCharsets.UTF_8).split("\0", 4);
+            if (parts.length == 4 && parts[1].equals(projectPath)) {
+                results.add(new StoredResult(new AnalysisCache.Key(parts[0], parts[1], parts[2], parts[3]),
+                        record.value(), record.createdAtMillis()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Summarizes the store's size.
+     *
+     * @return entries, segment and live bytes, cap, compactions and location
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toString());
+        if (!closed) {
+            stats.put("entries", index.getInt(H_LIVE));
+            stats.put("segmentBytes", segmentLength());
+            stats.put("liveBytes", liveBytes());
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("compactions", compactions);
+        return stats;
+    }
+
+    /**
+     * Flushes the store to disk and releases the directory.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (index != null) {
+                index.force();
+            }
+            if (segment != null) {
+                segment.force(false);
+                segment.close();
+            }
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private void load() throws IOException {
+        Path segmentPath = directory.resolve(SEGMENT_FILE);
+        Path indexPath = directory.resolve(INDEX_FILE);
+        segment = FileChannel.open(segmentPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (Files.exists(indexPath) && Files.size(indexPath) >= HEADER_BYTES) {
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                int mappedCapacity = mapped.getInt(H_CAPACITY);
+                if (mapped.getInt(H_MAGIC) == INDEX_MAGIC && mapped.getInt(H_VERSION) == VERSION
+                        && mappedCapacity >= MIN_CAPACITY && Integer.bitCount(mappedCapacity) == 1
+                        && channel.size() == HEADER_BYTES + (long) mappedCapacity * SLOT_BYTES
+                        && mapped.getLong(H_SEGMENT_LENGTH) == segment.size()) {
+                    index = mapped;
+                    capacity = mappedCapacity;
+                    logger.info("Opened analysis store with {} entries ({} bytes) at {}",
+                            mapped.getInt(H_LIVE), segment.size(), directory);
+                    return;
+                }
+            }
+        }
+        recover();
+    }
+
+    /**
+     * Rebuilds the index by scanning the segment, truncating a torn tail.
+     */
+    private void recover() throws IOException {
+        List<long[]> slots = new ArrayList<>();
+        Map<String, Integer> latest = new LinkedHashMap<>();
+        long size = segment.size();
+        long position = 0;
+        while (position < size) {
+            Record record = readRecord(position, size - position);
+            if (record == null) {
+                break;
+            }
+            long[] hash = hash(record.key());
+            long length = record.length();
+            String id = hash[0] + ":" + hash[1];
+            Integer previous = latest.put(id, slots.size());
+            long[] slot = {-1, hash[0], hash[1], position, length, record.createdAtMillis()};
+            if (previous != null) {
+                slots.set(previous, null);
+            }
+            slots.add(slot);
+            position += length;
+        }
+        if (position < size) {
+            logger.warn("Truncating {} unreadable bytes at the end of the analysis store", size - position);
+            segment.truncate(position);
+        }
+        slots.removeIf(slot -> slot == null);
+        rewriteIndex(slots);
+        logger.info("Rebuilt analysis store index with {} entries at {}", slots.size(), directory);
+    }
+
+    /**
+     * Copies the most recently used records totalling at most the given
+     * size into a new segment.
+     */
+    private void compact(long keepBytes) throws IOException {
+        List<long[]> slots = liveSlots();
+        slots.sort(Comparator.comparingLong((long[] slot) -> slot[5]).reversed());
+        List<long[]> kept = new ArrayList<>();
+        long total = 0;
+        for (long[] slot : slots) {
+            if (total + slot[4] > keepBytes) {
+                continue;
+            }
+            kept.add(slot);
+            total += slot[4];
+        }
+        long before = segmentLength();
+        rewrite(kept, true);
+        compactions++;
+        logger.info("Compacted analysis store from {} to {} bytes, keeping {} of {} entries",
+                before, total, kept.size(), slots.size());
+    }
+
+    /**
+     * Rebuilds the index over the given slots, first copying their records
+     * into a fresh segment if requested.
+     */
+    private void rewrite(List<long[]> slots, boolean copySegment) throws IOException {
+        if (copySegment) {
+            Path tmp = directory.resolve(SEGMENT_FILE + ".tmp");
+            FileChannel copy = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long position = 0;
+                for (long[] slot : slots) {
+                    long transferred = 0;
+                    while (transferred < slot[4]) {
+                        transferred += segment.transferTo(slot[3] + transferred, slot[4] - transferred, copy);
+                    }
+                    slot[3] = position;
+                    position += slot[4];
+                }
+                copy.force(false);
+                Files.move(tmp, directory.resolve(SEGMENT_FILE),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                copy.close();
+                throw e;
+            }
+            segment.close();
+            segment = copy;
+        }
+        rewriteIndex(slots);
+    }
+
+    private void rewriteIndex(List<long[]> slots) throws IOException {
+        int newCapacity = MIN_CAPACITY;
+        while (newCapacity < slots.size() * 2L) {
+            newCapacity <<= 1;
+        }
+        Path tmp = directory.resolve(INDEX_FILE + ".tmp");
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) newCapacity * SLOT_BYTES);
+        }
+        MappedByteBuffer previous = index;
+        index = mapped;
+        capacity = newCapacity;
+        long live = 0;
+        for (long[] slot : slots) {
+            int free = freeSlot(slot[1], slot[2]);
+            writeSlot(free, slot[1], slot[2], slot[3], (int) slot[4], slot[5]);
+            live += slot[4];
+        }
+        index.putInt(H_MAGIC, INDEX_MAGIC);
+        index.putInt(H_VERSION, VERSION);
+        index.putInt(H_CAPACITY, newCapacity);
+        index.putInt(H_USED, slots.size());
+        index.putInt(H_LIVE, slots.size());
+        index.putLong(H_SEGMENT_LENGTH, segment.size());
+        index.putLong(H_LIVE_BYTES, live);
+        index.force();
+        try {
+            // The mapping stays valid: the file keeps its inode when renamed
+            Files.move(tmp, directory.resolve(INDEX_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            index = previous;
+            throw e;
+        }
+    }
+
+    /**
+     * Collects the live slots as {slot, hashHi, hashLo, offset, length, lastAccess}.
+     */
+    private List<long[]> liveSlots() {
+        List<long[]> slots = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            int position = slotPosition(slot);
+            int length = index.getInt(position + S_LENGTH);
+            if (length > 0) {
+                slots.add(new long[]{slot, index.getLong(position + S_HASH_HI), index.getLong(position + S_HASH_LO),
+                        index.getLong(position + S_OFFSET), length, index.getLong(position + S_LAST_ACCESS)});
+            }
+        }
+        return slots;
+    }
+
+    private int find(long hi, long lo) {
+        int mask = capacity - 1;
+        for (int slot = (int) (lo & mask), probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            int position = slotPosition(slot);
+            int length = index.getInt(position + S_LENGTH);
+            if (length == 0) {
+                return -1;
+            }
+            if (length > 0 && index.getLong(position + S_HASH_HI) == hi && index.getLong(position + S_HASH_LO) == lo) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot(long hi, long lo) {
+        int mask = capacity - 1;
+        for (int slot = (int) (lo & mask), probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            if (index.getInt(slotPosition(slot) + S_LENGTH) <= 0) {
+                return slot;
+            }
+        }
+        throw new IllegalStateException("Analysis store index is full");
+    }
+
+    private void writeSlot(int slot, long hi, long lo, long offset, int length, long lastAccess) {
+        int position = slotPosition(slot);
+        index.putLong(position + S_HASH_HI, hi);
+        index.putLong(position + S_HASH_LO, lo);
+        index.putLong(position + S_OFFSET, offset);
+        index.putLong(position + S_LAST_ACCESS, lastAccess);
+        index.putInt(position + S_LENGTH, length);
+    }
+
+    private void delete(int slot) {
+        int position = slotPosition(slot);
+        setLiveBytes(liveBytes() - index.getInt(position + S_LENGTH));
+        index.putInt(position + S_LENGTH, DELETED);
+        index.putInt(H_LIVE, index.getInt(H_LIVE) - 1);
+    }
+
+    private Record readRecord(int slot) {
+        int position = slotPosition(slot);
+        Record record = readRecord(index.getLong(position + S_OFFSET), index.getInt(position + S_LENGTH));
+        if (record == null) {
+            logger.warn("Dropping corrupt analysis store record at offset {}", index.getLong(position + S_OFFSET));
+            delete(slot);
+        }
+        return record;
+    }
+
+    /**
+     * Reads and verifies the record at a position, or returns null if it is
+     * truncated or corrupt.
+     */
+    private Record readRecord(long position, long available) {
+        try {
+            if (available < RECORD_HEADER_BYTES + RECORD_TRAILER_BYTES) {
+                return null;
+            }
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+            readFully(header, position);
+            header.flip();
+            int magic = header.getInt();
+            int keyLength = header.getInt();
+            int valueLength = header.getInt();
+            long createdAt = header.getLong();
+            long length = (long) RECORD_HEADER_BYTES + keyLength + valueLength + RECORD_TRAILER_BYTES;
+            if (magic != RECORD_MAGIC || keyLength < 0 || valueLength < 0 || length > available) {
+                return null;
+            }
+            ByteBuffer body = ByteBuffer.allocate(keyLength + valueLength + RECORD_TRAILER_BYTES);
+            readFully(body, position + RECORD_HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(header.array());
+            crc.update(body.array(), 0, keyLength + valueLength);
+            if ((int) crc.getValue() != body.getInt(keyLength + valueLength)) {
+                return null;
+            }
+            byte[] key = new byte[keyLength];
+            byte[] value = new byte[valueLength];
+            body.rewind();
+            body.get(key).get(value);
+            return new Record(key, value, createdAt, length);
+        } catch (IOException e) {
+            logger.warn("Failed to read analysis store record at offset {}", position, e);
+            return null;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (segment.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of analysis store segment");
+            }
+        }
+    }
+
+    private static ByteBuffer encodeRecord(byte[] key, byte[] value, long createdAt) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + key.length + value.length + RECORD_TRAILER_BYTES);
+        record.putInt(RECORD_MAGIC).putInt(key.length).putInt(value.length).putLong(createdAt).put(key).put(value);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    private static byte[] keyBytes(AnalysisCache.Key key) {
+        return String.join("\0", key.tool(), key.projectPath(), key.arguments(), key.fingerprint())
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long[] hash(byte[] keyBytes) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(keyBytes));
+            return new long[]{digest.getLong(), digest.getLong()};
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static int slotPosition(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private long segmentLength() {
+        return index.getLong(H_SEGMENT_LENGTH);
+    }
+
+    private long liveBytes() {
+        return index.getLong(H_LIVE_BYTES);
+    }
+
+    private void setLiveBytes(long liveBytes) {
+        index.putLong(H_LIVE_BYTES, liveBytes);
+    }
+
+    /**
+     * A stored result as listed by {@link #entriesFor(String)}.
+     *
+     * @param key the call's key
+     * @param value the serialized result
+     * @param createdAtMillis when the result was stored
+     */
+    public record StoredResult(AnalysisCache.Key key, byte[] value, long createdAtMillis) {}
+
+    private record Record(byte[] key, byte[] value, long createdAtMillis, long length) {}
+}
@@ -0,0 +1,76 @@
+package com.example.mcp.cache;
+
+import com.example.mcp.index.ProjectIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Computes a fingerprint of the inputs of a project analysis.
+ *
+ * <p>The fingerprint covers the content of every {@code pom.xml} and the
+ * path, size and modification time of every other file in the project's
+ * {@link ProjectIndex}. Build output, {@code node_modules} and hidden
+ * directories such as {@code .git} are not indexed, so building the project
+ * does not change its fingerprint while editing any source does.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class ProjectFingerprint {
+
+    private ProjectFingerprint() {
+    }
+
+    /**
+     * Fingerprints the project rooted at the given directory.
+     *
+     * @param projectDir the project root
+     * @return a hex-encoded SHA-256 digest
+     * @throws IOException if the tree cannot be read
+     */
+    public static String of(Path projectDir) throws IOException {
+        List<ProjectIndex.IndexedFile> files;
+        Path root;
+        try (ProjectIndex index = ProjectIndex.forProject(projectDir)) {
+            files = index.files();
+            root = index.getRoot();
+        }
+        MessageDigest digest = sha256();
+        // The index lists files sorted by path, so the digest does not depend on listing order
+        for (ProjectIndex.IndexedFile file : files) {
+            digest.update(root.relativize(file.path()).toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (file.path().getFileName().toString().equals("pom.xml")) {
+                digest.update(readOrEmpty(file.path()));
+            } else {
+                digest.update((file.size() + ":" + file.lastModifiedMillis()).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] readOrEmpty(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            // Deleted since it was indexed; the index catches up on the next call
+            return new byte[0];
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
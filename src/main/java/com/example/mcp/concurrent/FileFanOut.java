@@ -0,0 +1,129 @@
+package com.example.mcp.concurrent;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs a per-file operation over many files on a fork-join pool.
+ *
+ * <p>The files are split in halves until each task holds one file, so idle
+ * workers steal whatever is left. Results always come back in the order of
+ * the requested files, whatever order the workers finished in. The
+ * operation is expected to record I/O failures in its per-file result, so
+ * only errors stop a fan-out.
+ *
+ * @param <T> the per-file result
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class FileFanOut<T> {
+
+    private final String operation;
+    private final Function<Path, T> task;
+
+    /**
+     * Creates a fan-out of an operation.
+     *
+     * @param operation what the operation does, such as {@code parsing}, for error messages
+     * @param task computes one file's result
+     */
+    public FileFanOut(String operation, Function<Path, T> task) {
+        this.operation = operation;
+        this.task = task;
+    }
+
+    /**
+     * Creates a pool whose worker threads are named after it, as in
+     * {@code java-parser-3}.
+     *
+     * @param name the thread name prefix
+     * @param parallelism the number of workers; at least one is used
+     * @return a new pool
+     */
+    public static ForkJoinPool namedPool(String name, int parallelism) {
+        return new ForkJoinPool(Math.max(1, parallelism), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName(name + "-" + worker.getPoolIndex());
+            return worker;
+        }, null, false);
+    }
+
+    /**
+     * Runs the operation on files in parallel.
+     *
+     * @param pool the pool to run on
+     * @param files the files
+     * @return one result per file, in the order of {@code files}
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> all(ForkJoinPool pool, List<Path> files) {
+        Object[] results = new Object[files.size()];
+        ForkJoinTask<Void> fanOut = pool.submit(new Range(files, results, 0, files.size()));
+        try {
+            fanOut.get();
+        } catch (InterruptedException e) {
+            fanOut.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while " + operation);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(Character.toUpperCase(operation.charAt(0)) + operation.substring(1)
+                    + " failed", e.getCause());
+        }
+        return (List<T>) Arrays.asList(results);
+    }
+
+    /**
+     * Runs the operation on files in parallel and hands each result to a
+     * consumer in the order of {@code files}.
+     *
+     * <p>Files are processed a few batches at a time, so the consumer sees
+     * the first results before the last files are done. The consumer may
+     * throw an unchecked exception to stop processing the remaining files.
+     *
+     * @param pool the pool to run on
+     * @param files the files
+     * @param consumer receives each result on the calling thread
+     */
+    public void each(ForkJoinPool pool, List<Path> files, Consumer<T> consumer) {
+        int window = Math.max(1, pool.getParallelism() * 4);
+        for (int start = 0; start < files.size(); start += window) {
+            all(pool, files.subList(start, Math.min(files.size(), start + window))).forEach(consumer);
+        }
+    }
+
+    private final class Range extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+
+        Range(List<Path> files, Object[] results, int from, int to) {
+            this.files = files;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Range(files, results, from, middle), new Range(files, results, middle, to));
+            } else if (to > from) {
+                results[from] = task.apply(files.get(from));
+            }
+        }
+    }
+}
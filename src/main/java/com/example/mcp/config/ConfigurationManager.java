@@ -1,5 +1,6 @@
 package com.example.mcp.config;
 
+import com.example.mcp.index.ProjectIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,6 +10,8 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -153,6 +156,226 @@ public class ConfigurationManager {
         return properties.getProperty(propKey);
     }
 
+    /**
+     * Gets an integer configuration value, falling back to a default when the
+     * value is missing or malformed.
+     *
+     * @param envKey environment variable key
+     * @param propKey properties file key
+     * @param defaultValue value used when nothing valid is configured
+     * @return configured value or the default
+     */
+    private int getIntConfigValue(String envKey, String propKey, int defaultValue) {
+        String value = getConfigValue(envKey, propKey);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid integer for {}: '{}', using default {}", propKey, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    // Server Configuration
+
+    /**
+     * Checks whether requests are dispatched concurrently on worker threads.
+     *
+     * @return false only if MCP_CONCURRENT_DISPATCH or server.dispatch.concurrent is "false"
+     */
+    public boolean isConcurrentDispatchEnabled() {
+        String value = getConfigValue("MCP_CONCURRENT_DISPATCH", "server.dispatch.concurrent");
+        return value == null || value.isBlank() || Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Gets the worker pool size used for concurrent dispatch on runtimes
+     * without virtual threads.
+     *
+     * @return the configured worker count (default: twice the CPU count, at least 4)
+     */
+    public int getDispatchWorkerThreads() {
+        int defaultWorkers = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        return Math.max(1, getIntConfigValue("MCP_DISPATCH_WORKERS", "server.dispatch.workers", defaultWorkers));
+    }
+
+    /**
+     * Gets how many calls to heavy tools (code analysis, Maven builds) run at once.
+     *
+     * @return the configured limit (default: half the CPU count, at least 1)
+     */
+    public int getDispatchHeavyWorkerThreads() {
+        int defaultWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return Math.max(1, getIntConfigValue("MCP_DISPATCH_HEAVY_WORKERS", "server.dispatch.heavyWorkers", defaultWorkers));
+    }
+
+    /**
+     * Gets how many requests each dispatch lane queues before rejecting new
+     * ones as busy.
+     *
+     * @return the configured queue size (default: 64)
+     */
+    public int getDispatchQueueCapacity() {
+        return Math.max(0, getIntConfigValue("MCP_DISPATCH_QUEUE_SIZE", "server.dispatch.queueSize", 64));
+    }
+
+    /**
+     * Gets per-tool concurrency limits, configured as a comma-separated list
+     * of {@code tool-name=limit} pairs.
+     *
+     * @return tool name to limit; empty if none are configured
+     */
+    public Map<String, Integer> getToolConcurrencyLimits() {
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        String value = getConfigValue("MCP_TOOL_MAX_CONCURRENT", "server.tools.maxConcurrent");
+        if (value == null || value.isBlank()) {
+            return limits;
+        }
+        for (String entry : value.split(",")) {
+            String[] pair = entry.split("=", 2);
+            try {
+                limits.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                logger.warn("Invalid entry in server.tools.maxConcurrent: '{}'", entry.trim());
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Gets the default deadline for tool calls.
+     *
+     * @return the timeout in milliseconds (default: 0, no deadline)
+     */
+    public long getToolTimeoutMillis() {
+        return Math.max(0, getIntConfigValue("MCP_TOOL_TIMEOUT_MS", "server.tools.timeoutMs", 0));
+    }
+
+    /**
+     * Gets the number of entries returned per page by the list methods.
+     *
+     * @return the configured page size (default: 0, no pagination)
+     */
+    public int getListPageSize() {
+        return Math.max(0, getIntConfigValue("MCP_LIST_PAGE_SIZE", "server.list.pageSize", 0));
+    }
+
+    /**
+     * Gets the transport the server is reached through.
+     *
+     * @return "stdio" (the default) or "http"
+     */
+    public String getTransport() {
+        String value = getConfigValue("MCP_TRANSPORT", "server.transport");
+        return value == null || value.isBlank() ? "stdio" : value.trim().toLowerCase();
+    }
+
+    /**
+     * Gets the address the HTTP transport binds to.
+     *
+     * @return the configured host (default: 127.0.0.1)
+     */
+    public String getHttpHost() {
+        String value = getConfigValue("MCP_HTTP_HOST", "server.http.host");
+        return value == null || value.isBlank() ? "127.0.0.1" : value.trim();
+    }
+
+    /**
+     * Gets the port the HTTP transport listens on.
+     *
+     * @return the configured port (default: 8080)
+     */
+    public int getHttpPort() {
+        return getIntConfigValue("MCP_HTTP_PORT", "server.http.port", 8080);
+    }
+
+    /**
+     * Gets the memory budget of the analysis result cache.
+     *
+     * @return the budget in megabytes (default: 64; 0 disables the cache)
+     */
+    public int getAnalysisCacheMaxMegabytes() {
+        return Math.max(0, getIntConfigValue("MCP_ANALYSIS_CACHE_MB", "server.cache.analysisMaxMb", 64));
+    }
+
+    /**
+     * Gets the memory budget for parsed Java files held by the AST cache.
+     *
+     * @return the budget in megabytes (default: 128)
+     */
+    public int getAstCacheMaxMegabytes() {
+        return Math.max(0, getIntConfigValue("MCP_AST_CACHE_MB", "server.cache.astMaxMb", 128));
+    }
+
+    /**
+     * Gets how many Java files are parsed at once.
+     *
+     * @return the configured thread count (default: the CPU count)
+     */
+    public int getParserThreads() {
+        int defaultThreads = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, getIntConfigValue("MCP_PARSER_THREADS", "server.parsing.threads", defaultThreads));
+    }
+
+    /**
+     * Gets the directory analysis results are persisted to across restarts.
+     *
+     * @return the configured directory (default: ~/.sdlc-tools/cache)
+     */
+    public Path getCacheDirectory() {
+        String value = getConfigValue("MCP_CACHE_DIR", "server.cache.dir");
+        return value == null || value.isBlank()
+                ? Paths.get(System.getProperty("user.home"), ".sdlc-tools", "cache")
+                : Paths.get(value.trim());
+    }
+
+    /**
+     * Gets the size cap of the persistent analysis store.
+     *
+     * @return the cap in megabytes (default: 256; 0 disables persistence)
+     */
+    public int getAnalysisStoreMaxMegabytes() {
+        return Math.max(0, getIntConfigValue("MCP_ANALYSIS_STORE_MB", "server.cache.diskMaxMb", 256));
+    }
+
+    /**
+     * Gets the local Maven repository dependency graphs are resolved from.
+     *
+     * @return the configured directory (default: {@code maven.repo.local}, or ~/.m2/repository)
+     */
+    public Path getMavenLocalRepository() {
+        String value = getConfigValue("MCP_MAVEN_LOCAL_REPO", "server.maven.localRepository");
+        if (value == null || value.isBlank()) {
+            value = System.getProperty("maven.repo.local");
+        }
+        return value == null || value.isBlank()
+                ? Paths.get(System.getProperty("user.home"), ".m2", "repository")
+                : Paths.get(value.trim());
+    }
+
+    /**
+     * Gets whether project indexes follow file system events rather than
+     * walking the project tree on every query.
+     *
+     * @return the configured flag (default: true on Linux and Windows, whose watch services are native)
+     */
+    public boolean isIndexWatchEnabled() {
+        String value = getConfigValue("MCP_INDEX_WATCH", "server.index.watch");
+        return value == null || value.isBlank() ? ProjectIndex.isWatchEvents() : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Gets the OSV vulnerability dump dependencies are checked against.
+     *
+     * @return a directory of OSV JSON files or a zip of them, or null if none is configured
+     */
+    public Path getVulnerabilityDatabase() {
+        String value = getConfigValue("MCP_VULNERABILITY_DB", "server.security.vulnerabilityDb");
+        return value == null || value.isBlank() ? null : Paths.get(value.trim());
+    }
+
     // JIRA Configuration
 
     /**
@@ -1,7 +1,7 @@
 package com.example.mcp.docs;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseResult;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.parsing.ParsingService;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -10,11 +10,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Stream;
 
 /**
  * Generates API documentation in Markdown format.
@@ -41,20 +39,20 @@ public class ApiDocGenerator {
         Path basePath = Paths.get(projectPath);
         List<ApiClass> apiClasses = new ArrayList<>();
 
-        // Find all Java source files
-        try (Stream<Path> paths = Files.walk(basePath)) {
-            paths.filter(path -> path.toString().endsWith(".java"))
-                 .filter(path -> path.toString().contains("/src/main/java/"))
-                 .forEach(path -> {
-                     try {
-                         ApiClass apiClass = parseClass(path, packageFilter);
-                         if (apiClass != null) {
-                             apiClasses.add(apiClass);
-                         }
-                     } catch (IOException e) {
-                         logger.error("Failed to parse file: {}", path, e);
-                     }
-                 });
+        // Parse all Java source files in parallel
+        List<Path> sourceFiles;
+        try (ProjectIndex index = ProjectIndex.forProject(basePath)) {
+            sourceFiles = index.javaFiles(ProjectIndex.SourceKind.MAIN);
+        }
+        for (ParsingService.ParsedFile parsed : ParsingService.shared().parseAll(sourceFiles)) {
+            if (parsed.error() != null) {
+                logger.error("Failed to parse file: {}", parsed.path(), parsed.error());
+                continue;
+            }
+            ApiClass apiClass = parseClass(parsed.unit(), packageFilter);
+            if (apiClass != null) {
+                apiClasses.add(apiClass);
+            }
         }
 
         // Sort by package and class name
@@ -65,17 +63,9 @@ public class ApiDocGenerator {
     }
 
     /**
-     * Parses a Java class file.
+     * Extracts the documented class from a parsed Java file.
      */
-    private ApiClass parseClass(Path filePath, String packageFilter) throws IOException {
-        JavaParser parser = new JavaParser();
-        ParseResult<CompilationUnit> result = parser.parse(filePath);
-
-        if (!result.isSuccessful()) {
-            return null;
-        }
-
-        CompilationUnit cu = result.getResult().orElse(null);
+    private ApiClass parseClass(CompilationUnit cu, String packageFilter) {
         if (cu == null) return null;
 
         String packageName = cu.getPackageDeclaration()
@@ -1,7 +1,7 @@
 package com.example.mcp.docs;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParseResult;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.parsing.ParsingService;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -10,12 +10,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Generates JavaDoc documentation for Java source files.
@@ -38,21 +36,43 @@ public class JavaDocGenerator {
      * @throws IOException if file reading fails
      */
     public JavaDocAnalysis analyzeProject(String projectPath) throws IOException {
+        return analyzeProject(projectPath, null);
+    }
+
+    /**
+     * Analyzes a Java project and reports each file's results as it goes.
+     *
+     * <p>The listener may throw an unchecked exception to stop the analysis.
+     *
+     * @param projectPath path to the project root
+     * @param listener receives per-file results, or null
+     * @return documentation analysis result
+     * @throws IOException if file reading fails
+     */
+    public JavaDocAnalysis analyzeProject(String projectPath, AnalysisListener listener) throws IOException {
         Path basePath = Paths.get(projectPath);
         JavaDocAnalysis analysis = new JavaDocAnalysis();
 
-        // Find all Java source files
-        try (Stream<Path> paths = Files.walk(basePath)) {
-            paths.filter(path -> path.toString().endsWith(".java"))
-                 .filter(path -> path.toString().contains("/src/main/java/"))
-                 .forEach(path -> {
-                     try {
-                         analyzeFile(path, analysis);
-                     } catch (IOException e) {
-                         logger.error("Failed to analyze file: {}", path, e);
-                     }
-                 });
+        // Parse all Java source files in parallel, analyzing them in order
+        List<Path> sourceFiles;
+        try (ProjectIndex index = ProjectIndex.forProject(basePath)) {
+            sourceFiles = index.javaFiles(ProjectIndex.SourceKind.MAIN);
         }
+        int[] filesDone = {0};
+
+        ParsingService.shared().parseEach(sourceFiles, parsed -> {
+            int missingBefore = analysis.missingDocs.size();
+            if (parsed.error() != null) {
+                logger.error("Failed to analyze file: {}", parsed.path(), parsed.error());
+            } else {
+                analyzeFile(parsed.path(), parsed.unit(), analysis);
+            }
+            filesDone[0]++;
+            if (listener != null) {
+                List<MissingDoc> fileMissing = analysis.missingDocs.subList(missingBefore, analysis.missingDocs.size());
+                listener.fileAnalyzed(parsed.path(), List.copyOf(fileMissing), filesDone[0], sourceFiles.size());
+            }
+        });
 
         return analysis;
     }
@@ -60,18 +80,12 @@ public class JavaDocGenerator {
     /**
      * Analyzes a single Java file for documentation coverage.
      */
-    private void analyzeFile(Path filePath, JavaDocAnalysis analysis) throws IOException {
-        JavaParser parser = new JavaParser();
-        ParseResult<CompilationUnit> result = parser.parse(filePath);
-
-        if (!result.isSuccessful()) {
+    private void analyzeFile(Path filePath, CompilationUnit cu, JavaDocAnalysis analysis) {
+        if (cu == null) {
             logger.warn("Failed to parse: {}", filePath);
             return;
         }
 
-        CompilationUnit cu = result.getResult().orElse(null);
-        if (cu == null) return;
-
         String relativePath = filePath.toString();
         analysis.totalFiles++;
 
@@ -192,6 +206,23 @@ public class JavaDocGenerator {
     /**
      * Represents a missing documentation item.
      */
+    /**
+     * Receives the results of each file while a project is analyzed.
+     */
+    @FunctionalInterface
+    public interface AnalysisListener {
+
+        /**
+         * Called after a file has been analyzed.
+         *
+         * @param file the analyzed file
+         * @param missingDocs the file's undocumented elements
+         * @param filesDone files analyzed so far
+         * @param totalFiles files to analyze in total
+         */
+        void fileAnalyzed(Path file, List<MissingDoc> missingDocs, int filesDone, int totalFiles);
+    }
+
     public static class MissingDoc {
         public final String filePath;
         public final String elementName;
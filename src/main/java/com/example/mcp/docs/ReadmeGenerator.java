@@ -1,17 +1,16 @@
 package com.example.mcp.docs;
 
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.maven.EffectiveModelCache;
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Generates README.md files based on Maven project analysis.
@@ -41,12 +40,8 @@ public class ReadmeGenerator {
             throw new IllegalArgumentException("No pom.xml found at: " + projectPath);
         }
 
-        // Parse POM
-        MavenXpp3Reader reader = new MavenXpp3Reader();
-        Model model;
-        try (FileReader fileReader = new FileReader(pomPath.toFile())) {
-            model = reader.read(fileReader);
-        }
+        // Read the effective POM, so inherited metadata is included
+        Model model = EffectiveModelCache.shared().read(pomPath);
 
         // Analyze project structure
         ProjectStructure structure = analyzeStructure(basePath);
@@ -61,26 +56,25 @@ public class ReadmeGenerator {
     private ProjectStructure analyzeStructure(Path basePath) {
         ProjectStructure structure = new ProjectStructure();
 
+        List<ProjectIndex.IndexedFile> files = List.of();
+        try (ProjectIndex index = ProjectIndex.forProject(basePath)) {
+            files = index.files();
+        } catch (Exception e) {
+            logger.warn("Failed to count source files", e);
+        }
+
         // Check for main source
         Path mainJava = basePath.resolve("src/main/java");
         if (Files.exists(mainJava)) {
             structure.hasMainSource = true;
-            try (Stream<Path> paths = Files.walk(mainJava)) {
-                structure.sourceFileCount = paths.filter(p -> p.toString().endsWith(".java")).count();
-            } catch (Exception e) {
-                logger.warn("Failed to count source files", e);
-            }
+            structure.sourceFileCount = countJavaFiles(files, mainJava);
         }
 
         // Check for tests
         Path testJava = basePath.resolve("src/test/java");
         if (Files.exists(testJava)) {
             structure.hasTests = true;
-            try (Stream<Path> paths = Files.walk(testJava)) {
-                structure.testFileCount = paths.filter(p -> p.toString().endsWith(".java")).count();
-            } catch (Exception e) {
-                logger.warn("Failed to count test files", e);
-            }
+            structure.testFileCount = countJavaFiles(files, testJava);
         }
 
         // Check for resources
@@ -96,6 +90,13 @@ public class ReadmeGenerator {
         return structure;
     }
 
+    private long countJavaFiles(List<ProjectIndex.IndexedFile> files, Path sourceRoot) {
+        Path root = sourceRoot.toAbsolutePath().normalize();
+        return files.stream()
+                .filter(file -> file.isJava() && root.equals(file.sourceRoot()))
+                .count();
+    }
+
     /**
      * Builds the README content.
      */
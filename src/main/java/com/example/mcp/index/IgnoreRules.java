@@ -0,0 +1,192 @@
+package com.example.mcp.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ignore patterns in {@code .gitignore} syntax, compiled once into
+ * {@link PathMatcher}s and matched against paths relative to the project root.
+ *
+ * <p>Supported: blank lines and {@code #} comments, {@code !} negation, a
+ * trailing {@code /} for directories only, patterns containing a {@code /}
+ * anchored to the directory of the file they came from, and {@code *},
+ * {@code ?}, {@code [...]} and {@code **} wildcards. The last matching rule
+ * wins, so rules from a nested {@code .gitignore} override its parent's.
+ *
+ * <p>Instances are immutable.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class IgnoreRules {
+
+    private static final Logger logger = LoggerFactory.getLogger(IgnoreRules.class);
+
+    private static final IgnoreRules NONE = new IgnoreRules(List.of());
+
+    private final List<Rule> rules;
+
+    private IgnoreRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Gets the rules that ignore nothing.
+     *
+     * @return the empty rules
+     */
+    public static IgnoreRules none() {
+        return NONE;
+    }
+
+    /**
+     * Compiles patterns relative to the project root, such as a tool's
+     * exclude patterns.
+     *
+     * @param patterns the patterns, one per entry
+     * @return the compiled rules
+     */
+    public static IgnoreRules of(List<String> patterns) {
+        return NONE.with(Path.of(""), patterns);
+    }
+
+    /**
+     * Checks whether there are any rules.
+     *
+     * @return true if nothing is ignored
+     */
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Adds the rules of a directory's {@code .gitignore}, if it has one.
+     *
+     * @param root the project root
+     * @param directory the directory, under the root
+     * @return these rules followed by the directory's, or these rules
+     */
+    public IgnoreRules withGitignore(Path root, Path directory) {
+        IgnoreRules combined = withFile(root, directory, directory.resolve(".gitignore"));
+        if (directory.equals(root)) {
+            // Repository-local excludes that are not committed
+            combined = combined.withFile(root, directory, root.resolve(".git").resolve("info").resolve("exclude"));
+        }
+        return combined;
+    }
+
+    /**
+     * Checks whether a path is ignored by the last rule that matches it.
+     *
+     * @param relative the path relative to the project root
+     * @param directory whether the path is a directory
+     * @return true if ignored
+     */
+    public boolean isIgnored(Path relative, boolean directory) {
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            Rule rule = rules.get(i);
+            if ((directory || !rule.directoryOnly()) && rule.matches(relative)) {
+                return !rule.negated();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a file is ignored itself or lies in an ignored directory.
+     *
+     * @param relative the file path relative to the project root
+     * @return true if excluded
+     */
+    public boolean isExcluded(Path relative) {
+        for (int depth = 1; depth < relative.getNameCount(); depth++) {
+            if (isIgnored(relative.subpath(0, depth), true)) {
+                return true;
+            }
+        }
+        return isIgnored(relative, false);
+    }
+
+    private IgnoreRules withFile(Path root, Path directory, Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (NoSuchFileException e) {
+            return this;
+        } catch (IOException e) {
+            logger.debug("Cannot read {}: {}", file, e.getMessage());
+            return this;
+        }
+        return with(root.relativize(directory), lines);
+    }
+
+    private IgnoreRules with(Path base, List<String> lines) {
+        List<Rule> combined = new ArrayList<>(rules);
+        for (String line : lines) {
+            Rule rule = compile(base, line);
+            if (rule != null) {
+                combined.add(rule);
+            }
+        }
+        return combined.size() == rules.size() ? this : new IgnoreRules(List.copyOf(combined));
+    }
+
+    private static Rule compile(Path base, String line) {
+        String pattern = line.stripTrailing();
+        if (pattern.isEmpty() || pattern.startsWith("#")) {
+            return null;
+        }
+        boolean negated = pattern.startsWith("!");
+        if (negated) {
+            pattern = pattern.substring(1);
+        } else if (pattern.startsWith("\\#") || pattern.startsWith("\\!")) {
+            pattern = pattern.substring(1);
+        }
+        boolean directoryOnly = pattern.endsWith("/");
+        if (directoryOnly) {
+            pattern = pattern.substring(0, pattern.length() - 1);
+        }
+        boolean anchored = pattern.contains("/");
+        pattern = pattern.startsWith("/") ? pattern.substring(1) : pattern;
+        if (pattern.isEmpty()) {
+            return null;
+        }
+        // Braces are literal in .gitignore but group alternatives in a glob
+        pattern = pattern.replace("{", "\\{").replace("}", "\\}");
+
+        String prefix = base.toString().isEmpty() ? "" : base.toString().replace('\\', '/') + "/";
+        List<PathMatcher> matchers = new ArrayList<>();
+        try {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + prefix + pattern));
+            if (!anchored) {
+                // Unanchored patterns match at any depth below their directory
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + prefix + "**/" + pattern));
+            }
+        } catch (IllegalArgumentException e) {
+            logger.debug("Skipping invalid ignore pattern '{}': {}", line, e.getMessage());
+            return null;
+        }
+        return new Rule(List.copyOf(matchers), negated, directoryOnly);
+    }
+
+    private record Rule(List<PathMatcher> matchers, boolean negated, boolean directoryOnly) {
+
+        boolean matches(Path relative) {
+            for (PathMatcher matcher : matchers) {
+                if (matcher.matches(relative)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,550 @@
+package com.example.mcp.index;
+
+import com.example.mcp.concurrent.FileFanOut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Index of the files in a project tree, shared by every tool that lists
+ * project files.
+ *
+ * <p>The index is built by one walk that prunes build output
+ * ({@code target}, {@code build}), {@code node_modules}, hidden
+ * directories such as {@code .git}, and whatever the project's
+ * {@code .gitignore} files ignore, before descending into them. Subtrees are
+ * walked in parallel on a shared fork-join pool. It records each file's size and
+ * modification time and, for files under {@code src/main/*} or
+ * {@code src/test/*}, its source root and whether it is main or test code.
+ *
+ * <p>The index registers every directory with a {@link WatchService} and
+ * applies the queued create, modify and delete events before answering each
+ * query, so queries cost no file system walk once the index is built.
+ * A change is visible once the platform has delivered its event, normally
+ * within a millisecond. It
+ * falls back to walking the tree again when events may have been lost
+ * (an overflow, or a directory that could not be watched), and on every
+ * query while events are turned off with {@link #setWatchEvents(boolean)}.
+ * They are on by default only on Linux and Windows, where the JDK's watch
+ * service is native; elsewhere it polls, and its events lag behind the file
+ * system by seconds.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class ProjectIndex implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectIndex.class);
+
+    private static final Set<String> PRUNED_DIRECTORIES = Set.of("node_modules");
+    private static final Set<String> BUILD_OUTPUT_DIRECTORIES = Set.of("target", "build");
+    private static final int MAX_OPEN_INDEXES = 16;
+
+    private static volatile boolean watchEvents = hasNativeWatchService(System.getProperty("os.name", ""));
+
+    private static final Map<Path, ProjectIndex> INDEXES = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Directory listing blocks on I/O, so the pool is not sized to the CPU count alone
+    private static final ForkJoinPool WALKERS =
+            FileFanOut.namedPool("project-walker", Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private final Path root;
+    private final boolean shared;
+    // Guarded by INDEXES
+    private int references;
+    private boolean evicted;
+    private final TreeMap<Path, IndexedFile> files = new TreeMap<>();
+    private final Map<WatchKey, WatchedDirectory> watchedDirectories = new HashMap<>();
+    private WatchService watcher;
+    private boolean trustEvents;
+    private boolean rescanNeeded = true;
+    private List<IndexedFile> snapshot;
+    private long scans;
+    private long eventsApplied;
+    private boolean closed;
+
+    /**
+     * Creates an index of the given project; it is built on first query.
+     *
+     * @param root the project root
+     */
+    public ProjectIndex(Path root) {
+        this(root, false);
+    }
+
+    private ProjectIndex(Path root, boolean shared) {
+        this.root = root.toAbsolutePath().normalize();
+        this.shared = shared;
+    }
+
+    /**
+     * Gets the shared index of a project, creating it on first use. Each call
+     * takes a reference that {@link #close()} releases, so callers use it in a
+     * try-with-resources block. The least recently used index is dropped once
+     * more than 16 projects are indexed, and stops watching when its last
+     * reference is released.
+     *
+     * @param projectPath the project root
+     * @return the project's index
+     */
+    public static ProjectIndex forProject(Path projectPath) {
+        Path root = projectPath.toAbsolutePath().normalize();
+        ProjectIndex evicted = null;
+        ProjectIndex index;
+        synchronized (INDEXES) {
+            index = INDEXES.computeIfAbsent(root, path -> new ProjectIndex(path, true));
+            index.references++;
+            if (INDEXES.size() > MAX_OPEN_INDEXES) {
+                Iterator<ProjectIndex> eldest = INDEXES.values().iterator();
+                ProjectIndex dropped = eldest.next();
+                eldest.remove();
+                dropped.evicted = true;
+                if (dropped.references == 0) {
+                    evicted = dropped;
+                }
+            }
+        }
+        if (evicted != null) {
+            evicted.stopWatching();
+        }
+        return index;
+    }
+
+    /**
+     * Turns following file system events on or off for indexes built from
+     * now on; while off, every query walks the tree.
+     *
+     * @param enabled whether to rely on watch events
+     */
+    public static void setWatchEvents(boolean enabled) {
+        watchEvents = enabled;
+    }
+
+    /**
+     * Checks whether indexes follow file system events.
+     *
+     * @return true if events are relied on
+     */
+    public static boolean isWatchEvents() {
+        return watchEvents;
+    }
+
+    /**
+     * Summarizes the shared indexes.
+     *
+     * @return per project: files, scans and applied events
+     */
+    public static Map<String, Object> sharedStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        List<ProjectIndex> indexes;
+        synchronized (INDEXES) {
+            indexes = new ArrayList<>(INDEXES.values());
+        }
+        indexes.forEach(index -> stats.put(index.root.toString(), index.stats()));
+        return stats;
+    }
+
+    /**
+     * Checks whether a directory is left out of the index wherever it appears.
+     *
+     * <p>Build output is pruned only beside a module's pom.xml or src; see
+     * {@link #isBuildOutput(Path)}.
+     *
+     * @param name the directory name
+     * @return true for node_modules and hidden directories
+     */
+    public static boolean isPruned(String name) {
+        return name.startsWith(".") || PRUNED_DIRECTORIES.contains(name);
+    }
+
+    /**
+     * Gets the indexed project root.
+     *
+     * @return the absolute, normalized root
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Lists every indexed file, sorted by path.
+     *
+     * @return the files
+     * @throws IOException if the project tree cannot be walked
+     */
+    public synchronized List<IndexedFile> files() throws IOException {
+        refresh();
+        if (snapshot == null) {
+            snapshot = List.copyOf(files.values());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Lists the project's Java files, sorted by path.
+     *
+     * @param includeTests whether to include files under test source roots
+     * @return the Java files
+     * @throws IOException if the project tree cannot be walked
+     */
+    public List<Path> javaFiles(boolean includeTests) throws IOException {
+        return files().stream()
+                .filter(IndexedFile::isJava)
+                .filter(file -> includeTests || file.kind() != SourceKind.TEST)
+                .map(IndexedFile::path)
+                .toList();
+    }
+
+    /**
+     * Lists the Java files under source roots of one kind, sorted by path.
+     *
+     * @param kind main or test
+     * @return the Java files
+     * @throws IOException if the project tree cannot be walked
+     */
+    public List<Path> javaFiles(SourceKind kind) throws IOException {
+        return files().stream()
+                .filter(file -> file.isJava() && file.kind() == kind)
+                .map(IndexedFile::path)
+                .toList();
+    }
+
+    /**
+     * Lists the files with the given name, sorted by path.
+     *
+     * @param fileName the file name, without directories
+     * @return the matching files
+     * @throws IOException if the project tree cannot be walked
+     */
+    public List<Path> filesNamed(String fileName) throws IOException {
+        return files().stream()
+                .map(IndexedFile::path)
+                .filter(path -> path.getFileName().toString().equals(fileName))
+                .toList();
+    }
+
+    /**
+     * Summarizes the index.
+     *
+     * @return files, scans, applied events and whether events are trusted
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("files", files.size());
+        stats.put("watchedDirectories", watchedDirectories.size());
+        stats.put("scans", scans);
+        stats.put("eventsApplied", eventsApplied);
+        stats.put("watching", trustEvents);
+        return stats;
+    }
+
+    /**
+     * Releases an index from {@link #forProject(Path)}, or stops watching an
+     * index created directly. An index stops watching once it is no longer
+     * shared and nothing holds it; later queries walk the tree every time.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            synchronized (INDEXES) {
+                references--;
+                if (!evicted || references > 0) {
+                    return;
+                }
+            }
+        }
+        stopWatching();
+    }
+
+    private synchronized void stopWatching() {
+        closed = true;
+        trustEvents = false;
+        closeWatcher();
+    }
+
+    private void refresh() throws IOException {
+        if (!rescanNeeded && trustEvents) {
+            applyEvents();
+        }
+        if (rescanNeeded || !trustEvents) {
+            scan();
+        }
+    }
+
+    private void scan() throws IOException {
+        long started = System.nanoTime();
+        closeWatcher();
+        files.clear();
+        snapshot = null;
+        trustEvents = false;
+        if (!closed && watchEvents) {
+            watcher = FileSystems.getDefault().newWatchService();
+            trustEvents = true;
+        }
+        rescanNeeded = false;
+        walk(root, IgnoreRules.none().withGitignore(root, root));
+        scans++;
+        logger.debug("Indexed {} files under {} in {} ms", files.size(), root,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void walk(Path start, IgnoreRules rules) {
+        ConcurrentLinkedQueue<IndexedFile> found = new ConcurrentLinkedQueue<>();
+        Map<WatchKey, WatchedDirectory> watched = new ConcurrentHashMap<>();
+        AtomicReference<String> watchFailure = new AtomicReference<>();
+        WALKERS.invoke(new WalkDirectory(start, rules, watcher, found, watched, watchFailure));
+
+        found.forEach(file -> files.put(file.path(), file));
+        snapshot = null;
+        watchedDirectories.putAll(watched);
+        if (watchFailure.get() != null) {
+            // Typically the inotify watch limit; walk on every query instead
+            logger.warn("Cannot watch {}; project files under {} will be rescanned on every query",
+                    watchFailure.get(), root);
+            trustEvents = false;
+            closeWatcher();
+        }
+    }
+
+    private void applyEvents() throws IOException {
+        WatchKey key;
+        while (!rescanNeeded && (key = watcher.poll()) != null) {
+            WatchedDirectory dir = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null
+                        || event.context().toString().equals(".gitignore")) {
+                    // A changed .gitignore can hide or reveal whole subtrees
+                    rescanNeeded = true;
+                    break;
+                }
+                apply(event.kind(), dir.path().resolve((Path) event.context()), dir.rules());
+                eventsApplied++;
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    private void apply(WatchEvent.Kind<?> kind, Path path, IgnoreRules rules) throws IOException {
+        if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+            remove(path);
+            return;
+        }
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            remove(path);
+            return;
+        }
+        if (attrs.isDirectory()) {
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE && !isPruned(path, true, rules)) {
+                // Files may have been created before the directory was watched
+                walk(path, rules.withGitignore(root, path));
+            }
+        } else if (attrs.isRegularFile() && !isPruned(path, false, rules)) {
+            put(path, attrs);
+        }
+    }
+
+    private void put(Path file, BasicFileAttributes attrs) {
+        files.put(file, classify(file, attrs));
+        snapshot = null;
+    }
+
+    private boolean isPruned(Path path, boolean directory, IgnoreRules rules) {
+        return (directory && (isPruned(path.getFileName().toString()) || isBuildOutput(path)))
+                || rules.isIgnored(root.relativize(path), directory);
+    }
+
+    /**
+     * Checks whether a directory is a module's build output, such as
+     * {@code module/target}. A package named {@code build} under src is not.
+     */
+    private boolean isBuildOutput(Path directory) {
+        if (!BUILD_OUTPUT_DIRECTORIES.contains(directory.getFileName().toString())) {
+            return false;
+        }
+        for (Path segment : root.relativize(directory)) {
+            if (segment.toString().equals("src")) {
+                return false;
+            }
+        }
+        Path module = directory.getParent();
+        return Files.isRegularFile(module.resolve("pom.xml")) || Files.isDirectory(module.resolve("src"));
+    }
+
+    private void remove(Path path) {
+        if (files.remove(path) == null) {
+            // A deleted directory takes its files with it
+            files.keySet().removeIf(file -> file.startsWith(path));
+        }
+        snapshot = null;
+    }
+
+    private IndexedFile classify(Path file, BasicFileAttributes attrs) {
+        Path relative = root.relativize(file);
+        Path sourceRoot = null;
+        SourceKind kind = SourceKind.OTHER;
+        for (int i = 0; i + 3 < relative.getNameCount(); i++) {
+            if (relative.getName(i).toString().equals("src")) {
+                String type = relative.getName(i + 1).toString();
+                if (type.equals("main") || type.equals("test")) {
+                    sourceRoot = root.resolve(relative.subpath(0, i + 3));
+                    kind = type.equals("main") ? SourceKind.MAIN : SourceKind.TEST;
+                    break;
+                }
+            }
+        }
+        return new IndexedFile(file, attrs.size(), attrs.lastModifiedTime().toMillis(), sourceRoot, kind);
+    }
+
+    private static boolean hasNativeWatchService(String osName) {
+        return osName.startsWith("Linux") || osName.startsWith("Windows");
+    }
+
+    private void closeWatcher() {
+        watchedDirectories.clear();
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close watch service for {}", root, e);
+            }
+            watcher = null;
+        }
+    }
+
+    /**
+     * Lists one directory, forking a task per subdirectory that is not pruned.
+     */
+    private final class WalkDirectory extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+        private final IgnoreRules rules;
+        private final WatchService watchService;
+        private final ConcurrentLinkedQueue<IndexedFile> found;
+        private final Map<WatchKey, WatchedDirectory> watched;
+        private final AtomicReference<String> watchFailure;
+
+        WalkDirectory(Path dir, IgnoreRules rules, WatchService watchService, ConcurrentLinkedQueue<IndexedFile> found,
+                      Map<WatchKey, WatchedDirectory> watched, AtomicReference<String> watchFailure) {
+            this.dir = dir;
+            this.rules = rules;
+            this.watchService = watchService;
+            this.found = found;
+            this.watched = watched;
+            this.watchFailure = watchFailure;
+        }
+
+        @Override
+        protected void compute() {
+            // Watch before listing so files created meanwhile raise an event
+            if (watchService != null && watchFailure.get() == null) {
+                try {
+                    WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    watched.put(key, new WatchedDirectory(dir, rules));
+                } catch (NoSuchFileException e) {
+                    // Deleted since its parent was listed
+                    return;
+                } catch (IOException | ClosedWatchServiceException e) {
+                    watchFailure.compareAndSet(null, dir + " (" + e.getMessage() + ")");
+                }
+            }
+
+            List<WalkDirectory> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        // Deleted while walking, or unreadable
+                        continue;
+                    }
+                    if (attrs.isDirectory()) {
+                        if (!isPruned(entry, true, rules)) {
+                            subdirectories.add(new WalkDirectory(entry, rules.withGitignore(root, entry),
+                                    watchService, found, watched, watchFailure));
+                        }
+                    } else if (attrs.isRegularFile() && !isPruned(entry, false, rules)) {
+                        found.add(classify(entry, attrs));
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Cannot list {}: {}", dir, e.getMessage());
+            }
+            invokeAll(subdirectories);
+        }
+    }
+
+    /**
+     * A watched directory and the ignore rules in effect inside it.
+     */
+    private record WatchedDirectory(Path path, IgnoreRules rules) {}
+
+    /**
+     * Where an indexed file lives in the Maven source layout.
+     */
+    public enum SourceKind {
+        /** Under {@code src/main/*}. */
+        MAIN,
+        /** Under {@code src/test/*}. */
+        TEST,
+        /** Anywhere else, such as pom.xml or documentation. */
+        OTHER
+    }
+
+    /**
+     * A file in the index.
+     *
+     * @param path the absolute path
+     * @param size the size in bytes
+     * @param lastModifiedMillis the modification time
+     * @param sourceRoot the enclosing source root, such as {@code module/src/main/java}, or null
+     * @param kind main, test or other
+     */
+    public record IndexedFile(Path path, long size, long lastModifiedMillis, Path sourceRoot, SourceKind kind) {
+
+        /**
+         * Checks whether this is a Java source file.
+         *
+         * @return true for {@code .java} files
+         */
+        public boolean isJava() {
+            return path.getFileName().toString().endsWith(".java");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.mcp.maven;
+
+import java.util.List;
+
+/**
+ * The resolved transitive dependency graph of a Maven project.
+ *
+ * <p>Nodes are listed depth first in declaration order, as
+ * {@code mvn dependency:tree -Dverbose} prints them. Besides the selected
+ * dependencies, the list keeps the occurrences Maven dropped: versions that
+ * lost a conflict and repeated occurrences of an already selected artifact.
+ * Dropped nodes have no children.
+ *
+ * @param root the project's coordinates, {@code groupId:artifactId:version}
+ * @param nodes every dependency occurrence, depth first
+ * @param unresolved artifacts whose POMs are not in the local repository, with the reason
+ * @param resolveMillis how long collecting the graph took
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public record DependencyGraph(String root, List<Node> nodes, List<String> unresolved, long resolveMillis) {
+
+    /**
+     * Lists the nodes that were selected, leaving out dropped occurrences.
+     *
+     * @return the selected nodes, depth first
+     */
+    public List<Node> selected() {
+        return nodes.stream().filter(node -> node.omitted() == null).toList();
+    }
+
+    /**
+     * Why a dependency occurrence was left out of the resolved classpath.
+     */
+    public enum Omission {
+        /** Another version of the same artifact was selected. */
+        CONFLICT,
+        /** The same version was already selected elsewhere in the graph. */
+        DUPLICATE
+    }
+
+    /**
+     * One occurrence of a dependency in the graph.
+     *
+     * @param groupId the group
+     * @param artifactId the artifact
+     * @param version the version this occurrence asked for, after dependency management
+     * @param type the artifact type, such as {@code jar} or {@code pom}
+     * @param classifier the classifier, or an empty string
+     * @param scope the effective scope
+     * @param optional whether the dependency is optional
+     * @param depth 1 for direct dependencies
+     * @param parent the coordinates of the node that pulled it in, or the project's
+     * @param omitted why the occurrence was dropped, or null if it was selected
+     * @param selectedVersion the version selected in its place, or null if not dropped
+     * @param managedFrom the version declared before dependency management changed it, or null
+     */
+    public record Node(String groupId, String artifactId, String version, String type, String classifier,
+                       String scope, boolean optional, int depth, String parent, Omission omitted,
+                       String selectedVersion, String managedFrom) {
+
+        /**
+         * Gets the coordinates without the version.
+         *
+         * @return {@code groupId:artifactId}
+         */
+        public String key() {
+            return groupId + ":" + artifactId;
+        }
+
+        /**
+         * Gets the coordinates of this occurrence.
+         *
+         * @return {@code groupId:artifactId:version}
+         */
+        public String id() {
+            return groupId + ":" + artifactId + ":" + version;
+        }
+    }
+}
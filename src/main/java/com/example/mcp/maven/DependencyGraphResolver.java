@@ -0,0 +1,539 @@
+package com.example.mcp.maven;
+
+import com.example.mcp.cache.ProjectFingerprint;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.model.building.ModelSource2;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactProperties;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.collection.CollectResult;
+import org.eclipse.aether.collection.DependencyCollectionException;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.util.graph.manager.DependencyManagerUtils;
+import org.eclipse.aether.util.graph.transformer.ConflictResolver;
+import org.eclipse.aether.util.repository.SimpleArtifactDescriptorPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the dependency graph of a Maven project in-process with Maven
+ * Resolver, instead of forking {@code mvn dependency:tree}.
+ *
+ * <p>The project's effective POM is built with its parents and imported
+ * BOMs, and its dependencies are collected the way Maven collects them:
+ * nearest version wins, scopes are derived along each path and dependency
+ * management applies transitively. Resolution reads only the local
+ * repository, so it works offline; artifacts whose POMs are missing from it
+ * are reported as unresolved rather than failing the graph.
+ *
+ * <p>Artifact descriptors (the dependencies declared by each POM) are cached
+ * per {@code groupId:artifactId:version} across calls, so a warm graph
+ * resolves without reading any POM twice. The cache is dropped after a
+ * resolution that found missing POMs, so a later call picks up artifacts
+ * installed in the meantime.
+ *
+ * <p>Effective models are kept in an {@link EffectiveModelCache} until one
+ * of the POMs they were built from changes.
+ *
+ * <p>{@link #graph(Path, Path)} additionally keeps the last few resolved
+ * graphs in {@link CompactDependencyGraph compact form}, keyed by POM and
+ * validated against the {@link ProjectFingerprint} of the project and the
+ * {@link #repositoryStamp(CompactDependencyGraph) local repository files}
+ * of the graph's artifacts, so repeated queries on an unchanged project
+ * skip resolution entirely.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class DependencyGraphResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyGraphResolver.class);
+
+    private static final int MAX_CACHED_GRAPHS = 16;
+
+    private static final DependencyGraphResolver SHARED = new DependencyGraphResolver(defaultLocalRepository());
+
+    private final RepositorySystem system;
+    private volatile Path localRepository;
+    private volatile DefaultRepositoryCache descriptorCache = new DefaultRepositoryCache();
+    private final EffectiveModelCache models = new EffectiveModelCache(this);
+    private final Map<Path, CachedGraph> graphs = new LinkedHashMap<>(16, 0.75f, true);
+    private long resolutions;
+    private long cacheResets;
+    private long graphHits;
+    private long graphMisses;
+
+    /**
+     * Creates a resolver reading the given local repository.
+     *
+     * @param localRepository the local repository, such as {@code ~/.m2/repository}
+     */
+    public DependencyGraphResolver(Path localRepository) {
+        this.localRepository = localRepository;
+        this.system = newRepositorySystem();
+    }
+
+    // The service locator is deprecated in favor of Sisu/Guice injection, which this server does not run
+    @SuppressWarnings("deprecation")
+    private static RepositorySystem newRepositorySystem() {
+        DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+        locator.setErrorHandler(new DefaultServiceLocator.ErrorHandler() {
+            @Override
+            public void serviceCreationFailed(Class<?> type, Class<?> impl, Throwable exception) {
+                logger.warn("Cannot create resolver service {}: {}", impl.getName(), exception.getMessage());
+            }
+        });
+        return locator.getService(RepositorySystem.class);
+    }
+
+    /**
+     * Gets the resolver shared by the tools.
+     *
+     * @return the shared resolver
+     */
+    public static DependencyGraphResolver shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the local repository Maven itself would use.
+     *
+     * @return {@code maven.repo.local} if set, otherwise {@code ~/.m2/repository}
+     */
+    public static Path defaultLocalRepository() {
+        String configured = System.getProperty("maven.repo.local");
+        return configured != null && !configured.isBlank()
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".m2", "repository");
+    }
+
+    /**
+     * Changes the local repository, dropping the cached descriptors, models and graphs.
+     *
+     * @param localRepository the local repository
+     */
+    public void setLocalRepository(Path localRepository) {
+        this.localRepository = localRepository;
+        this.descriptorCache = new DefaultRepositoryCache();
+        models.clear();
+        synchronized (this) {
+            graphs.clear();
+        }
+    }
+
+    /**
+     * Gets the local repository artifacts are read from.
+     *
+     * @return the local repository
+     */
+    public Path getLocalRepository() {
+        return localRepository;
+    }
+
+    /**
+     * Gets the cache of effective models built by this resolver.
+     *
+     * @return the model cache
+     */
+    public EffectiveModelCache models() {
+        return models;
+    }
+
+    /**
+     * Builds the effective POM of a project: parents merged, properties
+     * interpolated, imported BOMs applied and profiles activated against
+     * the server's JVM. Models are served from {@link #models()} while
+     * their POMs are unchanged.
+     *
+     * @param pomFile the project's pom.xml
+     * @return the effective model, which must not be modified
+     * @throws ModelBuildingException if the POM or one of its parents is invalid or missing
+     */
+    public Model buildEffectiveModel(Path pomFile) throws ModelBuildingException {
+        return models.get(pomFile);
+    }
+
+    /**
+     * Builds an effective POM without caching it.
+     *
+     * @param pomFile the project's pom.xml
+     * @param sources receives the parent and imported POM files the model was built from
+     */
+    Model buildEffectiveModel(Path pomFile, Set<Path> sources) throws ModelBuildingException {
+        RepositorySystemSession session = newSession();
+        ModelBuildingRequest request = new DefaultModelBuildingRequest()
+                .setPomFile(pomFile.toAbsolutePath().toFile())
+                .setModelResolver(new LocalRepositoryModelResolver(system, session, sources))
+                .setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL)
+                .setProcessPlugins(false)
+                .setSystemProperties(System.getProperties());
+        ModelBuildingResult result = new DefaultModelBuilderFactory().newInstance().build(request);
+        for (String modelId : result.getModelIds()) {
+            Model raw = result.getRawModel(modelId);
+            if (raw != null && raw.getPomFile() != null) {
+                sources.add(raw.getPomFile().toPath().toAbsolutePath().normalize());
+            }
+        }
+        return result.getEffectiveModel();
+    }
+
+    /**
+     * Resolves a project's transitive dependency graph in every scope.
+     *
+     * @param pomFile the project's pom.xml
+     * @return the graph, including dropped conflict losers and duplicates
+     * @throws ModelBuildingException if the project's effective POM cannot be built
+     */
+    public DependencyGraph resolve(Path pomFile) throws ModelBuildingException {
+        long started = System.nanoTime();
+        Model model = buildEffectiveModel(pomFile);
+        DefaultRepositorySystemSession session = newSession();
+        // Keep conflict losers and duplicates in the graph, and record managed versions
+        session.setConfigProperty(ConflictResolver.CONFIG_PROP_VERBOSE, true);
+        session.setConfigProperty(DependencyManagerUtils.CONFIG_PROP_VERBOSE, true);
+
+        CollectRequest request = new CollectRequest();
+        request.setRootArtifact(new DefaultArtifact(model.getGroupId(), model.getArtifactId(),
+                "pom", model.getVersion()));
+        for (Dependency dependency : model.getDependencies()) {
+            request.addDependency(toAether(dependency, session));
+        }
+        DependencyManagement management = model.getDependencyManagement();
+        if (management != null) {
+            for (Dependency dependency : management.getDependencies()) {
+                request.addManagedDependency(toAether(dependency, session));
+            }
+        }
+
+        CollectResult result;
+        try {
+            result = system.collectDependencies(session, request);
+        } catch (DependencyCollectionException e) {
+            // Missing POMs are recorded per node; the rest of the graph is still usable
+            result = e.getResult();
+        }
+
+        List<String> unresolved = new ArrayList<>();
+        for (Exception exception : result.getExceptions()) {
+            if (exception instanceof ArtifactDescriptorException descriptorException) {
+                unresolved.add(descriptorException.getResult().getArtifact() + ": " + rootCause(exception));
+            } else {
+                unresolved.add(rootCause(exception));
+            }
+        }
+
+        List<DependencyGraph.Node> nodes = new ArrayList<>();
+        String root = model.getGroupId() + ":" + model.getArtifactId() + ":" + model.getVersion();
+        for (DependencyNode child : result.getRoot().getChildren()) {
+            flatten(child, 1, root, nodes, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+
+        synchronized (this) {
+            resolutions++;
+            if (!unresolved.isEmpty()) {
+                // Missing descriptors are cached too; retry them on the next call
+                descriptorCache = new DefaultRepositoryCache();
+                cacheResets++;
+            }
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        logger.debug("Resolved {} dependency nodes for {} in {} ms ({} unresolved)",
+                nodes.size(), root, elapsed, unresolved.size());
+        return new DependencyGraph(root, List.copyOf(nodes), List.copyOf(unresolved), elapsed);
+    }
+
+    /**
+     * Gets a project's dependency graph in compact form, resolving it only if
+     * the project changed since it was last resolved.
+     *
+     * <p>Graphs with unresolved artifacts are not cached, so a later call
+     * picks up POMs installed in the meantime. A cached graph is resolved
+     * again, with fresh descriptors, when one of its artifacts is installed
+     * again or deleted from the local repository.
+     *
+     * @param projectRoot the project root the fingerprint is computed over
+     * @param pomFile the pom.xml of the project or one of its modules
+     * @return the graph
+     * @throws ModelBuildingException if the effective POM cannot be built
+     * @throws IOException if the project tree cannot be read
+     */
+    public CompactDependencyGraph graph(Path projectRoot, Path pomFile) throws ModelBuildingException, IOException {
+        Path key = pomFile.toAbsolutePath().normalize();
+        String fingerprint = ProjectFingerprint.of(projectRoot);
+        CachedGraph cached;
+        synchronized (this) {
+            cached = graphs.get(key);
+        }
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            if (repositoryStamp(cached.graph()).equals(cached.repositoryStamp())) {
+                synchronized (this) {
+                    graphHits++;
+                }
+                return cached.graph();
+            }
+            // Descriptors of reinstalled artifacts may have changed too
+            synchronized (this) {
+                descriptorCache = new DefaultRepositoryCache();
+                cacheResets++;
+            }
+        }
+        synchronized (this) {
+            graphMisses++;
+        }
+
+        CompactDependencyGraph graph = CompactDependencyGraph.of(resolve(pomFile));
+        if (graph.unresolved().isEmpty()) {
+            String repositoryStamp = repositoryStamp(graph);
+            synchronized (this) {
+                graphs.put(key, new CachedGraph(fingerprint, repositoryStamp, graph));
+                if (graphs.size() > MAX_CACHED_GRAPHS) {
+                    graphs.remove(graphs.keySet().iterator().next());
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Stamps the local repository files of a graph's artifacts.
+     *
+     * <p>The stamp covers the size and modification time of each artifact's
+     * POM and file, so it changes when any of them is installed again or
+     * deleted, and not when unrelated artifacts are.
+     *
+     * @param graph the graph
+     * @return a hex-encoded stamp
+     */
+    public String repositoryStamp(CompactDependencyGraph graph) {
+        RepositorySystemSession session = newSession();
+        long stamp = 17;
+        for (DependencyGraph.Node node : graph.nodes()) {
+            ArtifactType type = session.getArtifactTypeRegistry().get(node.type());
+            String extension = type != null ? type.getExtension() : node.type();
+            for (Artifact artifact : List.of(
+                    new DefaultArtifact(node.groupId(), node.artifactId(), "", "pom", node.version()),
+                    new DefaultArtifact(node.groupId(), node.artifactId(), node.classifier(), extension,
+                            node.version()))) {
+                stamp = 31 * stamp + fileStamp(localRepository.resolve(
+                        session.getLocalRepositoryManager().getPathForLocalArtifact(artifact)));
+            }
+        }
+        return Long.toHexString(stamp);
+    }
+
+    private static long fileStamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.size() * 31 + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Finds an artifact's file in the local repository.
+     *
+     * @param groupId the group
+     * @param artifactId the artifact
+     * @param version the version
+     * @param extension the file extension, such as {@code jar}
+     * @param classifier the classifier, or an empty string
+     * @return the file's path in the local repository, which may not exist
+     */
+    public Path localArtifactPath(String groupId, String artifactId, String version, String extension,
+                                  String classifier) {
+        RepositorySystemSession session = newSession();
+        Artifact artifact = new DefaultArtifact(groupId, artifactId, classifier, extension, version);
+        return localRepository.resolve(session.getLocalRepositoryManager().getPathForLocalArtifact(artifact));
+    }
+
+    /**
+     * Summarizes the resolver.
+     *
+     * @return the local repository, resolutions, descriptor cache resets and graph and model cache hits
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localRepository", localRepository.toString());
+        stats.put("resolutions", resolutions);
+        stats.put("descriptorCacheResets", cacheResets);
+        stats.put("cachedGraphs", graphs.size());
+        stats.put("graphHits", graphHits);
+        stats.put("graphMisses", graphMisses);
+        stats.put("effectiveModels", models.stats());
+        return stats;
+    }
+
+    private DefaultRepositorySystemSession newSession() {
+        DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setOffline(true);
+        session.setCache(descriptorCache);
+        session.setSystemProperties(System.getProperties());
+        // Report missing POMs instead of silently treating them as dependency-free
+        session.setArtifactDescriptorPolicy(new SimpleArtifactDescriptorPolicy(false, true));
+        try {
+            // The simple layout finds artifacts regardless of the remote they were downloaded from
+            session.setLocalRepositoryManager(system.newLocalRepositoryManager(session,
+                    new LocalRepository(localRepository.toFile(), "simple")));
+        } catch (IllegalArgumentException e) {
+            session.setLocalRepositoryManager(system.newLocalRepositoryManager(session,
+                    new LocalRepository(localRepository.toFile())));
+        }
+        return session;
+    }
+
+    private void flatten(DependencyNode node, int depth, String parent, List<DependencyGraph.Node> nodes,
+                         Set<DependencyNode> path) {
+        if (!path.add(node)) {
+            // A dependency cycle; Maven breaks it the same way
+            return;
+        }
+        org.eclipse.aether.graph.Dependency dependency = node.getDependency();
+        Artifact artifact = dependency.getArtifact();
+        DependencyNode winner = (DependencyNode) node.getData().get(ConflictResolver.NODE_DATA_WINNER);
+        DependencyGraph.Omission omitted = null;
+        String selectedVersion = null;
+        if (winner != null) {
+            selectedVersion = winner.getArtifact().getVersion();
+            omitted = selectedVersion.equals(artifact.getVersion())
+                    ? DependencyGraph.Omission.DUPLICATE : DependencyGraph.Omission.CONFLICT;
+        }
+        String scope = dependency.getScope() == null || dependency.getScope().isEmpty()
+                ? "compile" : dependency.getScope();
+        nodes.add(new DependencyGraph.Node(artifact.getGroupId(), artifact.getArtifactId(),
+                artifact.getVersion(), artifact.getProperty(ArtifactProperties.TYPE, artifact.getExtension()),
+                artifact.getClassifier(), scope, dependency.isOptional(), depth, parent, omitted,
+                selectedVersion, DependencyManagerUtils.getPremanagedVersion(node)));
+
+        String id = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+        for (DependencyNode child : node.getChildren()) {
+            flatten(child, depth + 1, id, nodes, path);
+        }
+        path.remove(node);
+    }
+
+    private static org.eclipse.aether.graph.Dependency toAether(Dependency dependency,
+                                                               RepositorySystemSession session) {
+        ArtifactType type = session.getArtifactTypeRegistry().get(dependency.getType());
+        Artifact artifact = type != null
+                ? new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(),
+                        dependency.getClassifier(), null, dependency.getVersion(), type)
+                : new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(),
+                        dependency.getClassifier(), dependency.getType(), dependency.getVersion());
+        if (dependency.getSystemPath() != null) {
+            artifact = artifact.setFile(Paths.get(dependency.getSystemPath()).toFile());
+        }
+        List<Exclusion> exclusions = new ArrayList<>();
+        for (org.apache.maven.model.Exclusion exclusion : dependency.getExclusions()) {
+            exclusions.add(new Exclusion(exclusion.getGroupId(), exclusion.getArtifactId(), "*", "*"));
+        }
+        return new org.eclipse.aether.graph.Dependency(artifact, dependency.getScope(),
+                dependency.isOptional(), exclusions);
+    }
+
+    private static String rootCause(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private record CachedGraph(String fingerprint, String repositoryStamp, CompactDependencyGraph graph) {}
+
+    /**
+     * Resolves parent and imported POMs from the local repository only.
+     */
+    private static final class LocalRepositoryModelResolver implements ModelResolver {
+
+        private final RepositorySystem system;
+        private final RepositorySystemSession session;
+        private final Set<Path> resolved;
+
+        LocalRepositoryModelResolver(RepositorySystem system, RepositorySystemSession session, Set<Path> resolved) {
+            this.system = system;
+            this.session = session;
+            this.resolved = resolved;
+        }
+
+        @Override
+        public ModelSource2 resolveModel(String groupId, String artifactId, String version)
+                throws UnresolvableModelException {
+            Artifact pom = new DefaultArtifact(groupId, artifactId, "", "pom", version);
+            try {
+                ArtifactResult result = system.resolveArtifact(session, new ArtifactRequest(pom, List.of(), null));
+                resolved.add(result.getArtifact().getFile().toPath().toAbsolutePath().normalize());
+                return new FileModelSource(result.getArtifact().getFile());
+            } catch (ArtifactResolutionException e) {
+                throw new UnresolvableModelException("POM not in the local repository: " + pom,
+                        groupId, artifactId, version, e);
+            }
+        }
+
+        @Override
+        public ModelSource2 resolveModel(Parent parent) throws UnresolvableModelException {
+            return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        }
+
+        @Override
+        public ModelSource2 resolveModel(Dependency dependency) throws UnresolvableModelException {
+            return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+        }
+
+        @Override
+        public void addRepository(Repository repository) {
+            // Only the local repository is consulted
+        }
+
+        @Override
+        public void addRepository(Repository repository, boolean replace) {
+            // Only the local repository is consulted
+        }
+
+        @Override
+        public ModelResolver newCopy() {
+            return this;
+        }
+    }
+}
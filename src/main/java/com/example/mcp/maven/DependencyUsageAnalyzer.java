@@ -0,0 +1,163 @@
+package com.example.mcp.maven;
+
+import org.objectweb.asm.ClassReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds which classes a project's compiled code refers to and which classes
+ * a dependency jar provides, the way {@code mvn dependency:analyze} decides
+ * whether a declared dependency is used.
+ *
+ * <p>References are read from the constant pool of each class file: class
+ * entries plus every type named in a field, method or annotation
+ * descriptor. A dependency is used if the project refers to any class it
+ * provides. Constants inlined by the compiler leave no reference, so a
+ * dependency used only for its constants is reported as unused, as with
+ * dependency:analyze.
+ *
+ * <p>The class lists of jars are cached by path and modification time.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class DependencyUsageAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyUsageAnalyzer.class);
+
+    private static final int MAX_CACHED_JARS = 1024;
+
+    // Constant pool tags, JVMS 4.4
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+
+    private final Map<Path, JarClasses> jarClasses = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Lists the classes referred to by the class files under a directory.
+     *
+     * @param classesDirectory a compiler output directory, such as {@code target/classes}
+     * @return internal class names, such as {@code java/util/List}
+     * @throws IOException if the directory cannot be walked
+     */
+    public Set<String> referencedClasses(Path classesDirectory) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        if (!Files.isDirectory(classesDirectory)) {
+            return referenced;
+        }
+        Files.walkFileTree(classesDirectory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (file.getFileName().toString().endsWith(".class")) {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        collectReferences(new ClassReader(in), referenced);
+                    } catch (IllegalArgumentException e) {
+                        logger.debug("Skipping unreadable class file {}: {}", file, e.getMessage());
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return referenced;
+    }
+
+    /**
+     * Lists the classes a jar provides.
+     *
+     * @param jar the jar file
+     * @return internal class names
+     * @throws IOException if the jar cannot be read
+     */
+    public Set<String> providedClasses(Path jar) throws IOException {
+        long modified = Files.getLastModifiedTime(jar).toMillis();
+        synchronized (jarClasses) {
+            JarClasses cached = jarClasses.get(jar);
+            if (cached != null && cached.lastModifiedMillis() == modified) {
+                return cached.classes();
+            }
+        }
+
+        Set<String> classes = new HashSet<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            zip.stream()
+                    .map(ZipEntry::getName)
+                    .filter(name -> name.endsWith(".class") && !name.endsWith("module-info.class"))
+                    // Multi-release jars keep per-release copies under META-INF/versions/<n>/
+                    .map(name -> name.startsWith("META-INF/versions/")
+                            ? name.substring(name.indexOf('/', "META-INF/versions/".length()) + 1) : name)
+                    .forEach(name -> classes.add(name.substring(0, name.length() - ".class".length())));
+        }
+        Set<String> provided = Set.copyOf(classes);
+        synchronized (jarClasses) {
+            jarClasses.put(jar, new JarClasses(modified, provided));
+            if (jarClasses.size() > MAX_CACHED_JARS) {
+                jarClasses.remove(jarClasses.keySet().iterator().next());
+            }
+        }
+        return provided;
+    }
+
+    private static void collectReferences(ClassReader reader, Set<String> referenced) {
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int item = 1; item < reader.getItemCount(); item++) {
+            int offset = reader.getItem(item);
+            if (offset == 0) {
+                // The second slot of a long or double constant
+                continue;
+            }
+            int tag = reader.readByte(offset - 1);
+            if (tag == CONSTANT_CLASS) {
+                String name = reader.readUTF8(offset, buffer);
+                if (name != null) {
+                    referenced.add(stripArray(name));
+                }
+            } else if (tag == CONSTANT_UTF8) {
+                String value = readUtf8Entry(reader, offset);
+                if (value.indexOf(';') > 0) {
+                    Matcher matcher = DESCRIPTOR_TYPE.matcher(value);
+                    while (matcher.find()) {
+                        referenced.add(matcher.group(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String readUtf8Entry(ClassReader reader, int offset) {
+        // Modified UTF-8 only differs from UTF-8 for characters descriptors do not use
+        byte[] bytes = new byte[reader.readUnsignedShort(offset)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) reader.readByte(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String stripArray(String name) {
+        if (!name.startsWith("[")) {
+            return name;
+        }
+        Matcher matcher = DESCRIPTOR_TYPE.matcher(name);
+        return matcher.find() ? matcher.group(1) : name;
+    }
+
+    private record JarClasses(long lastModifiedMillis, Set<String> classes) {}
+}
@@ -0,0 +1,253 @@
+package com.example.mcp.maven;
+
+import com.example.mcp.concurrent.FileFanOut;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Caches the effective POMs of projects and their modules.
+ *
+ * <p>Each effective model is built once from local files, by
+ * {@link DependencyGraphResolver#buildEffectiveModel(Path)}, and kept until
+ * one of the POMs it was built from changes: the module's own POM, its
+ * parents, whether found by relative path or in the local repository, and
+ * any imported BOMs. Checking an entry only reads the size and modification
+ * time of those files, so asking for every module of a reactor again costs
+ * a few file stats. The modules of a reactor are loaded in parallel.
+ *
+ * <p>Cached models are shared between callers and must not be modified.
+ * Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class EffectiveModelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EffectiveModelCache.class);
+
+    private static final int MAX_MODELS = 512;
+
+    private static final ForkJoinPool LOADERS =
+            FileFanOut.namedPool("pom-loader", Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private final DependencyGraphResolver resolver;
+    private final Map<Path, CachedModel> models = new LinkedHashMap<>(64, 0.75f, true);
+    private long hits;
+    private long misses;
+
+    EffectiveModelCache(DependencyGraphResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Gets the cache shared by the tools, backed by the shared resolver.
+     *
+     * @return the shared cache
+     */
+    public static EffectiveModelCache shared() {
+        return DependencyGraphResolver.shared().models();
+    }
+
+    /**
+     * Gets the effective model of a POM, building it if it is not cached or
+     * one of its source POMs changed.
+     *
+     * @param pomFile the pom.xml
+     * @return the effective model
+     * @throws ModelBuildingException if the POM is invalid or a parent or import is missing
+     */
+    public Model get(Path pomFile) throws ModelBuildingException {
+        Path key = pomFile.toAbsolutePath().normalize();
+        synchronized (this) {
+            CachedModel cached = models.get(key);
+            if (cached != null && cached.isCurrent()) {
+                hits++;
+                return cached.model();
+            }
+            misses++;
+        }
+
+        Set<Path> sources = new HashSet<>();
+        Model model = resolver.buildEffectiveModel(key, sources);
+        sources.add(key);
+        Map<Path, FileStamp> stamps = new LinkedHashMap<>();
+        for (Path source : sources) {
+            stamps.put(source, FileStamp.of(source));
+        }
+        synchronized (this) {
+            models.put(key, new CachedModel(model, stamps));
+            if (models.size() > MAX_MODELS) {
+                models.remove(models.keySet().iterator().next());
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Gets the effective model of a POM, falling back to the POM as written
+     * when the effective model cannot be built, typically because a parent
+     * or imported BOM is not in the local repository.
+     *
+     * @param pomFile the pom.xml
+     * @return the effective model, or the raw model if it cannot be built
+     * @throws IOException if the POM cannot be read or parsed
+     */
+    public Model read(Path pomFile) throws IOException {
+        try {
+            return get(pomFile);
+        } catch (ModelBuildingException e) {
+            logger.warn("Using the raw POM of {}; the effective model could not be built: {}",
+                    pomFile, e.getMessage());
+            return readRaw(pomFile);
+        }
+    }
+
+    /**
+     * Gets the effective models of a project and all of its modules,
+     * following {@code <modules>} recursively, including modules added by
+     * active profiles. Sibling modules are loaded in parallel.
+     *
+     * @param rootPom the pom.xml of the reactor root
+     * @return the models keyed by module directory, depth first in declaration order
+     * @throws IOException if a POM cannot be read
+     */
+    public Map<Path, Model> reactor(Path rootPom) throws IOException {
+        List<Map.Entry<Path, Model>> loaded;
+        try {
+            loaded = LOADERS.invoke(new LoadModule(rootPom.toAbsolutePath().normalize(), Set.of()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Map<Path, Model> reactor = new LinkedHashMap<>();
+        for (Map.Entry<Path, Model> module : loaded) {
+            // A module listed by two aggregators is loaded twice but reported once
+            reactor.putIfAbsent(module.getKey(), module.getValue());
+        }
+        return reactor;
+    }
+
+    /**
+     * Drops every cached model.
+     */
+    public synchronized void clear() {
+        models.clear();
+    }
+
+    /**
+     * Summarizes the cache.
+     *
+     * @return the cached models, hits and misses
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedModels", models.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        return stats;
+    }
+
+    /**
+     * Loads one module, then its own modules in parallel.
+     */
+    private final class LoadModule extends RecursiveTask<List<Map.Entry<Path, Model>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path pomFile;
+        private final Set<Path> ancestors;
+
+        LoadModule(Path pomFile, Set<Path> ancestors) {
+            this.pomFile = pomFile;
+            this.ancestors = ancestors;
+        }
+
+        @Override
+        protected List<Map.Entry<Path, Model>> compute() {
+            Path moduleDir = pomFile.getParent();
+            Model model;
+            try {
+                model = read(pomFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Set<Path> path = new HashSet<>(ancestors);
+            path.add(moduleDir);
+            List<LoadModule> children = new ArrayList<>();
+            for (String module : model.getModules() != null ? model.getModules() : List.<String>of()) {
+                Path modulePath = moduleDir.resolve(module).normalize();
+                Path modulePom = Files.isDirectory(modulePath) ? modulePath.resolve("pom.xml") : modulePath;
+                if (path.contains(modulePom.getParent())) {
+                    logger.warn("Ignoring module {} of {}: it aggregates itself", module, pomFile);
+                } else if (Files.isRegularFile(modulePom)) {
+                    children.add(new LoadModule(modulePom, path));
+                } else {
+                    logger.warn("Module POM not found: {}", modulePom);
+                }
+            }
+            invokeAll(children);
+
+            List<Map.Entry<Path, Model>> loaded = new ArrayList<>();
+            loaded.add(Map.entry(moduleDir, model));
+            for (LoadModule child : children) {
+                loaded.addAll(child.join());
+            }
+            return loaded;
+        }
+    }
+
+    private static Model readRaw(Path pomFile) throws IOException {
+        try (Reader reader = Files.newBufferedReader(pomFile)) {
+            Model model = new MavenXpp3Reader().read(reader);
+            model.setPomFile(pomFile.toFile());
+            return model;
+        } catch (XmlPullParserException e) {
+            throw new IOException("Invalid POM " + pomFile + ": " + e.getMessage(), e);
+        }
+    }
+
+    private record CachedModel(Model model, Map<Path, FileStamp> sources) {
+
+        boolean isCurrent() {
+            for (Map.Entry<Path, FileStamp> source : sources.entrySet()) {
+                if (!FileStamp.of(source.getKey()).equals(source.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record FileStamp(long size, long lastModifiedMillis) {
+
+        static final FileStamp MISSING = new FileStamp(-1, -1);
+
+        static FileStamp of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+            } catch (IOException e) {
+                return MISSING;
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.mcp.maven;
+
+import com.example.mcp.cache.ProjectFingerprint;
+import com.example.mcp.index.ProjectIndex;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the {@link ReactorGraph} of a multi-module project.
+ *
+ * <p>Modules are discovered recursively through nested aggregators and
+ * their effective models loaded in parallel from the
+ * {@link EffectiveModelCache}. File counts come from one pass over the
+ * project's {@link ProjectIndex}, which already prunes build output and
+ * ignored paths; each file is counted in the innermost module containing
+ * it.
+ *
+ * <p>Graphs are memoized per project root and {@link ProjectFingerprint},
+ * so follow-up questions about single modules of an unchanged project do
+ * not load or count anything again. Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class ReactorAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactorAnalyzer.class);
+
+    private static final int MAX_CACHED_REACTORS = 16;
+
+    private static final ReactorAnalyzer SHARED = new ReactorAnalyzer(EffectiveModelCache.shared());
+
+    private final EffectiveModelCache models;
+    private final Map<Path, CachedReactor> reactors = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an analyzer reading models from the given cache.
+     *
+     * @param models the effective model cache
+     */
+    public ReactorAnalyzer(EffectiveModelCache models) {
+        this.models = models;
+    }
+
+    /**
+     * Gets the analyzer shared by the tools.
+     *
+     * @return the shared analyzer
+     */
+    public static ReactorAnalyzer shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the reactor graph of a project, building it only if the project
+     * changed since it was last built.
+     *
+     * @param projectDir the reactor root, containing pom.xml
+     * @return the graph
+     * @throws IOException if a POM or the project tree cannot be read
+     */
+    public ReactorGraph analyze(Path projectDir) throws IOException {
+        Path root = projectDir.toAbsolutePath().normalize();
+        String fingerprint = ProjectFingerprint.of(root);
+        synchronized (this) {
+            CachedReactor cached = reactors.get(root);
+            if (cached != null && cached.fingerprint().equals(fingerprint)) {
+                hits++;
+                return cached.graph();
+            }
+            misses++;
+        }
+
+        long started = System.nanoTime();
+        ReactorGraph graph = build(root);
+        logger.debug("Built the reactor graph of {} ({} modules) in {} ms", root, graph.modules().size(),
+                (System.nanoTime() - started) / 1_000_000);
+        synchronized (this) {
+            reactors.put(root, new CachedReactor(fingerprint, graph));
+            if (reactors.size() > MAX_CACHED_REACTORS) {
+                reactors.remove(reactors.keySet().iterator().next());
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Summarizes the memoized graphs.
+     *
+     * @return the cached graphs, hits and misses
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedReactors", reactors.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        return stats;
+    }
+
+    private ReactorGraph build(Path root) throws IOException {
+        Map<Path, Model> reactor = models.reactor(root.resolve("pom.xml"));
+
+        Map<String, Path> reactorIds = new HashMap<>();
+        for (Map.Entry<Path, Model> module : reactor.entrySet()) {
+            reactorIds.putIfAbsent(id(module.getValue()), module.getKey());
+        }
+
+        // Count every indexed file once, in the innermost module directory containing it
+        Map<Path, int[]> counts = new HashMap<>();
+        for (Path moduleDir : reactor.keySet()) {
+            counts.put(moduleDir, new int[3]);
+        }
+        List<ProjectIndex.IndexedFile> files;
+        try (ProjectIndex index = ProjectIndex.forProject(root)) {
+            files = index.files();
+        }
+        for (ProjectIndex.IndexedFile file : files) {
+            for (Path dir = file.path().getParent(); dir != null && dir.startsWith(root); dir = dir.getParent()) {
+                int[] moduleCounts = counts.get(dir);
+                if (moduleCounts != null) {
+                    moduleCounts[0]++;
+                    if (file.isJava() && file.sourceRoot() != null
+                            && file.sourceRoot().equals(dir.resolve("src/main/java"))) {
+                        moduleCounts[1]++;
+                    } else if (file.isJava() && file.sourceRoot() != null
+                            && file.sourceRoot().equals(dir.resolve("src/test/java"))) {
+                        moduleCounts[2]++;
+                    }
+                    break;
+                }
+            }
+        }
+
+        List<ReactorGraph.Module> modules = new ArrayList<>();
+        for (Map.Entry<Path, Model> entry : reactor.entrySet()) {
+            Model model = entry.getValue();
+            String id = id(model);
+            Set<String> upstream = new LinkedHashSet<>();
+            if (model.getParent() != null) {
+                upstream.add(model.getParent().getGroupId() + ":" + model.getParent().getArtifactId());
+            }
+            for (Dependency dependency : model.getDependencies()) {
+                upstream.add(dependency.getGroupId() + ":" + dependency.getArtifactId());
+            }
+            upstream.retainAll(reactorIds.keySet());
+            upstream.remove(id);
+
+            int[] moduleCounts = counts.get(entry.getKey());
+            modules.add(new ReactorGraph.Module(id, root.relativize(entry.getKey()).toString(), entry.getKey(),
+                    model.getVersion(), model.getPackaging(), List.copyOf(upstream),
+                    moduleCounts[0], moduleCounts[1], moduleCounts[2]));
+        }
+        return new ReactorGraph(modules);
+    }
+
+    private static String id(Model model) {
+        String groupId = model.getGroupId() != null ? model.getGroupId()
+                : model.getParent() != null ? model.getParent().getGroupId() : null;
+        return groupId + ":" + model.getArtifactId();
+    }
+
+    private record CachedReactor(String fingerprint, ReactorGraph graph) {}
+}
@@ -0,0 +1,229 @@
+package com.example.mcp.maven;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The modules of a Maven reactor and the build order between them.
+ *
+ * <p>A module must be built after its parent and after every reactor module
+ * it depends on, as Maven orders the reactor. Modules are listed depth first
+ * in declaration order; the build order is the topological order that keeps
+ * that declaration order where it is free to. The critical path is the
+ * longest chain of modules that must be built one after another, which
+ * bounds how far a parallel build ({@code mvn -T}) can go.
+ *
+ * <p>Instances are immutable.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class ReactorGraph {
+
+    private final List<Module> modules;
+    private final Map<String, Integer> byId = new HashMap<>();
+    private final Map<String, Integer> byName = new HashMap<>();
+    private final int[][] upstream;
+    private final int[][] downstream;
+    private final List<String> buildOrder;
+    private final List<String> cyclic;
+    private final List<String> criticalPath;
+
+    /**
+     * Creates the graph.
+     *
+     * @param modules the modules, depth first in declaration order
+     */
+    public ReactorGraph(List<Module> modules) {
+        this.modules = List.copyOf(modules);
+        for (int i = 0; i < this.modules.size(); i++) {
+            byId.putIfAbsent(this.modules.get(i).id(), i);
+            byName.putIfAbsent(this.modules.get(i).name(), i);
+        }
+
+        int size = this.modules.size();
+        upstream = new int[size][];
+        List<List<Integer>> reverse = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            reverse.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            List<String> upstreamIds = this.modules.get(i).upstream();
+            upstream[i] = upstreamIds.stream().mapToInt(byId::get).toArray();
+            for (int dependency : upstream[i]) {
+                reverse.get(dependency).add(i);
+            }
+        }
+        downstream = new int[size][];
+        for (int i = 0; i < size; i++) {
+            downstream[i] = reverse.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Kahn's algorithm, always taking the earliest declared module that is ready
+        int[] pending = new int[size];
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < size; i++) {
+            pending[i] = upstream[i].length;
+            if (pending[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int[] chain = new int[size];
+        int[] previous = new int[size];
+        int last = -1;
+        List<String> order = new ArrayList<>();
+        BitSet built = new BitSet(size);
+        while (!ready.isEmpty()) {
+            int module = ready.poll();
+            built.set(module);
+            order.add(this.modules.get(module).id());
+            chain[module] = 1;
+            previous[module] = -1;
+            for (int dependency : upstream[module]) {
+                if (chain[dependency] + 1 > chain[module]) {
+                    chain[module] = chain[dependency] + 1;
+                    previous[module] = dependency;
+                }
+            }
+            if (last == -1 || chain[module] > chain[last]) {
+                last = module;
+            }
+            for (int dependent : downstream[module]) {
+                if (--pending[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        buildOrder = List.copyOf(order);
+
+        List<String> cycles = new ArrayList<>();
+        for (int i = built.nextClearBit(0); i < size; i = built.nextClearBit(i + 1)) {
+            cycles.add(this.modules.get(i).id());
+        }
+        cyclic = List.copyOf(cycles);
+
+        List<String> path = new ArrayList<>();
+        for (int module = last; module != -1; module = previous[module]) {
+            path.add(0, this.modules.get(module).id());
+        }
+        criticalPath = List.copyOf(path);
+    }
+
+    /**
+     * Lists the modules, depth first in declaration order.
+     *
+     * @return the modules, the reactor root first
+     */
+    public List<Module> modules() {
+        return modules;
+    }
+
+    /**
+     * Finds a module.
+     *
+     * @param nameOrId the module's path relative to the root, or its {@code groupId:artifactId}
+     * @return the module, or null if the reactor has no such module
+     */
+    public Module module(String nameOrId) {
+        Integer index = byName.get(nameOrId);
+        if (index == null) {
+            index = byId.get(nameOrId);
+        }
+        return index != null ? modules.get(index) : null;
+    }
+
+    /**
+     * Lists the order Maven builds the modules in.
+     *
+     * @return module ids; modules in a cycle are left out
+     */
+    public List<String> buildOrder() {
+        return buildOrder;
+    }
+
+    /**
+     * Lists modules that depend on themselves through other modules, which
+     * Maven refuses to build.
+     *
+     * @return module ids, empty if the graph is acyclic
+     */
+    public List<String> cyclic() {
+        return cyclic;
+    }
+
+    /**
+     * Gets the longest chain of modules that must be built one after another.
+     *
+     * @return module ids, first to build first
+     */
+    public List<String> criticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * Lists every reactor module a module needs built first, directly or not.
+     *
+     * @param id the module's {@code groupId:artifactId}
+     * @return module ids in build order
+     */
+    public List<String> transitiveUpstream(String id) {
+        return reachable(id, upstream);
+    }
+
+    /**
+     * Lists every reactor module that needs a module built first, directly or not.
+     *
+     * @param id the module's {@code groupId:artifactId}
+     * @return module ids in build order
+     */
+    public List<String> transitiveDownstream(String id) {
+        return reachable(id, downstream);
+    }
+
+    private List<String> reachable(String id, int[][] edges) {
+        Integer start = byId.get(id);
+        if (start == null) {
+            return List.of();
+        }
+        BitSet seen = new BitSet(modules.size());
+        int[] stack = new int[modules.size()];
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            for (int next : edges[stack[--top]]) {
+                if (!seen.get(next)) {
+                    seen.set(next);
+                    stack[top++] = next;
+                }
+            }
+        }
+        List<String> reachable = new ArrayList<>();
+        for (String module : buildOrder) {
+            if (seen.get(byId.get(module))) {
+                reachable.add(module);
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * One module of the reactor.
+     *
+     * @param id {@code groupId:artifactId}
+     * @param name the module's directory relative to the reactor root; empty for the root
+     * @param directory the module's directory
+     * @param version the effective version
+     * @param packaging the packaging, such as {@code jar} or {@code pom}
+     * @param upstream ids of the reactor modules it needs built first: its parent and dependencies
+     * @param files the number of indexed files in the module, nested modules excluded
+     * @param mainJavaFiles the Java sources under {@code src/main/java}
+     * @param testJavaFiles the Java sources under {@code src/test/java}
+     */
+    public record Module(String id, String name, Path directory, String version, String packaging,
+                         List<String> upstream, int files, int mainJavaFiles, int testJavaFiles) {}
+}
@@ -0,0 +1,86 @@
+package com.example.mcp.metrics;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Server-wide metrics: per JSON-RPC method and per tool, plus named gauges
+ * contributed by other components (dispatch lanes, caches).
+ *
+ * <p>Metrics are created on first use and live for the registry's lifetime;
+ * {@link #reset()} clears their recorded values but keeps in-flight gauges
+ * accurate.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class MetricsRegistry {
+
+    private final Map<String, OperationMetrics> methods = new ConcurrentHashMap<>();
+    private final Map<String, OperationMetrics> tools = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<?>> gauges = new ConcurrentHashMap<>();
+    private volatile long resetAtMillis = System.currentTimeMillis();
+
+    /**
+     * Gets the metrics of a JSON-RPC method.
+     *
+     * @param method the method name
+     * @return the method's metrics
+     */
+    public OperationMetrics method(String method) {
+        return methods.computeIfAbsent(method, name -> new OperationMetrics());
+    }
+
+    /**
+     * Gets the metrics of a tool.
+     *
+     * @param tool the tool name
+     * @return the tool's metrics
+     */
+    public OperationMetrics tool(String tool) {
+        return tools.computeIfAbsent(tool, name -> new OperationMetrics());
+    }
+
+    /**
+     * Adds a named value computed whenever a snapshot is taken.
+     *
+     * @param name the key in the snapshot
+     * @param gauge supplies the current value
+     */
+    public void registerGauge(String name, Supplier<?> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Takes a snapshot of all metrics.
+     *
+     * @return methods, tools and gauges, sorted by name
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("since", Instant.ofEpochMilli(resetAtMillis).toString());
+        snapshot.put("methods", snapshotOf(methods));
+        snapshot.put("tools", snapshotOf(tools));
+        new TreeMap<>(gauges).forEach((name, gauge) -> snapshot.put(name, gauge.get()));
+        return snapshot;
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        methods.values().forEach(OperationMetrics::reset);
+        tools.values().forEach(OperationMetrics::reset);
+        resetAtMillis = System.currentTimeMillis();
+    }
+
+    private static Map<String, Object> snapshotOf(Map<String, OperationMetrics> metrics) {
+        Map<String, Object> snapshot = new TreeMap<>();
+        metrics.forEach((name, operation) -> snapshot.put(name, operation.snapshot()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mcp.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, error, in-flight and payload size metrics of one operation, such
+ * as a JSON-RPC method or a tool.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class OperationMetrics {
+
+    private final Histogram latencyMicros = new Histogram();
+    private final Histogram requestBytes = new Histogram();
+    private final Histogram responseBytes = new Histogram();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * Marks the start of an invocation.
+     *
+     * @return the start time to pass to {@link #finish(long, boolean)}
+     */
+    public long start() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of an invocation.
+     *
+     * @param startNanos the value returned by {@link #start()}
+     * @param failed whether the invocation failed
+     */
+    public void finish(long startNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        latencyMicros.record((System.nanoTime() - startNanos) / 1000);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Records the size of a request payload.
+     *
+     * @param bytes the encoded size
+     */
+    public void recordRequestBytes(long bytes) {
+        requestBytes.record(bytes);
+    }
+
+    /**
+     * Records the size of a response payload.
+     *
+     * @param bytes the encoded size
+     */
+    public void recordResponseBytes(long bytes) {
+        responseBytes.record(bytes);
+    }
+
+    /**
+     * Gets the number of invocations currently running.
+     *
+     * @return the in-flight count
+     */
+    public long inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Summarizes the metrics; latencies are in milliseconds.
+     *
+     * @return the summary
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", latencyMicros.count());
+        snapshot.put("errors", errors.sum());
+        snapshot.put("inFlight", inFlight.get());
+        snapshot.put("latencyMs", latencyMicros.summary(1000));
+        if (requestBytes.count() > 0) {
+            snapshot.put("requestBytes", requestBytes.summary(1));
+        }
+        if (responseBytes.count() > 0) {
+            snapshot.put("responseBytes", responseBytes.summary(1));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discards the recorded values; the in-flight gauge is kept.
+     */
+    public void reset() {
+        latencyMicros.reset();
+        requestBytes.reset();
+        responseBytes.reset();
+        errors.reset();
+    }
+}
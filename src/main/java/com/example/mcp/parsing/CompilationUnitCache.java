@@ -0,0 +1,244 @@
+package com.example.mcp.parsing;
+
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache of parsed Java files shared by every tool that reads Java sources.
+ *
+ * <p>Entries are keyed by path and validated against the file's size,
+ * modification time and content hash. When size and modification time are
+ * unchanged the cached AST is returned without reading the file; otherwise
+ * the file is read and only parsed again if its content hash differs, so a
+ * checkout that restores identical content keeps its entry. Files that fail
+ * to parse are cached as failures too.
+ *
+ * <p>Recently used ASTs are held strongly up to a memory budget, estimated
+ * from each AST's node count and source length. Least recently used ASTs
+ * beyond the budget are demoted to soft references, which the garbage
+ * collector clears under memory pressure; a demoted AST that is still
+ * reachable is promoted back on its next use.
+ *
+ * <p>Files are parsed with the calling thread's parser from
+ * {@link ParsingService}, so different files can be parsed concurrently.
+ * Cached ASTs are shared between callers and must not be modified.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class CompilationUnitCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilationUnitCache.class);
+
+    /** Default memory budget for strongly held ASTs: 128 MiB. */
+    public static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+    // Rough heap cost of an AST node, and of the names and comments per source character
+    private static final int BYTES_PER_NODE = 160;
+    private static final int BYTES_PER_SOURCE_CHAR = 4;
+
+    private static final CompilationUnitCache SHARED = new CompilationUnitCache(DEFAULT_MAX_BYTES);
+
+    private final LinkedHashMap<Path, Entry> strong = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Path, SoftEntry> soft = new HashMap<>();
+    private final ReferenceQueue<Entry> cleared = new ReferenceQueue<>();
+    private long maxBytes;
+    private long weight;
+    private long hits;
+    private long promotions;
+    private long revalidations;
+    private long misses;
+    private long demotions;
+    private long reclaimed;
+
+    /**
+     * Creates a cache with the given memory budget.
+     *
+     * @param maxBytes the estimated heap size of strongly held ASTs
+     */
+    public CompilationUnitCache(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Gets the cache shared by the tools and documentation generators.
+     *
+     * @return the shared cache
+     */
+    public static CompilationUnitCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sets the memory budget, demoting ASTs if the cache is now over it.
+     *
+     * @param maxBytes the estimated heap size of strongly held ASTs
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = Math.max(0, maxBytes);
+        demoteOverBudget();
+    }
+
+    /**
+     * Parses a Java file, or returns its cached AST if the file is unchanged.
+     *
+     * @param file the Java source file
+     * @return the AST, or empty if the file does not parse
+     * @throws IOException if the file cannot be read
+     */
+    public Optional<CompilationUnit> parse(Path file) throws IOException {
+        Path path = file.toAbsolutePath().normalize();
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+
+        Entry cached = lookup(path);
+        if (cached != null && cached.size() == size && cached.lastModifiedMillis() == modified) {
+            synchronized (this) {
+                hits++;
+            }
+            return Optional.ofNullable(cached.unit());
+        }
+
+        byte[] content = Files.readAllBytes(path);
+        byte[] hash = sha256(content);
+        if (cached != null && MessageDigest.isEqual(cached.contentHash(), hash)) {
+            // Touched or checked out again with the same content
+            synchronized (this) {
+                revalidations++;
+                store(path, new Entry(cached.unit(), size, modified, hash, cached.weight()));
+            }
+            return Optional.ofNullable(cached.unit());
+        }
+
+        String source = new String(content, StandardCharsets.UTF_8);
+        ParseResult<CompilationUnit> result = ParsingService.parseSource(source);
+        CompilationUnit unit = result.isSuccessful() ? result.getResult().orElse(null) : null;
+        if (unit == null) {
+            logger.debug("Failed to parse {}: {}", path, result.getProblems());
+        }
+        long estimatedWeight = (long) source.length() * BYTES_PER_SOURCE_CHAR
+                + (unit != null ? (long) unit.findAll(Node.class).size() * BYTES_PER_NODE : 0);
+        synchronized (this) {
+            misses++;
+            store(path, new Entry(unit, size, modified, hash, estimatedWeight));
+        }
+        return Optional.ofNullable(unit);
+    }
+
+    /**
+     * Drops every cached AST.
+     */
+    public synchronized void clear() {
+        strong.clear();
+        soft.clear();
+        weight = 0;
+    }
+
+    /**
+     * Summarizes the cache's size and effectiveness.
+     *
+     * @return entries, weight, budget, hits, misses, demotions and reclaimed soft entries
+     */
+    public synchronized Map<String, Object> stats() {
+        purgeCleared();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", strong.size());
+        stats.put("softEntries", soft.size());
+        stats.put("weightBytes", weight);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits);
+        stats.put("promotions", promotions);
+        stats.put("revalidations", revalidations);
+        stats.put("misses", misses);
+        stats.put("demotions", demotions);
+        stats.put("reclaimed", reclaimed);
+        return stats;
+    }
+
+    private synchronized Entry lookup(Path path) {
+        purgeCleared();
+        Entry entry = strong.get(path);
+        if (entry != null) {
+            return entry;
+        }
+        SoftEntry demoted = soft.remove(path);
+        entry = demoted != null ? demoted.get() : null;
+        if (entry != null) {
+            promotions++;
+            store(path, entry);
+        }
+        return entry;
+    }
+
+    private void store(Path path, Entry entry) {
+        Entry previous = strong.put(path, entry);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        soft.remove(path);
+        weight += entry.weight();
+        demoteOverBudget();
+    }
+
+    private void demoteOverBudget() {
+        Iterator<Map.Entry<Path, Entry>> eldest = strong.entrySet().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            Map.Entry<Path, Entry> demoted = eldest.next();
+            eldest.remove();
+            weight -= demoted.getValue().weight();
+            soft.put(demoted.getKey(), new SoftEntry(demoted.getKey(), demoted.getValue(), cleared));
+            demotions++;
+        }
+    }
+
+    private void purgeCleared() {
+        Reference<? extends Entry> reference;
+        while ((reference = cleared.poll()) != null) {
+            SoftEntry entry = (SoftEntry) reference;
+            if (soft.get(entry.path) == entry) {
+                soft.remove(entry.path);
+                reclaimed++;
+            }
+        }
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(CompilationUnit unit, long size, long lastModifiedMillis, byte[] contentHash, long weight) {}
+
+    private static final class SoftEntry extends SoftReference<Entry> {
+
+        private final Path path;
+
+        SoftEntry(Path path, Entry entry, ReferenceQueue<Entry> queue) {
+            super(entry, queue);
+            this.path = path;
+        }
+    }
+}
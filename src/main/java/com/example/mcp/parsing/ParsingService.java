@@ -0,0 +1,199 @@
+package com.example.mcp.parsing;
+
+import com.example.mcp.concurrent.FileFanOut;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Parses many Java files in parallel through the shared {@link CompilationUnitCache}.
+ *
+ * <p>JavaParser instances are not thread-safe, so each parse borrows an idle
+ * instance from a bounded pool and returns it when done. Instances are
+ * created from the configuration returned by {@link #newConfiguration()}
+ * only when none is idle, so parses on the short-lived threads tool calls
+ * run on reuse parsers as the pool's workers do. Files are split
+ * across a fork-join pool sized to the CPU count by default; results always
+ * come back in the order of the requested files, whatever order the workers
+ * finished in.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class ParsingService {
+
+    /** Idle parsers; a parser returned to a full pool is dropped. */
+    private static final BlockingQueue<JavaParser> IDLE_PARSERS =
+            new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors() * 2));
+
+    private static final AtomicLong CREATED_PARSERS = new AtomicLong();
+
+    private static final ParsingService SHARED =
+            new ParsingService(CompilationUnitCache.shared(), Runtime.getRuntime().availableProcessors());
+
+    private final CompilationUnitCache cache;
+    private final FileFanOut<ParsedFile> fanOut = new FileFanOut<>("parsing", this::parseFile);
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a service that parses through the given cache.
+     *
+     * @param cache the cache parsed files are looked up in and stored to
+     * @param parallelism the number of files parsed at once
+     */
+    public ParsingService(CompilationUnitCache cache, int parallelism) {
+        this.cache = cache;
+        this.pool = FileFanOut.namedPool("java-parser", parallelism);
+    }
+
+    /**
+     * Gets the service shared by the tools and documentation generators.
+     *
+     * @return the shared service
+     */
+    public static ParsingService shared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates the parser configuration every parser uses.
+     *
+     * @return a new configuration
+     */
+    public static ParserConfiguration newConfiguration() {
+        return new ParserConfiguration()
+                .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+                // No tool prints back with lexical preservation, so token lists are dead weight
+                .setStoreTokens(false);
+    }
+
+    /**
+     * Parses source code with an idle parser, creating one if none is idle.
+     *
+     * @param source the source code
+     * @return the parse result
+     */
+    static ParseResult<CompilationUnit> parseSource(String source) {
+        JavaParser parser = IDLE_PARSERS.poll();
+        if (parser == null) {
+            parser = new JavaParser(newConfiguration());
+            CREATED_PARSERS.incrementAndGet();
+        }
+        try {
+            return parser.parse(source);
+        } finally {
+            IDLE_PARSERS.offer(parser);
+        }
+    }
+
+    /**
+     * Gets the number of parsers created so far.
+     *
+     * @return the count, which stops growing once enough parsers are idle
+     */
+    static long createdParsers() {
+        return CREATED_PARSERS.get();
+    }
+
+    /**
+     * Changes the number of files parsed at once. Parses already running
+     * finish on the old pool.
+     *
+     * @param parallelism the number of files parsed at once
+     */
+    public void setParallelism(int parallelism) {
+        ForkJoinPool previous;
+        synchronized (this) {
+            previous = pool;
+            pool = FileFanOut.namedPool("java-parser", parallelism);
+        }
+        previous.shutdown();
+    }
+
+    /**
+     * Gets the number of files parsed at once.
+     *
+     * @return the pool's parallelism
+     */
+    public synchronized int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Parses a single file through the cache on the calling thread.
+     *
+     * @param file the Java source file
+     * @return the AST, or empty if the file does not parse
+     * @throws IOException if the file cannot be read
+     */
+    public Optional<CompilationUnit> parse(Path file) throws IOException {
+        return cache.parse(file);
+    }
+
+    /**
+     * Parses files in parallel.
+     *
+     * @param files the Java source files
+     * @return one result per file, in the order of {@code files}
+     */
+    public List<ParsedFile> parseAll(List<Path> files) {
+        return fanOut.all(currentPool(), files);
+    }
+
+    /**
+     * Parses files in parallel and hands each result to a consumer in the
+     * order of {@code files}.
+     *
+     * <p>Files are parsed a few batches at a time, so the consumer sees the
+     * first results before the last files are parsed. The consumer may throw
+     * an unchecked exception to stop parsing the remaining files.
+     *
+     * @param files the Java source files
+     * @param consumer receives each result on the calling thread
+     */
+    public void parseEach(List<Path> files, Consumer<ParsedFile> consumer) {
+        fanOut.each(currentPool(), files, consumer);
+    }
+
+    private synchronized ForkJoinPool currentPool() {
+        return pool;
+    }
+
+    private ParsedFile parseFile(Path file) {
+        try {
+            return new ParsedFile(file, cache.parse(file).orElse(null), null);
+        } catch (IOException e) {
+            return new ParsedFile(file, null, e);
+        }
+    }
+
+    /**
+     * The outcome of parsing one file.
+     *
+     * @param path the file
+     * @param unit the AST, or null if the file did not parse or could not be read
+     * @param error the read failure, or null
+     */
+    public record ParsedFile(Path path, CompilationUnit unit, IOException error) {
+
+        /**
+         * Gets the AST if the file parsed.
+         *
+         * @return the AST, or empty
+         */
+        public Optional<CompilationUnit> compilationUnit() {
+            return Optional.ofNullable(unit);
+        }
+    }
+}
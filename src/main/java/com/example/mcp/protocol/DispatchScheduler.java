@@ -0,0 +1,257 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.tools.ToolLane;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Admits requests to per-lane worker executors under concurrency limits.
+ *
+ * <p>Every {@link ToolLane} has its own executor, concurrency limit and
+ * bounded wait queue, so heavy analysis can never occupy the workers that
+ * serve quick calls. Within a lane, a task may also carry a per-key limit
+ * (the tool name); a queued task whose key is at its limit is skipped, not
+ * waited on, so calls to other tools start ahead of it. When a lane's queue
+ * is full the task is rejected straight away and the caller answers with a
+ * busy error instead of letting the backlog grow.
+ *
+ * <p>Tasks never block a worker while waiting for a slot: they are only
+ * handed to the executor once they may run, which also makes the time spent
+ * queued measurable.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class DispatchScheduler {
+
+    private static final long MIN_RETRY_AFTER_MILLIS = 100;
+
+    private final Map<ToolLane, Lane> lanes = new EnumMap<>(ToolLane.class);
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param limits the concurrency limit of each lane
+     * @param queueCapacity how many tasks each lane may hold waiting
+     * @param executors creates a lane's executor for the given thread count
+     */
+    DispatchScheduler(Map<ToolLane, Integer> limits, int queueCapacity, IntFunction<ExecutorService> executors) {
+        for (ToolLane lane : ToolLane.values()) {
+            int limit = Math.max(1, limits.getOrDefault(lane, 1));
+            lanes.put(lane, new Lane(limit, Math.max(0, queueCapacity), executors.apply(limit)));
+        }
+    }
+
+    /**
+     * Runs a task in a lane now, or queues it until a slot frees up.
+     *
+     * @param lane the lane to admit the task to
+     * @param key the key the per-key limit applies to, or null for none
+     * @param keyLimit how many tasks with the same key may run at once, or 0 for no limit
+     * @param task the task
+     * @return false if the lane's queue is full and the task was rejected
+     */
+    boolean submit(ToolLane lane, String key, int keyLimit, Runnable task) {
+        return lanes.get(lane).submit(new Pending(key, keyLimit, task, System.nanoTime()));
+    }
+
+    /**
+     * Estimates when a rejected caller should retry: the time the lane needs
+     * to work through its queue at its recent average run time.
+     *
+     * @param lane the lane
+     * @return the suggested delay in milliseconds
+     */
+    long retryAfterMillis(ToolLane lane) {
+        return lanes.get(lane).retryAfterMillis();
+    }
+
+    /**
+     * Gets admission statistics per lane.
+     *
+     * @return lane name to counters and queue times
+     */
+    Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lanes.forEach((lane, state) -> stats.put(lane.name().toLowerCase(), state.stats()));
+        return stats;
+    }
+
+    /**
+     * Stops accepting work and waits for queued and running tasks to finish.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void shutdown() throws InterruptedException {
+        for (Lane lane : lanes.values()) {
+            lane.awaitIdle();
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes.values()) {
+            lane.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private record Pending(String key, int keyLimit, Runnable task, long enqueuedNanos) {
+    }
+
+    /**
+     * Queue and counters of one lane; all state is guarded by the lane's monitor.
+     */
+    private static final class Lane {
+        private final int limit;
+        private final int queueCapacity;
+        private final ExecutorService executor;
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private final Map<String, Integer> runningByKey = new HashMap<>();
+
+        private int running;
+        private long admitted;
+        private long rejected;
+        private long completed;
+        private long queuedTotal;
+        private long queueNanosTotal;
+        private long queueNanosMax;
+        private double averageRunNanos;
+
+        Lane(int limit, int queueCapacity, ExecutorService executor) {
+            this.limit = limit;
+            this.queueCapacity = queueCapacity;
+            this.executor = executor;
+        }
+
+        boolean submit(Pending pending) {
+            synchronized (this) {
+                if (!canStart(pending)) {
+                    if (queue.size() >= queueCapacity) {
+                        rejected++;
+                        return false;
+                    }
+                    admitted++;
+                    queuedTotal++;
+                    queue.addLast(pending);
+                    return true;
+                }
+                admitted++;
+                reserve(pending);
+            }
+            try {
+                executor.execute(run(pending));
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    admitted--;
+                    rejected++;
+                    release(pending);
+                }
+                return false;
+            }
+            return true;
+        }
+
+        private boolean canStart(Pending pending) {
+            return running < limit
+                    && (pending.key == null || pending.keyLimit <= 0
+                    || runningByKey.getOrDefault(pending.key, 0) < pending.keyLimit);
+        }
+
+        private void reserve(Pending pending) {
+            running++;
+            if (pending.key != null) {
+                runningByKey.merge(pending.key, 1, Integer::sum);
+            }
+        }
+
+        private void release(Pending pending) {
+            running--;
+            if (pending.key != null) {
+                runningByKey.computeIfPresent(pending.key, (key, count) -> count > 1 ? count - 1 : null);
+            }
+            if (running == 0 && queue.isEmpty()) {
+                notifyAll();
+            }
+        }
+
+        private Runnable run(Pending pending) {
+            return () -> {
+                long started = System.nanoTime();
+                try {
+                    pending.task.run();
+                } finally {
+                    finished(pending, System.nanoTime() - started);
+                }
+            };
+        }
+
+        private void finished(Pending pending, long runNanos) {
+            List<Pending> ready = new ArrayList<>();
+            long now = System.nanoTime();
+            synchronized (this) {
+                release(pending);
+                completed++;
+                averageRunNanos = averageRunNanos == 0 ? runNanos : averageRunNanos * 0.8 + runNanos * 0.2;
+
+                // Start the oldest tasks that may run; tasks held back by their key stay queued
+                Iterator<Pending> waiting = queue.iterator();
+                while (running < limit && waiting.hasNext()) {
+                    Pending next = waiting.next();
+                    if (canStart(next)) {
+                        waiting.remove();
+                        reserve(next);
+                        long queued = now - next.enqueuedNanos;
+                        queueNanosTotal += queued;
+                        queueNanosMax = Math.max(queueNanosMax, queued);
+                        ready.add(next);
+                    }
+                }
+            }
+            for (Pending next : ready) {
+                Runnable task = run(next);
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    // Its caller is already waiting on it, so run it here rather than drop it
+                    task.run();
+                }
+            }
+        }
+
+        synchronized long retryAfterMillis() {
+            double batches = Math.ceil((queue.size() + 1) / (double) limit);
+            long estimate = (long) (batches * averageRunNanos / 1_000_000);
+            return Math.max(MIN_RETRY_AFTER_MILLIS, estimate);
+        }
+
+        synchronized void awaitIdle() throws InterruptedException {
+            while (running > 0 || !queue.isEmpty()) {
+                wait();
+            }
+        }
+
+        synchronized Map<String, Object> stats() {
+            long dequeued = queuedTotal - queue.size();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("limit", limit);
+            stats.put("queueCapacity", queueCapacity);
+            stats.put("running", running);
+            stats.put("queued", queue.size());
+            stats.put("admitted", admitted);
+            stats.put("rejected", rejected);
+            stats.put("completed", completed);
+            stats.put("queueWaitAvgMs", dequeued == 0 ? 0.0 : queueNanosTotal / (double) dequeued / 1_000_000);
+            stats.put("queueWaitMaxMs", queueNanosMax / 1_000_000.0);
+            stats.put("runAvgMs", averageRunNanos / 1_000_000);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.mcp.protocol;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streamable HTTP transport: serves many MCP clients from one server process.
+ *
+ * <p>This implements the MCP streamable-HTTP binding on the JDK's built-in
+ * HTTP server. Clients POST JSON-RPC messages (or batches) to a single
+ * endpoint, {@code /mcp} by default:
+ * <ul>
+ *   <li>An {@code initialize} request without a session header opens a new
+ *       session; its id is returned in the {@code Mcp-Session-Id} header and
+ *       must be sent with every later request.</li>
+ *   <li>Messages holding only notifications are accepted with 202.</li>
+ *   <li>Requests are answered with a {@code text/event-stream} when the client
+ *       accepts one: progress notifications are sent as SSE events while the
+ *       call runs, followed by the response, after which the stream ends.
+ *       Other clients get the response as a single {@code application/json}
+ *       body and no notifications.</li>
+ *   <li>DELETE with the session header ends the session and cancels its
+ *       running calls.</li>
+ * </ul>
+ *
+ * <p>All sessions share the {@link McpServer}'s registries, caches and
+ * dispatch lanes, so one warm server can replace a JVM per client. Every
+ * request naming a session, and every response streamed to it, keeps the
+ * session alive; a periodic sweep drops sessions that have been idle for
+ * longer than the session timeout and run no tool call. Requests whose
+ * {@code Origin} is neither a loopback host nor the requested host are
+ * refused, so web pages cannot reach a server bound to localhost.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class HttpServerTransport implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpServerTransport.class);
+
+    /** Default endpoint path. */
+    public static final String DEFAULT_PATH = "/mcp";
+
+    /** Default time after which an unused session is dropped. */
+    public static final long DEFAULT_SESSION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    private static final byte[] EVENT_PREFIX = "event: message\ndata: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_SUFFIX = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final McpServer server;
+    private final InetSocketAddress address;
+    private final String path;
+    private final long sessionTimeoutMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, McpSession> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private ScheduledExecutorService sweeper;
+    private volatile DispatchScheduler workers;
+    private volatile boolean closing;
+
+    /**
+     * Creates a transport serving {@link #DEFAULT_PATH} on the given address.
+     *
+     * @param server the server whose registries all sessions share
+     * @param address the address to listen on; port 0 picks a free port
+     */
+    public HttpServerTransport(McpServer server, InetSocketAddress address) {
+        this(server, address, DEFAULT_PATH, DEFAULT_SESSION_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates a transport.
+     *
+     * @param server the server whose registries all sessions share
+     * @param address the address to listen on; port 0 picks a free port
+     * @param path the endpoint path
+     * @param sessionTimeoutMillis idle time after which a session is dropped
+     */
+    public HttpServerTransport(McpServer server, InetSocketAddress address, String path, long sessionTimeoutMillis) {
+        this.server = server;
+        this.address = address;
+        this.path = path;
+        this.sessionTimeoutMillis = sessionTimeoutMillis;
+    }
+
+    /**
+     * Starts listening; returns once the endpoint accepts connections.
+     *
+     * @throws IOException if the address cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        httpServer = HttpServer.create(address, 0);
+        httpServer.createContext(path, this::handle);
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "mcp-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-http-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(10, Math.min(sessionTimeoutMillis / 2, TimeUnit.MINUTES.toMillis(1)));
+        sweeper.scheduleWithFixedDelay(this::dropIdleSessions, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+
+        workers = server.attach();
+        httpServer.start();
+        logger.info("Serving MCP over HTTP at http://{}:{}{}",
+                address.getHostString(), httpServer.getAddress().getPort(), path);
+    }
+
+    /**
+     * Gets the port the transport listens on.
+     *
+     * @return the bound port
+     */
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Blocks until the transport is closed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination() throws InterruptedException {
+        closed.await();
+    }
+
+    /**
+     * Cancels the calls still running, waits for their responses to be
+     * written and stops listening. If interrupted while waiting, it stops
+     * listening at once and leaves the thread's interrupt flag set.
+     */
+    @Override
+    public synchronized void close() {
+        if (httpServer == null || closing) {
+            return;
+        }
+        closing = true;
+        sweeper.shutdownNow();
+        sessions.values().forEach(session -> session.cancelAll("server shutting down"));
+        // New requests are refused while closing, so the lanes can drain before the listener stops
+        try {
+            server.detach();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        httpServer.stop(0);
+        executor.shutdown();
+        sessions.clear();
+        closed.countDown();
+        logger.info("HTTP transport stopped");
+    }
+
+    private void handle(HttpExchange exchange) {
+        boolean answeredLater = false;
+        try {
+            if (closing) {
+                sendError(exchange, 503, -32603, "Server is shutting down");
+            } else if (!path.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, 404, -32601, "Not found: " + exchange.getRequestURI().getPath());
+            } else if (!originAllowed(exchange)) {
+                sendError(exchange, 403, -32600, "Origin not allowed");
+            } else {
+                // Any request naming a session shows its client is still there, whatever its method
+                String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+                McpSession session = sessionId != null ? sessions.get(sessionId) : null;
+                if (session != null) {
+                    session.touch();
+                }
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    answeredLater = handlePost(exchange);
+                } else if ("DELETE".equals(exchange.getRequestMethod())) {
+                    handleDelete(exchange);
+                } else {
+                    exchange.getResponseHeaders().set("Allow", "POST, DELETE");
+                    sendError(exchange, 405, -32600, "Method not allowed: " + exchange.getRequestMethod());
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error handling HTTP request", e);
+        } finally {
+            if (!answeredLater) {
+                exchange.close();
+            }
+        }
+    }
+
+    /**
+     * Dispatches a POSTed message.
+     *
+     * @return true if the exchange is completed later, when the message has been answered
+     */
+    private boolean handlePost(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        JsonNode message;
+        try {
+            message = objectMapper.readTree(body);
+        } catch (IOException e) {
+            sendError(exchange, 400, -32603, "Internal error: " + e.getMessage());
+            return false;
+        }
+        if (message == null || message.isMissingNode()) {
+            sendError(exchange, 400, -32600, "Invalid Request: empty body");
+            return false;
+        }
+
+        McpSession session;
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        if (sessionId != null) {
+            session = sessions.get(sessionId);
+            if (session == null) {
+                sendError(exchange, 404, -32600, "Unknown or expired session: " + sessionId);
+                return false;
+            }
+        } else if (isInitialize(message)) {
+            session = openSession();
+            exchange.getResponseHeaders().set(SESSION_HEADER, session.id());
+        } else {
+            sendError(exchange, 400, -32600, "Missing " + SESSION_HEADER + " header");
+            return false;
+        }
+        session.touch();
+
+        if (!expectsResponse(message)) {
+            server.dispatch(session, new ExchangeWriter(exchange, false), message, body.length, workers);
+            exchange.sendResponseHeaders(202, -1);
+            return false;
+        }
+
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        boolean stream = accept != null && accept.contains("text/event-stream");
+        ExchangeWriter writer = new ExchangeWriter(exchange, stream);
+        if (stream) {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+        }
+        server.dispatch(session, writer, message, body.length, workers).whenComplete((ignored, error) -> {
+            // A long call or stream counts as activity up to its last byte
+            session.touch();
+            writer.finish();
+        });
+        return true;
+    }
+
+    private void handleDelete(HttpExchange exchange) throws IOException {
+        String sessionId = exchange.getRequestHeaders().getFirst(SESSION_HEADER);
+        McpSession session = sessionId != null ? sessions.remove(sessionId) : null;
+        if (session == null) {
+            sendError(exchange, 404, -32600, "Unknown or expired session: " + sessionId);
+            return;
+        }
+        session.cancelAll("session closed by client");
+        logger.info("Closed session {}", sessionId);
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Drops the sessions idle for longer than the timeout; a session with a
+     * tool call still running is kept.
+     */
+    private void dropIdleSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> {
+            boolean expired = now - session.lastAccessMillis() > sessionTimeoutMillis
+                    && session.inFlightCalls().isEmpty();
+            if (expired) {
+                logger.info("Dropping idle session {}", session.id());
+                session.cancelAll("session expired");
+            }
+            return expired;
+        });
+    }
+
+    private McpSession openSession() {
+        byte[] bytes = new byte[18];
+        random.nextBytes(bytes);
+        McpSession session = new McpSession(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+        sessions.put(session.id(), session);
+        logger.info("Opened session {} ({} active)", session.id(), sessions.size());
+        return session;
+    }
+
+    private static boolean isInitialize(JsonNode message) {
+        return message.isObject() && "initialize".equals(message.path("method").asText());
+    }
+
+    /**
+     * Checks whether a message holds a request, which gets a response, rather
+     * than only notifications. An empty batch is answered with an error.
+     */
+    private static boolean expectsResponse(JsonNode message) {
+        if (message.isArray()) {
+            if (message.isEmpty()) {
+                return true;
+            }
+            for (JsonNode member : message) {
+                if (member.has("id")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return message.has("id");
+    }
+
+    /**
+     * Allows requests without an {@code Origin} (non-browser clients) and
+     * those from a loopback origin or the host the request was sent to.
+     */
+    private static boolean originAllowed(HttpExchange exchange) {
+        String origin = exchange.getRequestHeaders().getFirst("Origin");
+        if (origin == null) {
+            return true;
+        }
+        try {
+            URI uri = URI.create(origin);
+            String host = uri.getHost();
+            if ("localhost".equals(host) || "127.0.0.1".equals(host) || "[::1]".equals(host)) {
+                return true;
+            }
+            return uri.getAuthority() != null
+                    && uri.getAuthority().equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Host"));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, int code, String message) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(body)) {
+            JsonRpcResponse.error(null, code, message).writeTo(generator, objectMapper);
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.size());
+        body.writeTo(exchange.getResponseBody());
+    }
+
+    /**
+     * Carries the responses and notifications for one POSTed message, either
+     * as server-sent events or as a single JSON body. A JSON body holds only
+     * the response, so progress is not reported to clients without a stream.
+     */
+    private static final class ExchangeWriter implements ResponseWriter {
+        private final HttpExchange exchange;
+        private final boolean stream;
+        private byte[] response;
+
+        ExchangeWriter(HttpExchange exchange, boolean stream) {
+            this.exchange = exchange;
+            this.stream = stream;
+        }
+
+        @Override
+        public boolean acceptsNotifications() {
+            return stream;
+        }
+
+        @Override
+        public synchronized void writeMessage(MessageWriter writer) throws Exception {
+            // Render the whole frame first so a failing writer sends nothing
+            ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            writer.writeTo(frame);
+            if (stream) {
+                OutputStream body = exchange.getResponseBody();
+                body.write(EVENT_PREFIX);
+                frame.writeTo(body);
+                body.write(EVENT_SUFFIX);
+                body.flush();
+            } else {
+                // No notifications are produced without a stream, so this is the response
+                response = frame.toByteArray();
+            }
+        }
+
+        /**
+         * Ends the exchange once the message has been answered.
+         */
+        synchronized void finish() {
+            try {
+                if (!stream && response == null) {
+                    exchange.sendResponseHeaders(202, -1);
+                } else if (!stream) {
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, response.length);
+                    exchange.getResponseBody().write(response);
+                }
+            } catch (IOException e) {
+                logger.debug("Client went away before the response was sent: {}", e.getMessage());
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.mcp.protocol;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * A JSON-RPC 2.0 response that is serialized straight to a {@link JsonGenerator}.
+ *
+ * <p>The result payload is kept as the plain object returned by the handler
+ * (usually maps and lists built by a tool) and only serialized when the
+ * response is written, so no intermediate JSON tree or string is created.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class JsonRpcResponse {
+
+    private final JsonNode id;
+    private final Object result;
+    private final int errorCode;
+    private final String errorMessage;
+    private final Object errorData;
+
+    private JsonRpcResponse(JsonNode id, Object result, int errorCode, String errorMessage, Object errorData) {
+        this.id = id;
+        this.result = result;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.errorData = errorData;
+    }
+
+    /**
+     * Creates a success response.
+     *
+     * @param id the request id (may be null)
+     * @param result the result payload, serialized with the server's ObjectMapper
+     * @return the response
+     */
+    static JsonRpcResponse success(JsonNode id, Object result) {
+        return new JsonRpcResponse(id, result, 0, null, null);
+    }
+
+    /**
+     * Creates an error response.
+     *
+     * @param id the request id (may be null)
+     * @param code the JSON-RPC error code
+     * @param message the error message
+     * @return the response
+     */
+    static JsonRpcResponse error(JsonNode id, int code, String message) {
+        return new JsonRpcResponse(id, null, code, message, null);
+    }
+
+    /**
+     * Creates an error response carrying additional error data.
+     *
+     * @param id the request id (may be null)
+     * @param code the JSON-RPC error code
+     * @param message the error message
+     * @param data the {@code error.data} payload
+     * @return the response
+     */
+    static JsonRpcResponse error(JsonNode id, int code, String message, Object data) {
+        return new JsonRpcResponse(id, null, code, message, data);
+    }
+
+    JsonNode id() {
+        return id;
+    }
+
+    boolean isError() {
+        return errorMessage != null;
+    }
+
+    int errorCode() {
+        return errorCode;
+    }
+
+    String errorMessage() {
+        return errorMessage;
+    }
+
+    Object errorData() {
+        return errorData;
+    }
+
+    Object result() {
+        return result;
+    }
+
+    /**
+     * Writes this response as a JSON object.
+     *
+     * @param generator the target generator
+     * @param objectMapper mapper used to serialize the result payload
+     * @throws IOException if serialization fails
+     */
+    void writeTo(JsonGenerator generator, ObjectMapper objectMapper) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("jsonrpc", "2.0");
+        generator.writeFieldName("id");
+        if (id == null) {
+            generator.writeNull();
+        } else {
+            generator.writeTree(id);
+        }
+        if (isError()) {
+            generator.writeObjectFieldStart("error");
+            generator.writeNumberField("code", errorCode);
+            generator.writeStringField("message", errorMessage);
+            if (errorData != null) {
+                generator.writeFieldName("data");
+                objectMapper.writeValue(generator, errorData);
+            }
+            generator.writeEndObject();
+        } else {
+            generator.writeFieldName("result");
+            objectMapper.writeValue(generator, result);
+        }
+        generator.writeEndObject();
+    }
+}
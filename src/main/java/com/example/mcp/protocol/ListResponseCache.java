@@ -0,0 +1,138 @@
+package com.example.mcp.protocol;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches the result of a list method such as {@code tools/list} as
+ * pre-encoded UTF-8 pages.
+ *
+ * <p>Registries only change on registration, so the list entries are built
+ * and serialized once and the encoded pages are written raw into every later
+ * response. The owner calls {@link #invalidate()} whenever the registry
+ * changes; the next request rebuilds the pages. A build that races with a
+ * registration is discarded rather than cached.
+ *
+ * <p>With a positive page size the result is split into pages linked by an
+ * opaque {@code nextCursor}, as described by the MCP pagination scheme.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class ListResponseCache {
+
+    private final String field;
+    private final Supplier<List<?>> entries;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates a cache for one list method.
+     *
+     * @param field the result field holding the entries, e.g. "tools"
+     * @param entries supplies the current entries in a stable order
+     * @param objectMapper mapper used to serialize the entries
+     */
+    ListResponseCache(String field, Supplier<List<?>> entries, ObjectMapper objectMapper) {
+        this.field = field;
+        this.entries = entries;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Marks the cached pages as stale.
+     */
+    void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Gets the encoded result for the page a cursor points to.
+     *
+     * @param cursor the cursor from a previous page, or null for the first page
+     * @param pageSize entries per page, or 0 for a single page
+     * @return the pre-encoded result object
+     * @throws IllegalArgumentException if the cursor is not valid
+     * @throws IOException if the entries cannot be serialized
+     */
+    RawValue page(String cursor, int pageSize) throws IOException {
+        long current = version.get();
+        Snapshot cached = snapshot;
+        if (cached == null || cached.version != current || cached.pageSize != pageSize) {
+            cached = build(current, pageSize);
+            // Only publish if no registration happened while building
+            if (version.get() == current) {
+                snapshot = cached;
+            }
+        }
+
+        int index = cursor == null ? 0 : decodeCursor(cursor);
+        if (index < 0 || index >= cached.pages.length) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return cached.pages[index];
+    }
+
+    private Snapshot build(long buildVersion, int pageSize) throws IOException {
+        List<?> all = entries.get();
+        int perPage = pageSize > 0 ? pageSize : Math.max(1, all.size());
+        int pageCount = Math.max(1, (all.size() + perPage - 1) / perPage);
+
+        RawValue[] pages = new RawValue[pageCount];
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (int page = 0; page < pageCount; page++) {
+            buffer.reset();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart(field);
+                int end = Math.min(all.size(), (page + 1) * perPage);
+                for (int i = page * perPage; i < end; i++) {
+                    objectMapper.writeValue(generator, all.get(i));
+                }
+                generator.writeEndArray();
+                if (page + 1 < pageCount) {
+                    generator.writeStringField("nextCursor", encodeCursor(page + 1));
+                }
+                generator.writeEndObject();
+            }
+            SerializedString encoded = new SerializedString(buffer.toString(StandardCharsets.UTF_8));
+            // Encode now so responses only copy bytes
+            encoded.asUnquotedUTF8();
+            pages[page] = new RawValue(encoded);
+        }
+        return new Snapshot(buildVersion, pageSize, pages);
+    }
+
+    private static String encodeCursor(int page) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("page:" + page).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith("page:")) {
+                return Integer.parseInt(decoded.substring("page:".length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the invalid cursor result
+        }
+        return -1;
+    }
+
+    private record Snapshot(long version, int pageSize, RawValue[] pages) {
+    }
+}
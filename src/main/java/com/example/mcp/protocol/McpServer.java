@@ -1,19 +1,41 @@
 package com.example.mcp.protocol;
 
+import com.example.mcp.metrics.MetricsRegistry;
+import com.example.mcp.metrics.OperationMetrics;
+import com.example.mcp.tools.ResultSink;
 import com.example.mcp.tools.Tool;
+import com.example.mcp.tools.ToolContext;
+import com.example.mcp.tools.ToolLane;
 import com.example.mcp.resources.Resource;
 import com.example.mcp.prompts.Prompt;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Core MCP (Model Context Protocol) server implementation.
@@ -47,6 +69,48 @@ import java.util.regex.Pattern;
  * }
  * }</pre>
  *
+ * <h2>Dispatch:</h2>
+ * In concurrent mode (the default) each request runs on a worker thread and its
+ * response is written as soon as it completes, so responses may arrive out of
+ * order and clients correlate them by {@code id}. Workers are virtual threads on
+ * a Java 21+ runtime and a bounded platform-thread pool otherwise. The
+ * {@code initialize} request is always handled on the reader thread so that it
+ * completes before any later request is dispatched.
+ *
+ * <p>Requests are admitted through a {@link DispatchScheduler}. Calls to tools
+ * in the {@link ToolLane#HEAVY} lane get their own, smaller set of workers, so
+ * lookups and list requests in the light lane never wait behind analysis.
+ * Each lane runs a limited number of requests and queues a limited number
+ * more; a tool may further limit its own concurrent calls. A request that
+ * finds its lane's queue full is answered at once with {@code -32003}
+ * (server busy) and a {@code retryAfterMs} hint in the error data.
+ *
+ * <p>A line holding a JSON array is a JSON-RPC batch: its members run
+ * concurrently and their responses are written together as one array once the
+ * last member completes. Notifications (messages without an {@code id}) are
+ * executed but never answered, alone or inside a batch.
+ *
+ * <p>Each {@code tools/call} gets a {@link ToolContext}. The call's context is
+ * cancelled by a {@code notifications/cancelled} notification naming its id or
+ * when its deadline passes; cooperating tools then stop and the call fails
+ * with {@code -32800} (cancelled) or {@code -32001} (timed out). Cancellation
+ * notifications are handled on the reader thread so they never queue behind
+ * the calls they cancel. When the call's params carry
+ * {@code _meta.progressToken}, the tool's progress reports and partial results
+ * are sent as {@code notifications/progress} before the final response.
+ *
+ * <p>{@link #start(Transport)} serves a single client for the transport's
+ * lifetime. {@link HttpServerTransport} serves many clients from one server:
+ * each gets its own session, with its own {@code initialize} state and calls
+ * in flight, while the registries, list caches and dispatch lanes are shared.
+ *
+ * <p>Every request is timed per method and every tool call per tool, with
+ * error counts, in-flight gauges and payload sizes, in {@link #getMetrics()}.
+ *
+ * <p>Requests are parsed from the transport's raw UTF-8 frames and responses
+ * are streamed through a {@link JsonGenerator} onto the transport's frame
+ * stream, so tool results are never copied into a JSON tree or a string.
+ *
  * @author Maven SDLC Team
  * @version 2.0.0
  */
@@ -54,15 +118,37 @@ public class McpServer {
 
     private static final Logger logger = LoggerFactory.getLogger(McpServer.class);
 
+    /** Methods that fail with {@code -32002} until the session is initialized. */
+    private static final Set<String> REQUIRES_INITIALIZE = Set.of(
+            "tools/list", "tools/call", "resources/list", "resources/read", "prompts/list", "prompts/get");
+
+    /** Methods recorded under their own name; anything else is recorded as "other". */
+    private static final Set<String> MEASURED_METHODS = Set.of(
+            "initialize", "tools/list", "tools/call", "resources/list", "resources/read", "prompts/list",
+            "prompts/get", "notifications/cancelled");
+
     private final String serverName;
     private final String serverVersion;
     private final Map<String, Object> serverInfo;
     private final Map<String, Tool> tools;
     private final Map<String, Resource> resources;
+    private final ResourceRouter resourceRouter = new ResourceRouter();
     private final Map<String, Prompt> prompts;
     private final ObjectMapper objectMapper;
-
-    private boolean initialized = false;
+    private final ListResponseCache toolList;
+    private final ListResponseCache resourceList;
+    private final ListResponseCache promptList;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    private boolean concurrentDispatch = true;
+    private int workerThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private int heavyWorkerThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int dispatchQueueCapacity = 64;
+    private final Map<String, Integer> toolConcurrencyLimits = new ConcurrentHashMap<>();
+    private DispatchScheduler scheduler;
+    private int attachedConnections;
+    private volatile int listPageSize = 0;
+    private volatile long toolTimeoutMillis = 0;
 
     /**
      * Creates a new MCP server instance.
@@ -75,11 +161,130 @@ public class McpServer {
         this.serverName = serverName;
         this.serverVersion = serverVersion;
         this.serverInfo = serverInfo;
-        this.tools = new HashMap<>();
-        this.resources = new HashMap<>();
-        this.prompts = new HashMap<>();
+        this.tools = new ConcurrentHashMap<>();
+        this.resources = new ConcurrentHashMap<>();
+        this.prompts = new ConcurrentHashMap<>();
         this.objectMapper = new ObjectMapper();
         this.objectMapper.findAndRegisterModules();
+        this.toolList = new ListResponseCache("tools", () -> tools.values().stream()
+                .sorted(Comparator.comparing(Tool::getName))
+                .map(Tool::getSchema)
+                .toList(), objectMapper);
+        this.resourceList = new ListResponseCache("resources", () -> resources.values().stream()
+                .sorted(Comparator.comparing(Resource::getName))
+                .map(resource -> Map.of(
+                        "uri", resource.getUri(),
+                        "name", resource.getName(),
+                        "description", resource.getDescription(),
+                        "mimeType", resource.getMimeType()
+                ))
+                .toList(), objectMapper);
+        this.promptList = new ListResponseCache("prompts", () -> prompts.values().stream()
+                .sorted(Comparator.comparing(Prompt::getName))
+                .map(prompt -> Map.of(
+                        "name", prompt.getName(),
+                        "description", prompt.getDescription(),
+                        "arguments", prompt.getArguments()
+                ))
+                .toList(), objectMapper);
+        this.metrics.registerGauge("dispatch", this::getDispatchStats);
+    }
+
+    /**
+     * Enables or disables concurrent dispatch.
+     *
+     * <p>When disabled, each request is handled to completion on the reader
+     * thread before the next line is read.
+     *
+     * @param concurrentDispatch true to run requests on worker threads
+     */
+    public void setConcurrentDispatch(boolean concurrentDispatch) {
+        this.concurrentDispatch = concurrentDispatch;
+    }
+
+    /**
+     * Sets how many light-lane requests run at once; this is also the worker
+     * pool size when virtual threads are not available.
+     *
+     * @param workerThreads the light lane's concurrency limit
+     */
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = Math.max(1, workerThreads);
+    }
+
+    /**
+     * Sets how many calls to heavy tools run at once.
+     *
+     * @param heavyWorkerThreads the heavy lane's concurrency limit
+     */
+    public void setHeavyWorkerThreads(int heavyWorkerThreads) {
+        this.heavyWorkerThreads = Math.max(1, heavyWorkerThreads);
+    }
+
+    /**
+     * Sets how many requests each lane holds waiting before it rejects new
+     * ones as busy.
+     *
+     * @param dispatchQueueCapacity the wait queue bound per lane
+     */
+    public void setDispatchQueueCapacity(int dispatchQueueCapacity) {
+        this.dispatchQueueCapacity = Math.max(0, dispatchQueueCapacity);
+    }
+
+    /**
+     * Overrides how many calls to a tool may run at once.
+     *
+     * @param toolName the tool name
+     * @param limit the limit, or 0 for no limit beyond the tool's lane
+     * @see Tool#getMaxConcurrency()
+     */
+    public void setToolConcurrencyLimit(String toolName, int limit) {
+        toolConcurrencyLimits.put(toolName, Math.max(0, limit));
+    }
+
+    /**
+     * Gets admission statistics for each dispatch lane: running and queued
+     * requests, admitted, rejected and completed counts, and queue wait times.
+     *
+     * @return statistics per lane, empty when dispatch is sequential or not started
+     */
+    public synchronized Map<String, Object> getDispatchStats() {
+        return scheduler == null ? Map.of() : scheduler.stats();
+    }
+
+    /**
+     * Sets how many entries the list methods return per page.
+     *
+     * <p>With a positive size, {@code tools/list}, {@code resources/list} and
+     * {@code prompts/list} return a {@code nextCursor} while more entries remain.
+     *
+     * @param listPageSize entries per page, or 0 to return everything at once
+     */
+    public void setListPageSize(int listPageSize) {
+        this.listPageSize = Math.max(0, listPageSize);
+    }
+
+    /**
+     * Sets the default deadline for {@code tools/call}.
+     *
+     * <p>A call may override it with a {@code timeoutMs} field in its params.
+     * When the deadline passes, the call's context is cancelled and the client
+     * receives a timeout error.
+     *
+     * @param toolTimeoutMillis the deadline in milliseconds, or 0 for none
+     */
+    public void setToolTimeoutMillis(long toolTimeoutMillis) {
+        this.toolTimeoutMillis = Math.max(0, toolTimeoutMillis);
+    }
+
+    /**
+     * Gets the server's metrics: latency, errors, in-flight requests and
+     * payload sizes per method and per tool, and the dispatch statistics.
+     *
+     * @return the metrics registry
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
     }
 
     /**
@@ -89,19 +294,50 @@ public class McpServer {
      */
     public void registerTool(Tool tool) {
         tools.put(tool.getName(), tool);
+        toolList.invalidate();
         logger.info("Registered tool: {}", tool.getName());
     }
 
+    /**
+     * Removes a tool from the server.
+     *
+     * @param name the tool name
+     */
+    public void unregisterTool(String name) {
+        if (tools.remove(name) != null) {
+            toolList.invalidate();
+            logger.info("Unregistered tool: {}", name);
+        }
+    }
+
     /**
      * Registers a resource with the server.
      *
+     * <p>The resource's URI template is compiled into the resource router here,
+     * so {@code resources/read} never compiles patterns per request.
+     *
      * @param resource the resource to register
      */
     public void registerResource(Resource resource) {
         resources.put(resource.getName(), resource);
+        resourceRouter.register(resource);
+        resourceList.invalidate();
         logger.info("Registered resource: {} (URI: {})", resource.getName(), resource.getUri());
     }
 
+    /**
+     * Removes a resource from the server.
+     *
+     * @param name the resource name
+     */
+    public void unregisterResource(String name) {
+        if (resources.remove(name) != null) {
+            resourceRouter.unregister(name);
+            resourceList.invalidate();
+            logger.info("Unregistered resource: {}", name);
+        }
+    }
+
     /**
      * Registers a prompt with the server.
      *
@@ -109,9 +345,22 @@ public class McpServer {
      */
     public void registerPrompt(Prompt prompt) {
         prompts.put(prompt.getName(), prompt);
+        promptList.invalidate();
         logger.info("Registered prompt: {}", prompt.getName());
     }
 
+    /**
+     * Removes a prompt from the server.
+     *
+     * @param name the prompt name
+     */
+    public void unregisterPrompt(String name) {
+        if (prompts.remove(name) != null) {
+            promptList.invalidate();
+            logger.info("Unregistered prompt: {}", name);
+        }
+    }
+
     /**
      * Gets the number of registered tools.
      *
@@ -146,109 +395,496 @@ public class McpServer {
      * @throws Exception if server fails to start
      */
     public void start(Transport transport) throws Exception {
-        logger.info("Starting server...");
+        logger.info("Starting server ({} dispatch)...", concurrentDispatch ? "concurrent" : "sequential");
 
-        while (true) {
-            try {
-                // Read request
-                String requestLine = transport.readLine();
-                if (requestLine == null) {
+        McpSession session = new McpSession("stdio");
+        DispatchScheduler workers = attach();
+        try {
+            while (true) {
+                byte[] message;
+                try {
+                    // Read request
+                    message = transport.readMessage();
+                } catch (Exception e) {
+                    logger.error("Error reading from transport", e);
+                    break;
+                }
+                if (message == null) {
                     logger.info("Transport closed, shutting down");
                     break;
                 }
 
-                logger.debug("Received request: {}", requestLine);
+                logger.debug("Received request ({} bytes)", message.length);
+
+                JsonNode request;
+                try {
+                    request = objectMapper.readTree(message);
+                } catch (Exception e) {
+                    logger.error("Error parsing request", e);
+                    send(transport, createErrorResponse(null, -32603, "Internal error: " + e.getMessage()));
+                    continue;
+                }
+
+                dispatch(session, transport, request, message.length, workers);
+            }
+        } finally {
+            // Let queued and in-flight requests finish so their responses are still delivered
+            detach();
+        }
+    }
+
+    /**
+     * Attaches a connection to the shared dispatch lanes, creating them for
+     * the first connection.
+     *
+     * @return the scheduler, or null when dispatch is sequential
+     */
+    synchronized DispatchScheduler attach() {
+        if (!concurrentDispatch) {
+            return null;
+        }
+        if (attachedConnections++ == 0) {
+            scheduler = new DispatchScheduler(
+                    Map.of(ToolLane.LIGHT, workerThreads, ToolLane.HEAVY, heavyWorkerThreads),
+                    dispatchQueueCapacity, McpServer::createWorkerExecutor);
+            logger.info("Dispatch lanes: light {}, heavy {}, queue {} per lane",
+                    workerThreads, heavyWorkerThreads, dispatchQueueCapacity);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Detaches a connection; the last one waits for queued and running
+     * requests to finish and stops the lanes' workers.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void detach() throws InterruptedException {
+        DispatchScheduler idle;
+        synchronized (this) {
+            if (!concurrentDispatch || attachedConnections == 0 || --attachedConnections > 0) {
+                return;
+            }
+            idle = scheduler;
+        }
+        idle.shutdown();
+    }
+
+    /**
+     * Dispatches a parsed message of a session: a single request, a
+     * notification or a batch. Responses and notifications are written to the
+     * given transport.
+     *
+     * @param session the session the message belongs to
+     * @param transport where the response and notifications are written
+     * @param request the parsed message
+     * @param size the encoded size of the message
+     * @param workers the scheduler from {@link #attach()}, or null to run inline
+     * @return completes once the response, if any, has been written
+     */
+    CompletableFuture<Void> dispatch(McpSession session, ResponseWriter transport, JsonNode request, int size,
+                                     DispatchScheduler workers) {
+        metrics.method(metricName(request)).recordRequestBytes(size);
+        if (request.isArray()) {
+            return dispatchBatch(session, transport, (ArrayNode) request, workers);
+        }
 
-                // Parse and handle request
-                JsonNode request = objectMapper.readTree(requestLine);
-                JsonNode response = handleRequest(request);
+        trackCall(session, transport, request);
+        if (workers == null || runsOnReader(request)) {
+            process(session, transport, request);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        admit(workers, session, request, () -> {
+            try {
+                process(session, transport, request);
+            } finally {
+                written.complete(null);
+            }
+        }, busy -> {
+            if (busy != null) {
+                send(transport, busy);
+            }
+            written.complete(null);
+        });
+        return written;
+    }
+
+    /**
+     * Handles a parsed request and writes its response, if it expects one.
+     */
+    private void process(McpSession session, ResponseWriter transport, JsonNode request) {
+        JsonRpcResponse response = respond(session, request);
+        if (response != null) {
+            metrics.method(metricName(request)).recordResponseBytes(send(transport, response));
+        }
+    }
+
+    /**
+     * Runs the members of a batch concurrently and writes their responses as a
+     * single array once every member has completed.
+     */
+    private CompletableFuture<Void> dispatchBatch(McpSession session, ResponseWriter transport, ArrayNode batch,
+                                                  DispatchScheduler workers) {
+        if (batch.isEmpty()) {
+            send(transport, createErrorResponse(null, -32600, "Invalid Request: empty batch"));
+            return CompletableFuture.completedFuture(null);
+        }
 
-                // Send response
-                String responseLine = objectMapper.writeValueAsString(response);
-                transport.writeLine(responseLine);
-                logger.debug("Sent response: {}", responseLine);
+        logger.info("Handling batch of {} requests", batch.size());
+
+        List<CompletableFuture<JsonRpcResponse>> pending = new ArrayList<>(batch.size());
+        for (JsonNode member : batch) {
+            trackCall(session, transport, member);
+            if (workers == null || runsOnReader(member)) {
+                pending.add(CompletableFuture.completedFuture(respond(session, member)));
+            } else {
+                CompletableFuture<JsonRpcResponse> response = new CompletableFuture<>();
+                admit(workers, session, member, () -> {
+                    try {
+                        response.complete(respond(session, member));
+                    } catch (RuntimeException e) {
+                        response.completeExceptionally(e);
+                    }
+                }, response::complete);
+                pending.add(response);
+            }
+        }
 
-            } catch (Exception e) {
-                logger.error("Error processing request", e);
-                // Send error response
-                ObjectNode errorResponse = createErrorResponse(null, -32603, "Internal error: " + e.getMessage());
-                transport.writeLine(objectMapper.writeValueAsString(errorResponse));
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> {
+            List<JsonRpcResponse> responses = new ArrayList<>(pending.size());
+            for (CompletableFuture<JsonRpcResponse> future : pending) {
+                JsonRpcResponse response = future.join();
+                if (response != null) {
+                    responses.add(response);
+                }
             }
+            // A batch made up only of notifications gets no response at all
+            if (!responses.isEmpty()) {
+                metrics.method(metricName(batch)).recordResponseBytes(sendBatch(transport, responses));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Admits a request to its lane: tool calls go to the lane of the tool they
+     * name, under the tool's concurrency limit, and everything else to the
+     * light lane. When the lane is full, {@code rejected} receives the busy
+     * error to answer with, or null for a notification.
+     */
+    private void admit(DispatchScheduler workers, McpSession session, JsonNode request, Runnable task,
+                       Consumer<JsonRpcResponse> rejected) {
+        Tool tool = "tools/call".equals(request.path("method").asText())
+                ? tools.get(request.path("params").path("name").asText())
+                : null;
+        ToolLane lane = tool != null ? tool.getLane() : ToolLane.LIGHT;
+        String key = tool != null ? tool.getName() : null;
+        int keyLimit = tool != null ? toolConcurrencyLimits.getOrDefault(key, tool.getMaxConcurrency()) : 0;
+
+        if (workers.submit(lane, key, keyLimit, task)) {
+            return;
+        }
+
+        long retryAfter = workers.retryAfterMillis(lane);
+        logger.warn("Rejected {} request: {} lane queue is full, retry after {} ms",
+                request.path("method").asText(), lane, retryAfter);
+        if (isToolCall(request)) {
+            session.inFlightCalls().remove(request.get("id"));
         }
+        rejected.accept(isNotification(request) ? null : JsonRpcResponse.error(request.get("id"), -32003,
+                "Server busy, retry after " + retryAfter + " ms",
+                Map.of("retryAfterMs", retryAfter, "lane", lane.name().toLowerCase())));
+    }
+
+    /**
+     * Handles a single message and returns its response, or null for notifications.
+     */
+    private JsonRpcResponse respond(McpSession session, JsonNode request) {
+        if (!request.isObject() || !request.hasNonNull("method") || !request.get("method").isTextual()) {
+            JsonNode id = request.isObject() ? request.get("id") : null;
+            return createErrorResponse(id, -32600, "Invalid Request");
+        }
+
+        OperationMetrics methodMetrics = metrics.method(metricName(request));
+        long started = methodMetrics.start();
+        JsonRpcResponse response = null;
+        // Stays set if the handler throws; the error answering a notification is never sent, so it is no failure
+        boolean failed = true;
+        try {
+            response = handleRequest(session, request);
+            failed = !isNotification(request) && response.isError();
+        } catch (Exception e) {
+            logger.error("Error handling method: " + request.get("method").asText(), e);
+            response = createErrorResponse(request.get("id"), -32603, "Internal error: " + e.getMessage());
+        } finally {
+            if (isToolCall(request)) {
+                session.inFlightCalls().remove(request.get("id"));
+            }
+            methodMetrics.finish(started, failed);
+        }
+        return isNotification(request) ? null : response;
+    }
+
+    /**
+     * Registers the context of a tool call before it is dispatched, so a
+     * cancellation read while the call is still queued is not lost. Calls
+     * that carry a progress token report progress to the transport, unless it
+     * cannot deliver notifications.
+     */
+    private void trackCall(McpSession session, ResponseWriter transport, JsonNode request) {
+        if (!isToolCall(request)) {
+            return;
+        }
+        JsonNode progressToken = request.path("params").path("_meta").get("progressToken");
+        ResultSink sink = progressToken == null || progressToken.isNull() || !transport.acceptsNotifications()
+                ? ResultSink.NONE
+                : new ProgressNotifier(progressToken, params -> notify(transport, "notifications/progress", params));
+        session.inFlightCalls().put(request.get("id"), new ToolContext(sink));
+    }
+
+    private static String metricName(JsonNode request) {
+        if (request.isArray()) {
+            return "batch";
+        }
+        String method = request.path("method").asText();
+        return MEASURED_METHODS.contains(method) ? method : "other";
+    }
+
+    private static boolean isToolCall(JsonNode request) {
+        return request.isObject() && request.hasNonNull("id") && "tools/call".equals(request.path("method").asText());
+    }
+
+    private static boolean isNotification(JsonNode request) {
+        return !request.has("id");
+    }
+
+    /**
+     * Streams a response to the transport; concurrent writes to one transport are serialized.
+     *
+     * <p>If the result cannot be serialized, the transport discards the partial
+     * frame and an internal error is sent for the same id instead.
+     *
+     * @return the number of bytes written
+     */
+    private long send(ResponseWriter transport, JsonRpcResponse response) {
+        try {
+            long written = write(transport, generator -> response.writeTo(generator, objectMapper));
+            logger.debug("Sent response for id: {}", response.id());
+            return written;
+        } catch (Exception e) {
+            logger.error("Error writing response for id: " + response.id(), e);
+            return response.isError() ? 0 : send(transport, serializationFailure(response, e));
+        }
+    }
+
+    /**
+     * Streams a notification to the transport; failures are logged and dropped.
+     */
+    private void notify(ResponseWriter transport, String method, Object params) {
+        try {
+            write(transport, generator -> {
+                generator.writeStartObject();
+                generator.writeStringField("jsonrpc", "2.0");
+                generator.writeStringField("method", method);
+                generator.writeFieldName("params");
+                objectMapper.writeValue(generator, params);
+                generator.writeEndObject();
+            });
+        } catch (Exception e) {
+            logger.warn("Error writing {} notification: {}", method, e.getMessage());
+        }
+    }
+
+    /**
+     * Streams a batch response array to the transport.
+     *
+     * @return the number of bytes written
+     */
+    private long sendBatch(ResponseWriter transport, List<JsonRpcResponse> responses) {
+        try {
+            return write(transport, generator -> writeArray(generator, responses));
+        } catch (Exception e) {
+            logger.error("Error writing batch response", e);
+            // Replace the members whose results cannot be serialized and try once more
+            List<JsonRpcResponse> checked = new ArrayList<>(responses.size());
+            for (JsonRpcResponse response : responses) {
+                try (JsonGenerator probe = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+                    response.writeTo(probe, objectMapper);
+                    checked.add(response);
+                } catch (Exception memberFailure) {
+                    checked.add(serializationFailure(response, memberFailure));
+                }
+            }
+            try {
+                return write(transport, generator -> writeArray(generator, checked));
+            } catch (Exception retryFailure) {
+                logger.error("Error writing batch response", retryFailure);
+                return 0;
+            }
+        }
+    }
+
+    private void writeArray(JsonGenerator generator, List<JsonRpcResponse> responses) throws IOException {
+        generator.writeStartArray();
+        for (JsonRpcResponse response : responses) {
+            response.writeTo(generator, objectMapper);
+        }
+        generator.writeEndArray();
+    }
+
+    private JsonRpcResponse serializationFailure(JsonRpcResponse response, Exception e) {
+        return createErrorResponse(response.id(), -32603, "Internal error: failed to serialize result: " + e.getMessage());
+    }
+
+    /**
+     * Opens a UTF-8 generator directly on the transport's frame stream. Each
+     * transport is locked separately, so sessions never wait on each other.
+     *
+     * @return the number of bytes in the frame
+     */
+    private long write(ResponseWriter transport, GeneratorWriter writer) throws Exception {
+        synchronized (transport) {
+            long[] written = new long[1];
+            transport.writeMessage(out -> {
+                CountingOutputStream counted = new CountingOutputStream(out);
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(counted, JsonEncoding.UTF8)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    writer.write(generator);
+                }
+                written[0] = counted.count;
+            });
+            return written[0];
+        }
+    }
+
+    /**
+     * Counts the bytes passed through to the frame stream.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    @FunctionalInterface
+    private interface GeneratorWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Checks whether a request is handled on the reader thread: initialize must
+     * complete before later requests run, and cancellations must not queue
+     * behind the calls they cancel.
+     */
+    private static boolean runsOnReader(JsonNode request) {
+        JsonNode method = request.isObject() ? request.get("method") : null;
+        return method != null
+                && ("initialize".equals(method.asText()) || "notifications/cancelled".equals(method.asText()));
+    }
+
+    /**
+     * Creates a lane's worker executor: virtual threads when the runtime supports
+     * them (Java 21+), otherwise a fixed pool of daemon platform threads.
+     */
+    private static ExecutorService createWorkerExecutor(int workerThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            logger.debug("Using virtual worker threads");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            logger.debug("Virtual threads unavailable, using {} platform worker threads", workerThreads);
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "mcp-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
      * Handles an incoming JSON-RPC request.
      *
+     * @param session the session the request belongs to
      * @param request the request JSON
-     * @return the response JSON
+     * @return the response
+     * @throws Exception if the method's handler fails
      */
-    private JsonNode handleRequest(JsonNode request) {
+    private JsonRpcResponse handleRequest(McpSession session, JsonNode request) throws Exception {
         String method = request.get("method").asText();
         JsonNode id = request.get("id");
         JsonNode params = request.get("params");
 
         logger.info("Handling method: {}", method);
 
-        try {
-            return switch (method) {
-                case "initialize" -> handleInitialize(id, params);
-                case "tools/list" -> handleToolsList(id);
-                case "tools/call" -> handleToolsCall(id, params);
-                case "resources/list" -> handleResourcesList(id);
-                case "resources/read" -> handleResourcesRead(id, params);
-                case "prompts/list" -> handlePromptsList(id);
-                case "prompts/get" -> handlePromptsGet(id, params);
-                default -> createErrorResponse(id, -32601, "Method not found: " + method);
-            };
-        } catch (Exception e) {
-            logger.error("Error handling method: " + method, e);
-            return createErrorResponse(id, -32603, "Internal error: " + e.getMessage());
+        if (REQUIRES_INITIALIZE.contains(method) && !session.isInitialized()) {
+            return createErrorResponse(id, -32002, "Server not initialized");
         }
+
+        return switch (method) {
+            case "initialize" -> handleInitialize(session, id, params);
+            case "tools/list" -> handleList(id, params, toolList);
+            case "tools/call" -> handleToolsCall(session, id, params);
+            case "resources/list" -> handleList(id, params, resourceList);
+            case "resources/read" -> handleResourcesRead(id, params);
+            case "prompts/list" -> handleList(id, params, promptList);
+            case "prompts/get" -> handlePromptsGet(id, params);
+            case "notifications/cancelled" -> handleCancelled(session, id, params);
+            default -> createErrorResponse(id, -32601, "Method not found: " + method);
+        };
     }
 
     /**
      * Handles the initialize method.
      */
-    private JsonNode handleInitialize(JsonNode id, JsonNode params) {
-        logger.info("Initializing server");
-        initialized = true;
+    private JsonRpcResponse handleInitialize(McpSession session, JsonNode id, JsonNode params) {
+        logger.info("Initializing session {}", session.id());
+        session.markInitialized();
 
-        ObjectNode result = objectMapper.createObjectNode();
+        Map<String, Object> result = new LinkedHashMap<>();
         result.put("protocolVersion", "0.1.0");
         result.put("serverName", serverName);
         result.put("serverVersion", serverVersion);
-        result.set("serverInfo", objectMapper.valueToTree(serverInfo));
+        result.put("serverInfo", serverInfo);
 
         return createSuccessResponse(id, result);
     }
 
     /**
-     * Handles the tools/list method.
+     * Handles the tools/list, resources/list and prompts/list methods from their
+     * pre-encoded pages.
      */
-    private JsonNode handleToolsList(JsonNode id) {
-        if (!initialized) {
-            return createErrorResponse(id, -32002, "Server not initialized");
+    private JsonRpcResponse handleList(JsonNode id, JsonNode params, ListResponseCache list) throws IOException {
+        String cursor = params != null && params.hasNonNull("cursor") ? params.get("cursor").asText() : null;
+        try {
+            return createSuccessResponse(id, list.page(cursor, listPageSize));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(id, -32602, e.getMessage());
         }
-
-        ObjectNode result = objectMapper.createObjectNode();
-        result.set("tools", objectMapper.valueToTree(
-                tools.values().stream()
-                        .map(Tool::getSchema)
-                        .toList()
-        ));
-
-        return createSuccessResponse(id, result);
     }
 
     /**
      * Handles the tools/call method.
      */
-    private JsonNode handleToolsCall(JsonNode id, JsonNode params) {
-        if (!initialized) {
-            return createErrorResponse(id, -32002, "Server not initialized");
-        }
-
+    private JsonRpcResponse handleToolsCall(McpSession session, JsonNode id, JsonNode params) {
         String toolName = params.get("name").asText();
         JsonNode arguments = params.get("arguments");
 
@@ -257,128 +893,106 @@ public class McpServer {
             return createErrorResponse(id, -32602, "Tool not found: " + toolName);
         }
 
+        ToolContext context = session.inFlightCalls().get(id);
+        if (context == null) {
+            context = new ToolContext();
+        }
+        long timeoutMs = params.has("timeoutMs") ? params.get("timeoutMs").asLong() : toolTimeoutMillis;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> deadline = null;
+        if (timeoutMs > 0) {
+            ToolContext expiring = context;
+            deadline = Deadlines.SCHEDULER.schedule(() -> {
+                timedOut.set(true);
+                expiring.cancel("Timed out after " + timeoutMs + " ms");
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+        }
+
+        OperationMetrics toolMetrics = metrics.tool(toolName);
+        long started = toolMetrics.start();
+        boolean failed = true;
         try {
             logger.info("Executing tool: {} with arguments: {}", toolName, arguments);
+            context.throwIfCancelled();
 
             // Convert arguments to Map
             @SuppressWarnings("unchecked")
             Map<String, Object> argsMap = objectMapper.convertValue(arguments, Map.class);
 
             // Execute tool
-            Object toolResult = tool.execute(argsMap);
+            Object toolResult = tool.execute(argsMap, context);
 
-            // Create response
-            ObjectNode result = objectMapper.createObjectNode();
-            result.set("content", objectMapper.valueToTree(toolResult));
+            // The result is serialized straight onto the transport when the response is written
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("content", toolResult);
 
+            failed = false;
             return createSuccessResponse(id, result);
 
         } catch (Exception e) {
+            if (context.isCancelled()) {
+                logger.info("Tool call {} stopped: {}", toolName, context.getCancellationReason());
+                return timedOut.get()
+                        ? createErrorResponse(id, -32001, "Request timed out after " + timeoutMs + " ms")
+                        : createErrorResponse(id, -32800, "Request cancelled: " + context.getCancellationReason());
+            }
             logger.error("Tool execution failed: " + toolName, e);
             return createErrorResponse(id, -32000, "Tool execution failed: " + e.getMessage());
+        } finally {
+            toolMetrics.finish(started, failed);
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
         }
     }
 
     /**
-     * Handles the resources/list method.
+     * Handles notifications/cancelled by cancelling the referenced tool call.
      */
-    private JsonNode handleResourcesList(JsonNode id) {
-        if (!initialized) {
-            return createErrorResponse(id, -32002, "Server not initialized");
+    private JsonRpcResponse handleCancelled(McpSession session, JsonNode id, JsonNode params) {
+        JsonNode requestId = params != null ? params.get("requestId") : null;
+        ToolContext context = requestId != null ? session.inFlightCalls().get(requestId) : null;
+        if (context != null) {
+            String reason = params.hasNonNull("reason") ? params.get("reason").asText() : "cancelled by client";
+            logger.info("Cancelling request {}: {}", requestId, reason);
+            context.cancel(reason);
         }
-
-        ObjectNode result = objectMapper.createObjectNode();
-        result.set("resources", objectMapper.valueToTree(
-                resources.values().stream()
-                        .map(resource -> Map.of(
-                                "uri", resource.getUri(),
-                                "name", resource.getName(),
-                                "description", resource.getDescription(),
-                                "mimeType", resource.getMimeType()
-                        ))
-                        .toList()
-        ));
-
-        return createSuccessResponse(id, result);
+        return createSuccessResponse(id, Map.of());
     }
 
     /**
      * Handles the resources/read method.
      */
-    private JsonNode handleResourcesRead(JsonNode id, JsonNode params) {
-        if (!initialized) {
-            return createErrorResponse(id, -32002, "Server not initialized");
-        }
-
+    private JsonRpcResponse handleResourcesRead(JsonNode id, JsonNode params) {
         String uri = params.get("uri").asText();
 
-        // Find matching resource and extract URI parameters
-        Resource matchingResource = null;
-        Map<String, String> uriParams = new HashMap<>();
-
-        for (Resource resource : resources.values()) {
-            Map<String, String> extractedParams = extractUriParams(resource.getUri(), uri);
-            if (extractedParams != null) {
-                matchingResource = resource;
-                uriParams = extractedParams;
-                break;
-            }
-        }
-
-        if (matchingResource == null) {
+        ResourceRouter.Match match = resourceRouter.route(uri);
+        if (match == null) {
             return createErrorResponse(id, -32602, "Resource not found for URI: " + uri);
         }
+        Resource matchingResource = match.resource();
 
         try {
             logger.info("Reading resource: {} with URI: {}", matchingResource.getName(), uri);
 
-            Object resourceData = matchingResource.read(uriParams);
+            Object resourceData = matchingResource.read(match.params());
 
-            ObjectNode result = objectMapper.createObjectNode();
-            result.set("contents", objectMapper.valueToTree(List.of(Map.of(
+            return createSuccessResponse(id, Map.of("contents", List.of(Map.of(
                     "uri", uri,
                     "mimeType", matchingResource.getMimeType(),
                     "text", objectMapper.writeValueAsString(resourceData)
             ))));
 
-            return createSuccessResponse(id, result);
-
         } catch (Exception e) {
             logger.error("Resource read failed: " + uri, e);
             return createErrorResponse(id, -32000, "Resource read failed: " + e.getMessage());
         }
     }
 
-    /**
-     * Handles the prompts/list method.
-     */
-    private JsonNode handlePromptsList(JsonNode id) {
-        if (!initialized) {
-            return createErrorResponse(id, -32002, "Server not initialized");
-        }
-
-        ObjectNode result = objectMapper.createObjectNode();
-        result.set("prompts", objectMapper.valueToTree(
-                prompts.values().stream()
-                        .map(prompt -> Map.of(
-                                "name", prompt.getName(),
-                                "description", prompt.getDescription(),
-                                "arguments", prompt.getArguments()
-                        ))
-                        .toList()
-        ));
-
-        return createSuccessResponse(id, result);
-    }
-
     /**
      * Handles the prompts/get method.
      */
-    private JsonNode handlePromptsGet(JsonNode id, JsonNode params) {
-        if (!initialized) {
-            return createErrorResponse(id, -32002, "Server not initialized");
-        }
-
+    private JsonRpcResponse handlePromptsGet(JsonNode id, JsonNode params) {
         String promptName = params.get("name").asText();
         JsonNode arguments = params.has("arguments") ? params.get("arguments") : objectMapper.createObjectNode();
 
@@ -395,15 +1009,15 @@ public class McpServer {
 
             String promptContent = prompt.getPrompt(argsMap);
 
-            ObjectNode result = objectMapper.createObjectNode();
+            Map<String, Object> result = new LinkedHashMap<>();
             result.put("description", prompt.getDescription());
-            result.set("messages", objectMapper.valueToTree(List.of(Map.of(
+            result.put("messages", List.of(Map.of(
                     "role", "user",
                     "content", Map.of(
                             "type", "text",
                             "text", promptContent
                     )
-            ))));
+            )));
 
             return createSuccessResponse(id, result);
 
@@ -414,66 +1028,33 @@ public class McpServer {
     }
 
     /**
-     * Extracts parameters from a URI based on a URI pattern.
-     *
-     * @param pattern the URI pattern (e.g., "cache://analysis/{projectPath}")
-     * @param uri the actual URI (e.g., "cache://analysis/path/to/project")
-     * @return map of extracted parameters, or null if URI doesn't match pattern
+     * Daemon timer shared by all servers for tool call deadlines.
      */
-    private Map<String, String> extractUriParams(String pattern, String uri) {
-        // Convert URI pattern to regex
-        String regex = pattern.replaceAll("\\{([^}]+)\\}", "(?<$1>.+)");
-        regex = regex.replace("://", "://");
-
-        Pattern compiledPattern = Pattern.compile(regex);
-        Matcher matcher = compiledPattern.matcher(uri);
-
-        if (!matcher.matches()) {
-            return null;
+    private static final class Deadlines {
+        static final ScheduledThreadPoolExecutor SCHEDULER = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "mcp-deadlines");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.setRemoveOnCancelPolicy(true);
+            return scheduler;
         }
-
-        Map<String, String> params = new HashMap<>();
-
-        // Extract named groups
-        Pattern paramPattern = Pattern.compile("\\{([^}]+)\\}");
-        Matcher paramMatcher = paramPattern.matcher(pattern);
-
-        while (paramMatcher.find()) {
-            String paramName = paramMatcher.group(1);
-            try {
-                String paramValue = matcher.group(paramName);
-                params.put(paramName, paramValue);
-            } catch (IllegalArgumentException e) {
-                // Parameter not found in match
-            }
-        }
-
-        return params;
     }
 
     /**
      * Creates a success response.
      */
-    private ObjectNode createSuccessResponse(JsonNode id, ObjectNode result) {
-        ObjectNode response = objectMapper.createObjectNode();
-        response.put("jsonrpc", "2.0");
-        response.set("id", id);
-        response.set("result", result);
-        return response;
+    private JsonRpcResponse createSuccessResponse(JsonNode id, Object result) {
+        return JsonRpcResponse.success(id, result);
     }
 
     /**
      * Creates an error response.
      */
-    private ObjectNode createErrorResponse(JsonNode id, int code, String message) {
-        ObjectNode error = objectMapper.createObjectNode();
-        error.put("code", code);
-        error.put("message", message);
-
-        ObjectNode response = objectMapper.createObjectNode();
-        response.put("jsonrpc", "2.0");
-        response.set("id", id);
-        response.set("error", error);
-        return response;
+    private JsonRpcResponse createErrorResponse(JsonNode id, int code, String message) {
+        return JsonRpcResponse.error(id, code, message);
     }
 }
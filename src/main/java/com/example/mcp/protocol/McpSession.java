@@ -0,0 +1,78 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.tools.ToolContext;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * State of one client connection to an {@link McpServer}.
+ *
+ * <p>A stdio server has a single session for its lifetime; the HTTP transport
+ * keeps one per {@code Mcp-Session-Id}. Registries, caches and the dispatch
+ * lanes live in the server and are shared by all sessions; only the
+ * initialization state and the calls in flight are per session, so request
+ * ids chosen by different clients never collide.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class McpSession {
+
+    private final String id;
+    private final Map<JsonNode, ToolContext> inFlightCalls = new ConcurrentHashMap<>();
+
+    private volatile boolean initialized;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    /**
+     * Creates a session.
+     *
+     * @param id the session id
+     */
+    McpSession(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    boolean isInitialized() {
+        return initialized;
+    }
+
+    void markInitialized() {
+        initialized = true;
+    }
+
+    /**
+     * Gets the contexts of this session's tool calls, keyed by request id.
+     *
+     * @return the mutable map of calls in flight
+     */
+    Map<JsonNode, ToolContext> inFlightCalls() {
+        return inFlightCalls;
+    }
+
+    /**
+     * Records that the client used the session just now.
+     */
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    /**
+     * Cancels every tool call still running in this session.
+     *
+     * @param reason the cancellation reason
+     */
+    void cancelAll(String reason) {
+        inFlightCalls.values().forEach(context -> context.cancel(reason));
+    }
+}
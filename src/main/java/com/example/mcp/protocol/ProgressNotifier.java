@@ -0,0 +1,83 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.tools.ResultSink;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Turns a tool's progress reports into {@code notifications/progress} messages
+ * for the progress token the client sent with its {@code tools/call}.
+ *
+ * <p>Plain progress reports are throttled to one notification per interval;
+ * the final report (processed equals total) and every partial result are
+ * always sent. Partial results travel in a {@code partialResult} field next
+ * to the usual {@code progress}, {@code total} and {@code message} fields.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class ProgressNotifier implements ResultSink {
+
+    private static final long MIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final JsonNode progressToken;
+    private final Consumer<Map<String, Object>> sender;
+
+    private long processed;
+    private long total;
+    private String message;
+    private long lastSentNanos;
+    private boolean sentAny;
+
+    /**
+     * Creates a notifier for one call.
+     *
+     * @param progressToken the token from the request's {@code _meta}
+     * @param sender writes the params of one notification
+     */
+    ProgressNotifier(JsonNode progressToken, Consumer<Map<String, Object>> sender) {
+        this.progressToken = progressToken;
+        this.sender = sender;
+    }
+
+    @Override
+    public synchronized void progress(long processed, long total, String message) {
+        this.processed = processed;
+        this.total = total;
+        this.message = message;
+
+        long now = System.nanoTime();
+        boolean finished = total > 0 && processed >= total;
+        if (!finished && sentAny && now - lastSentNanos < MIN_INTERVAL_NANOS) {
+            return;
+        }
+        send(null, now);
+    }
+
+    @Override
+    public synchronized void partialResult(Object chunk) {
+        send(chunk, System.nanoTime());
+    }
+
+    private void send(Object chunk, long now) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("progressToken", progressToken);
+        params.put("progress", processed);
+        if (total > 0) {
+            params.put("total", total);
+        }
+        if (message != null) {
+            params.put("message", message);
+        }
+        if (chunk != null) {
+            params.put("partialResult", chunk);
+        }
+        sender.accept(params);
+        lastSentNanos = now;
+        sentAny = true;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.resources.Resource;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes resource URIs to registered resources.
+ *
+ * <p>Each URI template (e.g. {@code cache://analysis/{projectPath}}) is compiled
+ * once, when it is registered, into a literal prefix and a matcher. The
+ * prefixes are kept in a character trie, so a lookup walks the requested URI
+ * once and only tries the templates whose literal prefix it starts with,
+ * longest prefix first. Templates sharing a prefix are tried in registration
+ * order. A parameter matches one or more characters, as before. A trailing
+ * query expression such as {@code {?reset}} (RFC 6570) makes the query string
+ * optional and extracts the listed variables from it.
+ *
+ * <p>Registration is copy-on-write: lookups run against an immutable snapshot
+ * and never block.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class ResourceRouter {
+
+    private static final Pattern PARAMETER = Pattern.compile("\\{([^}]+)\\}");
+
+    private final Map<String, Route> routesByName = new LinkedHashMap<>();
+    private volatile Node root = new Node();
+
+    /**
+     * Compiles the resource's URI template and adds it to the router, replacing
+     * any resource registered under the same name.
+     *
+     * @param resource the resource to route to
+     */
+    synchronized void register(Resource resource) {
+        routesByName.remove(resource.getName());
+        routesByName.put(resource.getName(), compile(resource));
+        rebuild();
+    }
+
+    /**
+     * Removes the resource registered under the given name.
+     *
+     * @param name the resource name
+     */
+    synchronized void unregister(String name) {
+        if (routesByName.remove(name) != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Finds the resource serving the given URI.
+     *
+     * @param uri the requested URI
+     * @return the matched resource and its URI parameters, or null if none matches
+     */
+    Match route(String uri) {
+        // Collect the nodes along the URI's path; deeper nodes have longer literal prefixes
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < uri.length(); i++) {
+            node = node.children.get(uri.charAt(i));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+        }
+
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            for (Route route : path.get(depth).routes) {
+                Map<String, String> params = route.match(uri);
+                if (params != null) {
+                    return new Match(route.resource, params);
+                }
+            }
+        }
+        return null;
+    }
+
+    private void rebuild() {
+        Node newRoot = new Node();
+        for (Route route : routesByName.values()) {
+            Node node = newRoot;
+            for (int i = 0; i < route.prefix.length(); i++) {
+                node = node.children.computeIfAbsent(route.prefix.charAt(i), c -> new Node());
+            }
+            node.routes.add(route);
+        }
+        root = newRoot;
+    }
+
+    private static Route compile(Resource resource) {
+        String template = resource.getUri();
+        Matcher parameter = PARAMETER.matcher(template);
+        if (!parameter.find()) {
+            return new Route(resource, template, null, List.of());
+        }
+
+        String prefix = template.substring(0, parameter.start());
+        List<String> names = new ArrayList<>();
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        do {
+            if (parameter.start() > literalStart) {
+                regex.append(Pattern.quote(template.substring(literalStart, parameter.start())));
+            }
+            // A query expression keeps its "?" marker so matching knows to parse it; a path
+            // parameter stops at "?" so a query after it is left to the query expression
+            regex.append(parameter.group(1).startsWith("?") ? "(?:\\?(.*))?" : "([^?]+)");
+            names.add(parameter.group(1));
+            literalStart = parameter.end();
+        } while (parameter.find());
+        if (literalStart < template.length()) {
+            regex.append(Pattern.quote(template.substring(literalStart)));
+        }
+
+        return new Route(resource, prefix, Pattern.compile(regex.toString()), List.copyOf(names));
+    }
+
+    /**
+     * A resource together with the parameters extracted from the requested URI.
+     */
+    record Match(Resource resource, Map<String, String> params) {
+    }
+
+    /**
+     * A compiled URI template; templates without parameters match by equality.
+     */
+    private static final class Route {
+        private final Resource resource;
+        private final String prefix;
+        private final Pattern pattern;
+        private final List<String> names;
+
+        Route(Resource resource, String prefix, Pattern pattern, List<String> names) {
+            this.resource = resource;
+            this.prefix = prefix;
+            this.pattern = pattern;
+            this.names = names;
+        }
+
+        Map<String, String> match(String uri) {
+            if (pattern == null) {
+                return prefix.equals(uri) ? new HashMap<>() : null;
+            }
+            Matcher matcher = pattern.matcher(uri);
+            if (!matcher.matches()) {
+                return null;
+            }
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                if (name.startsWith("?")) {
+                    addQueryParams(name.substring(1), matcher.group(i + 1), params);
+                } else {
+                    params.put(name, matcher.group(i + 1));
+                }
+            }
+            return params;
+        }
+
+        private static void addQueryParams(String variables, String query, Map<String, String> params) {
+            if (query == null || query.isEmpty()) {
+                return;
+            }
+            List<String> allowed = List.of(variables.split(","));
+            for (String pair : query.split("&")) {
+                int separator = pair.indexOf('=');
+                String key = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+                if (allowed.contains(key)) {
+                    params.put(key, separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Route> routes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.mcp.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The write side of a connection: where the server sends the responses and
+ * notifications for the messages it dispatches.
+ *
+ * <p>A {@link Transport} is both ends of a connection. Other writers, such as
+ * a single HTTP exchange, only carry the answer to messages read elsewhere.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public interface ResponseWriter {
+
+    /**
+     * Writes one message frame whose UTF-8 content is produced by the given writer.
+     *
+     * <p>If the writer fails, nothing of the frame may reach the peer. The
+     * server may call this from several worker threads; implementations must
+     * not interleave the content of concurrent writes.
+     *
+     * @param writer callback that writes the message content
+     * @throws Exception if the writer fails or an error occurs writing
+     */
+    void writeMessage(MessageWriter writer) throws Exception;
+
+    /**
+     * Checks whether notifications, such as progress, can reach the peer
+     * before the response. When not, the server does not produce them.
+     *
+     * @return true by default
+     */
+    default boolean acceptsNotifications() {
+        return true;
+    }
+
+    /**
+     * Writes the content of a single message frame.
+     */
+    @FunctionalInterface
+    interface MessageWriter {
+
+        /**
+         * Writes the message content to the frame stream.
+         *
+         * @param out the frame stream; must not be closed by the writer
+         * @throws IOException if writing fails
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -1,44 +1,147 @@
 package com.example.mcp.protocol;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * Standard input/output transport implementation.
  *
  * <p>This transport reads from System.in and writes to System.out,
  * which is the standard way MCP servers communicate with clients.
+ * Messages are newline-delimited UTF-8 frames handled as raw bytes, so no
+ * character decoding or intermediate strings are involved. Writes are
+ * synchronized so concurrent workers never interleave frames.
  *
  * @author Maven SDLC Team
  * @version 1.0.0
  */
 public class StdioTransport implements Transport {
 
-    private final BufferedReader reader;
-    private final BufferedWriter writer;
+    /** Frame buffers larger than this are released after use instead of kept. */
+    private static final int MAX_RETAINED_FRAME = 4 * 1024 * 1024;
+
+    private final InputStream input;
+    private final OutputStream output;
+    private final FrameBuffer frame = new FrameBuffer();
+
+    // Read-side state, only touched by the reader thread
+    private final byte[] readBuffer = new byte[64 * 1024];
+    private int readPosition = 0;
+    private int readLimit = 0;
+    private byte[] lineBuffer = new byte[8192];
 
     /**
      * Creates a new stdio transport.
      */
     public StdioTransport() {
-        this.reader = new BufferedReader(new InputStreamReader(System.in));
-        this.writer = new BufferedWriter(new OutputStreamWriter(System.out));
+        this(System.in, System.out);
+    }
+
+    /**
+     * Creates a transport over the given byte streams.
+     *
+     * @param input the stream requests are read from
+     * @param output the stream responses are written to
+     */
+    public StdioTransport(InputStream input, OutputStream output) {
+        this.input = input;
+        this.output = new BufferedOutputStream(output, 64 * 1024);
     }
 
     @Override
     public String readLine() throws Exception {
-        return reader.readLine();
+        byte[] message = readMessage();
+        return message == null ? null : new String(message, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] readMessage() throws IOException {
+        int length = 0;
+        while (true) {
+            if (readPosition == readLimit) {
+                readLimit = input.read(readBuffer);
+                readPosition = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    return length == 0 ? null : frameOf(length);
+                }
+            }
+
+            int start = readPosition;
+            int end = start;
+            while (end < readLimit && readBuffer[end] != '\n') {
+                end++;
+            }
+
+            int chunk = end - start;
+            if (length + chunk > lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, length + chunk));
+            }
+            System.arraycopy(readBuffer, start, lineBuffer, length, chunk);
+            length += chunk;
+
+            if (end < readLimit) {
+                readPosition = end + 1;
+                return frameOf(length);
+            }
+            readPosition = readLimit;
+        }
+    }
+
+    private byte[] frameOf(int length) {
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
+        }
+        return Arrays.copyOf(lineBuffer, length);
+    }
+
+    @Override
+    public synchronized void writeLine(String line) throws Exception {
+        output.write(line.getBytes(StandardCharsets.UTF_8));
+        output.write('\n');
+        output.flush();
     }
 
     @Override
-    public void writeLine(String line) throws Exception {
-        writer.write(line);
-        writer.newLine();
-        writer.flush();
+    public synchronized void writeMessage(MessageWriter writer) throws Exception {
+        // Build the frame in a reused buffer so a failing writer never emits a partial line
+        frame.reset();
+        try {
+            writer.writeTo(frame);
+            frame.writeTo(output);
+            output.write('\n');
+            output.flush();
+        } finally {
+            frame.trim();
+        }
     }
 
     @Override
     public void close() throws Exception {
-        reader.close();
-        writer.close();
+        input.close();
+        output.close();
+    }
+
+    /**
+     * Reusable frame buffer that ignores close requests from writers.
+     */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+
+        FrameBuffer() {
+            super(8192);
+        }
+
+        void trim() {
+            if (buf.length > MAX_RETAINED_FRAME) {
+                buf = new byte[8192];
+            }
+            count = 0;
+        }
+
+        @Override
+        public void close() {
+            // Frames are written by the transport, not closed by writers
+        }
     }
 }
@@ -1,15 +1,23 @@
 package com.example.mcp.protocol;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Transport layer interface for MCP communication.
  *
  * <p>Implementations of this interface handle the actual communication
  * mechanism (stdio, HTTP, WebSocket, etc.).
  *
+ * <p>The server exchanges messages as UTF-8 byte frames through
+ * {@link #readMessage()} and {@link #writeMessage(MessageWriter)}. The default
+ * implementations adapt the line-based methods, so a transport only has to
+ * override them when it can frame bytes directly.
+ *
  * @author Maven SDLC Team
  * @version 1.0.0
  */
-public interface Transport {
+public interface Transport extends ResponseWriter {
 
     /**
      * Reads a line of input from the transport.
@@ -22,11 +30,38 @@ public interface Transport {
     /**
      * Writes a line of output to the transport.
      *
+     * <p>The server may call this from several worker threads; implementations
+     * must not interleave the content of concurrent writes.
+     *
      * @param line the line to write
      * @throws Exception if an error occurs writing
      */
     void writeLine(String line) throws Exception;
 
+    /**
+     * Reads the next message frame as UTF-8 bytes.
+     *
+     * @return the message bytes, or null if end of stream
+     * @throws Exception if an error occurs reading
+     */
+    default byte[] readMessage() throws Exception {
+        String line = readLine();
+        return line == null ? null : line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes one message frame through {@link #writeLine(String)}.
+     *
+     * @param writer callback that writes the message content
+     * @throws Exception if the writer fails or an error occurs writing
+     */
+    @Override
+    default void writeMessage(MessageWriter writer) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        writer.writeTo(buffer);
+        writeLine(buffer.toString(StandardCharsets.UTF_8));
+    }
+
     /**
      * Closes the transport.
      *
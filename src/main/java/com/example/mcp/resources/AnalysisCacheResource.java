@@ -1,20 +1,27 @@
 package com.example.mcp.resources;
 
+import com.example.mcp.cache.AnalysisCache;
+import com.example.mcp.cache.ProjectFingerprint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Resource for caching and retrieving Maven project analysis results.
+ * Resource for retrieving the cached results of the analysis tools.
  *
- * <p>This resource allows MCP clients to cache expensive analysis operations
- * and retrieve them later without re-running the analysis.
+ * <p>The analysis tools (analyze-maven-project, analyze-dependencies,
+ * code-quality-check and security-scan) store their results in the shared
+ * {@link AnalysisCache}. This resource lists a project's cached results and
+ * marks each one stale exactly when the project's pom.xml files or source
+ * tree have changed since it was computed.
  *
  * <p>URI Pattern: {@code cache://analysis/{projectPath}}
  *
@@ -25,8 +32,23 @@ public class AnalysisCacheResource implements Resource {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalysisCacheResource.class);
 
-    // In-memory cache (in production, could use Redis, etc.)
-    private static final ConcurrentHashMap<String, CachedAnalysis> cache = new ConcurrentHashMap<>();
+    private final AnalysisCache cache;
+
+    /**
+     * Creates the resource over the shared analysis cache.
+     */
+    public AnalysisCacheResource() {
+        this(AnalysisCache.shared());
+    }
+
+    /**
+     * Creates the resource over the given cache.
+     *
+     * @param cache the analysis cache
+     */
+    public AnalysisCacheResource(AnalysisCache cache) {
+        this.cache = cache;
+    }
 
     @Override
     public String getUri() {
@@ -40,7 +62,7 @@ public class AnalysisCacheResource implements Resource {
 
     @Override
     public String getDescription() {
-        return "Cached Maven project analysis results to avoid re-running expensive operations";
+        return "Cached analysis tool results for a project, marked stale when its pom.xml files or sources changed";
     }
 
     @Override
@@ -56,79 +78,39 @@ public class AnalysisCacheResource implements Resource {
             throw new IllegalArgumentException("projectPath parameter is required");
         }
 
-        // Normalize path
-        String cacheKey = normalizePath(projectPath);
+        Path projectDir = Paths.get(projectPath).toAbsolutePath().normalize();
+        logger.info("Reading analysis cache for: {}", projectDir);
 
-        logger.info("Reading analysis cache for: {}", cacheKey);
-
-        CachedAnalysis cached = cache.get(cacheKey);
-
-        if (cached == null) {
+        List<AnalysisCache.CachedResult> cached = cache.entriesFor(projectDir);
+        if (cached.isEmpty()) {
             return Map.of(
                     "cached", false,
                     "message", "No cached analysis found for: " + projectPath,
-                    "hint", "Run analyze-maven-project tool first"
+                    "hint", "Run analyze-maven-project, analyze-dependencies, code-quality-check or security-scan first"
             );
         }
 
-        // Check if cache is stale (older than 1 hour)
-        long ageMinutes = (System.currentTimeMillis() - cached.timestamp) / 1000 / 60;
-        boolean isStale = ageMinutes > 60;
-
-        return Map.of(
-                "cached", true,
-                "projectPath", projectPath,
-                "cachedAt", new java.util.Date(cached.timestamp).toString(),
-                "ageMinutes", ageMinutes,
-                "isStale", isStale,
-                "data", cached.data
-        );
-    }
-
-    /**
-     * Stores analysis results in the cache.
-     *
-     * @param projectPath the project path
-     * @param analysisData the analysis data to cache
-     */
-    public static void store(String projectPath, Object analysisData) {
-        String cacheKey = normalizePath(projectPath);
-        cache.put(cacheKey, new CachedAnalysis(System.currentTimeMillis(), analysisData));
-        logger.info("Cached analysis for: {}", cacheKey);
-    }
-
-    /**
-     * Clears the cache for a specific project.
-     *
-     * @param projectPath the project path
-     */
-    public static void invalidate(String projectPath) {
-        String cacheKey = normalizePath(projectPath);
-        cache.remove(cacheKey);
-        logger.info("Invalidated cache for: {}", cacheKey);
-    }
-
-    /**
-     * Clears all cached analyses.
-     */
-    public static void clearAll() {
-        cache.clear();
-        logger.info("Cleared all analysis cache");
-    }
-
-    /**
-     * Normalizes a file path for use as a cache key.
-     */
-    private static String normalizePath(String path) {
-        try {
-            return Paths.get(path).toAbsolutePath().normalize().toString();
-        } catch (Exception e) {
-            return path;
+        String fingerprint = Files.isDirectory(projectDir) ? ProjectFingerprint.of(projectDir) : null;
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (AnalysisCache.CachedResult result : cached) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("tool", result.tool());
+            entry.put("arguments", result.arguments());
+            entry.put("cachedAt", new Date(result.cachedAtMillis()).toString());
+            entry.put("ageMinutes", (now - result.cachedAtMillis()) / 1000 / 60);
+            entry.put("isStale", !result.fingerprint().equals(fingerprint));
+            entry.put("sizeBytes", result.weightBytes());
+            entry.put("data", result.result());
+            entries.add(entry);
         }
-    }
 
-    /**
-     * Internal class to store cached data with timestamp.
-     */
-    private record CachedAnalysis(long timestamp, Object data) {}
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("cached", true);
+        response.put("projectPath", projectPath);
+        response.put("fingerprint", fingerprint);
+        response.put("entries", entries);
+        response.put("cache", cache.stats());
+        return response;
+    }
 }
@@ -0,0 +1,68 @@
+package com.example.mcp.resources;
+
+import com.example.mcp.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * Resource exposing the server's latency, error, in-flight and payload size
+ * metrics per JSON-RPC method and per tool, together with the dispatch lane
+ * statistics.
+ *
+ * <p>Latencies are reported in milliseconds as p50/p90/p99/max. Reading
+ * {@code metrics://server?reset=true} returns the current metrics and then
+ * starts a new measurement period.
+ *
+ * <p>URI Pattern: {@code metrics://server{?reset}}
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public class ServerMetricsResource implements Resource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServerMetricsResource.class);
+
+    private final MetricsRegistry metrics;
+
+    /**
+     * Creates the resource.
+     *
+     * @param metrics the server's metrics registry
+     */
+    public ServerMetricsResource(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getUri() {
+        return "metrics://server{?reset}";
+    }
+
+    @Override
+    public String getName() {
+        return "server-metrics";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Latency percentiles, error counts, in-flight requests and payload sizes per method and tool; "
+                + "add ?reset=true to start a new measurement period";
+    }
+
+    @Override
+    public String getMimeType() {
+        return "application/json";
+    }
+
+    @Override
+    public Object read(Map<String, String> uriParams) {
+        Map<String, Object> snapshot = metrics.snapshot();
+        if (Boolean.parseBoolean(uriParams.get("reset"))) {
+            metrics.reset();
+            logger.info("Reset server metrics");
+        }
+        return snapshot;
+    }
+}
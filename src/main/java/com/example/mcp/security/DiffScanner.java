@@ -0,0 +1,251 @@
+package com.example.mcp.security;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Scans only what a pull request changes: the lines added or modified
+ * between two git refs.
+ *
+ * <p>The diff is taken from the merge base of the two refs to the head, the
+ * way a pull request shows it, and both sides are read from the object
+ * database, so nothing is checked out and the working tree is ignored. Each
+ * changed file is scanned at the head, and only findings on changed lines
+ * are kept. A kept finding is new unless the same rule already matched a
+ * line with the same text in the file's base version, as when a line is
+ * only moved or re-indented; those are reported as pre-existing.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class DiffScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiffScanner.class);
+
+    private final SourceScanner scanner;
+
+    /**
+     * Creates a diff scanner checking lines with the given scanner's rules.
+     *
+     * @param scanner the source scanner
+     */
+    public DiffScanner(SourceScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Scans the changes between two refs.
+     *
+     * @param projectDir the project, at or below the root of a git work tree
+     * @param baseRef the ref the changes are merged into, such as {@code origin/main}
+     * @param headRef the ref holding the changes, such as {@code HEAD}
+     * @param include selects files to scan by their path relative to {@code projectDir}
+     * @return the changed files and the findings on their changed lines
+     * @throws IOException if the repository cannot be read
+     * @throws IllegalArgumentException if there is no repository or a ref does not resolve to a commit
+     */
+    public DiffScan scan(Path projectDir, String baseRef, String headRef, Predicate<Path> include)
+            throws IOException {
+        long started = System.nanoTime();
+        Path project = projectDir.toAbsolutePath().normalize();
+        FileRepositoryBuilder builder = new FileRepositoryBuilder().findGitDir(project.toFile());
+        if (builder.getGitDir() == null) {
+            throw new IllegalArgumentException("No Git repository found at: " + projectDir);
+        }
+
+        try (Repository repository = builder.build();
+             RevWalk walk = new RevWalk(repository);
+             ObjectReader reader = repository.newObjectReader();
+             DiffFormatter formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            RevCommit base = walk.parseCommit(resolve(repository, baseRef));
+            RevCommit head = walk.parseCommit(resolve(repository, headRef));
+            walk.setRevFilter(RevFilter.MERGE_BASE);
+            walk.markStart(base);
+            walk.markStart(head);
+            RevCommit mergeBase = walk.next();
+            walk.reset();
+            walk.setRevFilter(RevFilter.ALL);
+            RevCommit from = mergeBase != null ? walk.parseCommit(mergeBase) : base;
+
+            Path workTree = repository.getWorkTree().toPath().toAbsolutePath().normalize();
+            String prefix = workTree.relativize(project).toString().replace('\\', '/');
+            formatter.setRepository(repository);
+            formatter.setDiffComparator(RawTextComparator.DEFAULT);
+            formatter.setDetectRenames(true);
+            if (!prefix.isEmpty()) {
+                formatter.setPathFilter(PathFilter.create(prefix));
+            }
+
+            List<ChangedFile> files = new ArrayList<>();
+            List<DiffFinding> findings = new ArrayList<>();
+            List<String> unreadable = new ArrayList<>();
+            for (DiffEntry entry : formatter.scan(from.getTree(), head.getTree())) {
+                if (entry.getChangeType() == DiffEntry.ChangeType.DELETE) {
+                    continue;
+                }
+                Path file = workTree.resolve(entry.getNewPath());
+                if (!include.test(project.relativize(file))) {
+                    continue;
+                }
+                List<LineRange> ranges = new ArrayList<>();
+                for (Edit edit : formatter.toFileHeader(entry).toEditList()) {
+                    if (edit.getEndB() > edit.getBeginB()) {
+                        ranges.add(new LineRange(edit.getBeginB() + 1, edit.getEndB()));
+                    }
+                }
+                files.add(new ChangedFile(file, entry.getChangeType().name(), List.copyOf(ranges)));
+                if (ranges.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    String content = decode(reader.open(entry.getNewId().toObjectId()).getBytes());
+                    List<SourceScanner.Finding> changed = new ArrayList<>();
+                    for (SourceScanner.Finding finding : scanner.scan(file, content)) {
+                        if (contains(ranges, finding.line())) {
+                            changed.add(finding);
+                        }
+                    }
+                    if (changed.isEmpty()) {
+                        continue;
+                    }
+
+                    Map<String, Integer> existing = new HashMap<>();
+                    if (entry.getChangeType() != DiffEntry.ChangeType.ADD) {
+                        String previous = decode(reader.open(entry.getOldId().toObjectId()).getBytes());
+                        String[] lines = previous.split("\n", -1);
+                        for (SourceScanner.Finding finding : scanner.scan(file, previous)) {
+                            existing.merge(key(finding, lines), 1, Integer::sum);
+                        }
+                    }
+                    String[] lines = content.split("\n", -1);
+                    for (SourceScanner.Finding finding : changed) {
+                        // Each base finding accounts for at most one changed finding
+                        String key = key(finding, lines);
+                        Integer remaining = existing.get(key);
+                        if (remaining == null) {
+                            findings.add(new DiffFinding(finding, true));
+                        } else {
+                            if (remaining == 1) {
+                                existing.remove(key);
+                            } else {
+                                existing.put(key, remaining - 1);
+                            }
+                            findings.add(new DiffFinding(finding, false));
+                        }
+                    }
+                } catch (CharacterCodingException e) {
+                    logger.warn("Skipping {}, which is not valid UTF-8", file);
+                    unreadable.add(file.toString());
+                }
+            }
+
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            logger.debug("Scanned {} changed files between {} and {} in {} ms",
+                    files.size(), from.getName(), head.getName(), elapsed);
+            return new DiffScan(base.getName(), head.getName(), from.getName(), List.copyOf(files),
+                    List.copyOf(findings), List.copyOf(unreadable), elapsed);
+        }
+    }
+
+    private static ObjectId resolve(Repository repository, String ref) throws IOException {
+        ObjectId id = repository.resolve(ref + "^{commit}");
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown git ref: " + ref);
+        }
+        return id;
+    }
+
+    private static String decode(byte[] bytes) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes))
+                .toString();
+    }
+
+    private static boolean contains(List<LineRange> ranges, int line) {
+        for (LineRange range : ranges) {
+            if (line >= range.first() && line <= range.last()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(SourceScanner.Finding finding, String[] lines) {
+        return finding.title() + '\0' + lines[finding.line() - 1].strip();
+    }
+
+    /**
+     * A file changed between the refs.
+     *
+     * @param file the file's path in the work tree
+     * @param changeType ADD, MODIFY, RENAME or COPY
+     * @param changedLines the added or modified lines at the head, in order
+     */
+    public record ChangedFile(Path file, String changeType, List<LineRange> changedLines) {}
+
+    /**
+     * Consecutive changed lines.
+     *
+     * @param first the first line, 1-based
+     * @param last the last line, inclusive
+     */
+    public record LineRange(int first, int last) {
+
+        @Override
+        public String toString() {
+            return first == last ? String.valueOf(first) : first + "-" + last;
+        }
+    }
+
+    /**
+     * A finding on a changed line.
+     *
+     * @param finding the finding, at the head
+     * @param introduced true if the base version had no such finding on a line with the same text
+     */
+    public record DiffFinding(SourceScanner.Finding finding, boolean introduced) {}
+
+    /**
+     * The outcome of scanning a diff.
+     *
+     * @param base the base commit
+     * @param head the head commit
+     * @param mergeBase the commit the diff starts from: the merge base, or the base if the refs share no history
+     * @param files the changed files that were selected, deleted files excluded
+     * @param findings the findings on changed lines, by file and then line
+     * @param unreadable changed files that are not valid UTF-8
+     * @param elapsedMillis how long the scan took
+     */
+    public record DiffScan(String base, String head, String mergeBase, List<ChangedFile> files,
+                           List<DiffFinding> findings, List<String> unreadable, long elapsedMillis) {}
+}
@@ -0,0 +1,423 @@
+package com.example.mcp.security;
+
+import com.example.mcp.concurrent.FileFanOut;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevObject;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Scans the whole history of a git repository for hardcoded secrets.
+ *
+ * <p>Every commit reachable from any ref is walked oldest first, but each
+ * tree and blob is looked at only once: a subtree already seen in an earlier
+ * commit is skipped whole, so a commit costs only the trees it changed. The
+ * blobs found are scanned in parallel, each worker reading objects through
+ * its own {@link ObjectReader} over the repository's shared object database
+ * and caches. Binary blobs and blobs over {@link #MAX_BLOB_BYTES} are skipped.
+ * Each finding names the first commit and path the blob was seen at, which
+ * is where the secret entered the history.
+ *
+ * <p>With a state directory, the ids of the trees and blobs scanned and the
+ * findings are kept per repository, and later scans cover only objects added
+ * since. Instances are thread-safe; scans of one repository run one at a time.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class HistoryScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryScanner.class);
+
+    /** The largest blob scanned, in bytes. */
+    static final int MAX_BLOB_BYTES = 1024 * 1024;
+
+    private static final int STATE_MAGIC = 0x48495354; // "HIST"
+
+    private static final HistoryScanner SHARED =
+            new HistoryScanner(Runtime.getRuntime().availableProcessors());
+
+    // Blobs are scanned on this class's own pool, one call at a time, so no scanner threads are needed
+    private final SourceScanner scanner = SourceScanner.shared().restrictedTo(Set.of(SourceScanner.HARDCODED_SECRET));
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Path, Object> locks = new ConcurrentHashMap<>();
+    private final ForkJoinPool pool;
+    private volatile Path stateDirectory;
+
+    /**
+     * Creates a scanner.
+     *
+     * @param parallelism how many blobs to scan at once
+     */
+    public HistoryScanner(int parallelism) {
+        this.pool = FileFanOut.namedPool("history-scanner", parallelism);
+    }
+
+    /**
+     * Gets the scanner shared by the tools, scanning one blob per processor.
+     *
+     * @return the shared scanner
+     */
+    public static HistoryScanner shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sets where scanned objects and findings are kept between scans.
+     *
+     * @param stateDirectory the directory, or null to rescan everything every time
+     */
+    public void setStateDirectory(Path stateDirectory) {
+        this.stateDirectory = stateDirectory;
+    }
+
+    /**
+     * Scans every object reachable from the refs of a repository that has not
+     * been scanned before.
+     *
+     * @param projectDir a directory at or below the root of a git work tree
+     * @param cancelled polled between commits and blobs; the scan stops with a
+     *                  {@link CancellationException} once it returns true
+     * @return the findings of this and earlier scans
+     * @throws IOException if the repository cannot be read
+     * @throws IllegalArgumentException if there is no repository
+     */
+    public HistoryScan scan(Path projectDir, BooleanSupplier cancelled) throws IOException {
+        FileRepositoryBuilder builder = new FileRepositoryBuilder()
+                .findGitDir(projectDir.toAbsolutePath().normalize().toFile());
+        if (builder.getGitDir() == null) {
+            throw new IllegalArgumentException("No Git repository found at: " + projectDir);
+        }
+        Path gitDir = builder.getGitDir().toPath().toAbsolutePath().normalize();
+        synchronized (locks.computeIfAbsent(gitDir, key -> new Object())) {
+            try (Repository repository = builder.build()) {
+                return scan(repository, gitDir, cancelled);
+            }
+        }
+    }
+
+    private HistoryScan scan(Repository repository, Path gitDir, BooleanSupplier cancelled) throws IOException {
+        long started = System.nanoTime();
+        Path state = stateDirectory;
+        Path objectsFile = state != null ? state.resolve(stateName(gitDir) + ".objects") : null;
+        Path findingsFile = state != null ? state.resolve(stateName(gitDir) + ".findings.json") : null;
+        ScannedObjects previous = objectsFile != null ? ScannedObjects.load(objectsFile) : ScannedObjects.EMPTY;
+        List<Finding> findings = new ArrayList<>();
+        if (findingsFile != null && previous.size() > 0 && Files.isRegularFile(findingsFile)) {
+            // Secrets purged by rewriting history drop out once their blobs are garbage collected
+            List<Finding> earlier = objectMapper.readValue(findingsFile.toFile(), new TypeReference<>() {});
+            for (Finding finding : earlier) {
+                if (repository.getObjectDatabase().has(ObjectId.fromString(finding.blob()))) {
+                    findings.add(finding);
+                }
+            }
+        }
+        int previousFindings = findings.size();
+
+        // Walk commits oldest first, descending only into trees seen neither now nor in earlier scans
+        Set<ObjectId> seen = new HashSet<>();
+        List<PendingBlob> pending = new ArrayList<>();
+        int commits = 0;
+        int skippedBlobs = 0;
+        try (RevWalk walk = new RevWalk(repository);
+             TreeWalk treeWalk = new TreeWalk(repository)) {
+            walk.sort(RevSort.TOPO);
+            walk.sort(RevSort.REVERSE, true);
+            for (Ref ref : repository.getRefDatabase().getRefs()) {
+                ObjectId id = ref.getPeeledObjectId() != null ? ref.getPeeledObjectId() : ref.getObjectId();
+                if (id == null) {
+                    continue;
+                }
+                RevObject object = walk.peel(walk.parseAny(id));
+                if (object instanceof RevCommit commit) {
+                    walk.markStart(commit);
+                }
+            }
+            for (RevCommit commit : walk) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("History scan cancelled");
+                }
+                commits++;
+                ObjectId tree = commit.getTree().copy();
+                if (previous.contains(tree) || !seen.add(tree)) {
+                    continue;
+                }
+                treeWalk.reset(tree);
+                treeWalk.setRecursive(false);
+                while (treeWalk.next()) {
+                    ObjectId id = treeWalk.getObjectId(0);
+                    if (previous.contains(id) || !seen.add(id)) {
+                        continue;
+                    }
+                    int mode = treeWalk.getRawMode(0);
+                    if (FileMode.TREE.equals(mode)) {
+                        treeWalk.enterSubtree();
+                    } else if (FileMode.REGULAR_FILE.equals(mode) || FileMode.EXECUTABLE_FILE.equals(mode)) {
+                        pending.add(new PendingBlob(id, treeWalk.getPathString(), commit.getName()));
+                    } else {
+                        skippedBlobs++;
+                    }
+                }
+            }
+        }
+
+        BlobScan blobs = scanBlobs(repository, pending, cancelled);
+        findings.addAll(blobs.findings());
+        findings.sort(Comparator.comparing(Finding::path).thenComparing(Finding::blob).thenComparingInt(Finding::line));
+
+        if (objectsFile != null) {
+            Files.createDirectories(state);
+            previous.merge(seen).save(objectsFile);
+            write(findingsFile, findings);
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Scanned {} new blobs in {} commits of {} in {} ms ({} new findings)",
+                blobs.scanned(), commits, gitDir, elapsed, findings.size() - previousFindings);
+        return new HistoryScan(commits, blobs.scanned(), skippedBlobs + blobs.skipped(), previous.size(),
+                List.copyOf(findings), findings.size() - previousFindings, elapsed);
+    }
+
+    /**
+     * Scans blobs in parallel, each worker taking the next unscanned blob and
+     * reading it with its own reader.
+     */
+    private BlobScan scanBlobs(Repository repository, List<PendingBlob> pending, BooleanSupplier cancelled) {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        List<List<Finding>> perBlob = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            perBlob.add(List.of());
+        }
+        int workers = Math.min(pool.getParallelism(), Math.max(1, pending.size()));
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            tasks.add(pool.submit(() -> {
+                try (ObjectReader reader = repository.newObjectReader()) {
+                    for (int i = next.getAndIncrement(); i < pending.size(); i = next.getAndIncrement()) {
+                        if (cancelled.getAsBoolean()) {
+                            throw new CancellationException("History scan cancelled");
+                        }
+                        List<Finding> found = scanBlob(reader, pending.get(i));
+                        if (found == null) {
+                            skipped.incrementAndGet();
+                        } else {
+                            perBlob.set(i, found);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            }));
+        }
+        try {
+            for (ForkJoinTask<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while scanning history");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("History scan failed", e.getCause());
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        perBlob.forEach(findings::addAll);
+        return new BlobScan(pending.size() - skipped.get(), skipped.get(), findings);
+    }
+
+    /**
+     * Scans one blob, or returns null if it is too large or binary.
+     */
+    private List<Finding> scanBlob(ObjectReader reader, PendingBlob blob) throws IOException {
+        if (reader.getObjectSize(blob.id(), Constants.OBJ_BLOB) > MAX_BLOB_BYTES) {
+            return null;
+        }
+        byte[] bytes = reader.open(blob.id(), Constants.OBJ_BLOB).getCachedBytes(MAX_BLOB_BYTES);
+        if (RawText.isBinary(bytes)) {
+            return null;
+        }
+        List<Finding> findings = new ArrayList<>();
+        for (SourceScanner.Finding finding : scanner.scan(Paths.get(blob.path()),
+                new String(bytes, StandardCharsets.UTF_8))) {
+            findings.add(new Finding(blob.id().name(), blob.path(), blob.commit(), finding.line(),
+                    finding.description()));
+        }
+        return findings;
+    }
+
+    private void write(Path findingsFile, List<Finding> findings) throws IOException {
+        Path temporary = findingsFile.resolveSibling(findingsFile.getFileName() + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), findings);
+        Files.move(temporary, findingsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String stateName(Path gitDir) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(gitDir.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A hardcoded secret somewhere in the history.
+     *
+     * @param blob the id of the blob holding it
+     * @param path the path of the blob in the first commit it was seen in
+     * @param commit the first commit the blob was seen in
+     * @param line the 1-based line number
+     * @param description what was found
+     */
+    public record Finding(String blob, String path, String commit, int line, String description) {}
+
+    /**
+     * The outcome of a history scan.
+     *
+     * @param commits the reachable commits walked
+     * @param scannedBlobs the blobs scanned by this scan
+     * @param skippedBlobs the blobs skipped as binary, too large, symbolic links or submodules
+     * @param knownObjects the trees and blobs scanned by earlier scans and not looked at again
+     * @param findings the findings of this and earlier scans, by path
+     * @param newFindings how many findings this scan added
+     * @param elapsedMillis how long the scan took
+     */
+    public record HistoryScan(int commits, int scannedBlobs, int skippedBlobs, int knownObjects,
+                              List<Finding> findings, int newFindings, long elapsedMillis) {}
+
+    private record PendingBlob(ObjectId id, String path, String commit) {}
+
+    private record BlobScan(int scanned, int skipped, List<Finding> findings) {}
+
+    /**
+     * A sorted set of object ids, stored as their raw 20 bytes back to back
+     * and searched in place.
+     */
+    private static final class ScannedObjects {
+
+        static final ScannedObjects EMPTY = new ScannedObjects(new byte[0]);
+
+        private final byte[] ids;
+
+        private ScannedObjects(byte[] ids) {
+            this.ids = ids;
+        }
+
+        static ScannedObjects load(Path file) throws IOException {
+            if (!Files.isRegularFile(file)) {
+                return EMPTY;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != STATE_MAGIC) {
+                    logger.warn("Ignoring unreadable history scan state {}", file);
+                    return EMPTY;
+                }
+                byte[] ids = new byte[in.readInt() * Constants.OBJECT_ID_LENGTH];
+                in.readFully(ids);
+                return new ScannedObjects(ids);
+            }
+        }
+
+        int size() {
+            return ids.length / Constants.OBJECT_ID_LENGTH;
+        }
+
+        boolean contains(ObjectId id) {
+            int low = 0;
+            int high = size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = id.compareTo(ids, middle * Constants.OBJECT_ID_LENGTH);
+                if (comparison > 0) {
+                    low = middle + 1;
+                } else if (comparison < 0) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        ScannedObjects merge(Set<ObjectId> added) {
+            if (added.isEmpty()) {
+                return this;
+            }
+            List<ObjectId> sorted = new ArrayList<>(added);
+            sorted.sort(null);
+            byte[] merged = new byte[ids.length + sorted.size() * Constants.OBJECT_ID_LENGTH];
+            int from = 0;
+            int to = 0;
+            for (ObjectId id : sorted) {
+                while (from < ids.length && id.compareTo(ids, from) > 0) {
+                    System.arraycopy(ids, from, merged, to, Constants.OBJECT_ID_LENGTH);
+                    from += Constants.OBJECT_ID_LENGTH;
+                    to += Constants.OBJECT_ID_LENGTH;
+                }
+                id.copyRawTo(merged, to);
+                to += Constants.OBJECT_ID_LENGTH;
+            }
+            System.arraycopy(ids, from, merged, to, ids.length - from);
+            return new ScannedObjects(merged);
+        }
+
+        void save(Path file) throws IOException {
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream target = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target))) {
+                out.writeInt(STATE_MAGIC);
+                out.writeInt(size());
+                out.write(ids);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
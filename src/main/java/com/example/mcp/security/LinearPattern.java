@@ -0,0 +1,1028 @@
+package com.example.mcp.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A regular expression matched in time linear in the length of the text,
+ * whatever the pattern, in the manner of RE2.
+ *
+ * <p>{@link java.util.regex.Pattern} backtracks, so some patterns take time
+ * exponential or quadratic in the text, which stalls scans of long generated
+ * lines. Here the pattern is compiled to a Thompson NFA, and a DFA over the
+ * character classes the pattern distinguishes is built from it while
+ * matching, one state the first time a text reaches it; each character then
+ * usually costs one table lookup. When the cache of built states reaches
+ * {@link #MAX_CACHED_STATES}, it is started over and the current text is
+ * finished by simulating the NFA, which is slower but still linear, so
+ * compiling never costs more than the NFA.
+ *
+ * <p>The syntax is that of {@code java.util.regex} without the features no
+ * automaton can match in linear time, which are rejected: backreferences,
+ * lookaround, atomic groups and possessive quantifiers. Supported are
+ * literals and escapes, {@code .}, character classes with ranges and
+ * negation, {@code \d \w \s} and their negations, groups ({@code (?:...)},
+ * named groups and {@code (?i)} flags), alternation, greedy and lazy
+ * quantifiers, and the assertions {@code ^ \A}, {@code $ \Z \z} and
+ * {@code \b}. As in {@code java.util.regex}, {@code $} and {@code \Z} also
+ * match before a line terminator that ends the text, so a line read with its
+ * {@code \r} still matches a pattern ending in {@code $}. Like
+ * {@code Pattern.CASE_INSENSITIVE}, case-insensitive matching folds ASCII
+ * letters only. Only whether the pattern occurs is reported, not where.
+ *
+ * <p>Instances are thread-safe; threads matching with one share its DFA cache.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class LinearPattern {
+
+    /** The largest NFA a pattern may compile to; counted repetitions are expanded. */
+    static final int MAX_NFA_STATES = 10_000;
+
+    /** The most DFA states cached before the cache is started over. */
+    static final int MAX_CACHED_STATES = 2_000;
+
+    // Set in an encoded transition whose target accepts
+    private static final int ACCEPTS = 1;
+
+    private static final int MAX_CHAR = 0xFFFF;
+
+    // NFA state kinds
+    private static final int CHARS = 0;
+    private static final int SPLIT = 1;
+    private static final int ASSERT = 2;
+    private static final int MATCH = 3;
+
+    // Assertions; the set of those holding at a position is a zero-width symbol, numbered after the character classes
+    private static final int BEGIN = 0;
+    private static final int END = 1;
+    private static final int BOUNDARY = 2;
+    private static final int INPUT_END = 3;
+    private static final int ZERO_WIDTH_SYMBOLS = 1 << 4;
+
+    // The match state is compiled first
+    private static final int MATCH_STATE = 0;
+
+    private final String pattern;
+    private final int[] cuts;
+    private final int[] asciiClasses = new int[128];
+    private final int classCount;
+    private final int symbolCount;
+    private final boolean usesBegin;
+    private final boolean usesEnd;
+    private final boolean usesBoundary;
+
+    // The NFA
+    private final int[] kinds;
+    private final int[] outs;
+    private final int[] alternatives;
+    private final int[] assertions;
+    private final BitSet[] accepted;
+    private final int start;
+
+    // DFA states are built while matching and kept until there are too many
+    private final int maxCachedStates;
+    private volatile DfaCache cache;
+    private final AtomicLong flushes = new AtomicLong();
+
+    private LinearPattern(String pattern, boolean caseInsensitive, int maxCachedStates) {
+        this.pattern = pattern;
+        this.maxCachedStates = Math.max(2, maxCachedStates);
+        Parser parser = new Parser(pattern, caseInsensitive);
+        Node root = parser.parse();
+        usesBegin = parser.usesBegin;
+        usesEnd = parser.usesEnd;
+        usesBoundary = parser.usesBoundary;
+        // Split the characters into the classes no part of the pattern tells apart
+        TreeSet<Integer> cutSet = new TreeSet<>();
+        cutSet.add(0);
+        for (int[] ranges : parser.sets) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                cutSet.add(ranges[i]);
+                if (ranges[i + 1] < MAX_CHAR) {
+                    cutSet.add(ranges[i + 1] + 1);
+                }
+            }
+        }
+        cuts = cutSet.stream().mapToInt(Integer::intValue).toArray();
+        classCount = cuts.length;
+        symbolCount = classCount + ZERO_WIDTH_SYMBOLS;
+        for (int c = 0; c < 128; c++) {
+            asciiClasses[c] = classOf(c);
+        }
+
+        Compiler compiler = new Compiler();
+        int match = compiler.add(MATCH, -1, -1, -1, null);
+        start = compiler.compile(root, match);
+        kinds = compiler.kinds.stream().mapToInt(Integer::intValue).toArray();
+        outs = compiler.outs.stream().mapToInt(Integer::intValue).toArray();
+        alternatives = compiler.alternatives.stream().mapToInt(Integer::intValue).toArray();
+        assertions = compiler.assertions.stream().mapToInt(Integer::intValue).toArray();
+        accepted = compiler.accepted.toArray(new BitSet[0]);
+        cache = new DfaCache();
+    }
+
+    /**
+     * Compiles a pattern.
+     *
+     * @param pattern the regular expression
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the pattern is malformed, too large,
+     *                                  or uses a feature that cannot be matched in linear time
+     */
+    public static LinearPattern compile(String pattern) {
+        return new LinearPattern(pattern, false, MAX_CACHED_STATES);
+    }
+
+    /**
+     * Compiles a pattern, optionally ignoring the case of ASCII letters.
+     *
+     * @param pattern the regular expression
+     * @param caseInsensitive whether to ignore case, as {@code (?i)} does
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the pattern is malformed, too large,
+     *                                  or uses a feature that cannot be matched in linear time
+     */
+    public static LinearPattern compile(String pattern, boolean caseInsensitive) {
+        return new LinearPattern(pattern, caseInsensitive, MAX_CACHED_STATES);
+    }
+
+    /**
+     * Compiles a pattern with a given DFA cache size, so tests can exercise flushes.
+     */
+    static LinearPattern compile(String pattern, boolean caseInsensitive, int maxCachedStates) {
+        return new LinearPattern(pattern, caseInsensitive, maxCachedStates);
+    }
+
+    /**
+     * Checks whether the pattern occurs anywhere in a text, as
+     * {@link java.util.regex.Matcher#find()} does.
+     *
+     * @param text the text
+     * @return true if some part of the text matches
+     */
+    public boolean find(CharSequence text) {
+        DfaCache dfa = cache;
+        int length = text.length();
+        int lineEnd = usesEnd ? lineEnd(text) : length;
+        if (dfa.startAccepting) {
+            return true;
+        }
+        int state = DfaCache.START;
+        int value;
+        boolean previousWord = false;
+        for (int i = 0; i < length; i++) {
+            // A full cache resumes on the NFA from where this character's steps began
+            int resumeState = state;
+            char c = text.charAt(i);
+            boolean word = usesBoundary && isWord(c);
+            if (i == 0 || i == lineEnd || word != previousWord) {
+                int holding = assertionsAt(i, length, lineEnd, previousWord, word);
+                if (holding != 0) {
+                    if ((value = dfa.next(state, classCount + holding)) == 0) {
+                        return resume(dfa, resumeState, text, i, lineEnd);
+                    }
+                    if ((value & ACCEPTS) != 0) {
+                        return true;
+                    }
+                    state = target(value);
+                }
+            }
+            previousWord = word;
+            if ((value = dfa.next(state, c < 128 ? asciiClasses[c] : classOf(c))) == 0) {
+                return resume(dfa, resumeState, text, i, lineEnd);
+            }
+            if ((value & ACCEPTS) != 0) {
+                return true;
+            }
+            state = target(value);
+        }
+        int holding = assertionsAt(length, length, lineEnd, previousWord, false);
+        if (holding == 0) {
+            return false;
+        }
+        if ((value = dfa.next(state, classCount + holding)) == 0) {
+            return resume(dfa, state, text, length, lineEnd);
+        }
+        return (value & ACCEPTS) != 0;
+    }
+
+    /**
+     * Gets how often the DFA cache filled up and was started over.
+     *
+     * @return the number of flushes
+     */
+    long flushes() {
+        return flushes.get();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    private static int target(int value) {
+        return (value >>> 1) - 1;
+    }
+
+    /**
+     * Starts the cache over and finishes the text on the NFA, from the
+     * states of a DFA state at the start of a character's steps.
+     */
+    private boolean resume(DfaCache full, int state, CharSequence text, int from, int lineEnd) {
+        if (cache == full) {
+            cache = new DfaCache();
+            flushes.incrementAndGet();
+        }
+        return simulate(text, full.states(state), from, lineEnd);
+    }
+
+    /**
+     * Simulates the NFA from a set of states, starting with the steps at
+     * position {@code from}: its assertions, then its character if any.
+     */
+    private boolean simulate(CharSequence text, int[] states, int from, int lineEnd) {
+        StateSet current = new StateSet(kinds.length);
+        StateSet next = new StateSet(kinds.length);
+        for (int state : states) {
+            addClosure(current, state);
+        }
+        int length = text.length();
+        boolean previousWord = usesBoundary && from > 0 && isWord(text.charAt(from - 1));
+        for (int i = from; ; i++) {
+            boolean word = usesBoundary && i < length && isWord(text.charAt(i));
+            int holding = assertionsAt(i, length, lineEnd, previousWord, word);
+            if (holding != 0 && stepAssertions(current, holding)) {
+                return true;
+            }
+            if (i == length) {
+                return false;
+            }
+            previousWord = word;
+            char c = text.charAt(i);
+            int symbol = c < 128 ? asciiClasses[c] : classOf(c);
+            next.clear();
+            for (int j = 0; j < current.size; j++) {
+                int state = current.states[j];
+                if (kinds[state] == CHARS && accepted[state].get(symbol)) {
+                    addClosure(next, outs[state]);
+                }
+            }
+            addClosure(next, start);
+            if (next.contains(MATCH_STATE)) {
+                return true;
+            }
+            StateSet swap = current;
+            current = next;
+            next = swap;
+        }
+    }
+
+    /**
+     * Gets the set of assertions the pattern uses that hold at a position, as
+     * a bit per assertion.
+     *
+     * @param previousWord whether the character before the position is a word character
+     * @param word whether the character at the position is one
+     */
+    private int assertionsAt(int position, int length, int lineEnd, boolean previousWord, boolean word) {
+        int holding = 0;
+        if (usesBegin && position == 0) {
+            holding |= 1 << BEGIN;
+        }
+        if (usesEnd && (position == lineEnd || position == length)) {
+            holding |= 1 << END;
+        }
+        if (usesEnd && position == length) {
+            holding |= 1 << INPUT_END;
+        }
+        if (usesBoundary && word != previousWord) {
+            holding |= 1 << BOUNDARY;
+        }
+        return holding;
+    }
+
+    /**
+     * Finds where {@code $} matches before the end of a text: before a
+     * final {@code \r\n} or other line terminator, or nowhere.
+     */
+    private static int lineEnd(CharSequence text) {
+        int length = text.length();
+        if (length >= 2 && text.charAt(length - 2) == '\r' && text.charAt(length - 1) == '\n') {
+            return length - 2;
+        }
+        if (length >= 1) {
+            char last = text.charAt(length - 1);
+            if (last == '\n' || last == '\r' || last == '\u0085' || last == '\u2028' || last == '\u2029') {
+                return length - 1;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Advances every assertion that holds, keeping all states; returns true
+     * if the match state was reached.
+     */
+    private boolean stepAssertions(StateSet set, int holding) {
+        // States added meanwhile are visited too, so adjacent assertions pass in any order
+        for (int j = 0; j < set.size; j++) {
+            int state = set.states[j];
+            if (kinds[state] == ASSERT && (holding & (1 << assertions[state])) != 0) {
+                addClosure(set, outs[state]);
+            }
+        }
+        return set.contains(MATCH_STATE);
+    }
+
+    /**
+     * Adds a state and every state reachable from it through splits, keeping
+     * only the states that consume a symbol or accept.
+     */
+    private void addClosure(StateSet set, int state) {
+        int[] stack = set.stack;
+        int depth = 0;
+        stack[depth++] = state;
+        while (depth > 0) {
+            int current = stack[--depth];
+            if (!set.mark(current)) {
+                continue;
+            }
+            if (kinds[current] == SPLIT) {
+                stack[depth++] = alternatives[current];
+                stack[depth++] = outs[current];
+            } else {
+                set.add(current);
+            }
+        }
+    }
+
+    private int classOf(int c) {
+        int index = Arrays.binarySearch(cuts, c);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // As \b in java.util.regex on Java 17, which counts non-ASCII letters unlike \w
+    private static boolean isWord(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * The DFA states built so far, each a set of NFA states, with their
+     * transitions.
+     *
+     * <p>Transitions are read without locking: a row entry is 0 until the
+     * transition is built, and otherwise encodes the target state and
+     * whether it accepts, so a reader that sees a stale 0, or a row not yet
+     * visible, builds the transition again under the lock and finds it.
+     */
+    private final class DfaCache {
+
+        static final int START = 0;
+
+        private final int[][] rows = new int[maxCachedStates][];
+        private final List<int[]> sets = new ArrayList<>();
+        private final Map<StateKey, Integer> ids = new HashMap<>();
+        private final StateSet scratch = new StateSet(kinds.length);
+        final boolean startAccepting;
+
+        DfaCache() {
+            addClosure(scratch, start);
+            startAccepting = scratch.contains(MATCH_STATE);
+            add(scratch.sorted());
+        }
+
+        /**
+         * Gets a transition, building it if needed.
+         *
+         * @return the encoded target, or 0 if the cache is full
+         */
+        int next(int state, int symbol) {
+            int[] row = rows[state];
+            int value = row != null ? row[symbol] : 0;
+            return value != 0 ? value : build(state, symbol);
+        }
+
+        synchronized int[] states(int state) {
+            return sets.get(state);
+        }
+
+        private synchronized int build(int state, int symbol) {
+            int[] row = rows[state];
+            if (row[symbol] != 0) {
+                return row[symbol];
+            }
+            scratch.clear();
+            if (symbol < classCount) {
+                for (int nfaState : sets.get(state)) {
+                    if (kinds[nfaState] == CHARS && accepted[nfaState].get(symbol)) {
+                        addClosure(scratch, outs[nfaState]);
+                    }
+                }
+                addClosure(scratch, start);
+            } else {
+                for (int nfaState : sets.get(state)) {
+                    addClosure(scratch, nfaState);
+                }
+                stepAssertions(scratch, symbol - classCount);
+            }
+            int[] target = scratch.sorted();
+            Integer id = ids.get(new StateKey(target));
+            if (id == null) {
+                if (sets.size() == rows.length) {
+                    return 0;
+                }
+                id = add(target);
+            }
+            row[symbol] = ((id + 1) << 1) | (scratch.contains(MATCH_STATE) ? ACCEPTS : 0);
+            return row[symbol];
+        }
+
+        private int add(int[] states) {
+            int id = sets.size();
+            sets.add(states);
+            ids.put(new StateKey(states), id);
+            rows[id] = new int[symbolCount];
+            return id;
+        }
+    }
+
+    private record StateKey(int[] states) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof StateKey key && Arrays.equals(states, key.states);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(states);
+        }
+    }
+
+    /**
+     * A set of NFA states that can be cleared in time proportional to its
+     * size, with the stack closures are computed on.
+     */
+    private static final class StateSet {
+
+        private final int[] states;
+        private final int[] marks;
+        // Each state is expanded once and pushes at most two more
+        private final int[] stack;
+        private int generation = 1;
+        private int size;
+        private final BitSet members;
+
+        StateSet(int capacity) {
+            states = new int[capacity];
+            marks = new int[capacity];
+            stack = new int[2 * capacity + 1];
+            members = new BitSet(capacity);
+        }
+
+        boolean mark(int state) {
+            if (marks[state] == generation) {
+                return false;
+            }
+            marks[state] = generation;
+            return true;
+        }
+
+        void add(int state) {
+            states[size++] = state;
+            members.set(state);
+        }
+
+        boolean contains(int state) {
+            return members.get(state);
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                members.clear(states[i]);
+            }
+            size = 0;
+            generation++;
+        }
+
+        int[] sorted() {
+            int[] sorted = Arrays.copyOf(states, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    // Syntax tree
+
+    private sealed interface Node permits Chars, Sequence, Alternation, Repeat, Assertion {}
+
+    private record Chars(int[] ranges) implements Node {}
+
+    private record Sequence(List<Node> items) implements Node {}
+
+    private record Alternation(List<Node> choices) implements Node {}
+
+    private record Repeat(Node body, int min, int max) implements Node {}
+
+    private record Assertion(int symbol) implements Node {}
+
+    /**
+     * Builds the NFA backwards: each node is compiled knowing the state that follows it.
+     */
+    private final class Compiler {
+
+        private final List<Integer> kinds = new ArrayList<>();
+        private final List<Integer> outs = new ArrayList<>();
+        private final List<Integer> alternatives = new ArrayList<>();
+        private final List<Integer> assertions = new ArrayList<>();
+        private final List<BitSet> accepted = new ArrayList<>();
+
+        int add(int kind, int out, int alternative, int assertion, BitSet classes) {
+            if (kinds.size() == MAX_NFA_STATES) {
+                throw new IllegalArgumentException("Pattern is too large: " + pattern);
+            }
+            kinds.add(kind);
+            outs.add(out);
+            alternatives.add(alternative);
+            assertions.add(assertion);
+            accepted.add(classes);
+            return kinds.size() - 1;
+        }
+
+        int compile(Node node, int next) {
+            if (node instanceof Chars chars) {
+                BitSet classes = new BitSet(classCount);
+                for (int i = 0; i < chars.ranges().length; i += 2) {
+                    classes.set(classOf(chars.ranges()[i]), classOf(chars.ranges()[i + 1]) + 1);
+                }
+                return add(CHARS, next, -1, -1, classes);
+            }
+            if (node instanceof Sequence sequence) {
+                int state = next;
+                for (int i = sequence.items().size() - 1; i >= 0; i--) {
+                    state = compile(sequence.items().get(i), state);
+                }
+                return state;
+            }
+            if (node instanceof Alternation alternation) {
+                int state = compile(alternation.choices().get(alternation.choices().size() - 1), next);
+                for (int i = alternation.choices().size() - 2; i >= 0; i--) {
+                    state = add(SPLIT, compile(alternation.choices().get(i), next), state, -1, null);
+                }
+                return state;
+            }
+            if (node instanceof Assertion assertion) {
+                return add(ASSERT, next, -1, assertion.symbol(), null);
+            }
+            Repeat repeat = (Repeat) node;
+            int state = next;
+            if (repeat.max() < 0) {
+                // A loop: the split is created first so the body can lead back to it
+                int loop = add(SPLIT, -1, next, -1, null);
+                outs.set(loop, compile(repeat.body(), loop));
+                state = loop;
+            } else {
+                for (int i = repeat.min(); i < repeat.max(); i++) {
+                    state = add(SPLIT, compile(repeat.body(), state), next, -1, null);
+                }
+            }
+            for (int i = 0; i < repeat.min(); i++) {
+                state = compile(repeat.body(), state);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Parses the pattern into a syntax tree, collecting the character sets it uses.
+     */
+    private static final class Parser {
+
+        private static final int[] DIGITS = {'0', '9'};
+        private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+        private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+        private static final int[] LINE_TERMINATORS = {'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029};
+
+        private final String pattern;
+        private final List<int[]> sets = new ArrayList<>();
+        private int position;
+        private boolean caseInsensitive;
+        private boolean usesBegin;
+        private boolean usesEnd;
+        private boolean usesBoundary;
+
+        Parser(String pattern, boolean caseInsensitive) {
+            this.pattern = pattern;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (position < pattern.length()) {
+                throw error("Unmatched closing ')'");
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> choices = new ArrayList<>();
+            choices.add(sequence());
+            while (peek('|')) {
+                position++;
+                choices.add(sequence());
+            }
+            return choices.size() == 1 ? choices.get(0) : new Alternation(choices);
+        }
+
+        private Node sequence() {
+            List<Node> items = new ArrayList<>();
+            while (position < pattern.length() && !peek('|') && !peek(')')) {
+                // A (?i) flag yields no node; as in java.util.regex it lasts to the end of the enclosing group
+                Node atom = atom();
+                if (atom != null) {
+                    items.add(quantified(atom));
+                }
+            }
+            return new Sequence(items);
+        }
+
+        private Node quantified(Node atom) {
+            while (position < pattern.length()) {
+                char c = pattern.charAt(position);
+                int min;
+                int max;
+                if (c == '*') {
+                    min = 0;
+                    max = -1;
+                    position++;
+                } else if (c == '+') {
+                    min = 1;
+                    max = -1;
+                    position++;
+                } else if (c == '?') {
+                    min = 0;
+                    max = 1;
+                    position++;
+                } else if (c == '{') {
+                    int close = pattern.indexOf('}', position);
+                    if (close < 0) {
+                        throw error("Unclosed counted repetition");
+                    }
+                    String[] bounds = pattern.substring(position + 1, close).split(",", -1);
+                    try {
+                        min = Integer.parseInt(bounds[0].trim());
+                        max = bounds.length == 1 ? min
+                                : bounds[1].isBlank() ? -1 : Integer.parseInt(bounds[1].trim());
+                    } catch (NumberFormatException e) {
+                        throw error("Malformed counted repetition");
+                    }
+                    if (bounds.length > 2 || min < 0 || (max >= 0 && max < min)) {
+                        throw error("Malformed counted repetition");
+                    }
+                    if (Math.max(min, max) > 1000) {
+                        throw error("Counted repetition over 1000");
+                    }
+                    position = close + 1;
+                } else {
+                    return atom;
+                }
+                if (atom instanceof Assertion) {
+                    throw error("Nothing to repeat");
+                }
+                if (peek('+')) {
+                    throw error("Possessive quantifiers are not supported");
+                }
+                if (peek('?')) {
+                    // Lazy quantifiers find the same occurrences
+                    position++;
+                }
+                atom = new Repeat(atom, min, max);
+            }
+            return atom;
+        }
+
+        private Node atom() {
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case '(':
+                    return group();
+                case '[':
+                    return chars(characterClass());
+                case '.':
+                    return chars(complement(LINE_TERMINATORS));
+                case '^':
+                    usesBegin = true;
+                    return new Assertion(BEGIN);
+                case '$':
+                    usesEnd = true;
+                    return new Assertion(END);
+                case '\\':
+                    return escape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw error("Nothing to repeat");
+                default:
+                    return literal(c);
+            }
+        }
+
+        private Node group() {
+            boolean outerCase = caseInsensitive;
+            if (peek('?')) {
+                position++;
+                if (pattern.startsWith("i)", position)) {
+                    position += 2;
+                    caseInsensitive = true;
+                    return null;
+                }
+                if (pattern.startsWith("-i)", position)) {
+                    position += 3;
+                    caseInsensitive = false;
+                    return null;
+                }
+                if (pattern.startsWith("i:", position)) {
+                    position += 2;
+                    caseInsensitive = true;
+                } else if (peek(':')) {
+                    position++;
+                } else if (peek('<') && position + 1 < pattern.length()
+                        && Character.isLetter(pattern.charAt(position + 1))) {
+                    int close = pattern.indexOf('>', position);
+                    if (close < 0) {
+                        throw error("Unclosed group name");
+                    }
+                    position = close + 1;
+                } else {
+                    throw error("Lookaround, atomic groups and inline flags other than (?i) are not supported");
+                }
+            }
+            Node node = alternation();
+            if (!peek(')')) {
+                throw error("Unclosed group");
+            }
+            position++;
+            caseInsensitive = outerCase;
+            return node;
+        }
+
+        private Node escape() {
+            if (position >= pattern.length()) {
+                throw error("Trailing backslash");
+            }
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case 'b':
+                    usesBoundary = true;
+                    return new Assertion(BOUNDARY);
+                case 'A':
+                    usesBegin = true;
+                    return new Assertion(BEGIN);
+                case 'Z':
+                    usesEnd = true;
+                    return new Assertion(END);
+                case 'z':
+                    usesEnd = true;
+                    return new Assertion(INPUT_END);
+                case 'Q': {
+                    int end = pattern.indexOf("\\E", position);
+                    String quoted = pattern.substring(position, end < 0 ? pattern.length() : end);
+                    position = end < 0 ? pattern.length() : end + 2;
+                    List<Node> items = new ArrayList<>();
+                    for (int i = 0; i < quoted.length(); i++) {
+                        items.add(literal(quoted.charAt(i)));
+                    }
+                    return new Sequence(items);
+                }
+                default:
+                    position--;
+                    int[] set = escapedSet();
+                    return chars(caseInsensitive ? foldCase(set) : set);
+            }
+        }
+
+        /**
+         * Parses an escape that stands for characters, inside or outside a class.
+         */
+        private int[] escapedSet() {
+            char c = pattern.charAt(position++);
+            switch (c) {
+                case 'd':
+                    return DIGITS;
+                case 'D':
+                    return complement(DIGITS);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return complement(WORD);
+                case 's':
+                    return SPACE;
+                case 'S':
+                    return complement(SPACE);
+                case 't':
+                    return single('\t');
+                case 'n':
+                    return single('\n');
+                case 'r':
+                    return single('\r');
+                case 'f':
+                    return single('\f');
+                case 'a':
+                    return single('\u0007');
+                case 'e':
+                    return single('\u001B');
+                case 'x':
+                    if (peek('{')) {
+                        int close = pattern.indexOf('}', position);
+                        if (close < 0) {
+                            throw error("Unclosed hexadecimal escape");
+                        }
+                        int code = hex(pattern.substring(position + 1, close));
+                        position = close + 1;
+                        return single(code);
+                    }
+                    return single(hex(take(2)));
+                case 'u':
+                    return single(hex(take(4)));
+                default:
+                    if (c >= '1' && c <= '9' || c == 'k') {
+                        throw error("Backreferences are not supported");
+                    }
+                    if (Character.isLetterOrDigit(c)) {
+                        throw error("Unsupported escape \\" + c);
+                    }
+                    return single(c);
+            }
+        }
+
+        private int[] characterClass() {
+            boolean negated = peek('^');
+            if (negated) {
+                position++;
+            }
+            List<int[]> parts = new ArrayList<>();
+            boolean first = true;
+            while (true) {
+                if (position >= pattern.length()) {
+                    throw error("Unclosed character class");
+                }
+                char c = pattern.charAt(position);
+                if (c == ']' && !first) {
+                    position++;
+                    break;
+                }
+                first = false;
+                if (c == '[' || pattern.startsWith("&&", position)) {
+                    throw error("Nested classes and class intersections are not supported");
+                }
+                int low;
+                if (c == '\\') {
+                    position++;
+                    if (peek('b')) {
+                        throw error("\\b is not supported in a character class");
+                    }
+                    int[] set = escapedSet();
+                    if (set.length > 2 || set[0] != set[1]) {
+                        parts.add(set);
+                        continue;
+                    }
+                    low = set[0];
+                } else {
+                    low = c;
+                    position++;
+                }
+                int high = low;
+                if (peek('-') && position + 1 < pattern.length() && pattern.charAt(position + 1) != ']') {
+                    position++;
+                    char h = pattern.charAt(position++);
+                    if (h == '\\') {
+                        int[] set = escapedSet();
+                        if (set.length > 2 || set[0] != set[1]) {
+                            throw error("Illegal character range");
+                        }
+                        high = set[0];
+                    } else {
+                        high = h;
+                    }
+                    if (high < low) {
+                        throw error("Illegal character range");
+                    }
+                }
+                parts.add(new int[]{low, high});
+            }
+            int[] set = union(parts);
+            if (caseInsensitive) {
+                set = foldCase(set);
+            }
+            return negated ? complement(set) : set;
+        }
+
+        private Node literal(int c) {
+            int[] set = single(c);
+            return chars(caseInsensitive ? foldCase(set) : set);
+        }
+
+        private Node chars(int[] ranges) {
+            sets.add(ranges);
+            return new Chars(ranges);
+        }
+
+        private String take(int count) {
+            if (position + count > pattern.length()) {
+                throw error("Truncated escape");
+            }
+            String taken = pattern.substring(position, position + count);
+            position += count;
+            return taken;
+        }
+
+        private int hex(String digits) {
+            try {
+                int code = Integer.parseInt(digits, 16);
+                if (code > MAX_CHAR) {
+                    throw error("Only characters of the Basic Multilingual Plane are supported");
+                }
+                return code;
+            } catch (NumberFormatException e) {
+                throw error("Malformed hexadecimal escape");
+            }
+        }
+
+        private boolean peek(char c) {
+            return position < pattern.length() && pattern.charAt(position) == c;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " near index " + position + " of " + pattern);
+        }
+
+        private static int[] single(int c) {
+            return new int[]{c, c};
+        }
+
+        private static int[] foldCase(int[] set) {
+            List<int[]> parts = new ArrayList<>();
+            parts.add(set);
+            for (int i = 0; i < set.length; i += 2) {
+                int lowerFrom = Math.max(set[i], 'a');
+                int lowerTo = Math.min(set[i + 1], 'z');
+                if (lowerFrom <= lowerTo) {
+                    parts.add(new int[]{lowerFrom - 32, lowerTo - 32});
+                }
+                int upperFrom = Math.max(set[i], 'A');
+                int upperTo = Math.min(set[i + 1], 'Z');
+                if (upperFrom <= upperTo) {
+                    parts.add(new int[]{upperFrom + 32, upperTo + 32});
+                }
+            }
+            return union(parts);
+        }
+
+        private static int[] union(List<int[]> parts) {
+            List<int[]> ranges = new ArrayList<>();
+            for (int[] part : parts) {
+                for (int i = 0; i < part.length; i += 2) {
+                    ranges.add(new int[]{part[i], part[i + 1]});
+                }
+            }
+            ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+            List<Integer> merged = new ArrayList<>();
+            for (int[] range : ranges) {
+                int last = merged.size() - 1;
+                if (last > 0 && range[0] <= merged.get(last) + 1) {
+                    merged.set(last, Math.max(merged.get(last), range[1]));
+                } else {
+                    merged.add(range[0]);
+                    merged.add(range[1]);
+                }
+            }
+            return merged.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int[] complement(int[] set) {
+            List<Integer> ranges = new ArrayList<>();
+            int next = 0;
+            for (int i = 0; i < set.length; i += 2) {
+                if (set[i] > next) {
+                    ranges.add(next);
+                    ranges.add(set[i] - 1);
+                }
+                next = set[i + 1] + 1;
+            }
+            if (next <= MAX_CHAR) {
+                ranges.add(next);
+                ranges.add(MAX_CHAR);
+            }
+            return ranges.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.mcp.security;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds many ASCII literals in one pass over a text, with an Aho-Corasick
+ * automaton.
+ *
+ * <p>Each literal carries a bit mask. Feeding the text one character at a
+ * time through {@link #step(int, char)} and OR-ing {@link #output(int)} of
+ * every state reached yields the union of the masks of all literals that
+ * occur in the text, in time linear in its length however many literals
+ * there are. Matching ignores ASCII case, the same way
+ * {@link java.util.regex.Pattern#CASE_INSENSITIVE} does, so a literal
+ * prefilter built from case-insensitive regexes finds every candidate.
+ *
+ * <p>Transitions are held in one dense table over the 128 ASCII characters;
+ * any other character returns to the start state, since no literal
+ * contains it. Instances are immutable and thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class MultiPatternMatcher {
+
+    /** The state to start each text in. */
+    public static final int START = 0;
+
+    private static final int ALPHABET = 128;
+
+    private final int[] transitions;
+    private final long[] outputs;
+
+    /**
+     * Builds the automaton.
+     *
+     * @param literals each literal with its mask; literals must be non-empty ASCII
+     */
+    public MultiPatternMatcher(Map<String, Long> literals) {
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<Long> masks = new ArrayList<>();
+        trie.add(newState());
+        masks.add(0L);
+        for (Map.Entry<String, Long> literal : literals.entrySet()) {
+            String text = literal.getKey();
+            if (text.isEmpty()) {
+                throw new IllegalArgumentException("Literals must not be empty");
+            }
+            int state = START;
+            for (int i = 0; i < text.length(); i++) {
+                char c = fold(text.charAt(i));
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Literals must be ASCII: " + text);
+                }
+                if (trie.get(state)[c] == -1) {
+                    trie.get(state)[c] = trie.size();
+                    trie.add(newState());
+                    masks.add(0L);
+                }
+                state = trie.get(state)[c];
+            }
+            masks.set(state, masks.get(state) | literal.getValue());
+        }
+
+        // Complete the transitions breadth first, inheriting outputs along failure links
+        int states = trie.size();
+        transitions = new int[states * ALPHABET];
+        outputs = new long[states];
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = trie.get(START)[c];
+            if (child == -1) {
+                transitions[c] = START;
+            } else {
+                transitions[c] = child;
+                failure[child] = START;
+                queue.add(child);
+            }
+        }
+        outputs[START] = masks.get(START);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = masks.get(state) | outputs[failure[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = trie.get(state)[c];
+                if (child == -1) {
+                    transitions[state * ALPHABET + c] = transitions[failure[state] * ALPHABET + c];
+                } else {
+                    transitions[state * ALPHABET + c] = child;
+                    failure[child] = transitions[failure[state] * ALPHABET + c];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Advances the automaton by one character.
+     *
+     * @param state the current state, {@link #START} at the beginning of a text
+     * @param c the next character
+     * @return the next state
+     */
+    public int step(int state, char c) {
+        char folded = fold(c);
+        return folded < ALPHABET ? transitions[state * ALPHABET + folded] : START;
+    }
+
+    /**
+     * Gets the masks of the literals ending at a state.
+     *
+     * @param state a state returned by {@link #step(int, char)}
+     * @return the union of their masks
+     */
+    public long output(int state) {
+        return outputs[state];
+    }
+
+    /**
+     * Finds which literals occur in a text.
+     *
+     * @param text the text
+     * @return the union of the masks of the literals that occur in it
+     */
+    public long scan(CharSequence text) {
+        long found = 0;
+        int state = START;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    /**
+     * Gets the number of automaton states.
+     *
+     * @return the state count
+     */
+    public int size() {
+        return outputs.length;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.mcp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A file of user-defined security rules for {@link SourceScanner}.
+ *
+ * <p>A pack is a JSON object with a {@code name} and a list of
+ * {@code rules}. Each rule has an {@code id} and a {@code pattern}, and
+ * optionally a {@code title}, a {@code severity} (CRITICAL, HIGH, MEDIUM or
+ * LOW; MEDIUM by default), a {@code cwe}, a {@code message}, a
+ * {@code remediation}, {@code caseInsensitive} and {@code hints}: ASCII
+ * literals one of which every match contains, so that the pattern only runs
+ * on lines containing one. Patterns compile to {@link LinearPattern}s.
+ *
+ * <p>A rule that does not compile is left out and reported in
+ * {@link #errors()}; the rest of the pack still loads.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class RulePack {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Set<String> SEVERITIES = Set.of("CRITICAL", "HIGH", "MEDIUM", "LOW");
+
+    private final String name;
+    private final Path file;
+    private final List<Rule> rules;
+    private final List<String> errors;
+
+    private RulePack(String name, Path file, List<Rule> rules, List<String> errors) {
+        this.name = name;
+        this.file = file;
+        this.rules = rules;
+        this.errors = errors;
+    }
+
+    /**
+     * Reads and compiles a rule pack.
+     *
+     * @param file the pack's JSON file
+     * @return the pack
+     * @throws IOException if the file cannot be read or is not a JSON object
+     */
+    public static RulePack load(Path file) throws IOException {
+        JsonNode root = OBJECT_MAPPER.readTree(file.toFile());
+        if (root == null || !root.isObject()) {
+            throw new IOException("Rule pack is not a JSON object: " + file);
+        }
+        String fileName = file.getFileName().toString();
+        String name = root.path("name").asText(fileName.endsWith(".json")
+                ? fileName.substring(0, fileName.length() - 5) : fileName);
+
+        List<Rule> rules = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int index = 0;
+        for (JsonNode node : root.path("rules")) {
+            String id = node.path("id").asText("");
+            String label = id.isEmpty() ? "rule " + index : id;
+            index++;
+            try {
+                rules.add(rule(node, id));
+            } catch (IllegalArgumentException e) {
+                errors.add(name + "/" + label + ": " + e.getMessage());
+            }
+        }
+        return new RulePack(name, file, List.copyOf(rules), List.copyOf(errors));
+    }
+
+    private static Rule rule(JsonNode node, String id) {
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("Missing id");
+        }
+        String pattern = node.path("pattern").asText("");
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Missing pattern");
+        }
+        String severity = node.path("severity").asText("MEDIUM").toUpperCase();
+        if (!SEVERITIES.contains(severity)) {
+            throw new IllegalArgumentException("Unknown severity " + severity);
+        }
+        List<String> hints = new ArrayList<>();
+        for (JsonNode hint : node.path("hints")) {
+            String literal = hint.asText("");
+            if (literal.isEmpty() || !literal.chars().allMatch(c -> c < 128)) {
+                throw new IllegalArgumentException("Hints must be non-empty ASCII: " + literal);
+            }
+            hints.add(literal);
+        }
+        String title = node.path("title").asText(id);
+        JsonNode cwe = node.get("cwe");
+        return new Rule(id, title, severity, cwe != null && !cwe.isNull() ? cwe.asText() : null, List.copyOf(hints),
+                LinearPattern.compile(pattern, node.path("caseInsensitive").asBoolean(false)),
+                node.path("message").asText(title + " (" + id + ")"),
+                node.path("remediation").asText("Review the flagged line against rule " + id + "."));
+    }
+
+    /**
+     * Gets the pack's name.
+     *
+     * @return the {@code name} field, or the file name without extension
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Gets the file the pack was read from.
+     *
+     * @return the file
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Gets the rules that compiled.
+     *
+     * @return the rules, in file order
+     */
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    /**
+     * Gets the problems with rules that were left out.
+     *
+     * @return one message per rule, naming the pack and rule
+     */
+    public List<String> errors() {
+        return errors;
+    }
+
+    /**
+     * One compiled rule.
+     *
+     * @param id the rule's id, such as {@code ACME-001}
+     * @param title the issue's name
+     * @param severity CRITICAL, HIGH, MEDIUM or LOW
+     * @param cwe the CWE id, or null
+     * @param hints literals one of which every match contains; empty to check every line
+     * @param pattern the compiled pattern
+     * @param message the description of each finding
+     * @param remediation how to fix it
+     */
+    public record Rule(String id, String title, String severity, String cwe, List<String> hints,
+                       LinearPattern pattern, String message, String remediation) {}
+}
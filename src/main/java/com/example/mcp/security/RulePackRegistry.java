@@ -0,0 +1,182 @@
+package com.example.mcp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Finds the {@link RulePack}s that apply to a project and keeps their
+ * scanners.
+ *
+ * <p>Packs are the {@code *.json} files in the user's
+ * {@code ~/.sdlc-tools/rules} directory and in the project's own
+ * {@code .sdlc-tools/rules} directory. The directories are listed again on
+ * every lookup, and a pack is reloaded when its size or modification time
+ * changes, so edited, added and removed packs take effect on the next scan
+ * without a restart. Scanners are kept per set of packs, for the most
+ * recently used {@link #MAX_RULE_SETS} sets.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class RulePackRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RulePackRegistry.class);
+
+    /** How many sets of packs keep a scanner. */
+    static final int MAX_RULE_SETS = 16;
+
+    private static final RulePackRegistry SHARED =
+            new RulePackRegistry(Path.of(System.getProperty("user.home"), ".sdlc-tools", "rules"));
+
+    private final Path userRules;
+    private final SourceScanner base;
+    private final Map<Path, Loaded> packs = new HashMap<>();
+    private final Map<String, SourceScanner> scanners = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SourceScanner> eldest) {
+            return size() > MAX_RULE_SETS;
+        }
+    };
+    private long loads;
+
+    /**
+     * Creates a registry extending the shared scanner.
+     *
+     * @param userRules the user's rule directory; need not exist
+     */
+    public RulePackRegistry(Path userRules) {
+        this(userRules, SourceScanner.shared());
+    }
+
+    /**
+     * Creates a registry extending a given scanner.
+     *
+     * @param userRules the user's rule directory; need not exist
+     * @param base the scanner with the built-in rules
+     */
+    public RulePackRegistry(Path userRules, SourceScanner base) {
+        this.userRules = userRules;
+        this.base = base;
+    }
+
+    /**
+     * Gets the registry shared by the tools, reading {@code ~/.sdlc-tools/rules}.
+     *
+     * @return the shared registry
+     */
+    public static RulePackRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the rules that apply to a project, reloading changed packs.
+     *
+     * @param projectDir the project's root directory
+     * @return the scanner and the packs it checks
+     */
+    public synchronized RuleSet forProject(Path projectDir) {
+        Path projectRules = projectDir.resolve(".sdlc-tools").resolve("rules");
+        List<Path> files = new ArrayList<>(list(userRules));
+        files.addAll(list(projectRules));
+        // Forget packs deleted from the directories just listed
+        packs.keySet().removeIf(file -> (file.getParent().equals(userRules) || file.getParent().equals(projectRules))
+                && !files.contains(file));
+
+        List<RulePack.Rule> rules = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        StringBuilder stamp = new StringBuilder();
+        for (Path file : files) {
+            Loaded loaded = load(file);
+            stamp.append(file).append(':').append(loaded.size()).append(':').append(loaded.modified()).append(';');
+            if (loaded.error() != null) {
+                errors.add(file.getFileName() + ": " + loaded.error());
+                continue;
+            }
+            names.add(loaded.pack().name());
+            rules.addAll(loaded.pack().rules());
+            errors.addAll(loaded.pack().errors());
+        }
+        String key = stamp.toString();
+        SourceScanner scanner = rules.isEmpty() ? base : scanners.computeIfAbsent(key, k -> base.withRules(rules));
+        return new RuleSet(scanner, List.copyOf(names), rules.size(), List.copyOf(errors), key);
+    }
+
+    /**
+     * Summarizes the loaded packs.
+     *
+     * @return the user directory and the counts of loaded packs, scanners and loads
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("userRules", userRules.toString());
+        stats.put("packs", packs.size());
+        stats.put("ruleSets", scanners.size());
+        stats.put("loads", loads);
+        return stats;
+    }
+
+    private Loaded load(Path file) {
+        long size;
+        long modified;
+        try {
+            size = Files.size(file);
+            modified = Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return new Loaded(-1, -1, null, e.getMessage());
+        }
+        Loaded loaded = packs.get(file);
+        if (loaded != null && loaded.size() == size && loaded.modified() == modified) {
+            return loaded;
+        }
+        loads++;
+        try {
+            RulePack pack = RulePack.load(file);
+            loaded = new Loaded(size, modified, pack, null);
+            logger.info("Loaded {} rules from rule pack {}", pack.rules().size(), file);
+        } catch (IOException e) {
+            logger.warn("Skipping unreadable rule pack {}: {}", file, e.getMessage());
+            loaded = new Loaded(size, modified, null, e.getMessage());
+        }
+        packs.put(file, loaded);
+        return loaded;
+    }
+
+    private static List<Path> list(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".json"))
+                    .filter(Files::isRegularFile).sorted().toList();
+        } catch (IOException e) {
+            logger.warn("Cannot list rule directory {}: {}", dir, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private record Loaded(long size, long modified, RulePack pack, String error) {}
+
+    /**
+     * The rules that apply to a project.
+     *
+     * @param scanner a scanner checking the built-in rules and the packs' rules
+     * @param packs the names of the loaded packs
+     * @param rules how many rules the packs added
+     * @param errors problems with packs or rules that were left out
+     * @param stamp changes whenever any pack does
+     */
+    public record RuleSet(SourceScanner scanner, List<String> packs, int rules, List<String> errors, String stamp) {}
+}
@@ -0,0 +1,421 @@
+package com.example.mcp.security;
+
+import com.example.mcp.concurrent.FileFanOut;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scans Java sources for security issues line by line.
+ *
+ * <p>Every rule names the literals a line must contain before the rule can
+ * match: for instance, a hardcoded secret needs one of the secret keywords,
+ * an {@code =} and a quote. All rules' literals are compiled into a single
+ * {@link MultiPatternMatcher}, so each character of a file is looked at once,
+ * and a rule's regular expressions only run on the lines that contain its
+ * literals. Findings are the same as running every rule on every line.
+ * Patterns run as {@link LinearPattern}s, so a long generated line costs
+ * time linear in its length, except for the secret rule's keyword capture,
+ * which has no nested repetition. Rules from {@link RulePack}s are added with
+ * {@link #withRules(List)}.
+ *
+ * <p>Files are decoded into per-thread buffers that are reused from file to
+ * file, or memory-mapped when large, and lines are checked in place without
+ * splitting the file into strings. Files are scanned in parallel.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class SourceScanner {
+
+    /** The title of the hardcoded secret rule. */
+    public static final String HARDCODED_SECRET = "Hardcoded Secret Detected";
+
+    private static final int MAX_POOLED_BYTES = 1024 * 1024;
+
+    private static final LinearPattern SQL_INJECTION_PATTERN = LinearPattern.compile(
+            "Statement|PreparedStatement|ResultSet|executeQuery|executeUpdate|execute\\(" +
+            "|\"\\s*\\+\\s*[a-zA-Z_]|String\\.format.*SELECT|String\\.format.*UPDATE"
+    );
+
+    private static final LinearPattern XSS_PATTERN = LinearPattern.compile(
+            "innerHTML|document\\.write|eval\\(|response\\.getWriter|out\\.print|getParameter|getElementById"
+    );
+
+    private static final Pattern HARDCODED_SECRET_PATTERN = Pattern.compile(
+            "(password|apikey|api_key|secret|token|pwd|passwd|credential)\\s*=\\s*[\"']([^\"']+)[\"']",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final LinearPattern WEAK_CRYPTO_PATTERN = LinearPattern.compile(
+            "MD5|MD2|SHA1|DES|RC4|Random\\(\\)|Math\\.random\\(\\)|SecureRandom\\(\\s*\\)",
+            true
+    );
+
+    private static final LinearPattern DESERIALIZATION_PATTERN = LinearPattern.compile(
+            "readObject|readObjectNoData|readResolve|ObjectInputStream|readField|newInstance"
+    );
+
+    // In reporting order; each trigger group lists literals one of which every matching line contains
+    private static final List<Rule> RULES = List.of(
+            new Rule("HIGH", "SQL Injection Risk",
+                    "Use parameterized queries or PreparedStatement with placeholders instead of string concatenation.",
+                    List.of(List.of("+", "String.format"),
+                            List.of("Statement", "ResultSet", "execute", "\"", "String.format")),
+                    line -> SQL_INJECTION_PATTERN.find(line)
+                            && (contains(line, "+") || contains(line, "String.format") || contains(line, "\".*\" +"))
+                            ? "Potential SQL injection vulnerability detected. String concatenation with user input in SQL query."
+                            : null),
+            new Rule("CRITICAL", HARDCODED_SECRET,
+                    "Move secrets to environment variables, configuration files, or secret management systems. Never commit secrets to source control.",
+                    List.of(List.of("password", "apikey", "api_key", "secret", "token", "pwd", "passwd", "credential"),
+                            List.of("="), List.of("\"", "'")),
+                    line -> {
+                        Matcher secretMatcher = HARDCODED_SECRET_PATTERN.matcher(line);
+                        return secretMatcher.find()
+                                ? "Found hardcoded secret in source code: " + secretMatcher.group(1) : null;
+                    }),
+            new Rule("HIGH", "Cross-Site Scripting (XSS) Risk",
+                    "Sanitize all user inputs using ESAPI.encoder() or similar libraries. Use Content Security Policy (CSP) headers.",
+                    List.of(List.of("getParameter")),
+                    line -> XSS_PATTERN.find(line) && contains(line, "getParameter")
+                            ? "Potential XSS vulnerability: user input is used without proper sanitization." : null),
+            new Rule("HIGH", "Weak Cryptography Algorithm",
+                    "Use strong algorithms: SHA-256 or SHA-3 for hashing, AES-256 for encryption, SecureRandom for key generation.",
+                    List.of(List.of("MD5", "MD2", "SHA1", "DES", "RC4", "Random(")),
+                    line -> WEAK_CRYPTO_PATTERN.find(line)
+                            ? "Use of weak or deprecated cryptographic algorithm detected." : null),
+            new Rule("CRITICAL", "Insecure Deserialization",
+                    "Avoid deserializing untrusted data. Use JSON deserialization with strict type validation or implement custom deserialization with whitelisting.",
+                    List.of(List.of("ObjectInputStream")),
+                    line -> DESERIALIZATION_PATTERN.find(line) && contains(line, "ObjectInputStream")
+                            ? "ObjectInputStream is used to deserialize untrusted data, which can lead to RCE attacks." : null),
+            new Rule("HIGH", "Command Injection Risk",
+                    "Avoid using Runtime.exec() or ProcessBuilder with user input. Use whitelisting and parameterized command execution.",
+                    List.of(List.of("Runtime.getRuntime().exec", "ProcessBuilder")),
+                    line -> contains(line, "Runtime.getRuntime().exec") || contains(line, "ProcessBuilder")
+                            ? "Direct execution of runtime commands detected." : null),
+            new Rule("HIGH", "LDAP Injection Risk",
+                    "Use parameterized LDAP queries or escape special characters in LDAP filters.",
+                    List.of(List.of("DirContext"), List.of("search"), List.of("+")),
+                    line -> contains(line, "DirContext") && contains(line, "search") && contains(line, "+")
+                            ? "Potential LDAP injection vulnerability detected." : null),
+            new Rule("CRITICAL", "XML External Entity (XXE) Attack Risk",
+                    "Disable external entity processing and DTD processing in XML parsers.",
+                    List.of(List.of("setValidating(false)", "XXE", "expandEntityReferences=true")),
+                    line -> contains(line, "setValidating(false)") || contains(line, "XXE")
+                            || contains(line, "expandEntityReferences=true")
+                            ? "XML parsing with disabled security features or entity expansion enabled." : null)
+    );
+
+    private static final SourceScanner SHARED = new SourceScanner(Runtime.getRuntime().availableProcessors());
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final List<Rule> rules;
+    private final MultiPatternMatcher matcher;
+    private final long[] ruleMasks;
+    private final boolean checksEveryLine;
+    private final ForkJoinPool pool;
+    private final FileFanOut<ScannedFile> fanOut = new FileFanOut<>("scanning", this::scanFile);
+
+    /**
+     * Creates a scanner.
+     *
+     * @param parallelism how many files to scan at once
+     */
+    public SourceScanner(int parallelism) {
+        this(FileFanOut.namedPool("source-scanner", parallelism), RULES);
+    }
+
+    private SourceScanner(ForkJoinPool pool, List<Rule> rules) {
+        this.pool = pool;
+        this.rules = rules;
+        Map<String, Long> literals = new LinkedHashMap<>();
+        ruleMasks = new long[rules.size()];
+        int bit = 0;
+        for (int rule = 0; rule < rules.size(); rule++) {
+            for (List<String> group : rules.get(rule).triggers()) {
+                // Past 64 groups bits are shared, which only lets more lines through to the patterns
+                long groupBit = 1L << (bit++ % 64);
+                ruleMasks[rule] |= groupBit;
+                for (String literal : group) {
+                    literals.merge(literal, groupBit, (a, b) -> a | b);
+                }
+            }
+        }
+        this.matcher = new MultiPatternMatcher(literals);
+        this.checksEveryLine = Arrays.stream(ruleMasks).anyMatch(mask -> mask == 0);
+    }
+
+    /**
+     * Creates a scanner that also checks rules from rule packs, sharing this
+     * scanner's threads.
+     *
+     * <p>A rule's pattern runs only on lines containing one of its hints, or
+     * on every line if it has none.
+     *
+     * @param packRules the additional rules, reported after the built-in ones
+     * @return the extended scanner
+     */
+    public SourceScanner withRules(List<RulePack.Rule> packRules) {
+        List<Rule> extended = new ArrayList<>(rules);
+        for (RulePack.Rule rule : packRules) {
+            extended.add(new Rule(rule.id(), rule.severity(), rule.title(), rule.cwe(), rule.remediation(),
+                    rule.hints().isEmpty() ? List.of() : List.of(rule.hints()),
+                    line -> rule.pattern().find(line) ? rule.message() : null));
+        }
+        return new SourceScanner(pool, List.copyOf(extended));
+    }
+
+    /**
+     * Creates a scanner that checks only some of this scanner's rules,
+     * sharing its threads.
+     *
+     * @param titles the titles of the rules to check, such as {@link #HARDCODED_SECRET}
+     * @return the restricted scanner
+     */
+    public SourceScanner restrictedTo(Set<String> titles) {
+        return new SourceScanner(pool, rules.stream().filter(rule -> titles.contains(rule.title())).toList());
+    }
+
+    /**
+     * Gets the scanner shared by the tools, scanning one file per processor.
+     *
+     * @return the shared scanner
+     */
+    public static SourceScanner shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the number of files scanned at once.
+     *
+     * @return the pool's parallelism
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Scans one file on the calling thread.
+     *
+     * @param file the source file, UTF-8 encoded
+     * @return the findings in line order, and in rule order within a line
+     * @throws IOException if the file cannot be read or is not valid UTF-8
+     */
+    public List<Finding> scan(Path file) throws IOException {
+        return scan(file, read(file));
+    }
+
+    /**
+     * Scans content that is not read from disk, such as a file at some commit.
+     *
+     * @param file the path findings are reported at
+     * @param content the source text
+     * @return the findings in line order, and in rule order within a line
+     */
+    public List<Finding> scan(Path file, CharSequence content) {
+        return scan(file, CharBuffer.wrap(content));
+    }
+
+    private List<Finding> scan(Path file, CharBuffer content) {
+        List<Finding> findings = new ArrayList<>();
+        int lineNumber = 1;
+        int lineStart = 0;
+        int state = MultiPatternMatcher.START;
+        long hits = 0;
+        int length = content.limit();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || content.get(i) == '\n') {
+                if (hits != 0 || checksEveryLine) {
+                    checkLine(content.subSequence(lineStart, i), hits, file, lineNumber, findings);
+                }
+                lineNumber++;
+                lineStart = i + 1;
+                state = MultiPatternMatcher.START;
+                hits = 0;
+            } else {
+                state = matcher.step(state, content.get(i));
+                hits |= matcher.output(state);
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * Scans files in parallel.
+     *
+     * @param files the source files
+     * @return one result per file, in the order of {@code files}
+     */
+    public List<ScannedFile> scanAll(List<Path> files) {
+        return fanOut.all(pool, files);
+    }
+
+    /**
+     * Scans files in parallel and hands each result to a consumer in the
+     * order of {@code files}, a few batches at a time.
+     *
+     * @param files the source files
+     * @param consumer receives each result on the calling thread; may throw to stop the scan
+     */
+    public void scanEach(List<Path> files, Consumer<ScannedFile> consumer) {
+        fanOut.each(pool, files, consumer);
+    }
+
+    private ScannedFile scanFile(Path file) {
+        try {
+            return new ScannedFile(file, scan(file), null);
+        } catch (IOException e) {
+            return new ScannedFile(file, List.of(), e);
+        }
+    }
+
+    private void checkLine(CharSequence line, long hits, Path file, int lineNumber, List<Finding> findings) {
+        for (int rule = 0; rule < rules.size(); rule++) {
+            if ((hits & ruleMasks[rule]) == ruleMasks[rule]) {
+                Rule candidate = rules.get(rule);
+                String description = candidate.check().describe(line);
+                if (description != null) {
+                    findings.add(new Finding(candidate.severity(), candidate.title(), description,
+                            candidate.remediation(), file, lineNumber, candidate.id(), candidate.cwe()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes a file into this thread's buffer, or into a fresh one for large files.
+     */
+    private static CharBuffer read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Buffers buffers = BUFFERS.get();
+            ByteBuffer bytes;
+            CharBuffer chars;
+            if (size > MAX_POOLED_BYTES) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                chars = CharBuffer.allocate((int) size);
+            } else {
+                bytes = buffers.bytes((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                    // Fill the buffer; a file that shrank meanwhile ends early
+                }
+                bytes.flip();
+                chars = buffers.chars((int) size);
+            }
+            CharsetDecoder decoder = buffers.decoder.reset();
+            CoderResult result = decoder.decode(bytes, chars, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            decoder.flush(chars);
+            chars.flip();
+            return chars;
+        }
+    }
+
+    private static boolean contains(CharSequence line, String literal) {
+        int last = line.length() - literal.length();
+        char first = literal.charAt(0);
+        for (int start = 0; start <= last; start++) {
+            if (line.charAt(start) != first) {
+                continue;
+            }
+            int i = 1;
+            while (i < literal.length() && line.charAt(start + i) == literal.charAt(i)) {
+                i++;
+            }
+            if (i == literal.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A security issue found on one line.
+     *
+     * @param severity CRITICAL, HIGH, MEDIUM or LOW
+     * @param title the issue's name
+     * @param description what was found
+     * @param remediation how to fix it
+     * @param file the scanned file
+     * @param line the 1-based line number
+     * @param rule the id of the rule pack rule that found it, or null for a built-in rule
+     * @param cwe the CWE id a rule pack rule gives, or null
+     */
+    public record Finding(String severity, String title, String description, String remediation,
+                          Path file, int line, String rule, String cwe) {}
+
+    /**
+     * The outcome of scanning one file.
+     *
+     * @param path the file
+     * @param findings the findings, empty if the file could not be read
+     * @param error the read failure, or null
+     */
+    public record ScannedFile(Path path, List<Finding> findings, IOException error) {}
+
+    /**
+     * Describes a finding on a line, or returns null if the rule does not match it.
+     */
+    @FunctionalInterface
+    private interface LineCheck {
+        String describe(CharSequence line);
+    }
+
+    private record Rule(String id, String severity, String title, String cwe, String remediation,
+                        List<List<String>> triggers, LineCheck check) {
+
+        Rule(String severity, String title, String remediation, List<List<String>> triggers, LineCheck check) {
+            this(null, severity, title, null, remediation, triggers, check);
+        }
+    }
+
+    /**
+     * A thread's reusable read and decode buffers.
+     */
+    private static final class Buffers {
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+        private CharBuffer chars = CharBuffer.allocate(64 * 1024);
+
+        ByteBuffer bytes(int size) {
+            if (bytes.capacity() < size) {
+                bytes = ByteBuffer.allocate(size);
+            }
+            return bytes.clear().limit(size);
+        }
+
+        CharBuffer chars(int size) {
+            // UTF-8 never decodes to more chars than bytes
+            if (chars.capacity() < size) {
+                chars = CharBuffer.allocate(size);
+            }
+            return chars.clear().limit(size);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.mcp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link VulnerabilityIndex} of a configured OSV dump up to date.
+ *
+ * <p>The index is built the first time it is needed and rebuilt whenever the
+ * dump changes, as told by a stamp of its size and modification times;
+ * replacing the dump with a newer download is all a refresh takes. The dump
+ * is checked at most once per {@link #CHECK_INTERVAL_MILLIS}, so repeated
+ * scans do not walk it again. Nothing is fetched over the network.
+ *
+ * <p>Each build writes a new generation of the index file, named after the
+ * configured file with a generation number appended, and the database then
+ * switches to it. An index already handed out stays mapped to its own file,
+ * which is never overwritten; older generations are deleted once the new
+ * one is in use, or on a later build where the platform refuses to delete a
+ * mapped file.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class VulnerabilityDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(VulnerabilityDatabase.class);
+
+    /** How long a checked dump is assumed unchanged. */
+    static final long CHECK_INTERVAL_MILLIS = 60_000;
+
+    private static final VulnerabilityDatabase SHARED = new VulnerabilityDatabase();
+
+    private Path source;
+    private Path indexFile;
+    private VulnerabilityIndex index;
+    private long generation;
+    private long checkedAt;
+    private long builds;
+    private long buildMillis;
+
+    /**
+     * Gets the database shared by the tools.
+     *
+     * @return the shared database
+     */
+    public static VulnerabilityDatabase shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sets the OSV dump to index, dropping any index of a previous one.
+     *
+     * @param source a directory of OSV JSON files or a zip of them; null disables the database
+     * @param indexFile where to keep the index
+     */
+    public synchronized void configure(Path source, Path indexFile) {
+        this.source = source;
+        this.indexFile = indexFile;
+        index = null;
+        generation = 0;
+        checkedAt = 0;
+    }
+
+    /**
+     * Checks whether a dump is configured.
+     *
+     * @return true if {@link #index()} can return an index
+     */
+    public synchronized boolean isConfigured() {
+        return source != null;
+    }
+
+    /**
+     * Gets the index of the configured dump, building or rebuilding it first
+     * if the dump changed.
+     *
+     * @return the index, or null if no dump is configured
+     * @throws IOException if the dump cannot be read or the index written
+     */
+    public synchronized VulnerabilityIndex index() throws IOException {
+        if (source == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (index != null && now - checkedAt < CHECK_INTERVAL_MILLIS) {
+            return index;
+        }
+
+        String stamp = stamp(source);
+        if (index == null) {
+            generation = latestGeneration();
+            if (generation > 0) {
+                try {
+                    index = VulnerabilityIndex.open(generationFile(generation));
+                } catch (IOException e) {
+                    logger.warn("Rebuilding unreadable vulnerability index {}: {}",
+                            generationFile(generation), e.getMessage());
+                }
+            }
+        }
+        if (index == null || !index.sourceStamp().equals(stamp)) {
+            long started = System.nanoTime();
+            Path next = generationFile(generation + 1);
+            // A file left by a build that failed after writing is not mapped by anyone
+            Files.deleteIfExists(next);
+            int advisories = VulnerabilityIndex.build(source, next, stamp);
+            index = VulnerabilityIndex.open(next);
+            generation++;
+            deleteOlderGenerations();
+            builds++;
+            buildMillis = (System.nanoTime() - started) / 1_000_000;
+            logger.info("Indexed {} advisories for {} artifacts from {} in {} ms",
+                    advisories, index.artifactCount(), source, buildMillis);
+        }
+        checkedAt = now;
+        return index;
+    }
+
+    /**
+     * Summarizes the loaded index.
+     *
+     * @return the source, artifact and advisory counts, and builds
+     */
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("source", source != null ? source.toString() : null);
+        stats.put("artifacts", index != null ? index.artifactCount() : 0);
+        stats.put("advisories", index != null ? index.advisoryCount() : 0);
+        stats.put("builds", builds);
+        stats.put("lastBuildMillis", buildMillis);
+        return stats;
+    }
+
+    private Path generationFile(long number) {
+        return indexFile.resolveSibling(indexFile.getFileName() + "." + number);
+    }
+
+    /**
+     * Finds the newest generation of the index file.
+     *
+     * @return its number, or 0 if there is none
+     */
+    private long latestGeneration() throws IOException {
+        Path dir = indexFile.toAbsolutePath().getParent();
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        long latest = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                latest = Math.max(latest, generationOf(file));
+            }
+        }
+        return latest;
+    }
+
+    private long generationOf(Path file) {
+        String prefix = indexFile.getFileName() + ".";
+        String name = file.getFileName().toString();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return 0;
+        }
+        String suffix = name.substring(prefix.length());
+        return suffix.chars().allMatch(Character::isDigit) && suffix.length() < 19 ? Long.parseLong(suffix) : 0;
+    }
+
+    private void deleteOlderGenerations() throws IOException {
+        try (Stream<Path> files = Files.list(indexFile.toAbsolutePath().getParent())) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                long number = generationOf(file);
+                if (number > 0 && number < generation) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Windows keeps mapped files; the next build tries again
+                        logger.debug("Cannot delete old vulnerability index {} yet: {}", file, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static String stamp(Path source) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return "zip:" + Files.size(source) + ":" + Files.getLastModifiedTime(source).toMillis();
+        }
+        long[] stamp = new long[3];
+        try (Stream<Path> walk = Files.walk(source)) {
+            walk.filter(file -> file.toString().endsWith(".json")).forEach(file -> {
+                try {
+                    stamp[0]++;
+                    stamp[1] += Files.size(file);
+                    stamp[2] = Math.max(stamp[2], Files.getLastModifiedTime(file).toMillis());
+                } catch (IOException e) {
+                    stamp[2] = Long.MAX_VALUE;
+                }
+            });
+        }
+        return "dir:" + stamp[0] + ":" + stamp[1] + ":" + stamp[2];
+    }
+}
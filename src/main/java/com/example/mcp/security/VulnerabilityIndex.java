@@ -0,0 +1,483 @@
+package com.example.mcp.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A read-only index of known vulnerabilities in Maven artifacts, built
+ * offline from an OSV dump and memory-mapped for lookups.
+ *
+ * <p>The source is a directory of OSV JSON records or a zip of them, such
+ * as the {@code Maven/all.zip} export of osv.dev or a GitHub Advisory
+ * Database checkout. Only {@code Maven} packages are indexed. Each affected
+ * range becomes an interval of versions: from {@code introduced}
+ * inclusive, to {@code fixed} exclusive or {@code last_affected}
+ * inclusive; explicitly listed versions become single-version intervals.
+ * Versions are ordered the way Maven orders them.
+ *
+ * <p>The index file holds a table of artifacts ({@code groupId:artifactId})
+ * sorted by their UTF-8 bytes, the intervals of each artifact sorted by
+ * lower bound, the advisories and a string table. Finding an artifact is a
+ * binary search over the mapped table, so a lookup touches a few pages and
+ * allocates nothing unless the artifact has intervals. Bounds are parsed
+ * into Maven versions once, on first use.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class VulnerabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VulnerabilityIndex.class);
+
+    private static final int MAGIC = 0x4F535649; // "OSVI"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ARTIFACT_BYTES = 12;
+    private static final int INTERVAL_BYTES = 16;
+    private static final int ADVISORY_BYTES = 16;
+    private static final int NONE = -1;
+
+    private static final int INCLUSIVE_UPPER = 1;
+
+    private final ByteBuffer buffer;
+    private final String sourceStamp;
+    private final int artifactCount;
+    private final int intervalCount;
+    private final int advisoryCount;
+    private final int artifactsAt;
+    private final int intervalsAt;
+    private final int advisoriesAt;
+    private final int stringOffsetsAt;
+    private final int stringsAt;
+    private final AtomicReferenceArray<ComparableVersion> versions;
+
+    private VulnerabilityIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException("Not a vulnerability index, or written by another version");
+        }
+        artifactCount = buffer.getInt(8);
+        intervalCount = buffer.getInt(12);
+        advisoryCount = buffer.getInt(16);
+        int stringCount = buffer.getInt(20);
+        int stampString = buffer.getInt(24);
+        artifactsAt = HEADER_BYTES;
+        intervalsAt = artifactsAt + artifactCount * ARTIFACT_BYTES;
+        advisoriesAt = intervalsAt + intervalCount * INTERVAL_BYTES;
+        stringOffsetsAt = advisoriesAt + advisoryCount * ADVISORY_BYTES;
+        stringsAt = stringOffsetsAt + (stringCount + 1) * 4;
+        sourceStamp = string(stampString);
+        versions = new AtomicReferenceArray<>(stringCount);
+    }
+
+    /**
+     * Maps an index file.
+     *
+     * @param indexFile a file written by {@link #build(Path, Path, String)}
+     * @return the index
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    public static VulnerabilityIndex open(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            return new VulnerabilityIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Builds an index file from an OSV dump. The file is written next to its
+     * final location and moved into place, so readers never see it half written.
+     * An existing file is never replaced, since another index may have it
+     * mapped; a rebuild writes a new file instead.
+     *
+     * @param source a directory of OSV JSON files, or a zip of them
+     * @param indexFile where to write the index
+     * @param sourceStamp a description of the source's state, returned by {@link #sourceStamp()}
+     * @return the number of advisories indexed
+     * @throws FileAlreadyExistsException if {@code indexFile} exists
+     * @throws IOException if the source cannot be read or the index written
+     */
+    public static int build(Path source, Path indexFile, String sourceStamp) throws IOException {
+        Builder builder = new Builder();
+        ObjectMapper mapper = new ObjectMapper();
+        if (Files.isDirectory(source)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(source)) {
+                files = walk.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+            }
+            for (Path file : files) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    builder.add(mapper.readTree(in), file.toString());
+                }
+            }
+        } else {
+            try (ZipFile zip = new ZipFile(source.toFile())) {
+                List<? extends ZipEntry> entries = zip.stream()
+                        .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".json"))
+                        .sorted(Comparator.comparing(ZipEntry::getName))
+                        .toList();
+                for (ZipEntry entry : entries) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        builder.add(mapper.readTree(in), entry.getName());
+                    }
+                }
+            }
+        }
+
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        // An atomic move may replace its target silently, so refuse up front
+        if (Files.exists(indexFile, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileAlreadyExistsException(indexFile.toString());
+        }
+        Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            builder.write(out, sourceStamp);
+        }
+        try {
+            Files.move(temporary, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return builder.advisories.size();
+    }
+
+    /**
+     * Finds the advisories affecting one version of an artifact.
+     *
+     * @param groupId the group
+     * @param artifactId the artifact
+     * @param version the version
+     * @return the matching advisories, each once, in advisory order; empty if none
+     */
+    public List<Advisory> lookup(String groupId, String artifactId, String version) {
+        int artifact = findArtifact((groupId + ":" + artifactId).getBytes(StandardCharsets.UTF_8));
+        if (artifact == NONE) {
+            return List.of();
+        }
+        int first = buffer.getInt(artifactsAt + artifact * ARTIFACT_BYTES + 4);
+        int count = buffer.getInt(artifactsAt + artifact * ARTIFACT_BYTES + 8);
+        ComparableVersion queried = new ComparableVersion(version);
+
+        // Intervals are sorted by lower bound, so only those up to the last one starting at or below the version apply
+        int low = first;
+        int high = first + count - 1;
+        int last = first - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int lower = buffer.getInt(intervalsAt + middle * INTERVAL_BYTES);
+            if (lower == NONE || version(lower).compareTo(queried) <= 0) {
+                last = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        Map<Integer, Advisory> matches = new TreeMap<>();
+        for (int interval = first; interval <= last; interval++) {
+            int at = intervalsAt + interval * INTERVAL_BYTES;
+            int upper = buffer.getInt(at + 4);
+            int flags = buffer.getInt(at + 8);
+            int advisory = buffer.getInt(at + 12);
+            if (upper != NONE) {
+                int comparison = queried.compareTo(version(upper));
+                if (comparison > 0 || (comparison == 0 && (flags & INCLUSIVE_UPPER) == 0)) {
+                    continue;
+                }
+            }
+            String fixed = upper != NONE && (flags & INCLUSIVE_UPPER) == 0 ? string(upper) : null;
+            Advisory existing = matches.get(advisory);
+            if (existing == null || (existing.fixedVersion() == null && fixed != null)) {
+                matches.put(advisory, advisory(advisory, fixed));
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /**
+     * Describes the state of the source the index was built from.
+     *
+     * @return the stamp passed to {@link #build(Path, Path, String)}
+     */
+    public String sourceStamp() {
+        return sourceStamp;
+    }
+
+    /**
+     * Gets the number of indexed artifacts.
+     *
+     * @return the artifact count
+     */
+    public int artifactCount() {
+        return artifactCount;
+    }
+
+    /**
+     * Gets the number of indexed advisories.
+     *
+     * @return the advisory count
+     */
+    public int advisoryCount() {
+        return advisoryCount;
+    }
+
+    /**
+     * Gets the number of indexed version intervals.
+     *
+     * @return the interval count
+     */
+    public int intervalCount() {
+        return intervalCount;
+    }
+
+    private int findArtifact(byte[] key) {
+        int low = 0;
+        int high = artifactCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareString(buffer.getInt(artifactsAt + middle * ARTIFACT_BYTES), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return NONE;
+    }
+
+    private int compareString(int string, byte[] key) {
+        int start = stringsAt + buffer.getInt(stringOffsetsAt + string * 4);
+        int length = stringsAt + buffer.getInt(stringOffsetsAt + (string + 1) * 4) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String string(int string) {
+        if (string == NONE) {
+            return null;
+        }
+        int start = stringsAt + buffer.getInt(stringOffsetsAt + string * 4);
+        int end = stringsAt + buffer.getInt(stringOffsetsAt + (string + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ComparableVersion version(int string) {
+        ComparableVersion version = versions.get(string);
+        if (version == null) {
+            version = new ComparableVersion(string(string));
+            versions.set(string, version);
+        }
+        return version;
+    }
+
+    private Advisory advisory(int advisory, String fixedVersion) {
+        int at = advisoriesAt + advisory * ADVISORY_BYTES;
+        String aliases = string(buffer.getInt(at + 12));
+        return new Advisory(string(buffer.getInt(at)), aliases.isEmpty() ? List.of() : List.of(aliases.split(",")),
+                string(buffer.getInt(at + 4)), string(buffer.getInt(at + 8)), fixedVersion);
+    }
+
+    /**
+     * A known vulnerability affecting a looked-up version.
+     *
+     * @param id the advisory id, such as {@code GHSA-jfh8-c2jp-5v3q}
+     * @param aliases other ids of the same vulnerability, such as CVE ids
+     * @param summary a one-line description
+     * @param severity CRITICAL, HIGH, MEDIUM or LOW
+     * @param fixedVersion the version the affected range ends at, or null if it has no fix
+     */
+    public record Advisory(String id, List<String> aliases, String summary, String severity, String fixedVersion) {}
+
+    /**
+     * Collects advisories and writes the index file.
+     */
+    private static final class Builder {
+
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final List<int[]> advisories = new ArrayList<>();
+        private final Map<String, List<Interval>> intervals = new HashMap<>();
+
+        void add(JsonNode record, String origin) {
+            String id = record.path("id").asText(null);
+            if (id == null || record.has("withdrawn")) {
+                return;
+            }
+            List<Interval> affected = new ArrayList<>();
+            for (JsonNode entry : record.path("affected")) {
+                JsonNode pkg = entry.path("package");
+                String name = pkg.path("name").asText("");
+                if (!"Maven".equalsIgnoreCase(pkg.path("ecosystem").asText()) || name.indexOf(':') < 0) {
+                    continue;
+                }
+                for (JsonNode range : entry.path("ranges")) {
+                    if (!"GIT".equals(range.path("type").asText())) {
+                        collectRange(name, range.path("events"), affected);
+                    }
+                }
+                for (JsonNode version : entry.path("versions")) {
+                    affected.add(new Interval(name, intern(version.asText()), intern(version.asText()), true, 0));
+                }
+            }
+            if (affected.isEmpty()) {
+                return;
+            }
+
+            int advisory = advisories.size();
+            List<String> aliases = new ArrayList<>();
+            record.path("aliases").forEach(alias -> aliases.add(alias.asText()));
+            String summary = record.path("summary").asText("");
+            if (summary.isEmpty()) {
+                String details = record.path("details").asText("");
+                summary = details.length() > 200 ? details.substring(0, 200) + "..." : details;
+            }
+            advisories.add(new int[]{intern(id), intern(summary), intern(severity(record)),
+                    intern(String.join(",", aliases))});
+            for (Interval interval : affected) {
+                intervals.computeIfAbsent(interval.artifact(), key -> new ArrayList<>())
+                        .add(new Interval(interval.artifact(), interval.lower(), interval.upper(),
+                                interval.inclusiveUpper(), advisory));
+            }
+            logger.trace("Indexed {} from {}", id, origin);
+        }
+
+        private void collectRange(String artifact, JsonNode events, List<Interval> affected) {
+            int lower = NONE;
+            boolean open = false;
+            for (JsonNode event : events) {
+                if (event.has("introduced")) {
+                    String introduced = event.get("introduced").asText();
+                    lower = "0".equals(introduced) ? NONE : intern(introduced);
+                    open = true;
+                } else if (open && event.has("fixed")) {
+                    affected.add(new Interval(artifact, lower, intern(event.get("fixed").asText()), false, 0));
+                    open = false;
+                } else if (open && event.has("last_affected")) {
+                    affected.add(new Interval(artifact, lower, intern(event.get("last_affected").asText()), true, 0));
+                    open = false;
+                }
+            }
+            if (open) {
+                affected.add(new Interval(artifact, lower, NONE, false, 0));
+            }
+        }
+
+        private static String severity(JsonNode record) {
+            String severity = record.path("database_specific").path("severity").asText("").toUpperCase();
+            return switch (severity) {
+                case "CRITICAL", "HIGH", "LOW" -> severity;
+                default -> "MEDIUM";
+            };
+        }
+
+        private int intern(String value) {
+            Integer id = stringIds.get(value);
+            if (id == null) {
+                id = strings.size();
+                strings.add(value);
+                stringIds.put(value, id);
+            }
+            return id;
+        }
+
+        void write(OutputStream target, String sourceStamp) throws IOException {
+            int stamp = intern(sourceStamp);
+            List<String> artifacts = new ArrayList<>(intervals.keySet());
+            artifacts.forEach(this::intern);
+            // Sort by UTF-8 bytes, the order lookups compare in
+            artifacts.sort((a, b) -> Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8),
+                    b.getBytes(StandardCharsets.UTF_8)));
+
+            List<Interval> ordered = new ArrayList<>();
+            int[][] artifactTable = new int[artifacts.size()][];
+            for (int i = 0; i < artifacts.size(); i++) {
+                List<Interval> own = new ArrayList<>(intervals.get(artifacts.get(i)));
+                own.sort(Comparator.comparing(interval -> interval.lower() == NONE
+                        ? new ComparableVersion("") : new ComparableVersion(strings.get(interval.lower()))));
+                artifactTable[i] = new int[]{stringIds.get(artifacts.get(i)), ordered.size(), own.size()};
+                ordered.addAll(own);
+            }
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(artifactTable.length);
+            out.writeInt(ordered.size());
+            out.writeInt(advisories.size());
+            out.writeInt(strings.size());
+            out.writeInt(stamp);
+            out.writeInt(0);
+            for (int[] artifact : artifactTable) {
+                for (int value : artifact) {
+                    out.writeInt(value);
+                }
+            }
+            for (Interval interval : ordered) {
+                out.writeInt(interval.lower());
+                out.writeInt(interval.upper());
+                out.writeInt(interval.inclusiveUpper() ? INCLUSIVE_UPPER : 0);
+                out.writeInt(interval.advisory());
+            }
+            for (int[] advisory : advisories) {
+                for (int value : advisory) {
+                    out.writeInt(value);
+                }
+            }
+            List<byte[]> encoded = new ArrayList<>(strings.size());
+            int offset = 0;
+            out.writeInt(0);
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+            out.flush();
+        }
+    }
+
+    private record Interval(String artifact, int lower, int upper, boolean inclusiveUpper, int advisory) {}
+}
@@ -1,9 +1,12 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.cache.AnalysisCache;
+import com.example.mcp.maven.CompactDependencyGraph;
+import com.example.mcp.maven.DependencyGraph;
+import com.example.mcp.maven.DependencyGraphResolver;
+import com.example.mcp.maven.DependencyUsageAnalyzer;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
-import org.apache.maven.shared.invoker.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,9 +15,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Tool for comprehensive dependency analysis in Maven projects.
@@ -37,6 +39,41 @@ public class AnalyzeDependenciesTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyzeDependenciesTool.class);
 
+    // Shared so the class lists of dependency jars are read once
+    private static final DependencyUsageAnalyzer USAGE_ANALYZER = new DependencyUsageAnalyzer();
+
+    private static final Set<String> ANALYZED_SCOPES = Set.of("compile", "provided", "test");
+
+    private final AnalysisCache analysisCache;
+    private final DependencyGraphResolver resolver;
+
+    /**
+     * Creates the tool, caching results in the shared analysis cache.
+     */
+    public AnalyzeDependenciesTool() {
+        this(AnalysisCache.shared());
+    }
+
+    /**
+     * Creates the tool, caching results in the given cache.
+     *
+     * @param analysisCache the cache repeated calls are served from
+     */
+    public AnalyzeDependenciesTool(AnalysisCache analysisCache) {
+        this(analysisCache, DependencyGraphResolver.shared());
+    }
+
+    /**
+     * Creates the tool with the given cache and dependency resolver.
+     *
+     * @param analysisCache the cache repeated calls are served from
+     * @param resolver the resolver dependency graphs are collected with
+     */
+    public AnalyzeDependenciesTool(AnalysisCache analysisCache, DependencyGraphResolver resolver) {
+        this.analysisCache = analysisCache;
+        this.resolver = resolver;
+    }
+
     @Override
     public String getName() {
         return "analyze-dependencies";
@@ -49,6 +86,11 @@ public class AnalyzeDependenciesTool implements Tool {
                 "Essential for understanding and managing project dependencies before implementing features.";
     }
 
+    @Override
+    public ToolLane getLane() {
+        return ToolLane.HEAVY;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         return Map.of(
@@ -82,6 +124,11 @@ public class AnalyzeDependenciesTool implements Tool {
 
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
+        return execute(arguments, ToolContext.none());
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
         String path = (String) arguments.get("path");
         String module = (String) arguments.getOrDefault("module", null);
         String scope = (String) arguments.getOrDefault("scope", "all");
@@ -106,14 +153,36 @@ public class AnalyzeDependenciesTool implements Tool {
 
         logger.info("Analyzing dependencies for: {} (module: {}, scope: {})", path, module, scope);
 
+        // The resolver validates its cached graph against the local repository, so this is cheap when warm
+        CompactDependencyGraph graph = null;
+        Exception resolutionFailure = null;
+        try {
+            graph = resolver.graph(projectPath, pomPath);
+        } catch (Exception e) {
+            resolutionFailure = e;
+        }
+
+        // The fingerprint ignores build output and the local repository, which the analysis reads
+        Map<String, Object> keyArguments = new LinkedHashMap<>(arguments);
+        keyArguments.put("classes", classesStamp(pomPath.getParent()));
+        if (graph != null) {
+            keyArguments.put("localRepository", resolver.repositoryStamp(graph));
+        }
+        AnalysisCache.Key cacheKey = analysisCache.keyFor(getName(), projectPath, keyArguments);
+        Object cached = analysisCache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Serving {} for {} from the analysis cache", getName(), path);
+            return cached;
+        }
+
         Map<String, Object> results = new LinkedHashMap<>();
         results.put("projectPath", path);
         results.put("module", module);
         results.put("timestamp", new Date().toString());
 
         try {
-            // Parse POM file
-            Model pom = readPom(pomPath.toFile());
+            // Read the effective POM, with inherited and managed versions resolved
+            Model pom = resolver.models().read(pomPath);
             results.put("projectInfo", Map.of(
                     "groupId", pom.getGroupId() != null ? pom.getGroupId() :
                             (pom.getParent() != null ? pom.getParent().getGroupId() : "unknown"),
@@ -126,16 +195,17 @@ public class AnalyzeDependenciesTool implements Tool {
             Map<String, Object> directDeps = analyzeDirectDependencies(pom, scope);
             results.put("directDependencies", directDeps);
 
-            // Get dependency tree
-            Map<String, Object> dependencyTree = getDependencyTree(projectPath, module);
-            results.put("dependencyTree", dependencyTree);
+            // Describe the full dependency graph resolved in-process
+            context.throwIfCancelled();
+            describeDependencyGraph(graph, resolutionFailure, pomPath, results);
 
             // Detect conflicts
-            List<Map<String, Object>> conflicts = detectVersionConflicts(dependencyTree);
+            List<Map<String, Object>> conflicts = detectVersionConflicts(graph);
             results.put("versionConflicts", conflicts);
 
             // Analyze for unused dependencies
-            List<Map<String, Object>> unusedDeps = analyzeUnusedDependencies(projectPath, module);
+            context.throwIfCancelled();
+            List<Map<String, Object>> unusedDeps = analyzeUnusedDependencies(pomPath.getParent(), graph, results);
             results.put("unusedDependencies", unusedDeps);
 
             // Check for updates if requested
@@ -156,20 +226,22 @@ public class AnalyzeDependenciesTool implements Tool {
                     "healthScore", calculateHealthScore(conflicts, unusedDeps)
             ));
 
-            return Map.of(
+            // Missing artifacts may be installed at any time, so only complete graphs are cached
+            Map<String, Object> result = Map.of(
                     "success", true,
                     "results", results
             );
+            return graph != null && graph.unresolved().isEmpty() ? analysisCache.put(cacheKey, result) : result;
 
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.error("Error during dependency analysis", e);
             return Map.of(
                     "success", false,
                     "error", e.getMessage(),
                     "recommendations", List.of(
-                            "Ensure Maven is installed and accessible",
                             "Verify the pom.xml file is valid",
-                            "Check network connectivity for dependency resolution"
+                            "Populate the local repository, e.g. with 'mvn dependency:go-offline'"
                     )
             );
         }
@@ -221,175 +293,168 @@ public class AnalyzeDependenciesTool implements Tool {
     }
 
     /**
-     * Gets the full dependency tree using Maven.
+     * Describes the transitive dependency graph resolved against the local
+     * repository, or why it could not be resolved.
      */
-    private Map<String, Object> getDependencyTree(Path projectPath, String module) {
+    private void describeDependencyGraph(CompactDependencyGraph graph, Exception failure, Path pomPath,
+                                         Map<String, Object> results) {
         Map<String, Object> result = new LinkedHashMap<>();
+        results.put("dependencyGraph", result);
 
-        try {
-            Path workingDir = module != null ?
-                    projectPath.resolve(module) : projectPath;
-
-            InvocationRequest request = new DefaultInvocationRequest();
-            request.setPomFile(workingDir.resolve("pom.xml").toFile());
-            request.setGoals(Collections.singletonList("dependency:tree"));
-            request.setBatchMode(true);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            InvocationOutputHandler outputHandler = line -> {
-                try {
-                    outputStream.write((line + "\n").getBytes());
-                } catch (IOException e) {
-                    // Ignore
-                }
-            };
-
-            Invoker invoker = new DefaultInvoker();
-            invoker.setOutputHandler(outputHandler);
-
-            InvocationResult invocationResult = invoker.execute(request);
-
-            if (invocationResult.getExitCode() == 0) {
-                String output = outputStream.toString();
-                result.put("treeOutput", parseMinimalTree(output));
-                result.put("success", true);
-            } else {
-                result.put("success", false);
-                result.put("message", "Failed to execute dependency:tree");
-            }
-
-        } catch (Exception e) {
-            logger.warn("Could not execute dependency:tree: {}", e.getMessage());
+        if (graph == null) {
+            logger.warn("Could not resolve the dependency graph of {}: {}", pomPath, failure.getMessage());
             result.put("success", false);
-            result.put("message", "Maven dependency:tree execution failed: " + e.getMessage());
+            result.put("message", "Dependency resolution failed: " + failure.getMessage());
+            return;
         }
 
-        return result;
-    }
-
-    /**
-     * Parses the dependency tree output into a more compact format.
-     */
-    private List<String> parseMinimalTree(String treeOutput) {
-        List<String> dependencies = new ArrayList<>();
-        Pattern pattern = Pattern.compile("([+\\\\\\-\\s|]+)([\\w\\.-]+):([\\w\\.-]+):([\\w]+):([\\w\\.-]+)");
-
-        for (String line : treeOutput.split("\n")) {
-            Matcher matcher = pattern.matcher(line);
-            if (matcher.find()) {
-                String dep = matcher.group(2) + ":" + matcher.group(3) + ":" + matcher.group(5);
-                dependencies.add(dep);
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        for (DependencyGraph.Node node : graph.nodes()) {
+            Map<String, Object> nodeInfo = new LinkedHashMap<>();
+            nodeInfo.put("id", node.id());
+            if (!"jar".equals(node.type())) {
+                nodeInfo.put("type", node.type());
             }
+            if (!node.classifier().isEmpty()) {
+                nodeInfo.put("classifier", node.classifier());
+            }
+            nodeInfo.put("scope", node.scope());
+            nodeInfo.put("depth", node.depth());
+            nodeInfo.put("parent", node.parent());
+            if (node.optional()) {
+                nodeInfo.put("optional", true);
+            }
+            if (node.omitted() != null) {
+                nodeInfo.put("omitted", node.omitted().name().toLowerCase());
+                nodeInfo.put("selectedVersion", node.selectedVersion());
+            }
+            if (node.managedFrom() != null) {
+                nodeInfo.put("managedFrom", node.managedFrom());
+            }
+            nodes.add(nodeInfo);
         }
 
-        return dependencies.stream().limit(100).collect(Collectors.toList()); // Limit to avoid huge output
+        List<DependencyGraph.Node> selected = graph.selected();
+        result.put("success", true);
+        result.put("root", graph.root());
+        result.put("totalNodes", graph.size());
+        result.put("selectedDependencies", selected.size());
+        result.put("maxDepth", selected.stream().mapToInt(DependencyGraph.Node::depth).max().orElse(0));
+        result.put("byScope", selected.stream()
+                .collect(Collectors.groupingBy(DependencyGraph.Node::scope, TreeMap::new, Collectors.counting())));
+        result.put("resolveMillis", graph.resolveMillis());
+        result.put("nodes", nodes);
+        if (!graph.unresolved().isEmpty()) {
+            result.put("unresolved", graph.unresolved());
+        }
     }
 
     /**
-     * Detects version conflicts in dependencies.
+     * Detects version conflicts Maven settled by picking the nearest version.
      */
-    private List<Map<String, Object>> detectVersionConflicts(Map<String, Object> dependencyTree) {
+    private List<Map<String, Object>> detectVersionConflicts(CompactDependencyGraph graph) {
         List<Map<String, Object>> conflicts = new ArrayList<>();
-
-        if (!dependencyTree.containsKey("treeOutput")) {
+        if (graph == null) {
             return conflicts;
         }
 
-        @SuppressWarnings("unchecked")
-        List<String> deps = (List<String>) dependencyTree.get("treeOutput");
-        Map<String, List<String>> artifactVersions = new HashMap<>();
-
-        for (String dep : deps) {
-            String[] parts = dep.split(":");
-            if (parts.length >= 3) {
-                String artifact = parts[0] + ":" + parts[1];
-                String version = parts[2];
-
-                artifactVersions.computeIfAbsent(artifact, k -> new ArrayList<>()).add(version);
+        for (CompactDependencyGraph.Conflict entry : graph.conflicts()) {
+            Set<String> versions = new LinkedHashSet<>();
+            if (entry.selectedVersion() != null) {
+                versions.add(entry.selectedVersion());
             }
-        }
-
-        // Find artifacts with multiple versions
-        for (Map.Entry<String, List<String>> entry : artifactVersions.entrySet()) {
-            List<String> versions = entry.getValue().stream().distinct().collect(Collectors.toList());
-            if (versions.size() > 1) {
-                Map<String, Object> conflict = new LinkedHashMap<>();
-                conflict.put("artifact", entry.getKey());
-                conflict.put("versions", versions);
-                conflict.put("severity", "medium");
-                conflict.put("recommendation", "Add dependency management to enforce a single version");
-                conflicts.add(conflict);
+            List<String> requestedBy = new ArrayList<>();
+            for (CompactDependencyGraph.DependencyPath requested : entry.requested()) {
+                versions.add(requested.node().version());
+                if (requested.node().omitted() != null) {
+                    requestedBy.add(requested.node().parent() + " -> " + requested.node().version());
+                }
             }
+
+            Map<String, Object> conflict = new LinkedHashMap<>();
+            conflict.put("artifact", entry.artifact());
+            conflict.put("versions", new ArrayList<>(versions));
+            conflict.put("selectedVersion", entry.selectedVersion());
+            conflict.put("selectedDepth", entry.selectedDepth());
+            conflict.put("requestedBy", requestedBy);
+            conflict.put("severity", "medium");
+            conflict.put("recommendation", "Add dependency management to enforce a single version");
+            conflicts.add(conflict);
         }
 
         return conflicts;
     }
 
     /**
-     * Analyzes for unused dependencies.
+     * Stamps a module's compiled classes with the number of files and the
+     * newest modification time of each class directory, so compiling or
+     * cleaning the module changes it.
      */
-    private List<Map<String, Object>> analyzeUnusedDependencies(Path projectPath, String module) {
-        List<Map<String, Object>> unusedDeps = new ArrayList<>();
-
-        try {
-            Path workingDir = module != null ? projectPath.resolve(module) : projectPath;
-
-            InvocationRequest request = new DefaultInvocationRequest();
-            request.setPomFile(workingDir.resolve("pom.xml").toFile());
-            request.setGoals(Collections.singletonList("dependency:analyze"));
-            request.setBatchMode(true);
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            InvocationOutputHandler outputHandler = line -> {
-                try {
-                    outputStream.write((line + "\n").getBytes());
-                } catch (IOException e) {
-                    // Ignore
+    private static String classesStamp(Path moduleDir) throws IOException {
+        StringBuilder stamp = new StringBuilder();
+        for (String directory : List.of("classes", "test-classes")) {
+            Path classes = moduleDir.resolve("target").resolve(directory);
+            long files = 0;
+            long newest = 0;
+            if (Files.isDirectory(classes)) {
+                try (Stream<Path> walk = Files.walk(classes)) {
+                    for (Path file : (Iterable<Path>) walk::iterator) {
+                        files++;
+                        newest = Math.max(newest, Files.getLastModifiedTime(file).toMillis());
+                    }
                 }
-            };
-
-            Invoker invoker = new DefaultInvoker();
-            invoker.setOutputHandler(outputHandler);
-
-            InvocationResult result = invoker.execute(request);
-
-            if (result.getExitCode() == 0) {
-                String output = outputStream.toString();
-                unusedDeps = parseUnusedDependencies(output);
             }
-
-        } catch (Exception e) {
-            logger.warn("Could not analyze unused dependencies: {}", e.getMessage());
+            stamp.append(files).append(':').append(newest).append(';');
         }
-
-        return unusedDeps;
+        return stamp.toString();
     }
 
     /**
-     * Parses unused dependencies from Maven output.
+     * Finds declared dependencies the compiled classes never refer to.
      */
-    private List<Map<String, Object>> parseUnusedDependencies(String output) {
-        List<Map<String, Object>> unused = new ArrayList<>();
-        Pattern pattern = Pattern.compile("Unused declared dependencies found:\\s*([\\s\\S]*?)(?=\\[|$)");
-
-        Matcher matcher = pattern.matcher(output);
-        if (matcher.find()) {
-            String unusedBlock = matcher.group(1);
-            Pattern depPattern = Pattern.compile("([\\w\\.-]+):([\\w\\.-]+):([\\w]+):([\\w\\.-]+)");
-            Matcher depMatcher = depPattern.matcher(unusedBlock);
-
-            while (depMatcher.find()) {
-                Map<String, Object> dep = new LinkedHashMap<>();
-                dep.put("groupId", depMatcher.group(1));
-                dep.put("artifactId", depMatcher.group(2));
-                dep.put("type", depMatcher.group(3));
-                dep.put("version", depMatcher.group(4));
-                dep.put("recommendation", "Consider removing if truly unused");
-                unused.add(dep);
+    private List<Map<String, Object>> analyzeUnusedDependencies(Path moduleDir, CompactDependencyGraph graph,
+                                                                Map<String, Object> results) {
+        List<Map<String, Object>> unusedDeps = new ArrayList<>();
+        if (graph == null) {
+            return unusedDeps;
+        }
+
+        try {
+            Path classes = moduleDir.resolve("target").resolve("classes");
+            Path testClasses = moduleDir.resolve("target").resolve("test-classes");
+            if (!Files.isDirectory(classes) && !Files.isDirectory(testClasses)) {
+                results.put("unusedDependenciesNote", "Compile the project to detect unused dependencies");
+                return unusedDeps;
             }
+            Set<String> referenced = new HashSet<>(USAGE_ANALYZER.referencedClasses(classes));
+            referenced.addAll(USAGE_ANALYZER.referencedClasses(testClasses));
+
+            for (DependencyGraph.Node node : graph.selected()) {
+                if (node.depth() != 1 || !"jar".equals(node.type()) || !ANALYZED_SCOPES.contains(node.scope())) {
+                    continue;
+                }
+                Path jar = resolver.localArtifactPath(node.groupId(), node.artifactId(), node.version(),
+                        "jar", node.classifier());
+                if (!Files.isRegularFile(jar)) {
+                    continue;
+                }
+                Set<String> provided = USAGE_ANALYZER.providedClasses(jar);
+                if (provided.isEmpty() || provided.stream().noneMatch(referenced::contains)) {
+                    Map<String, Object> dep = new LinkedHashMap<>();
+                    dep.put("groupId", node.groupId());
+                    dep.put("artifactId", node.artifactId());
+                    dep.put("type", node.type());
+                    dep.put("version", node.version());
+                    dep.put("scope", node.scope());
+                    dep.put("recommendation", "Consider removing if truly unused");
+                    unusedDeps.add(dep);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not analyze unused dependencies: {}", e.getMessage());
         }
 
-        return unused;
+        return unusedDeps;
     }
 
     /**
@@ -465,14 +530,4 @@ public class AnalyzeDependenciesTool implements Tool {
         score -= unusedDeps.size() * 2; // -2 points per unused dep
         return Math.max(0, score);
     }
-
-    /**
-     * Reads a Maven POM file.
-     */
-    private Model readPom(File pomFile) throws Exception {
-        MavenXpp3Reader reader = new MavenXpp3Reader();
-        try (FileReader fileReader = new FileReader(pomFile)) {
-            return reader.read(fileReader);
-        }
-    }
 }
@@ -1,12 +1,14 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.cache.AnalysisCache;
+import com.example.mcp.maven.EffectiveModelCache;
+import com.example.mcp.maven.ReactorAnalyzer;
+import com.example.mcp.maven.ReactorGraph;
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -16,6 +18,12 @@ import java.util.stream.Collectors;
 /**
  * Tool for analyzing Maven multi-module project structure.
  *
+ * <p>Coordinates and dependencies are read from effective models, so
+ * inherited groupIds, property versions and managed versions are resolved.
+ * Nested modules are discovered recursively, and the reactor's build order
+ * and critical path are reported; the reactor graph is memoized so a
+ * follow-up question about one module is answered without rescanning.
+ *
  * <p>This tool examines a Maven project and provides detailed information about:
  * <ul>
  *   <li>Module structure and hierarchy</li>
@@ -31,6 +39,40 @@ public class AnalyzeMavenProjectTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(AnalyzeMavenProjectTool.class);
 
+    private final AnalysisCache analysisCache;
+    private final EffectiveModelCache models;
+    private final ReactorAnalyzer reactorAnalyzer;
+
+    /**
+     * Creates the tool, caching results in the shared analysis cache.
+     */
+    public AnalyzeMavenProjectTool() {
+        this(AnalysisCache.shared());
+    }
+
+    /**
+     * Creates the tool, caching results in the given cache.
+     *
+     * @param analysisCache the cache repeated calls are served from
+     */
+    public AnalyzeMavenProjectTool(AnalysisCache analysisCache) {
+        this(analysisCache, EffectiveModelCache.shared(), ReactorAnalyzer.shared());
+    }
+
+    /**
+     * Creates the tool with the given caches.
+     *
+     * @param analysisCache the cache repeated calls are served from
+     * @param models the cache effective POMs are read from
+     * @param reactorAnalyzer the analyzer reactor graphs are built and memoized by
+     */
+    public AnalyzeMavenProjectTool(AnalysisCache analysisCache, EffectiveModelCache models,
+                                   ReactorAnalyzer reactorAnalyzer) {
+        this.analysisCache = analysisCache;
+        this.models = models;
+        this.reactorAnalyzer = reactorAnalyzer;
+    }
+
     @Override
     public String getName() {
         return "analyze-maven-project";
@@ -38,8 +80,9 @@ public class AnalyzeMavenProjectTool implements Tool {
 
     @Override
     public String getDescription() {
-        return "Analyzes a Maven multi-module project structure, including modules, dependencies, " +
-                "and configuration. Useful for understanding project organization before making changes.";
+        return "Analyzes a Maven multi-module project structure, including nested modules, dependencies, " +
+                "configuration, and the reactor build order and critical path. Useful for understanding " +
+                "project organization before making changes.";
     }
 
     @Override
@@ -53,6 +96,10 @@ public class AnalyzeMavenProjectTool implements Tool {
                                 "path", Map.of(
                                         "type", "string",
                                         "description", "Absolute path to the Maven project root directory (containing pom.xml)"
+                                ),
+                                "module", Map.of(
+                                        "type", "string",
+                                        "description", "Optional: report only this module, by path relative to the root or groupId:artifactId"
                                 )
                         ),
                         "required", List.of("path")
@@ -63,6 +110,7 @@ public class AnalyzeMavenProjectTool implements Tool {
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
         String projectPath = (String) arguments.get("path");
+        String module = (String) arguments.getOrDefault("module", null);
 
         if (projectPath == null || projectPath.isEmpty()) {
             throw new IllegalArgumentException("path parameter is required");
@@ -80,26 +128,44 @@ public class AnalyzeMavenProjectTool implements Tool {
 
         logger.info("Analyzing Maven project at: {}", projectPath);
 
+        AnalysisCache.Key cacheKey = analysisCache.keyFor(getName(), projectDir, arguments);
+        Object cached = analysisCache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Serving {} for {} from the analysis cache", getName(), projectPath);
+            return cached;
+        }
+
+        ReactorGraph reactor = reactorAnalyzer.analyze(projectDir);
+        if (module != null) {
+            ReactorGraph.Module selected = reactor.module(module);
+            if (selected == null) {
+                throw new IllegalArgumentException("Module not found in the reactor: " + module);
+            }
+            return analysisCache.put(cacheKey, Map.of(
+                    "success", true,
+                    "module", describeModule(reactor, selected, true)
+            ));
+        }
+
         // Analyze the project
         Map<String, Object> analysis = new LinkedHashMap<>();
+        Model rootPom = models.read(pomPath);
         analysis.put("projectPath", projectPath);
-        analysis.put("projectType", determineProjectType(pomPath));
+        analysis.put("projectType", determineProjectType(rootPom));
 
-        Model rootPom = readPom(pomPath.toFile());
         analysis.put("groupId", rootPom.getGroupId());
         analysis.put("artifactId", rootPom.getArtifactId());
         analysis.put("version", rootPom.getVersion());
         analysis.put("packaging", rootPom.getPackaging());
 
-        // Analyze modules if multi-module
-        List<String> modules = rootPom.getModules();
-        if (modules != null && !modules.isEmpty()) {
-            analysis.put("moduleCount", modules.size());
-            analysis.put("modules", analyzeModules(projectDir, modules));
-        } else {
-            analysis.put("moduleCount", 0);
-            analysis.put("modules", List.of());
-        }
+        // Modules of every nesting level, and the order the reactor builds them in
+        List<Map<String, Object>> modules = reactor.modules().stream()
+                .filter(reactorModule -> !reactorModule.name().isEmpty())
+                .map(reactorModule -> describeModule(reactor, reactorModule, false))
+                .collect(Collectors.toList());
+        analysis.put("moduleCount", modules.size());
+        analysis.put("modules", modules);
+        analysis.put("reactor", describeReactor(reactor));
 
         // Analyze dependencies
         if (rootPom.getDependencies() != null) {
@@ -127,17 +193,16 @@ public class AnalyzeMavenProjectTool implements Tool {
 
         logger.info("Analysis complete for: {}", projectPath);
 
-        return Map.of(
+        return analysisCache.put(cacheKey, Map.of(
                 "success", true,
                 "analysis", analysis
-        );
+        ));
     }
 
     /**
      * Determines if this is a single or multi-module project.
      */
-    private String determineProjectType(Path pomPath) throws Exception {
-        Model pom = readPom(pomPath.toFile());
+    private String determineProjectType(Model pom) {
         if (pom.getModules() != null && !pom.getModules().isEmpty()) {
             return "multi-module";
         }
@@ -145,67 +210,47 @@ public class AnalyzeMavenProjectTool implements Tool {
     }
 
     /**
-     * Analyzes all modules in a multi-module project.
+     * Describes one reactor module, optionally with everything built before and after it.
      */
-    private List<Map<String, Object>> analyzeModules(Path projectDir, List<String> moduleNames) {
-        return moduleNames.stream()
-                .map(moduleName -> analyzeModule(projectDir, moduleName))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+    private Map<String, Object> describeModule(ReactorGraph reactor, ReactorGraph.Module module,
+                                               boolean withNeighbours) {
+        Map<String, Object> moduleInfo = new LinkedHashMap<>();
+        moduleInfo.put("name", module.name().isEmpty() ? "." : module.name());
+        moduleInfo.put("id", module.id());
+        moduleInfo.put("artifactId", module.id().substring(module.id().indexOf(':') + 1));
+        moduleInfo.put("version", module.version());
+        moduleInfo.put("packaging", module.packaging());
+        try {
+            moduleInfo.put("dependencyCount", models.read(module.directory().resolve("pom.xml")).getDependencies().size());
+        } catch (Exception e) {
+            logger.warn("Error reading module POM of {}: {}", module.name(), e.getMessage());
+        }
+        moduleInfo.put("upstreamModules", module.upstream());
+        moduleInfo.put("files", module.files());
+        moduleInfo.put("mainJavaFiles", module.mainJavaFiles());
+        moduleInfo.put("testJavaFiles", module.testJavaFiles());
+        moduleInfo.put("hasMainSources", Files.exists(module.directory().resolve("src/main/java")));
+        moduleInfo.put("hasTestSources", Files.exists(module.directory().resolve("src/test/java")));
+        if (withNeighbours) {
+            moduleInfo.put("buildPosition", reactor.buildOrder().indexOf(module.id()) + 1);
+            moduleInfo.put("transitiveUpstream", reactor.transitiveUpstream(module.id()));
+            moduleInfo.put("transitiveDownstream", reactor.transitiveDownstream(module.id()));
+        }
+        return moduleInfo;
     }
 
     /**
-     * Analyzes a single module.
+     * Describes the reactor's build order and critical path.
      */
-    private Map<String, Object> analyzeModule(Path projectDir, String moduleName) {
-        try {
-            Path modulePath = projectDir.resolve(moduleName);
-            Path modulePomPath = modulePath.resolve("pom.xml");
-
-            if (!Files.exists(modulePomPath)) {
-                logger.warn("Module pom.xml not found: {}", modulePomPath);
-                return null;
-            }
-
-            Model modulePom = readPom(modulePomPath.toFile());
-
-            Map<String, Object> moduleInfo = new LinkedHashMap<>();
-            moduleInfo.put("name", moduleName);
-            moduleInfo.put("artifactId", modulePom.getArtifactId());
-            moduleInfo.put("packaging", modulePom.getPackaging());
-
-            // Dependencies
-            if (modulePom.getDependencies() != null) {
-                moduleInfo.put("dependencyCount", modulePom.getDependencies().size());
-
-                // Internal dependencies (same groupId)
-                String projectGroupId = modulePom.getGroupId() != null ?
-                        modulePom.getGroupId() :
-                        (modulePom.getParent() != null ? modulePom.getParent().getGroupId() : null);
-
-                List<String> internalDeps = modulePom.getDependencies().stream()
-                        .filter(dep -> dep.getGroupId().equals(projectGroupId))
-                        .map(dep -> dep.getArtifactId())
-                        .collect(Collectors.toList());
-
-                moduleInfo.put("internalDependencies", internalDeps);
-            }
-
-            // Source structure
-            Path srcMain = modulePath.resolve("src/main/java");
-            Path srcTest = modulePath.resolve("src/test/java");
-            moduleInfo.put("hasMainSources", Files.exists(srcMain));
-            moduleInfo.put("hasTestSources", Files.exists(srcTest));
-
-            return moduleInfo;
-
-        } catch (Exception e) {
-            logger.error("Error analyzing module: " + moduleName, e);
-            return Map.of(
-                    "name", moduleName,
-                    "error", e.getMessage()
-            );
+    private Map<String, Object> describeReactor(ReactorGraph reactor) {
+        Map<String, Object> reactorInfo = new LinkedHashMap<>();
+        reactorInfo.put("buildOrder", reactor.buildOrder());
+        reactorInfo.put("criticalPathLength", reactor.criticalPath().size());
+        reactorInfo.put("criticalPath", reactor.criticalPath());
+        if (!reactor.cyclic().isEmpty()) {
+            reactorInfo.put("cyclicModules", reactor.cyclic());
         }
+        return reactorInfo;
     }
 
     /**
@@ -224,19 +269,14 @@ public class AnalyzeMavenProjectTool implements Tool {
         structure.put("hasTestJava", Files.exists(srcTestJava));
         structure.put("hasTestResources", Files.exists(srcTestResources));
 
-        try {
+        try (ProjectIndex index = ProjectIndex.forProject(projectDir)) {
+            List<ProjectIndex.IndexedFile> files = index.files();
             if (Files.exists(srcMainJava)) {
-                long javaFileCount = Files.walk(srcMainJava)
-                        .filter(p -> p.toString().endsWith(".java"))
-                        .count();
-                structure.put("mainJavaFiles", javaFileCount);
+                structure.put("mainJavaFiles", countJavaFiles(files, srcMainJava));
             }
 
             if (Files.exists(srcTestJava)) {
-                long testFileCount = Files.walk(srcTestJava)
-                        .filter(p -> p.toString().endsWith(".java"))
-                        .count();
-                structure.put("testJavaFiles", testFileCount);
+                structure.put("testJavaFiles", countJavaFiles(files, srcTestJava));
             }
         } catch (Exception e) {
             logger.warn("Error counting source files", e);
@@ -245,13 +285,10 @@ public class AnalyzeMavenProjectTool implements Tool {
         return structure;
     }
 
-    /**
-     * Reads a Maven POM file.
-     */
-    private Model readPom(File pomFile) throws Exception {
-        MavenXpp3Reader reader = new MavenXpp3Reader();
-        try (FileReader fileReader = new FileReader(pomFile)) {
-            return reader.read(fileReader);
-        }
+    private long countJavaFiles(List<ProjectIndex.IndexedFile> files, Path sourceRoot) {
+        Path root = sourceRoot.toAbsolutePath().normalize();
+        return files.stream()
+                .filter(file -> file.isJava() && root.equals(file.sourceRoot()))
+                .count();
     }
 }
@@ -1,5 +1,8 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.cache.AnalysisCache;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.security.LinearPattern;
 import net.sourceforge.pmd.PMD;
 import net.sourceforge.pmd.PMDConfiguration;
 import net.sourceforge.pmd.PmdAnalysis;
@@ -7,17 +10,19 @@ import net.sourceforge.pmd.Report;
 import net.sourceforge.pmd.RuleViolation;
 import net.sourceforge.pmd.lang.Language;
 import net.sourceforge.pmd.lang.LanguageRegistry;
+import net.sourceforge.pmd.renderers.AbstractRenderer;
+import net.sourceforge.pmd.util.datasource.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tool for running comprehensive code quality checks.
@@ -38,6 +43,27 @@ public class CodeQualityCheckTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(CodeQualityCheckTool.class);
 
+    /** What {@code content.matches(".*[^\\w](\\d{2,})[^\\w\\.].*")} accepted, in linear time. */
+    private static final LinearPattern MAGIC_NUMBER = LinearPattern.compile("\\A.*[^\\w](\\d{2,})[^\\w\\.].*\\z");
+
+    private final AnalysisCache analysisCache;
+
+    /**
+     * Creates the tool, caching results in the shared analysis cache.
+     */
+    public CodeQualityCheckTool() {
+        this(AnalysisCache.shared());
+    }
+
+    /**
+     * Creates the tool, caching results in the given cache.
+     *
+     * @param analysisCache the cache repeated calls are served from
+     */
+    public CodeQualityCheckTool(AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
+
     @Override
     public String getName() {
         return "code-quality-check";
@@ -50,6 +76,17 @@ public class CodeQualityCheckTool implements Tool {
                 "and maintainability problems with actionable recommendations.";
     }
 
+    @Override
+    public ToolLane getLane() {
+        return ToolLane.HEAVY;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        // PMD already analyzes files on its own worker threads
+        return 1;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         return Map.of(
@@ -79,6 +116,11 @@ public class CodeQualityCheckTool implements Tool {
 
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
+        return execute(arguments, ToolContext.none());
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
         String path = (String) arguments.get("path");
         String severity = (String) arguments.getOrDefault("severity", "medium");
         boolean includeTests = (boolean) arguments.getOrDefault("includeTests", false);
@@ -95,32 +137,40 @@ public class CodeQualityCheckTool implements Tool {
         logger.info("Running code quality checks for: {} (severity: {}, includeTests: {})",
                 path, severity, includeTests);
 
+        AnalysisCache.Key cacheKey = analysisCache.keyFor(getName(), projectPath, arguments);
+        Object cached = analysisCache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Serving {} for {} from the analysis cache", getName(), path);
+            return cached;
+        }
+
         Map<String, Object> results = new LinkedHashMap<>();
         results.put("projectPath", path);
         results.put("timestamp", new Date().toString());
 
         try {
             // Run PMD analysis
-            Map<String, Object> pmdResults = runPMDAnalysis(projectPath, severity, includeTests);
+            Map<String, Object> pmdResults = runPMDAnalysis(projectPath, severity, includeTests, context);
             results.put("pmdAnalysis", pmdResults);
 
             // Analyze code complexity
-            Map<String, Object> complexityResults = analyzeComplexity(projectPath, includeTests);
+            Map<String, Object> complexityResults = analyzeComplexity(projectPath, includeTests, context);
             results.put("complexityAnalysis", complexityResults);
 
             // Detect code smells
-            List<Map<String, Object>> codeSmells = detectCodeSmells(projectPath, includeTests);
+            List<Map<String, Object>> codeSmells = detectCodeSmells(projectPath, includeTests, context);
             results.put("codeSmells", codeSmells);
 
             // Generate summary
             results.put("summary", generateSummary(pmdResults, complexityResults, codeSmells));
 
-            return Map.of(
+            return analysisCache.put(cacheKey, Map.of(
                     "success", true,
                     "results", results
-            );
+            ));
 
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.error("Error during code quality check", e);
             return Map.of(
                     "success", false,
@@ -137,12 +187,13 @@ public class CodeQualityCheckTool implements Tool {
     /**
      * Runs PMD static analysis on the codebase.
      */
-    private Map<String, Object> runPMDAnalysis(Path projectPath, String severity, boolean includeTests) {
+    private Map<String, Object> runPMDAnalysis(Path projectPath, String severity, boolean includeTests,
+                                               ToolContext context) {
         Map<String, Object> results = new LinkedHashMap<>();
         List<Map<String, Object>> violations = new ArrayList<>();
 
         try {
-            List<Path> javaFiles = findJavaFiles(projectPath, includeTests);
+            List<Path> javaFiles = findJavaFiles(projectPath, includeTests, context);
 
             if (javaFiles.isEmpty()) {
                 results.put("violationCount", 0);
@@ -173,18 +224,14 @@ public class CodeQualityCheckTool implements Tool {
             }
 
             try (PmdAnalysis pmd = PmdAnalysis.create(config)) {
+                ResultBatcher batcher = new ResultBatcher(context.results(), "violations", 50);
+                pmd.addRenderer(new ProgressRenderer(context, batcher, javaFiles.size()));
                 Report report = pmd.performAnalysisAndCollectReport();
+                context.throwIfCancelled();
+                batcher.flush();
 
                 for (RuleViolation violation : report.getViolations()) {
-                    Map<String, Object> v = new LinkedHashMap<>();
-                    v.put("file", violation.getFilename());
-                    v.put("line", violation.getBeginLine());
-                    v.put("column", violation.getBeginColumn());
-                    v.put("rule", violation.getRule().getName());
-                    v.put("category", violation.getRule().getRuleSetName());
-                    v.put("priority", violation.getRule().getPriority().getPriority());
-                    v.put("message", violation.getDescription());
-                    violations.add(v);
+                    violations.add(toViolationMap(violation));
                 }
 
                 results.put("violationCount", violations.size());
@@ -193,6 +240,7 @@ public class CodeQualityCheckTool implements Tool {
             }
 
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.warn("PMD analysis failed: {}", e.getMessage());
             results.put("error", "PMD analysis failed: " + e.getMessage());
             results.put("violationCount", 0);
@@ -202,15 +250,27 @@ public class CodeQualityCheckTool implements Tool {
         return results;
     }
 
+    private static Map<String, Object> toViolationMap(RuleViolation violation) {
+        Map<String, Object> v = new LinkedHashMap<>();
+        v.put("file", violation.getFilename());
+        v.put("line", violation.getBeginLine());
+        v.put("column", violation.getBeginColumn());
+        v.put("rule", violation.getRule().getName());
+        v.put("category", violation.getRule().getRuleSetName());
+        v.put("priority", violation.getRule().getPriority().getPriority());
+        v.put("message", violation.getDescription());
+        return v;
+    }
+
     /**
      * Analyzes code complexity (cyclomatic complexity, method length, etc.).
      */
-    private Map<String, Object> analyzeComplexity(Path projectPath, boolean includeTests) {
+    private Map<String, Object> analyzeComplexity(Path projectPath, boolean includeTests, ToolContext context) {
         Map<String, Object> results = new LinkedHashMap<>();
         List<Map<String, Object>> complexMethods = new ArrayList<>();
 
         try {
-            List<Path> javaFiles = findJavaFiles(projectPath, includeTests);
+            List<Path> javaFiles = findJavaFiles(projectPath, includeTests, context);
 
             int totalMethods = 0;
             int complexMethodCount = 0;
@@ -218,6 +278,7 @@ public class CodeQualityCheckTool implements Tool {
 
             // Simple complexity estimation based on file size and control structures
             for (Path javaFile : javaFiles) {
+                context.throwIfCancelled();
                 try {
                     String content = Files.readString(javaFile);
 
@@ -259,6 +320,7 @@ public class CodeQualityCheckTool implements Tool {
             results.put("averageComplexity", totalMethods > 0 ? maxComplexity / javaFiles.size() : 0);
 
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.warn("Complexity analysis failed: {}", e.getMessage());
             results.put("error", "Complexity analysis failed: " + e.getMessage());
         }
@@ -269,13 +331,14 @@ public class CodeQualityCheckTool implements Tool {
     /**
      * Detects common code smells.
      */
-    private List<Map<String, Object>> detectCodeSmells(Path projectPath, boolean includeTests) {
+    private List<Map<String, Object>> detectCodeSmells(Path projectPath, boolean includeTests, ToolContext context) {
         List<Map<String, Object>> codeSmells = new ArrayList<>();
 
         try {
-            List<Path> javaFiles = findJavaFiles(projectPath, includeTests);
+            List<Path> javaFiles = findJavaFiles(projectPath, includeTests, context);
 
             for (Path javaFile : javaFiles) {
+                context.throwIfCancelled();
                 try {
                     String content = Files.readString(javaFile);
                     long lineCount = content.lines().count();
@@ -324,8 +387,7 @@ public class CodeQualityCheckTool implements Tool {
                     }
 
                     // Magic numbers
-                    if (content.matches(".*[^\\w](\\d{2,})[^\\w\\.].*") &&
-                        !content.contains("static final")) {
+                    if (!content.contains("static final") && MAGIC_NUMBER.find(content)) {
                         Map<String, Object> smell = new LinkedHashMap<>();
                         smell.put("type", "MagicNumbers");
                         smell.put("severity", "low");
@@ -341,6 +403,7 @@ public class CodeQualityCheckTool implements Tool {
             }
 
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.warn("Code smell detection failed: {}", e.getMessage());
         }
 
@@ -398,14 +461,10 @@ public class CodeQualityCheckTool implements Tool {
     /**
      * Finds all Java files in the project.
      */
-    private List<Path> findJavaFiles(Path projectPath, boolean includeTests) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            return paths
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".java"))
-                    .filter(p -> includeTests || !p.toString().contains("/test/"))
-                    .filter(p -> !p.toString().contains("/target/"))
-                    .collect(Collectors.toList());
+    private List<Path> findJavaFiles(Path projectPath, boolean includeTests, ToolContext context) throws IOException {
+        context.throwIfCancelled();
+        try (ProjectIndex index = ProjectIndex.forProject(projectPath)) {
+            return index.javaFiles(includeTests);
         }
     }
 
@@ -432,4 +491,60 @@ public class CodeQualityCheckTool implements Tool {
         }
         return count;
     }
+
+    /**
+     * PMD renderer that reports progress and streams each file's violations,
+     * and aborts the analysis once the call is cancelled.
+     *
+     * <p>PMD asks every renderer before analyzing a file; throwing there stops
+     * the file and makes PMD shut down its worker pool.
+     */
+    private static final class ProgressRenderer extends AbstractRenderer {
+
+        private final ToolContext context;
+        private final ResultBatcher batcher;
+        private final int totalFiles;
+        private final AtomicInteger filesDone = new AtomicInteger();
+
+        ProgressRenderer(ToolContext context, ResultBatcher batcher, int totalFiles) {
+            super("progress", "Reports analysis progress for the tool call");
+            this.context = context;
+            this.batcher = batcher;
+            this.totalFiles = totalFiles;
+            setWriter(Writer.nullWriter());
+        }
+
+        @Override
+        public String defaultFileExtension() {
+            return "txt";
+        }
+
+        @Override
+        public void start() {
+            context.throwIfCancelled();
+        }
+
+        @Override
+        public void startFileAnalysis(DataSource dataSource) {
+            context.throwIfCancelled();
+        }
+
+        @Override
+        public void renderFileReport(Report report) {
+            if (context.results().isEnabled()) {
+                List<Map<String, Object>> fileViolations = new ArrayList<>();
+                for (RuleViolation violation : report.getViolations()) {
+                    fileViolations.add(toViolationMap(violation));
+                }
+                batcher.addAll(fileViolations);
+            }
+            int done = filesDone.incrementAndGet();
+            context.results().progress(done, totalFiles, "PMD analyzed " + done + " of " + totalFiles + " files");
+        }
+
+        @Override
+        public void end() {
+            // Nothing to render
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.mcp.tools;
 
-import com.github.javaparser.JavaParser;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.parsing.ParsingService;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import org.slf4j.Logger;
@@ -14,7 +15,6 @@ import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Tool for automated bug detection and fixing in Maven projects.
@@ -34,7 +34,6 @@ import java.util.stream.Stream;
 public class FixBugTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(FixBugTool.class);
-    private final JavaParser javaParser = new JavaParser();
 
     @Override
     public String getName() {
@@ -330,7 +329,7 @@ public class FixBugTool implements Tool {
                 Path file = Paths.get(filePath);
                 if (!Files.exists(file)) continue;
 
-                CompilationUnit cu = javaParser.parse(file).getResult().orElse(null);
+                CompilationUnit cu = ParsingService.shared().parse(file).orElse(null);
                 if (cu == null) continue;
 
                 String content = Files.readString(file);
@@ -513,22 +512,14 @@ public class FixBugTool implements Tool {
     }
 
     private List<Path> findJavaFiles(Path projectPath) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            return paths
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".java"))
-                    .filter(p -> !p.toString().contains("/target/"))
-                    .collect(Collectors.toList());
+        try (ProjectIndex index = ProjectIndex.forProject(projectPath)) {
+            return index.javaFiles(true);
         }
     }
 
     private List<Path> findFilesByName(Path projectPath, String fileName) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            return paths
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.getFileName().toString().equals(fileName))
-                    .filter(p -> !p.toString().contains("/target/"))
-                    .collect(Collectors.toList());
+        try (ProjectIndex index = ProjectIndex.forProject(projectPath)) {
+            return index.filesNamed(fileName);
         }
     }
 }
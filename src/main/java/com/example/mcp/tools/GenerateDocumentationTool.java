@@ -43,6 +43,11 @@ public class GenerateDocumentationTool implements Tool {
                 "Useful for the Documentor persona.";
     }
 
+    @Override
+    public ToolLane getLane() {
+        return ToolLane.HEAVY;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         return Map.of(
@@ -80,6 +85,11 @@ public class GenerateDocumentationTool implements Tool {
 
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
+        return execute(arguments, ToolContext.none());
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
         String path = (String) arguments.get("path");
         String type = (String) arguments.get("type");
         String packageFilter = (String) arguments.get("packageFilter");
@@ -103,7 +113,7 @@ public class GenerateDocumentationTool implements Tool {
 
         switch (type) {
             case "javadoc-analysis":
-                result.putAll(generateJavaDocAnalysis(path, outputFile));
+                result.putAll(generateJavaDocAnalysis(path, outputFile, context, context.results()));
                 break;
 
             case "readme":
@@ -119,7 +129,7 @@ public class GenerateDocumentationTool implements Tool {
                 break;
 
             case "all":
-                result.putAll(generateAllDocs(path, packageFilter, maxCommits, outputFile));
+                result.putAll(generateAllDocs(path, packageFilter, maxCommits, outputFile, context));
                 break;
 
             default:
@@ -132,9 +142,17 @@ public class GenerateDocumentationTool implements Tool {
     /**
      * Generates JavaDoc analysis.
      */
-    private Map<String, Object> generateJavaDocAnalysis(String projectPath, boolean outputFile) throws Exception {
+    private Map<String, Object> generateJavaDocAnalysis(String projectPath, boolean outputFile,
+                                                        ToolContext context, ResultSink sink) throws Exception {
         JavaDocGenerator generator = new JavaDocGenerator();
-        JavaDocGenerator.JavaDocAnalysis analysis = generator.analyzeProject(projectPath);
+        ResultBatcher batcher = new ResultBatcher(sink, "missingDocs", 50);
+        JavaDocGenerator.JavaDocAnalysis analysis = generator.analyzeProject(projectPath,
+                (file, missingDocs, filesDone, totalFiles) -> {
+                    context.throwIfCancelled();
+                    batcher.addAll(missingDocs.stream().map(this::toMissingDocMap).toList());
+                    sink.progress(filesDone, totalFiles, "Analyzed " + filesDone + " of " + totalFiles + " files");
+                });
+        batcher.flush();
 
         Map<String, Object> result = new HashMap<>();
         result.put("totalFiles", analysis.totalFiles);
@@ -151,12 +169,7 @@ public class GenerateDocumentationTool implements Tool {
         int count = 0;
         for (JavaDocGenerator.MissingDoc doc : analysis.missingDocs) {
             if (count++ >= 10) break; // Limit to 10 examples
-            sampleMissingDocs.add(Map.of(
-                "file", doc.filePath,
-                "element", doc.elementName,
-                "type", doc.elementType,
-                "suggestedDoc", doc.suggestedDoc
-            ));
+            sampleMissingDocs.add(toMissingDocMap(doc));
         }
         result.put("sampleMissingDocs", sampleMissingDocs);
 
@@ -171,6 +184,15 @@ public class GenerateDocumentationTool implements Tool {
         return result;
     }
 
+    private Map<String, String> toMissingDocMap(JavaDocGenerator.MissingDoc doc) {
+        return Map.of(
+            "file", doc.filePath,
+            "element", doc.elementName,
+            "type", doc.elementType,
+            "suggestedDoc", doc.suggestedDoc
+        );
+    }
+
     /**
      * Generates README.
      */
@@ -248,16 +270,24 @@ public class GenerateDocumentationTool implements Tool {
      * Generates all documentation types.
      */
     private Map<String, Object> generateAllDocs(String projectPath, String packageFilter,
-                                                 int maxCommits, boolean outputFile) throws Exception {
+                                                 int maxCommits, boolean outputFile,
+                                                 ToolContext context) throws Exception {
         Map<String, Object> result = new HashMap<>();
 
+        // Per-file progress would restart for every document, so report one step per document
+        ResultSink sink = context.results();
+
+        sink.progress(0, 4, "Analyzing JavaDoc");
         try {
-            result.put("javadocAnalysis", generateJavaDocAnalysis(projectPath, false));
+            result.put("javadocAnalysis", generateJavaDocAnalysis(projectPath, false, context, ResultSink.NONE));
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.warn("Failed to generate JavaDoc analysis", e);
             result.put("javadocAnalysis", Map.of("error", e.getMessage()));
         }
 
+        context.throwIfCancelled();
+        sink.progress(1, 4, "Generating README");
         try {
             result.put("readme", generateReadme(projectPath, outputFile));
         } catch (Exception e) {
@@ -265,6 +295,8 @@ public class GenerateDocumentationTool implements Tool {
             result.put("readme", Map.of("error", e.getMessage()));
         }
 
+        context.throwIfCancelled();
+        sink.progress(2, 4, "Generating API documentation");
         try {
             result.put("apiDocs", generateApiDocs(projectPath, packageFilter, outputFile));
         } catch (Exception e) {
@@ -272,6 +304,8 @@ public class GenerateDocumentationTool implements Tool {
             result.put("apiDocs", Map.of("error", e.getMessage()));
         }
 
+        context.throwIfCancelled();
+        sink.progress(3, 4, "Generating changelog");
         try {
             result.put("changelog", generateChangelog(projectPath, maxCommits, outputFile));
         } catch (Exception e) {
@@ -279,6 +313,7 @@ public class GenerateDocumentationTool implements Tool {
             result.put("changelog", Map.of("error", e.getMessage()));
         }
 
+        sink.progress(4, 4, "Documentation generated");
         result.put("message", "All documentation generated successfully");
         return result;
     }
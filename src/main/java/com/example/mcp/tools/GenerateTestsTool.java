@@ -1,6 +1,6 @@
 package com.example.mcp.tools;
 
-import com.github.javaparser.JavaParser;
+import com.example.mcp.parsing.ParsingService;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
@@ -50,7 +50,6 @@ import java.util.stream.Stream;
 public class GenerateTestsTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(GenerateTestsTool.class);
-    private static final JavaParser javaParser = new JavaParser();
 
     @Override
     public String getName() {
@@ -134,8 +133,7 @@ public class GenerateTestsTool implements Tool {
         results.put("timestamp", new Date().toString());
 
         try {
-            String sourceCode = Files.readString(sourcePath);
-            CompilationUnit cu = javaParser.parse(sourceCode).getResult()
+            CompilationUnit cu = ParsingService.shared().parse(sourcePath)
                     .orElseThrow(() -> new IllegalArgumentException("Failed to parse Java file"));
 
             // Find main class
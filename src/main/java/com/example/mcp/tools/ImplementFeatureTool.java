@@ -1,6 +1,7 @@
 package com.example.mcp.tools;
 
-import com.github.javaparser.JavaParser;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.parsing.ParsingService;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -13,7 +14,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Tool for autonomous feature implementation in Maven projects.
@@ -37,7 +37,6 @@ import java.util.stream.Stream;
 public class ImplementFeatureTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(ImplementFeatureTool.class);
-    private final JavaParser javaParser = new JavaParser();
 
     @Override
     public String getName() {
@@ -188,9 +187,11 @@ public class ImplementFeatureTool implements Tool {
         final int[] springAnnotations = {0};
         final int[] builderPattern = {0};
 
-        for (Path javaFile : javaFiles.stream().limit(50).collect(Collectors.toList())) {
+        List<Path> sample = javaFiles.stream().limit(50).collect(Collectors.toList());
+        for (ParsingService.ParsedFile parsed : ParsingService.shared().parseAll(sample)) {
+            Path javaFile = parsed.path();
             try {
-                CompilationUnit cu = javaParser.parse(javaFile).getResult().orElse(null);
+                CompilationUnit cu = parsed.unit();
                 if (cu == null) continue;
 
                 cu.findAll(ClassOrInterfaceDeclaration.class).forEach(cls -> {
@@ -498,12 +499,8 @@ public class ImplementFeatureTool implements Tool {
      * Finds all Java files in the project.
      */
     private List<Path> findJavaFiles(Path projectPath) throws IOException {
-        try (Stream<Path> paths = Files.walk(projectPath)) {
-            return paths
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().endsWith(".java"))
-                    .filter(p -> !p.toString().contains("/target/"))
-                    .collect(Collectors.toList());
+        try (ProjectIndex index = ProjectIndex.forProject(projectPath)) {
+            return index.javaFiles(true);
         }
     }
 
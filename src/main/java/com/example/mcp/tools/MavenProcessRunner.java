@@ -0,0 +1,136 @@
+package com.example.mcp.tools;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.InvokerLogger;
+import org.apache.maven.shared.invoker.MavenCommandLineBuilder;
+import org.apache.maven.shared.invoker.PrintStreamLogger;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.shared.utils.cli.Commandline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Maven invocations as child processes that stop when the call is cancelled.
+ *
+ * <p>{@code DefaultInvoker} waits for the forked Maven JVM with no way to stop
+ * it. This runner builds the same command line with
+ * {@link MavenCommandLineBuilder}, starts it itself and destroys the whole
+ * process tree (the launcher script and the JVM it starts) when the tool's
+ * context is cancelled, or when reading its output fails. Processes still
+ * alive after a grace period are killed forcibly.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class MavenProcessRunner {
+
+    private static final long DESTROY_GRACE_SECONDS = 5;
+
+    private MavenProcessRunner() {
+    }
+
+    /**
+     * Runs the request and feeds the stdout and stderr lines to the handler.
+     *
+     * @param request the Maven invocation request
+     * @param output receives each output line
+     * @param context the call context
+     * @return the exit code; as from {@code DefaultInvoker}, a process that could not be
+     *         started has the execution exception and exit code {@link Integer#MIN_VALUE}
+     * @throws java.util.concurrent.CancellationException if the call was cancelled
+     * @throws Exception if the command line cannot be built
+     */
+    static InvocationResult run(InvocationRequest request, InvocationOutputHandler output, ToolContext context)
+            throws Exception {
+        context.throwIfCancelled();
+
+        MavenCommandLineBuilder builder = new MavenCommandLineBuilder();
+        // Never log to stdout, which carries the protocol
+        builder.setLogger(new PrintStreamLogger(System.err, InvokerLogger.WARN));
+        Commandline commandline = builder.build(request);
+
+        // Commandline applies the working directory, environment and shell wrapping
+        Process process;
+        try {
+            process = commandline.execute();
+        } catch (CommandLineException e) {
+            return new Result(Integer.MIN_VALUE, e);
+        }
+        boolean exited = false;
+        try {
+            process.getOutputStream().close();
+            context.onCancel(() -> destroyTree(process));
+
+            InvocationOutputHandler serialized = line -> {
+                synchronized (output) {
+                    output.consumeLine(line);
+                }
+            };
+            Thread errorDrain = new Thread(() -> drain(process.getErrorStream(), serialized, context), "mvn-stderr");
+            errorDrain.setDaemon(true);
+            errorDrain.start();
+            drain(process.getInputStream(), serialized, context);
+
+            int exitCode = process.waitFor();
+            exited = true;
+            errorDrain.join();
+            context.throwIfCancelled();
+            return new Result(exitCode, null);
+        } finally {
+            // A failed read or handler, or an interrupted wait, must not leave the build running
+            if (!exited) {
+                destroyTree(process);
+            }
+        }
+    }
+
+    private static void drain(InputStream stream, InvocationOutputHandler output, ToolContext context) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charset.defaultCharset()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.consumeLine(line);
+            }
+        } catch (IOException e) {
+            // Destroying the process closes its streams under the reader
+            if (!context.isCancelled()) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private record Result(int exitCode, CommandLineException executionException) implements InvocationResult {
+
+        @Override
+        public int getExitCode() {
+            return exitCode;
+        }
+
+        @Override
+        public CommandLineException getExecutionException() {
+            return executionException;
+        }
+    }
+
+    private static void destroyTree(Process process) {
+        List<ProcessHandle> descendants = process.descendants().toList();
+        descendants.forEach(ProcessHandle::destroy);
+        process.destroy();
+
+        CompletableFuture.delayedExecutor(DESTROY_GRACE_SECONDS, TimeUnit.SECONDS).execute(() -> {
+            descendants.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        });
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.mcp.tools;
+
+import com.example.mcp.maven.CompactDependencyGraph;
+import com.example.mcp.maven.DependencyGraph;
+import com.example.mcp.maven.DependencyGraphResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool for answering questions about a Maven project's dependency graph.
+ *
+ * <p>Supported operations:
+ * <ul>
+ *   <li>{@code why}: every path from the project to an artifact</li>
+ *   <li>{@code dependents}: what declares an artifact directly</li>
+ *   <li>{@code conflicts}: artifacts requested in several versions and which version won</li>
+ *   <li>{@code subtree}: how much an artifact pulls in transitively</li>
+ *   <li>{@code summary}: the size and shape of the graph</li>
+ * </ul>
+ *
+ * <p>The graph is resolved once and kept by the {@link DependencyGraphResolver}
+ * until the project changes, so follow-up queries do not resolve again.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public class QueryDependencyGraphTool implements Tool {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryDependencyGraphTool.class);
+
+    private static final List<String> OPERATIONS = List.of("why", "dependents", "conflicts", "subtree", "summary");
+
+    private final DependencyGraphResolver resolver;
+
+    /**
+     * Creates the tool using the shared dependency resolver.
+     */
+    public QueryDependencyGraphTool() {
+        this(DependencyGraphResolver.shared());
+    }
+
+    /**
+     * Creates the tool with the given dependency resolver.
+     *
+     * @param resolver the resolver graphs are collected and cached with
+     */
+    public QueryDependencyGraphTool(DependencyGraphResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public String getName() {
+        return "query-dependency-graph";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Answers questions about a Maven project's resolved dependency graph: why an artifact is on the " +
+                "classpath, what depends on it, which version conflicts Maven settled and how, and how much an " +
+                "artifact pulls in transitively. The graph is cached until the project changes.";
+    }
+
+    @Override
+    public ToolLane getLane() {
+        return ToolLane.HEAVY;
+    }
+
+    @Override
+    public Map<String, Object> getSchema() {
+        return Map.of(
+                "name", getName(),
+                "description", getDescription(),
+                "inputSchema", Map.of(
+                        "type", "object",
+                        "properties", Map.of(
+                                "path", Map.of(
+                                        "type", "string",
+                                        "description", "Path to the Maven project"
+                                ),
+                                "module", Map.of(
+                                        "type", "string",
+                                        "description", "Optional: module whose graph to query"
+                                ),
+                                "operation", Map.of(
+                                        "type", "string",
+                                        "description", "Query to run (default: summary)",
+                                        "enum", OPERATIONS
+                                ),
+                                "artifact", Map.of(
+                                        "type", "string",
+                                        "description", "Artifact as groupId:artifactId; required for why, dependents and subtree"
+                                )
+                        ),
+                        "required", List.of("path")
+                )
+        );
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments) throws Exception {
+        String path = (String) arguments.get("path");
+        String module = (String) arguments.getOrDefault("module", null);
+        String operation = (String) arguments.getOrDefault("operation", "summary");
+        String artifact = (String) arguments.getOrDefault("artifact", null);
+
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("path parameter is required");
+        }
+        if (!OPERATIONS.contains(operation)) {
+            throw new IllegalArgumentException("Unknown operation: " + operation + ". Expected one of " + OPERATIONS);
+        }
+        if (!operation.equals("conflicts") && !operation.equals("summary")
+                && (artifact == null || artifact.split(":").length != 2)) {
+            throw new IllegalArgumentException("artifact parameter is required as groupId:artifactId for " + operation);
+        }
+
+        Path projectPath = Paths.get(path);
+        Path pomPath = module != null ?
+                projectPath.resolve(module).resolve("pom.xml") :
+                projectPath.resolve("pom.xml");
+        if (!Files.exists(pomPath)) {
+            throw new IllegalArgumentException("pom.xml not found at: " + pomPath);
+        }
+
+        CompactDependencyGraph graph;
+        try {
+            graph = resolver.graph(projectPath, pomPath);
+        } catch (Exception e) {
+            logger.warn("Could not resolve the dependency graph of {}: {}", pomPath, e.getMessage());
+            return Map.of(
+                    "success", false,
+                    "error", "Dependency resolution failed: " + e.getMessage(),
+                    "recommendations", List.of(
+                            "Verify the pom.xml file is valid",
+                            "Populate the local repository, e.g. with 'mvn dependency:go-offline'"
+                    )
+            );
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("root", graph.root());
+        results.put("operation", operation);
+        if (artifact != null) {
+            results.put("artifact", artifact);
+        }
+        if (!operation.equals("conflicts") && !operation.equals("summary") && !graph.contains(artifact)) {
+            results.put("found", false);
+        } else {
+            switch (operation) {
+                case "why" -> results.put("paths", describePaths(graph.pathsToRoot(artifact)));
+                case "dependents" -> results.put("dependents", graph.dependents(artifact));
+                case "conflicts" -> results.put("conflicts", describeConflicts(graph.conflicts()));
+                case "subtree" -> results.put("subtree", describeSubtree(graph.subtree(artifact)));
+                default -> results.putAll(summarize(graph));
+            }
+        }
+        if (!graph.unresolved().isEmpty()) {
+            results.put("unresolved", graph.unresolved());
+        }
+
+        return Map.of(
+                "success", true,
+                "results", results
+        );
+    }
+
+    private static List<Map<String, Object>> describePaths(List<CompactDependencyGraph.DependencyPath> paths) {
+        List<Map<String, Object>> described = new ArrayList<>();
+        for (CompactDependencyGraph.DependencyPath path : paths) {
+            DependencyGraph.Node node = path.node();
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("path", path.path());
+            info.put("scope", node.scope());
+            info.put("depth", node.depth());
+            if (node.omitted() != null) {
+                info.put("omitted", node.omitted().name().toLowerCase());
+                info.put("selectedVersion", node.selectedVersion());
+            }
+            described.add(info);
+        }
+        return described;
+    }
+
+    private static List<Map<String, Object>> describeConflicts(List<CompactDependencyGraph.Conflict> conflicts) {
+        List<Map<String, Object>> described = new ArrayList<>();
+        for (CompactDependencyGraph.Conflict conflict : conflicts) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("artifact", conflict.artifact());
+            info.put("selectedVersion", conflict.selectedVersion());
+            info.put("selectedDepth", conflict.selectedDepth());
+            info.put("resolution", "nearest wins");
+            info.put("requested", describePaths(conflict.requested()));
+            described.add(info);
+        }
+        return described;
+    }
+
+    private static Map<String, Object> describeSubtree(CompactDependencyGraph.Subtree subtree) {
+        if (subtree == null) {
+            return Map.of("selected", false);
+        }
+        return Map.of(
+                "selected", true,
+                "id", subtree.artifact(),
+                "transitiveNodes", subtree.nodes(),
+                "distinctArtifacts", subtree.artifacts(),
+                "depth", subtree.depth()
+        );
+    }
+
+    private static Map<String, Object> summarize(CompactDependencyGraph graph) {
+        List<DependencyGraph.Node> selected = graph.selected();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalNodes", graph.size());
+        summary.put("distinctArtifacts", graph.artifactCount());
+        summary.put("selectedDependencies", selected.size());
+        summary.put("directDependencies", selected.stream().filter(node -> node.depth() == 1).count());
+        summary.put("maxDepth", selected.stream().mapToInt(DependencyGraph.Node::depth).max().orElse(0));
+        summary.put("versionConflicts", graph.conflicts().size());
+        summary.put("resolveMillis", graph.resolveMillis());
+        return summary;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mcp.tools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups items into partial results of a fixed size before sending them to a
+ * {@link ResultSink}, so a scan does not send one message per finding.
+ *
+ * <p>Each chunk is sent as a map with the items under the configured field.
+ * Call {@link #flush()} once the work is done to send the remainder.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+final class ResultBatcher {
+
+    private final ResultSink sink;
+    private final String field;
+    private final int batchSize;
+    private List<Object> pending = new ArrayList<>();
+
+    ResultBatcher(ResultSink sink, String field, int batchSize) {
+        this.sink = sink;
+        this.field = field;
+        this.batchSize = batchSize;
+    }
+
+    synchronized void addAll(Collection<?> items) {
+        if (!sink.isEnabled() || items.isEmpty()) {
+            return;
+        }
+        pending.addAll(items);
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object> chunk = pending;
+        pending = new ArrayList<>();
+        sink.partialResult(Map.of(field, chunk));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.mcp.tools;
+
+/**
+ * Channel through which a running tool reports progress and partial results.
+ *
+ * <p>The server forwards both as {@code notifications/progress} messages when
+ * the client asked for progress on the call; otherwise the tool receives
+ * {@link #NONE}. Partial results are previews: the final tool result still
+ * carries the complete output.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public interface ResultSink {
+
+    /**
+     * Sink that discards everything.
+     */
+    ResultSink NONE = new ResultSink() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void progress(long processed, long total, String message) {
+            // Nobody is listening
+        }
+
+        @Override
+        public void partialResult(Object chunk) {
+            // Nobody is listening
+        }
+    };
+
+    /**
+     * Checks whether anybody receives what is sent, so tools can skip
+     * collecting partial results nobody will see.
+     *
+     * @return true if reports are delivered
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Reports how far the tool has got. Implementations may drop reports
+     * that arrive faster than they are worth delivering.
+     *
+     * @param processed units of work done, e.g. files scanned
+     * @param total total units of work, or 0 if unknown
+     * @param message a short human-readable status
+     */
+    void progress(long processed, long total, String message);
+
+    /**
+     * Sends a chunk of results computed so far, e.g. a batch of findings.
+     * Chunks are always delivered, in order.
+     *
+     * @param chunk the partial result
+     */
+    void partialResult(Object chunk);
+}
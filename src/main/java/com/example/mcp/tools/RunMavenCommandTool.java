@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,7 +14,8 @@ import java.util.Map;
  * Tool for safely executing Maven commands.
  *
  * <p>Provides a controlled way to run Maven goals and phases with
- * proper error handling and output capture.
+ * proper error handling and output capture. The forked Maven process is
+ * destroyed when the call is cancelled or times out.
  *
  * @author Maven SDLC Team
  * @version 1.0.0
@@ -40,6 +42,17 @@ public class RunMavenCommandTool implements Tool {
                 "test, package, and analysis commands. Use for building, testing, and analyzing projects.";
     }
 
+    @Override
+    public ToolLane getLane() {
+        return ToolLane.HEAVY;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        // Each call forks a Maven JVM
+        return 2;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         return Map.of(
@@ -69,6 +82,11 @@ public class RunMavenCommandTool implements Tool {
 
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
+        return execute(arguments, ToolContext.none());
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
         String path = (String) arguments.get("path");
         String command = (String) arguments.get("command");
         String module = (String) arguments.getOrDefault("module", null);
@@ -93,8 +111,8 @@ public class RunMavenCommandTool implements Tool {
             request.setAlsoMake(true);
         }
 
-        Invoker invoker = new DefaultInvoker();
-        InvocationResult result = invoker.execute(request);
+        // Maven output goes to the log; stdout carries the protocol
+        InvocationResult result = MavenProcessRunner.run(request, line -> logger.debug("[mvn] {}", line), context);
 
         if (result.getExitCode() == 0) {
             return Map.of(
@@ -103,13 +121,14 @@ public class RunMavenCommandTool implements Tool {
                     "message", "Command executed successfully"
             );
         } else {
-            return Map.of(
-                    "success", false,
-                    "exitCode", result.getExitCode(),
-                    "message", "Command failed with exit code: " + result.getExitCode(),
-                    "exception", result.getExecutionException() != null ?
-                            result.getExecutionException().getMessage() : null
-            );
+            // Map.of rejects the null exception of a run that started but failed
+            Map<String, Object> failure = new LinkedHashMap<>();
+            failure.put("success", false);
+            failure.put("exitCode", result.getExitCode());
+            failure.put("message", "Command failed with exit code: " + result.getExitCode());
+            failure.put("exception", result.getExecutionException() != null
+                    ? result.getExecutionException().getMessage() : null);
+            return failure;
         }
     }
 }
@@ -1,7 +1,19 @@
 package com.example.mcp.tools;
 
+import com.example.mcp.cache.AnalysisCache;
+import com.example.mcp.index.IgnoreRules;
+import com.example.mcp.index.ProjectIndex;
+import com.example.mcp.maven.CompactDependencyGraph;
+import com.example.mcp.maven.DependencyGraph;
+import com.example.mcp.maven.DependencyGraphResolver;
+import com.example.mcp.maven.EffectiveModelCache;
+import com.example.mcp.security.DiffScanner;
+import com.example.mcp.security.HistoryScanner;
+import com.example.mcp.security.RulePackRegistry;
+import com.example.mcp.security.SourceScanner;
+import com.example.mcp.security.VulnerabilityDatabase;
+import com.example.mcp.security.VulnerabilityIndex;
 import org.apache.maven.model.Model;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.shared.invoker.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,10 +23,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Tool for comprehensive security vulnerability scanning.
@@ -48,29 +57,23 @@ public class SecurityScanTool implements Tool {
 
     private static final Logger logger = LoggerFactory.getLogger(SecurityScanTool.class);
 
-    // Patterns for security vulnerabilities
-    private static final Pattern SQL_INJECTION_PATTERN = Pattern.compile(
-            "Statement|PreparedStatement|ResultSet|executeQuery|executeUpdate|execute\\(" +
-            "|\"\\s*\\+\\s*[a-zA-Z_]|String\\.format.*SELECT|String\\.format.*UPDATE"
-    );
+    private final AnalysisCache analysisCache;
 
-    private static final Pattern XSS_PATTERN = Pattern.compile(
-            "innerHTML|document\\.write|eval\\(|response\\.getWriter|out\\.print|getParameter|getElementById"
-    );
-
-    private static final Pattern HARDCODED_SECRET_PATTERN = Pattern.compile(
-            "(password|apikey|api_key|secret|token|pwd|passwd|credential)\\s*=\\s*[\"']([^\"']+)[\"']",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern WEAK_CRYPTO_PATTERN = Pattern.compile(
-            "MD5|MD2|SHA1|DES|RC4|Random\\(\\)|Math\\.random\\(\\)|SecureRandom\\(\\s*\\)",
-            Pattern.CASE_INSENSITIVE
-    );
+    /**
+     * Creates the tool, caching results in the shared analysis cache.
+     */
+    public SecurityScanTool() {
+        this(AnalysisCache.shared());
+    }
 
-    private static final Pattern DESERIALIZATION_PATTERN = Pattern.compile(
-            "readObject|readObjectNoData|readResolve|ObjectInputStream|readField|newInstance"
-    );
+    /**
+     * Creates the tool, caching results in the given cache.
+     *
+     * @param analysisCache the cache repeated calls are served from
+     */
+    public SecurityScanTool(AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
 
     @Override
     public String getName() {
@@ -85,6 +88,11 @@ public class SecurityScanTool implements Tool {
                 "remediation steps and security best practices recommendations.";
     }
 
+    @Override
+    public ToolLane getLane() {
+        return ToolLane.HEAVY;
+    }
+
     @Override
     public Map<String, Object> getSchema() {
         return Map.of(
@@ -99,8 +107,8 @@ public class SecurityScanTool implements Tool {
                                 ),
                                 "scanType", Map.of(
                                         "type", "string",
-                                        "description", "Type of scan: full, dependencies-only, code-only (default: full)",
-                                        "enum", List.of("full", "dependencies-only", "code-only")
+                                        "description", "Type of scan: full, dependencies-only, code-only, or history to search every commit for hardcoded secrets (default: full)",
+                                        "enum", List.of("full", "dependencies-only", "code-only", "history")
                                 ),
                                 "severity", Map.of(
                                         "type", "string",
@@ -113,7 +121,15 @@ public class SecurityScanTool implements Tool {
                                 ),
                                 "excludePatterns", Map.of(
                                         "type", "string",
-                                        "description", "Comma-separated glob patterns to exclude from scan (optional)"
+                                        "description", "Comma-separated patterns in .gitignore syntax, relative to the project root, to exclude from scan (optional)"
+                                ),
+                                "baseRef", Map.of(
+                                        "type", "string",
+                                        "description", "Git ref a pull request merges into, such as origin/main; if set, only source lines changed since its merge base with headRef are scanned (optional)"
+                                ),
+                                "headRef", Map.of(
+                                        "type", "string",
+                                        "description", "Git ref holding the changes when baseRef is set (default: HEAD)"
                                 )
                         ),
                         "required", List.of("path")
@@ -123,6 +139,11 @@ public class SecurityScanTool implements Tool {
 
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
+        return execute(arguments, ToolContext.none());
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
         String path = (String) arguments.get("path");
         String scanType = (String) arguments.getOrDefault("scanType", "full");
         String severity = (String) arguments.getOrDefault("severity", "MEDIUM");
@@ -138,20 +159,60 @@ public class SecurityScanTool implements Tool {
             throw new IllegalArgumentException("Project path does not exist: " + path);
         }
 
+        String baseRef = (String) arguments.get("baseRef");
+        if (baseRef != null && !baseRef.isBlank()) {
+            String headRef = (String) arguments.getOrDefault("headRef", "HEAD");
+            return scanDiff(projectPath, baseRef.trim(), headRef == null || headRef.isBlank() ? "HEAD" : headRef.trim(),
+                    severity, includeRemediations, parseExcludePatterns(excludePatterns), context);
+        }
+
+        if ("history".equals(scanType)) {
+            return scanHistory(projectPath, includeRemediations, context);
+        }
+
         logger.info("Starting security scan for: {} (type: {}, severity: {})",
                 path, scanType, severity);
 
+        // A replaced vulnerability dump, edited rule pack or reinstalled dependency invalidates cached
+        // findings like a changed project does
+        VulnerabilityIndex vulnerabilityIndex = null;
+        Map<Path, CompactDependencyGraph> graphs = Map.of();
+        Map<String, Object> keyArguments = new LinkedHashMap<>(arguments);
+        if (!"code-only".equals(scanType)) {
+            vulnerabilityIndex = openVulnerabilityIndex();
+            if (vulnerabilityIndex != null) {
+                keyArguments.put("vulnerabilityIndex", vulnerabilityIndex.sourceStamp());
+                graphs = resolveGraphs(projectPath);
+                if (!graphs.isEmpty()) {
+                    keyArguments.put("localRepository", graphs.values().stream()
+                            .map(DependencyGraphResolver.shared()::repositoryStamp)
+                            .collect(Collectors.joining(",")));
+                }
+            }
+        }
+        RulePackRegistry.RuleSet rules = RulePackRegistry.shared().forProject(projectPath);
+        if (!rules.stamp().isEmpty()) {
+            keyArguments.put("rulePacks", rules.stamp());
+        }
+        AnalysisCache.Key cacheKey = analysisCache.keyFor(getName(), projectPath, keyArguments);
+        Object cached = analysisCache.get(cacheKey);
+        if (cached != null) {
+            logger.info("Serving {} for {} from the analysis cache", getName(), path);
+            return cached;
+        }
+
         Map<String, Object> results = new LinkedHashMap<>();
         results.put("projectPath", path);
         results.put("scanType", scanType);
         results.put("timestamp", new Date().toString());
+        putRulePacks(results, rules);
 
         try {
             List<Map<String, Object>> allFindings = new ArrayList<>();
 
             // Scan dependencies for known vulnerabilities
             if ("full".equals(scanType) || "dependencies-only".equals(scanType)) {
-                List<Map<String, Object>> dependencyVulnerabilities = scanDependencies(projectPath);
+                List<Map<String, Object>> dependencyVulnerabilities = scanDependencies(projectPath, vulnerabilityIndex, graphs);
                 allFindings.addAll(dependencyVulnerabilities);
                 results.put("dependencyVulnerabilities", dependencyVulnerabilities);
             }
@@ -159,7 +220,8 @@ public class SecurityScanTool implements Tool {
             // Scan source code for security issues
             if ("full".equals(scanType) || "code-only".equals(scanType)) {
                 List<String> excludeList = parseExcludePatterns(excludePatterns);
-                List<Map<String, Object>> codeVulnerabilities = scanSourceCode(projectPath, excludeList);
+                List<Map<String, Object>> codeVulnerabilities = scanSourceCode(projectPath, rules.scanner(), excludeList,
+                        severity, context);
                 allFindings.addAll(codeVulnerabilities);
                 results.put("codeVulnerabilities", codeVulnerabilities);
             }
@@ -190,12 +252,13 @@ public class SecurityScanTool implements Tool {
             Map<String, Object> summary = generateSecuritySummary(filteredFindings, securityScore);
             results.put("summary", summary);
 
-            return Map.of(
+            return analysisCache.put(cacheKey, Map.of(
                     "success", true,
                     "results", results
-            );
+            ));
 
         } catch (Exception e) {
+            context.throwIfCancelled();
             logger.error("Error during security scan", e);
             return Map.of(
                     "success", false,
@@ -211,9 +274,168 @@ public class SecurityScanTool implements Tool {
     }
 
     /**
-     * Scans dependencies for known vulnerabilities using OWASP Dependency Check.
+     * Scans only the source lines changed between two refs, as a pull request
+     * check does. Findings are tagged NEW or PRE_EXISTING, and the score,
+     * risk assessment and plan cover the new ones. The refs are resolved to
+     * commits on every call, so results are not cached.
+     */
+    private Map<String, Object> scanDiff(Path projectPath, String baseRef, String headRef, String severity,
+                                         boolean includeRemediations, List<String> excludePatterns,
+                                         ToolContext context) {
+        logger.info("Starting diff security scan for: {} ({}...{}, severity: {})",
+                projectPath, baseRef, headRef, severity);
+        IgnoreRules excludes = IgnoreRules.of(excludePatterns);
+        try {
+            RulePackRegistry.RuleSet rules = RulePackRegistry.shared().forProject(projectPath);
+            DiffScanner.DiffScan diff = new DiffScanner(rules.scanner()).scan(projectPath, baseRef, headRef,
+                    file -> file.toString().endsWith(".java") && !excludes.isExcluded(file));
+            context.throwIfCancelled();
+
+            List<Map<String, Object>> newFindings = new ArrayList<>();
+            List<Map<String, Object>> preexistingFindings = new ArrayList<>();
+            for (DiffScanner.DiffFinding diffFinding : diff.findings()) {
+                Map<String, Object> mapped = sourceFinding(diffFinding.finding());
+                mapped.put("status", diffFinding.introduced() ? "NEW" : "PRE_EXISTING");
+                (diffFinding.introduced() ? newFindings : preexistingFindings).add(mapped);
+            }
+            List<Map<String, Object>> filteredNew = filterBySeverity(newFindings, severity);
+            List<Map<String, Object>> filteredPreexisting = filterBySeverity(preexistingFindings, severity);
+            if (includeRemediations) {
+                addRemediationSteps(filteredNew);
+                addRemediationSteps(filteredPreexisting);
+            }
+
+            List<Map<String, Object>> changedFiles = new ArrayList<>();
+            for (DiffScanner.ChangedFile file : diff.files()) {
+                changedFiles.add(Map.of(
+                        "file", file.file().toString(),
+                        "changeType", file.changeType(),
+                        "changedLines", file.changedLines().stream().map(Object::toString).toList()
+                ));
+            }
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("projectPath", projectPath.toString());
+            results.put("scanType", "diff");
+            results.put("timestamp", new Date().toString());
+            results.put("baseRef", baseRef);
+            results.put("headRef", headRef);
+            results.put("baseCommit", diff.base());
+            results.put("headCommit", diff.head());
+            results.put("mergeBase", diff.mergeBase());
+            putRulePacks(results, rules);
+            results.put("changedFiles", changedFiles);
+            if (!diff.unreadable().isEmpty()) {
+                results.put("unreadableFiles", diff.unreadable());
+            }
+            List<Map<String, Object>> allFindings = new ArrayList<>(filteredNew);
+            allFindings.addAll(filteredPreexisting);
+            results.put("newFindings", filteredNew);
+            results.put("preexistingFindings", filteredPreexisting);
+            results.put("allFindings", allFindings);
+            results.put("riskAssessment", generateRiskAssessment(filteredNew));
+            results.put("remediationPlan", generateRemediationPlan(filteredNew));
+            int securityScore = calculateSecurityScore(newFindings, filteredNew);
+            results.put("securityScore", securityScore);
+            results.put("summary", generateSecuritySummary(filteredNew, securityScore));
+            results.put("elapsedMillis", diff.elapsedMillis());
+
+            return Map.of(
+                    "success", true,
+                    "results", results
+            );
+        } catch (IllegalArgumentException | IOException e) {
+            context.throwIfCancelled();
+            logger.error("Error during diff security scan", e);
+            return Map.of(
+                    "success", false,
+                    "error", e.getMessage(),
+                    "recommendations", List.of(
+                            "Verify the project path is inside a Git repository",
+                            "Fetch the base ref first, for example git fetch origin main",
+                            "Check that baseRef and headRef name existing commits, branches or tags"
+                    )
+            );
+        }
+    }
+
+    /**
+     * Searches every commit reachable from the repository's refs for
+     * hardcoded secrets. Scanned objects persist between calls, so repeated
+     * calls cover only new commits; results are therefore not cached here.
+     */
+    private Map<String, Object> scanHistory(Path projectPath, boolean includeRemediations, ToolContext context) {
+        logger.info("Starting history secret scan for: {}", projectPath);
+        try {
+            HistoryScanner.HistoryScan scan = HistoryScanner.shared().scan(projectPath, context::isCancelled);
+            context.throwIfCancelled();
+
+            List<Map<String, Object>> findings = new ArrayList<>();
+            for (HistoryScanner.Finding secret : scan.findings()) {
+                Map<String, Object> finding = createFinding(
+                        "CRITICAL",
+                        SourceScanner.HARDCODED_SECRET,
+                        secret.description() + ", committed in " + secret.commit().substring(0, 7),
+                        "Revoke and rotate the secret first, then remove it from every commit "
+                                + "(for example with git filter-repo) and force-push the rewritten refs.",
+                        secret.path() + ":" + secret.line()
+                );
+                finding.put("type", "HISTORY_SECRET");
+                finding.put("commit", secret.commit());
+                finding.put("blob", secret.blob());
+                findings.add(finding);
+            }
+            if (includeRemediations) {
+                addRemediationSteps(findings);
+            }
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            results.put("projectPath", projectPath.toString());
+            results.put("scanType", "history");
+            results.put("timestamp", new Date().toString());
+            results.put("commits", scan.commits());
+            results.put("scannedBlobs", scan.scannedBlobs());
+            results.put("skippedBlobs", scan.skippedBlobs());
+            results.put("previouslyScannedObjects", scan.knownObjects());
+            results.put("newFindings", scan.newFindings());
+            results.put("allFindings", findings);
+            results.put("riskAssessment", generateRiskAssessment(findings));
+            int securityScore = calculateSecurityScore(findings, findings);
+            results.put("securityScore", securityScore);
+            results.put("summary", generateSecuritySummary(findings, securityScore));
+            results.put("elapsedMillis", scan.elapsedMillis());
+
+            return Map.of(
+                    "success", true,
+                    "results", results
+            );
+        } catch (IllegalArgumentException | IOException e) {
+            context.throwIfCancelled();
+            logger.error("Error during history secret scan", e);
+            return Map.of(
+                    "success", false,
+                    "error", e.getMessage(),
+                    "recommendations", List.of(
+                            "Verify the project path is inside a Git repository",
+                            "Check that the repository is not corrupt with git fsck"
+                    )
+            );
+        }
+    }
+
+    /**
+     * Scans the dependencies of every reactor module for known vulnerabilities.
+     *
+     * <p>With a vulnerability index, every artifact selected in each module's
+     * resolved transitive graph is looked up, and findings carry the path that
+     * pulls it in; a module without a graph falls back to its effective direct
+     * dependencies. Without an index, only the built-in check runs on the
+     * effective direct dependencies.
+     *
+     * @param graphs the graphs from {@link #resolveGraphs(Path)}, keyed by module pom.xml
      */
-    private List<Map<String, Object>> scanDependencies(Path projectPath) {
+    private List<Map<String, Object>> scanDependencies(Path projectPath, VulnerabilityIndex index,
+                                                       Map<Path, CompactDependencyGraph> graphs) {
         List<Map<String, Object>> vulnerabilities = new ArrayList<>();
 
         try {
@@ -222,14 +444,12 @@ public class SecurityScanTool implements Tool {
                 return vulnerabilities;
             }
 
-            // Parse POM to get dependencies
-            MavenXpp3Reader reader = new MavenXpp3Reader();
-            try (FileReader fileReader = new FileReader(pomPath.toFile())) {
-                Model pom = reader.read(fileReader);
-
-                if (pom.getDependencies() != null) {
-                    for (org.apache.maven.model.Dependency dep : pom.getDependencies()) {
-                        // Check for known vulnerable versions (simplified)
+            Map<String, List<VulnerabilityIndex.Advisory>> lookups = new HashMap<>();
+            for (Map.Entry<Path, Model> module : EffectiveModelCache.shared().reactor(pomPath).entrySet()) {
+                Path modulePom = module.getKey().resolve("pom.xml");
+                String moduleName = projectPath.relativize(module.getKey()).toString();
+                if (index == null) {
+                    for (org.apache.maven.model.Dependency dep : module.getValue().getDependencies()) {
                         Map<String, Object> vulnCheck = checkDependencyVersion(
                                 dep.getGroupId(),
                                 dep.getArtifactId(),
@@ -238,10 +458,40 @@ public class SecurityScanTool implements Tool {
 
                         if (vulnCheck != null) {
                             vulnCheck.put("type", "DEPENDENCY_VULNERABILITY");
-                            vulnCheck.put("file", pomPath.toString());
+                            vulnCheck.put("file", modulePom.toString());
+                            vulnCheck.put("module", moduleName);
                             vulnerabilities.add(vulnCheck);
                         }
                     }
+                    continue;
+                }
+
+                CompactDependencyGraph graph = graphs.get(modulePom);
+                if (graph != null) {
+                    for (DependencyGraph.Node node : graph.selected()) {
+                        List<VulnerabilityIndex.Advisory> advisories = lookups.computeIfAbsent(node.id(),
+                                id -> index.lookup(node.groupId(), node.artifactId(), node.version()));
+                        if (!advisories.isEmpty()) {
+                            List<String> dependencyPath = graph.pathsToRoot(node.key()).get(0).path();
+                            for (VulnerabilityIndex.Advisory advisory : advisories) {
+                                vulnerabilities.add(dependencyFinding(advisory, node.groupId(), node.artifactId(),
+                                        node.version(), modulePom, moduleName, dependencyPath));
+                            }
+                        }
+                    }
+                } else {
+                    for (org.apache.maven.model.Dependency dep : module.getValue().getDependencies()) {
+                        if (dep.getVersion() == null) {
+                            continue;
+                        }
+                        String id = dep.getGroupId() + ":" + dep.getArtifactId() + ":" + dep.getVersion();
+                        List<VulnerabilityIndex.Advisory> advisories = lookups.computeIfAbsent(id,
+                                key -> index.lookup(dep.getGroupId(), dep.getArtifactId(), dep.getVersion()));
+                        for (VulnerabilityIndex.Advisory advisory : advisories) {
+                            vulnerabilities.add(dependencyFinding(advisory, dep.getGroupId(), dep.getArtifactId(),
+                                    dep.getVersion(), modulePom, moduleName, List.of(id)));
+                        }
+                    }
                 }
             }
 
@@ -252,6 +502,74 @@ public class SecurityScanTool implements Tool {
         return vulnerabilities;
     }
 
+    /**
+     * Resolves the transitive dependency graph of each reactor module. The
+     * resolver keeps graphs valid against the local repository, so this is
+     * cheap when warm.
+     *
+     * @return the graphs keyed by module pom.xml, without the modules that cannot be resolved
+     */
+    private Map<Path, CompactDependencyGraph> resolveGraphs(Path projectPath) {
+        Map<Path, CompactDependencyGraph> graphs = new LinkedHashMap<>();
+        Path pomPath = projectPath.resolve("pom.xml");
+        if (!Files.exists(pomPath)) {
+            return graphs;
+        }
+        try {
+            for (Path module : EffectiveModelCache.shared().reactor(pomPath).keySet()) {
+                Path modulePom = module.resolve("pom.xml");
+                try {
+                    graphs.put(modulePom, DependencyGraphResolver.shared().graph(projectPath, modulePom));
+                } catch (Exception e) {
+                    logger.warn("Checking only the direct dependencies of {}: {}", modulePom, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read the modules of {}: {}", pomPath, e.getMessage());
+        }
+        return graphs;
+    }
+
+    /**
+     * Loads the vulnerability index, if a vulnerability dump is configured.
+     */
+    private VulnerabilityIndex openVulnerabilityIndex() {
+        try {
+            return VulnerabilityDatabase.shared().index();
+        } catch (IOException e) {
+            logger.warn("Vulnerability index unavailable, using the built-in check: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates a finding for a dependency affected by an advisory.
+     */
+    private Map<String, Object> dependencyFinding(VulnerabilityIndex.Advisory advisory, String groupId,
+                                                  String artifactId, String version, Path modulePom,
+                                                  String moduleName, List<String> dependencyPath) {
+        String coordinates = groupId + ":" + artifactId + ":" + version;
+        String aliases = advisory.aliases().isEmpty() ? "" : " (" + String.join(", ", advisory.aliases()) + ")";
+        Map<String, Object> finding = createFinding(
+                advisory.severity(),
+                advisory.id() + " - " + advisory.summary(),
+                coordinates + " is affected by " + advisory.id() + aliases,
+                advisory.fixedVersion() != null
+                        ? "Upgrade " + groupId + ":" + artifactId + " to " + advisory.fixedVersion() + " or later"
+                        : "No fixed version is known; replace " + groupId + ":" + artifactId + " or mitigate the issue",
+                coordinates
+        );
+        finding.put("type", "DEPENDENCY_VULNERABILITY");
+        finding.put("cwe", "CWE-1395");
+        finding.put("advisory", advisory.id());
+        finding.put("aliases", advisory.aliases());
+        finding.put("fixedVersion", advisory.fixedVersion());
+        finding.put("dependencyPath", dependencyPath);
+        finding.put("file", modulePom.toString());
+        finding.put("module", moduleName);
+        return finding;
+    }
+
     /**
      * Checks a dependency version against known vulnerabilities.
      */
@@ -278,139 +596,70 @@ public class SecurityScanTool implements Tool {
     /**
      * Scans source code for security vulnerabilities.
      */
-    private List<Map<String, Object>> scanSourceCode(Path projectPath, List<String> excludePatterns) {
+    private List<Map<String, Object>> scanSourceCode(Path projectPath, SourceScanner scanner,
+                                                     List<String> excludePatterns, String severity,
+                                                     ToolContext context) {
         List<Map<String, Object>> vulnerabilities = new ArrayList<>();
 
-        try {
-            try (Stream<Path> paths = Files.walk(projectPath)) {
-                List<Path> javaFiles = paths
-                        .filter(Files::isRegularFile)
-                        .filter(p -> p.toString().endsWith(".java"))
-                        .filter(p -> !p.toString().contains("/target/"))
-                        .filter(p -> shouldIncludePath(p, excludePatterns))
-                        .collect(Collectors.toList());
-
-                for (Path javaFile : javaFiles) {
-                    vulnerabilities.addAll(scanJavaFile(javaFile));
+        try (ProjectIndex index = ProjectIndex.forProject(projectPath)) {
+            IgnoreRules excludes = IgnoreRules.of(excludePatterns);
+            List<Path> javaFiles = index.javaFiles(true).stream()
+                    .filter(p -> !excludes.isExcluded(index.getRoot().relativize(p)))
+                    .collect(Collectors.toList());
+
+            // Stream findings at the requested severity while the scan runs
+            ResultSink sink = context.results();
+            ResultBatcher batcher = new ResultBatcher(sink, "findings", 25);
+            int[] scanned = {0};
+            scanner.scanEach(javaFiles, file -> {
+                context.throwIfCancelled();
+                if (file.error() != null) {
+                    logger.warn("Error reading file {}: {}", file.path(), file.error().getMessage());
                 }
-            }
+                List<Map<String, Object>> fileFindings = new ArrayList<>();
+                for (SourceScanner.Finding finding : file.findings()) {
+                    fileFindings.add(sourceFinding(finding));
+                }
+                vulnerabilities.addAll(fileFindings);
+                batcher.addAll(filterBySeverity(fileFindings, severity));
+                scanned[0]++;
+                sink.progress(scanned[0], javaFiles.size(), "Scanned " + scanned[0] + " of " + javaFiles.size() + " files");
+            });
+            batcher.flush();
         } catch (IOException e) {
             logger.warn("Error scanning source code: {}", e.getMessage());
         }
+        context.throwIfCancelled();
 
         return vulnerabilities;
     }
 
     /**
-     * Scans a single Java file for vulnerabilities.
+     * Creates a security finding from a source scanner's finding, keeping a
+     * rule pack rule's id and CWE.
      */
-    private List<Map<String, Object>> scanJavaFile(Path javaFile) {
-        List<Map<String, Object>> findings = new ArrayList<>();
-
-        try {
-            String content = Files.readString(javaFile);
-            String[] lines = content.split("\n");
-
-            for (int i = 0; i < lines.length; i++) {
-                String line = lines[i];
-
-                // Check for SQL injection
-                if (SQL_INJECTION_PATTERN.matcher(line).find() &&
-                    (line.contains("+") || line.contains("String.format") || line.contains("\".*\" +"))) {
-                    findings.add(createFinding(
-                            "HIGH",
-                            "SQL Injection Risk",
-                            "Potential SQL injection vulnerability detected. String concatenation with user input in SQL query.",
-                            "Use parameterized queries or PreparedStatement with placeholders instead of string concatenation.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for hardcoded secrets
-                Matcher secretMatcher = HARDCODED_SECRET_PATTERN.matcher(line);
-                if (secretMatcher.find()) {
-                    findings.add(createFinding(
-                            "CRITICAL",
-                            "Hardcoded Secret Detected",
-                            "Found hardcoded secret in source code: " + secretMatcher.group(1),
-                            "Move secrets to environment variables, configuration files, or secret management systems. Never commit secrets to source control.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for XSS vulnerabilities
-                if (XSS_PATTERN.matcher(line).find() && line.contains("getParameter")) {
-                    findings.add(createFinding(
-                            "HIGH",
-                            "Cross-Site Scripting (XSS) Risk",
-                            "Potential XSS vulnerability: user input is used without proper sanitization.",
-                            "Sanitize all user inputs using ESAPI.encoder() or similar libraries. Use Content Security Policy (CSP) headers.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for weak cryptography
-                if (WEAK_CRYPTO_PATTERN.matcher(line).find()) {
-                    findings.add(createFinding(
-                            "HIGH",
-                            "Weak Cryptography Algorithm",
-                            "Use of weak or deprecated cryptographic algorithm detected.",
-                            "Use strong algorithms: SHA-256 or SHA-3 for hashing, AES-256 for encryption, SecureRandom for key generation.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for insecure deserialization
-                if (DESERIALIZATION_PATTERN.matcher(line).find() && line.contains("ObjectInputStream")) {
-                    findings.add(createFinding(
-                            "CRITICAL",
-                            "Insecure Deserialization",
-                            "ObjectInputStream is used to deserialize untrusted data, which can lead to RCE attacks.",
-                            "Avoid deserializing untrusted data. Use JSON deserialization with strict type validation or implement custom deserialization with whitelisting.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for command injection
-                if (line.contains("Runtime.getRuntime().exec") || line.contains("ProcessBuilder")) {
-                    findings.add(createFinding(
-                            "HIGH",
-                            "Command Injection Risk",
-                            "Direct execution of runtime commands detected.",
-                            "Avoid using Runtime.exec() or ProcessBuilder with user input. Use whitelisting and parameterized command execution.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for LDAP injection
-                if (line.contains("DirContext") && line.contains("search") && line.contains("+")) {
-                    findings.add(createFinding(
-                            "HIGH",
-                            "LDAP Injection Risk",
-                            "Potential LDAP injection vulnerability detected.",
-                            "Use parameterized LDAP queries or escape special characters in LDAP filters.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-
-                // Check for disabled security features
-                if (line.contains("setValidating(false)") || line.contains("XXE") ||
-                    line.contains("expandEntityReferences=true")) {
-                    findings.add(createFinding(
-                            "CRITICAL",
-                            "XML External Entity (XXE) Attack Risk",
-                            "XML parsing with disabled security features or entity expansion enabled.",
-                            "Disable external entity processing and DTD processing in XML parsers.",
-                            javaFile.toString() + ":" + (i + 1)
-                    ));
-                }
-            }
-
-        } catch (IOException e) {
-            logger.warn("Error reading file {}: {}", javaFile, e.getMessage());
+    private Map<String, Object> sourceFinding(SourceScanner.Finding finding) {
+        Map<String, Object> mapped = createFinding(finding.severity(), finding.title(), finding.description(),
+                finding.remediation(), finding.file() + ":" + finding.line());
+        if (finding.rule() != null) {
+            mapped.put("rule", finding.rule());
+        }
+        if (finding.cwe() != null) {
+            mapped.put("cwe", finding.cwe());
         }
+        return mapped;
+    }
 
-        return findings;
+    /**
+     * Lists the rule packs a scan checked, and any rules left out of them.
+     */
+    private static void putRulePacks(Map<String, Object> results, RulePackRegistry.RuleSet rules) {
+        if (!rules.packs().isEmpty()) {
+            results.put("rulePacks", rules.packs());
+        }
+        if (!rules.errors().isEmpty()) {
+            results.put("rulePackErrors", rules.errors());
+        }
     }
 
     /**
@@ -519,7 +768,7 @@ public class SecurityScanTool implements Tool {
             steps.add("2. Rotate the exposed credential");
             steps.add("3. Use environment variables for configuration");
             steps.add("4. Implement secrets management (HashiCorp Vault, AWS Secrets Manager)");
-            steps.add("5. Scan git history and remove from all commits");
+            steps.add("5. Scan git history (scanType: history) and remove from all commits");
         } else if (title.contains("Weak Cryptography")) {
             steps.add("1. Replace with SHA-256 or SHA-3 for hashing");
             steps.add("2. Use AES-256 for symmetric encryption");
@@ -680,38 +929,6 @@ public class SecurityScanTool implements Tool {
         return summary;
     }
 
-    /**
-     * Determines if a path should be included in the scan.
-     */
-    private boolean shouldIncludePath(Path path, List<String> excludePatterns) {
-        String pathStr = path.toString();
-        for (String pattern : excludePatterns) {
-            if (pathStr.matches(globToRegex(pattern))) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Converts glob pattern to regex.
-     */
-    private String globToRegex(String glob) {
-        StringBuilder out = new StringBuilder("^");
-        for (int i = 0; i < glob.length(); ++i) {
-            final char c = glob.charAt(i);
-            switch (c) {
-                case '*' -> out.append("[^/]*");
-                case '?' -> out.append("[^/]");
-                case '.' -> out.append("\\.");
-                case '\\' -> out.append("\\\\");
-                default -> out.append(c);
-            }
-        }
-        out.append("$");
-        return out.toString();
-    }
-
     /**
      * Parses exclude patterns from comma-separated string.
      */
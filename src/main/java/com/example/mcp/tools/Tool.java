@@ -50,4 +50,45 @@ public interface Tool {
      * @throws Exception if the tool execution fails
      */
     Object execute(Map<String, Object> arguments) throws Exception;
+
+    /**
+     * Executes the tool with the given arguments and per-call context.
+     *
+     * <p>Long-running tools override this to stop early when the context is
+     * cancelled and to report progress and partial results through
+     * {@link ToolContext#results()}. The default ignores the context.
+     *
+     * @param arguments the tool arguments
+     * @param context the call context
+     * @return the tool result
+     * @throws java.util.concurrent.CancellationException if the call was cancelled
+     * @throws Exception if the tool execution fails
+     */
+    default Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
+        return execute(arguments);
+    }
+
+    /**
+     * Gets the dispatch lane for calls to this tool.
+     *
+     * <p>Tools that scan whole projects or fork processes run in the
+     * {@link ToolLane#HEAVY} lane so they cannot hold up quick calls.
+     *
+     * @return the lane (default: {@link ToolLane#LIGHT})
+     */
+    default ToolLane getLane() {
+        return ToolLane.LIGHT;
+    }
+
+    /**
+     * Gets how many calls to this tool may run at the same time.
+     *
+     * <p>Further calls wait in their lane's queue, behind which other tools'
+     * calls may still start. The server configuration can override the limit.
+     *
+     * @return the limit, or 0 for no limit beyond the lane's own
+     */
+    default int getMaxConcurrency() {
+        return 0;
+    }
 }
@@ -0,0 +1,135 @@
+package com.example.mcp.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Per-call context handed to a tool by the server.
+ *
+ * <p>The context carries the call's cancellation state. The server cancels it
+ * when the client sends {@code notifications/cancelled} for the request or when
+ * the call's deadline passes. Cancellation is cooperative: long-running tools
+ * call {@link #throwIfCancelled()} between units of work and register
+ * {@link #onCancel(Runnable)} callbacks to stop work they cannot poll, such as
+ * forked processes.
+ *
+ * <p>It also carries the {@link ResultSink} the tool reports progress and
+ * partial results to.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public final class ToolContext {
+
+    private final List<Runnable> cancelListeners = new ArrayList<>();
+    private final ResultSink resultSink;
+    private volatile String cancellationReason;
+
+    /**
+     * Creates a context that is cancelled only through {@link #cancel(String)}
+     * and discards progress reports.
+     */
+    public ToolContext() {
+        this(ResultSink.NONE);
+    }
+
+    /**
+     * Creates a context that reports progress to the given sink.
+     *
+     * @param resultSink receives progress and partial results
+     */
+    public ToolContext(ResultSink resultSink) {
+        this.resultSink = resultSink;
+    }
+
+    /**
+     * Creates a context for a call that nobody will cancel.
+     *
+     * @return a new, never-cancelled context
+     */
+    public static ToolContext none() {
+        return new ToolContext();
+    }
+
+    /**
+     * Gets the sink for progress reports and partial results.
+     *
+     * @return the result sink, never null
+     */
+    public ResultSink results() {
+        return resultSink;
+    }
+
+    /**
+     * Cancels the call and runs the registered cancel callbacks once.
+     *
+     * @param reason a short description of why the call was cancelled
+     */
+    public void cancel(String reason) {
+        List<Runnable> listeners;
+        synchronized (cancelListeners) {
+            if (cancellationReason != null) {
+                return;
+            }
+            cancellationReason = reason != null ? reason : "cancelled";
+            listeners = new ArrayList<>(cancelListeners);
+            cancelListeners.clear();
+        }
+        listeners.forEach(ToolContext::runQuietly);
+    }
+
+    /**
+     * Checks whether the call has been cancelled.
+     *
+     * @return true once the call is cancelled
+     */
+    public boolean isCancelled() {
+        return cancellationReason != null;
+    }
+
+    /**
+     * Gets the reason the call was cancelled.
+     *
+     * @return the reason, or null if the call is not cancelled
+     */
+    public String getCancellationReason() {
+        return cancellationReason;
+    }
+
+    /**
+     * Stops the current unit of work if the call has been cancelled.
+     *
+     * @throws CancellationException if the call has been cancelled
+     */
+    public void throwIfCancelled() {
+        String reason = cancellationReason;
+        if (reason != null) {
+            throw new CancellationException(reason);
+        }
+    }
+
+    /**
+     * Registers a callback that runs when the call is cancelled, or right away
+     * if it already is. Callbacks run on the thread that cancels the call.
+     *
+     * @param callback the callback
+     */
+    public void onCancel(Runnable callback) {
+        synchronized (cancelListeners) {
+            if (cancellationReason == null) {
+                cancelListeners.add(callback);
+                return;
+            }
+        }
+        runQuietly(callback);
+    }
+
+    private static void runQuietly(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            // A failing callback must not prevent the others from running
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.mcp.tools;
+
+/**
+ * Dispatch lane a tool call is admitted to.
+ *
+ * <p>Each lane has its own concurrency limit and wait queue, so quick
+ * lookups never wait behind long-running analysis.
+ *
+ * @author Maven SDLC Team
+ * @version 2.0.0
+ */
+public enum ToolLane {
+
+    /**
+     * Quick calls such as JIRA and Confluence lookups; also used for every
+     * request that is not a tool call.
+     */
+    LIGHT,
+
+    /**
+     * CPU- or process-heavy calls such as code analysis and Maven builds.
+     */
+    HEAVY
+}
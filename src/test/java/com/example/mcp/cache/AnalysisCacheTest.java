@@ -0,0 +1,122 @@
+package com.example.mcp.cache;
+
+import com.example.mcp.tools.AnalyzeMavenProjectTool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static java.util.function.Predicate.not;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AnalysisCache and ProjectFingerprint.
+ */
+@DisplayName("AnalysisCache Tests")
+class AnalysisCacheTest {
+
+    private static final String POM = """
+            <project>
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>com.example</groupId>
+              <artifactId>demo</artifactId>
+              <version>%s</version>
+            </project>
+            """;
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    @DisplayName("Should serve a repeated analysis from the cache until the project changes")
+    void testServesUnchangedProjectFromCache() throws Exception {
+        // Arrange
+        Files.writeString(projectDir.resolve("pom.xml"), POM.formatted("1.0.0"));
+        Path source = Files.createDirectories(projectDir.resolve("src/main/java")).resolve("App.java");
+        Files.writeString(source, "class App {}");
+        AnalysisCache cache = new AnalysisCache(AnalysisCache.DEFAULT_MAX_BYTES);
+        AnalyzeMavenProjectTool tool = new AnalyzeMavenProjectTool(cache);
+        Map<String, Object> arguments = Map.of("path", projectDir.toString());
+
+        // Act
+        Object first = tool.execute(arguments);
+        Object repeated = tool.execute(arguments);
+        String fingerprint = ProjectFingerprint.of(projectDir);
+        Files.setLastModifiedTime(source, FileTime.fromMillis(Files.getLastModifiedTime(source).toMillis() + 5_000));
+        fingerprint = awaitFingerprint(not(fingerprint::equals));
+        Object afterSourceEdit = tool.execute(arguments);
+        Files.writeString(projectDir.resolve("pom.xml"), POM.formatted("1.0.1"));
+        awaitFingerprint(not(fingerprint::equals));
+        Object afterPomEdit = tool.execute(arguments);
+
+        // Assert
+        assertSame(first, repeated);
+        assertNotSame(repeated, afterSourceEdit);
+        assertNotSame(afterSourceEdit, afterPomEdit);
+        assertTrue(afterPomEdit.toString().contains("1.0.1"));
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(2L, cache.stats().get("staleHits"));
+        assertEquals(1, cache.entriesFor(projectDir).size());
+    }
+
+    @Test
+    @DisplayName("Should ignore build output when fingerprinting")
+    void testFingerprintIgnoresBuildOutput() throws Exception {
+        // Arrange
+        Files.writeString(projectDir.resolve("pom.xml"), POM.formatted("1.0.0"));
+        String before = ProjectFingerprint.of(projectDir);
+
+        // Act
+        Files.writeString(Files.createDirectories(projectDir.resolve("target/classes")).resolve("App.class"), "x");
+        Files.writeString(Files.createDirectories(projectDir.resolve(".git")).resolve("HEAD"), "ref");
+        Files.writeString(projectDir.resolve("README.md"), "docs");
+        awaitFingerprint(not(before::equals));
+        Files.delete(projectDir.resolve("README.md"));
+
+        // Assert
+        assertEquals(before, awaitFingerprint(before::equals));
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used results over the budget and skip failures")
+    void testEvictsByWeight() throws Exception {
+        // Arrange
+        Files.writeString(projectDir.resolve("pom.xml"), POM.formatted("1.0.0"));
+        AnalysisCache cache = new AnalysisCache(2_000);
+        AnalysisCache.Key a = cache.keyFor("tool", projectDir, Map.of("name", "a"));
+        AnalysisCache.Key b = cache.keyFor("tool", projectDir, Map.of("name", "b"));
+        AnalysisCache.Key c = cache.keyFor("tool", projectDir, Map.of("name", "c"));
+        Map<String, Object> result = Map.of("success", true, "data", "x".repeat(600));
+
+        // Act
+        cache.put(a, result);
+        cache.put(b, result);
+        cache.get(a);
+        cache.put(c, result);
+        cache.put(cache.keyFor("failing", projectDir, Map.of()), Map.of("success", false));
+
+        // Assert
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+        assertEquals(1L, cache.stats().get("evictions"));
+        assertEquals(2, cache.stats().get("entries"));
+        assertTrue((long) cache.stats().get("weightBytes") <= 2_000);
+    }
+
+    private String awaitFingerprint(Predicate<String> condition) throws Exception {
+        // File system events reach the project index asynchronously
+        long deadline = System.currentTimeMillis() + 10_000;
+        String current;
+        while (!condition.test(current = ProjectFingerprint.of(projectDir))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Fingerprint did not catch up");
+            Thread.sleep(20);
+        }
+        return current;
+    }
+}
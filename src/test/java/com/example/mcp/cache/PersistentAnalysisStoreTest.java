@@ -0,0 +1,101 @@
+package com.example.mcp.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PersistentAnalysisStore.
+ */
+@DisplayName("PersistentAnalysisStore Tests")
+class PersistentAnalysisStoreTest {
+
+    @TempDir
+    Path storeDir;
+
+    @Test
+    @DisplayName("Should serve results computed before a restart")
+    void testSurvivesRestart() throws Exception {
+        // Arrange
+        AnalysisCache.Key key = key("security-scan", "fp-1");
+        Map<String, Object> result = Map.of("success", true, "results", Map.of("securityScore", 97));
+        try (PersistentAnalysisStore store = PersistentAnalysisStore.open(storeDir, 1024 * 1024)) {
+            AnalysisCache cache = new AnalysisCache(AnalysisCache.DEFAULT_MAX_BYTES);
+            cache.setStore(store);
+            cache.put(key, result);
+        }
+
+        // Act
+        try (PersistentAnalysisStore store = PersistentAnalysisStore.open(storeDir, 1024 * 1024)) {
+            AnalysisCache restarted = new AnalysisCache(AnalysisCache.DEFAULT_MAX_BYTES);
+            restarted.setStore(store);
+            Object served = restarted.get(key);
+            Object otherFingerprint = restarted.get(key("security-scan", "fp-2"));
+
+            // Assert
+            assertEquals(result, served);
+            assertNull(otherFingerprint);
+            assertEquals(1L, restarted.stats().get("diskHits"));
+            assertEquals(1, restarted.entriesFor(storeDir.resolve("project")).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Should compact to the most recently used records under the size cap")
+    void testCompactsUnderCap() throws Exception {
+        // Arrange
+        byte[] value = "x".repeat(20_000).getBytes(StandardCharsets.UTF_8);
+        try (PersistentAnalysisStore store = PersistentAnalysisStore.open(storeDir, 100_000)) {
+            // Act
+            for (int i = 0; i < 4; i++) {
+                store.put(key("tool", "fp-" + i), value);
+            }
+            store.get(key("tool", "fp-0"));
+            for (int i = 4; i < 8; i++) {
+                store.put(key("tool", "fp-" + i), value);
+            }
+
+            // Assert
+            assertTrue(Files.size(storeDir.resolve(PersistentAnalysisStore.SEGMENT_FILE)) <= 100_000);
+            assertTrue((long) store.stats().get("compactions") >= 1);
+            assertNotNull(store.get(key("tool", "fp-7")));
+            assertNull(store.get(key("tool", "fp-1")));
+        }
+        try (PersistentAnalysisStore reopened = PersistentAnalysisStore.open(storeDir, 100_000)) {
+            assertArrayEquals(value, reopened.get(key("tool", "fp-7")));
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover from a torn write and refuse a second owner")
+    void testRecoversTornTail() throws Exception {
+        // Arrange
+        try (PersistentAnalysisStore store = PersistentAnalysisStore.open(storeDir, 1024 * 1024)) {
+            store.put(key("tool", "fp-1"), "{\"success\":true}".getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(storeDir.resolve(PersistentAnalysisStore.SEGMENT_FILE), new byte[]{0x53, 0x44, 0x52},
+                StandardOpenOption.APPEND);
+
+        // Act
+        try (PersistentAnalysisStore store = PersistentAnalysisStore.open(storeDir, 1024 * 1024)) {
+            // Assert
+            assertNotNull(store.get(key("tool", "fp-1")));
+            assertEquals(1, store.stats().get("entries"));
+            assertThrows(IOException.class, () -> PersistentAnalysisStore.open(storeDir, 1024 * 1024));
+        }
+    }
+
+    private AnalysisCache.Key key(String tool, String fingerprint) {
+        String project = storeDir.resolve("project").toAbsolutePath().normalize().toString();
+        return new AnalysisCache.Key(tool, project, "{\"path\":\"" + project + "\"}", fingerprint);
+    }
+}
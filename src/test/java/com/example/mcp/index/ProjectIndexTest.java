@@ -0,0 +1,188 @@
+package com.example.mcp.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProjectIndex.
+ */
+@DisplayName("ProjectIndex Tests")
+class ProjectIndexTest {
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    @DisplayName("Should classify source roots and prune build output")
+    void testClassifiesAndPrunes() throws Exception {
+        // Arrange
+        Path app = write("core/src/main/java/com/example/App.java");
+        Path appTest = write("core/src/test/java/com/example/AppTest.java");
+        Path pom = write("core/pom.xml");
+        write("core/target/classes/com/example/Generated.java");
+        write(".git/objects/Stale.java");
+
+        // Act
+        try (ProjectIndex index = new ProjectIndex(projectDir)) {
+            List<ProjectIndex.IndexedFile> files = index.files();
+
+            // Assert
+            assertEquals(List.of(pom, app, appTest), files.stream().map(ProjectIndex.IndexedFile::path).toList());
+            assertEquals(ProjectIndex.SourceKind.OTHER, files.get(0).kind());
+            assertEquals(ProjectIndex.SourceKind.MAIN, files.get(1).kind());
+            assertEquals(projectDir.resolve("core/src/main/java"), files.get(1).sourceRoot());
+            assertEquals(ProjectIndex.SourceKind.TEST, files.get(2).kind());
+            assertEquals(List.of(app), index.javaFiles(false));
+            assertEquals(List.of(pom), index.filesNamed("pom.xml"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep packages and plain directories named like build output")
+    void testKeepsBuildPackages() throws Exception {
+        // Arrange
+        Path pom = write("pom.xml");
+        Path buildPackage = write("src/main/java/com/acme/build/A.java");
+        Path scripts = write("tools/build/release.sh");
+        write("build/classes/B.class");
+        write("target/classes/C.class");
+
+        // Act
+        try (ProjectIndex index = new ProjectIndex(projectDir)) {
+            List<Path> paths = index.files().stream().map(ProjectIndex.IndexedFile::path).toList();
+
+            // Assert
+            assertEquals(List.of(pom, buildPackage, scripts), paths);
+            assertEquals(List.of(buildPackage), index.javaFiles(false));
+        }
+    }
+
+    @Test
+    @DisplayName("Should honor .gitignore files and compiled exclude patterns")
+    void testHonorsIgnoreRules() throws Exception {
+        // Arrange
+        Files.writeString(projectDir.resolve(".gitignore"), "*.log\ngenerated/\n/docs/*.md\n!docs/keep.md\n");
+        Path app = write("src/main/java/App.java");
+        Path nestedDocs = write("src/docs/guide.md");
+        Path kept = write("docs/keep.md");
+        Path legacy = write("legacy/src/main/java/Old.java");
+        write("build.log");
+        write("src/main/java/generated/Stub.java");
+        write("docs/notes.md");
+        Files.writeString(projectDir.resolve("legacy/.gitignore"), "Old.java\n");
+
+        // Act
+        try (ProjectIndex index = new ProjectIndex(projectDir)) {
+            List<Path> files = index.files().stream().map(ProjectIndex.IndexedFile::path).toList();
+            IgnoreRules excludes = IgnoreRules.of(List.of("legacy/", "*Test.java"));
+
+            // Assert
+            assertEquals(List.of(projectDir.resolve(".gitignore"), kept, projectDir.resolve("legacy/.gitignore"),
+                    nestedDocs, app), files);
+            assertFalse(files.contains(legacy));
+            assertTrue(excludes.isExcluded(projectDir.relativize(legacy)));
+            assertTrue(excludes.isExcluded(Path.of("src/test/java/AppTest.java")));
+            assertFalse(excludes.isExcluded(projectDir.relativize(app)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should follow file system changes without walking the tree again")
+    void testAppliesWatchEvents() throws Exception {
+        // Arrange
+        Path app = write("src/main/java/App.java");
+        try (ProjectIndex index = new ProjectIndex(projectDir)) {
+            index.files();
+
+            // Act
+            Path added = write("src/main/java/feature/Added.java");
+            Files.delete(app);
+            Files.writeString(added, "class Added { int x; }");
+
+            // Assert
+            awaitTrue(() -> index.javaFiles(true).equals(List.of(added))
+                    && index.files().get(0).size() == Files.size(added));
+            if ((boolean) index.stats().get("watching")) {
+                assertEquals(1L, index.stats().get("scans"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep watching an evicted shared index until its last holder closes it")
+    void testKeepsEvictedIndexOpenWhileHeld() throws Exception {
+        // Arrange
+        write("src/main/java/App.java");
+        ProjectIndex held = ProjectIndex.forProject(projectDir);
+        held.files();
+        boolean watching = (boolean) held.stats().get("watching");
+
+        // Act: index enough other projects to evict it
+        for (int i = 0; i < 17; i++) {
+            Path other = Files.createDirectories(projectDir.resolve("target/other-" + i));
+            try (ProjectIndex index = ProjectIndex.forProject(other)) {
+                index.files();
+            }
+        }
+        Path added = write("src/main/java/Added.java");
+        awaitTrue(() -> held.javaFiles(true).contains(added));
+        Map<String, Object> evictedStats = held.stats();
+        held.close();
+
+        // Assert
+        try (ProjectIndex replacement = ProjectIndex.forProject(projectDir)) {
+            assertNotSame(held, replacement);
+        }
+        assertEquals(watching, evictedStats.get("watching"));
+        if (watching) {
+            assertEquals(1L, evictedStats.get("scans"));
+        }
+        assertEquals(false, held.stats().get("watching"));
+    }
+
+    @Test
+    @DisplayName("Should walk the tree on every query when watch events are turned off")
+    void testRescansWithoutWatchEvents() throws Exception {
+        // Arrange
+        Path app = write("src/main/java/App.java");
+        boolean previous = ProjectIndex.isWatchEvents();
+        ProjectIndex.setWatchEvents(false);
+        try (ProjectIndex index = new ProjectIndex(projectDir)) {
+            // Act
+            index.files();
+            Path added = write("src/main/java/Added.java");
+            List<Path> files = index.javaFiles(true);
+
+            // Assert
+            assertEquals(List.of(added, app), files);
+            assertEquals(false, index.stats().get("watching"));
+            assertEquals(2L, index.stats().get("scans"));
+        } finally {
+            ProjectIndex.setWatchEvents(previous);
+        }
+    }
+
+    private Path write(String relative) throws Exception {
+        Path file = projectDir.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "// " + relative);
+        return file;
+    }
+
+    private static void awaitTrue(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.call()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Index did not catch up");
+            Thread.sleep(20);
+        }
+    }
+}
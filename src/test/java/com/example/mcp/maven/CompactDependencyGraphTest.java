@@ -0,0 +1,67 @@
+package com.example.mcp.maven;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CompactDependencyGraph.
+ */
+@DisplayName("CompactDependencyGraph Tests")
+class CompactDependencyGraphTest {
+
+    private static final String ROOT = "com.example:app:1";
+
+    @Test
+    @DisplayName("Should round-trip nodes and answer why, dependents, conflicts and subtree queries")
+    void testQueries() {
+        // Arrange
+        // app -> a:1.0 -> c:1.0 -> e:1.0
+        //     -> b:1.0 -> c:2.0 (conflict, 1.0 selected)
+        //              -> e:1.0 (duplicate)
+        DependencyGraph source = new DependencyGraph(ROOT, List.of(
+                node("a", "1.0", 1, ROOT, null, null),
+                node("c", "1.0", 2, "com.example:a:1.0", null, null),
+                node("e", "1.0", 3, "com.example:c:1.0", null, null),
+                node("b", "1.0", 1, ROOT, null, null),
+                node("c", "2.0", 2, "com.example:b:1.0", DependencyGraph.Omission.CONFLICT, "1.0"),
+                node("e", "1.0", 2, "com.example:b:1.0", DependencyGraph.Omission.DUPLICATE, "1.0")
+        ), List.of(), 5);
+
+        // Act
+        CompactDependencyGraph graph = CompactDependencyGraph.of(source);
+
+        // Assert
+        assertEquals(source.nodes(), graph.nodes());
+        assertEquals(source.selected(), graph.selected());
+        assertEquals(4, graph.artifactCount());
+
+        List<CompactDependencyGraph.DependencyPath> why = graph.pathsToRoot("com.example:e");
+        assertEquals(List.of(ROOT, "com.example:a:1.0", "com.example:c:1.0", "com.example:e:1.0"), why.get(0).path());
+        assertEquals(List.of(ROOT, "com.example:b:1.0", "com.example:e:1.0"), why.get(1).path());
+        assertEquals(List.of("com.example:c:1.0", "com.example:b:1.0"), graph.dependents("com.example:e"));
+        assertEquals(List.of(ROOT), graph.dependents("com.example:a"));
+        assertTrue(graph.pathsToRoot("com.example:missing").isEmpty());
+
+        List<CompactDependencyGraph.Conflict> conflicts = graph.conflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals("com.example:c", conflicts.get(0).artifact());
+        assertEquals("1.0", conflicts.get(0).selectedVersion());
+        assertEquals(2, conflicts.get(0).selectedDepth());
+        assertEquals(List.of("1.0", "2.0"), conflicts.get(0).requested().stream()
+                .map(path -> path.node().version()).toList());
+
+        assertEquals(new CompactDependencyGraph.Subtree("com.example:a:1.0", 2, 2, 2), graph.subtree("com.example:a"));
+        assertEquals(new CompactDependencyGraph.Subtree("com.example:b:1.0", 0, 0, 0), graph.subtree("com.example:b"));
+        assertNull(graph.subtree("com.example:missing"));
+    }
+
+    private static DependencyGraph.Node node(String artifactId, String version, int depth, String parent,
+                                             DependencyGraph.Omission omitted, String selectedVersion) {
+        return new DependencyGraph.Node("com.example", artifactId, version, "jar", "", "compile", false,
+                depth, parent, omitted, selectedVersion, null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.mcp.maven;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DependencyGraphResolver.
+ */
+@DisplayName("DependencyGraphResolver Tests")
+class DependencyGraphResolverTest {
+
+    @TempDir
+    Path localRepository;
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    @DisplayName("Should resolve the transitive graph offline and keep conflict losers")
+    void testResolvesGraphWithConflicts() throws Exception {
+        // Arrange
+        install("com.example", "parent", "1", "pom", """
+                <properties><lib.version>1.0</lib.version></properties>
+                <dependencyManagement><dependencies>
+                  <dependency><groupId>com.example</groupId><artifactId>d</artifactId><version>3.0</version></dependency>
+                </dependencies></dependencyManagement>
+                """);
+        install("com.example", "a", "1.0", "jar", dependency("c", "1.0", null));
+        install("com.example", "b", "1.0", "jar", dependency("c", "2.0", null) + dependency("d", "1.0", null));
+        install("com.example", "c", "1.0", "jar", "");
+        install("com.example", "c", "2.0", "jar", "");
+        install("com.example", "d", "3.0", "jar", dependency("missing", "1.0", null));
+        Files.writeString(projectDir.resolve("pom.xml"), """
+                <project>
+                  <modelVersion>4.0.0</modelVersion>
+                  <parent><groupId>com.example</groupId><artifactId>parent</artifactId><version>1</version></parent>
+                  <artifactId>app</artifactId>
+                  <dependencies>%s%s</dependencies>
+                </project>
+                """.formatted(dependency("a", "${lib.version}", null), dependency("b", "1.0", "test")));
+        DependencyGraphResolver resolver = new DependencyGraphResolver(localRepository);
+
+        // Act
+        DependencyGraph graph = resolver.resolve(projectDir.resolve("pom.xml"));
+        DependencyGraph repeated = resolver.resolve(projectDir.resolve("pom.xml"));
+
+        // Assert
+        assertEquals("com.example:app:1", graph.root());
+        assertEquals(List.of("com.example:a:1.0", "com.example:c:1.0", "com.example:b:1.0", "com.example:c:2.0",
+                "com.example:d:3.0", "com.example:missing:1.0"), graph.nodes().stream().map(DependencyGraph.Node::id).toList());
+        DependencyGraph.Node loser = graph.nodes().get(3);
+        assertEquals(DependencyGraph.Omission.CONFLICT, loser.omitted());
+        assertEquals("1.0", loser.selectedVersion());
+        assertEquals(2, loser.depth());
+        assertEquals("com.example:b:1.0", loser.parent());
+        DependencyGraph.Node managed = graph.nodes().get(4);
+        assertEquals("test", managed.scope());
+        assertEquals("1.0", managed.managedFrom());
+        assertEquals(1, graph.unresolved().size());
+        assertTrue(graph.unresolved().get(0).contains("missing"));
+        assertEquals(graph.nodes(), repeated.nodes());
+        assertEquals(Map.of("localRepository", localRepository.toString(), "resolutions", 2L,
+                "descriptorCacheResets", 2L, "cachedGraphs", 0, "graphHits", 0L, "graphMisses", 0L,
+                "effectiveModels", Map.of("cachedModels", 1, "hits", 1L, "misses", 1L)),
+                resolver.stats());
+    }
+
+    @Test
+    @DisplayName("Should resolve a cached graph again when one of its artifacts is reinstalled")
+    void testRevalidatesCachedGraphAgainstLocalRepository() throws Exception {
+        // Arrange
+        install("com.example", "a", "1.0", "jar", "");
+        install("com.example", "b", "1.0", "jar", "");
+        Files.writeString(projectDir.resolve("pom.xml"), """
+                <project>
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>com.example</groupId>
+                  <artifactId>app</artifactId>
+                  <version>1</version>
+                  <dependencies>%s</dependencies>
+                </project>
+                """.formatted(dependency("a", "1.0", null)));
+        DependencyGraphResolver resolver = new DependencyGraphResolver(localRepository);
+        Path pom = projectDir.resolve("pom.xml");
+
+        // Act
+        CompactDependencyGraph first = resolver.graph(projectDir, pom);
+        CompactDependencyGraph cached = resolver.graph(projectDir, pom);
+        // As `mvn install` of a sibling module does, with a new dependency
+        Path installed = localRepository.resolve("com/example/a/1.0/a-1.0.pom");
+        install("com.example", "a", "1.0", "jar", dependency("b", "1.0", null));
+        Files.setLastModifiedTime(installed, FileTime.fromMillis(Files.getLastModifiedTime(installed).toMillis() + 10_000));
+        CompactDependencyGraph reinstalled = resolver.graph(projectDir, pom);
+
+        // Assert
+        assertSame(first, cached);
+        assertEquals(List.of("com.example:a:1.0"), first.nodes().stream().map(DependencyGraph.Node::id).toList());
+        assertEquals(List.of("com.example:a:1.0", "com.example:b:1.0"),
+                reinstalled.nodes().stream().map(DependencyGraph.Node::id).toList());
+        assertEquals(1L, resolver.stats().get("graphHits"));
+        assertEquals(2L, resolver.stats().get("graphMisses"));
+    }
+
+    private void install(String groupId, String artifactId, String version, String packaging, String body)
+            throws Exception {
+        Path dir = localRepository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+        Files.createDirectories(dir);
+        String content = body.contains("<dependency>") && !body.contains("<dependencyManagement>")
+                ? "<dependencies>" + body + "</dependencies>" : body;
+        Files.writeString(dir.resolve(artifactId + "-" + version + ".pom"), """
+                <project>
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>%s</groupId>
+                  <artifactId>%s</artifactId>
+                  <version>%s</version>
+                  <packaging>%s</packaging>
+                  %s
+                </project>
+                """.formatted(groupId, artifactId, version, packaging, content));
+    }
+
+    private static String dependency(String artifactId, String version, String scope) {
+        return "<dependency><groupId>com.example</groupId><artifactId>" + artifactId + "</artifactId>"
+                + "<version>" + version + "</version>"
+                + (scope != null ? "<scope>" + scope + "</scope>" : "") + "</dependency>";
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.mcp.maven;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for EffectiveModelCache.
+ */
+@DisplayName("EffectiveModelCache Tests")
+class EffectiveModelCacheTest {
+
+    @TempDir
+    Path localRepository;
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    @DisplayName("Should resolve inherited and managed versions for every module and rebuild when a parent changes")
+    void testReactorModelsAndInvalidation() throws Exception {
+        // Arrange
+        Path rootPom = projectDir.resolve("pom.xml");
+        writeParent(rootPom, "2.0");
+        Path modulePom = projectDir.resolve("core").resolve("pom.xml");
+        Files.createDirectories(modulePom.getParent());
+        Files.writeString(modulePom, """
+                <project>
+                  <modelVersion>4.0.0</modelVersion>
+                  <parent><groupId>com.example</groupId><artifactId>parent</artifactId><version>1</version></parent>
+                  <artifactId>core</artifactId>
+                  <dependencies>
+                    <dependency><groupId>com.example</groupId><artifactId>lib</artifactId></dependency>
+                  </dependencies>
+                </project>
+                """);
+        EffectiveModelCache models = new DependencyGraphResolver(localRepository).models();
+
+        // Act
+        Map<Path, Model> reactor = models.reactor(rootPom);
+        Model repeated = models.get(modulePom);
+        writeParent(rootPom, "3.0");
+        Files.setLastModifiedTime(rootPom, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        Model rebuilt = models.get(modulePom);
+
+        // Assert
+        assertEquals(List.of(projectDir.toAbsolutePath().normalize(),
+                modulePom.getParent().toAbsolutePath().normalize()), List.copyOf(reactor.keySet()));
+        Model core = reactor.get(modulePom.getParent().toAbsolutePath().normalize());
+        assertEquals("com.example", core.getGroupId());
+        assertEquals("1", core.getVersion());
+        assertEquals("2.0", core.getDependencies().get(0).getVersion());
+        assertSame(core, repeated);
+        assertEquals("3.0", rebuilt.getDependencies().get(0).getVersion());
+        assertEquals(Map.of("cachedModels", 2, "hits", 1L, "misses", 3L), models.stats());
+    }
+
+    private static void writeParent(Path pom, String libVersion) throws Exception {
+        Files.writeString(pom, """
+                <project>
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>com.example</groupId>
+                  <artifactId>parent</artifactId>
+                  <version>1</version>
+                  <packaging>pom</packaging>
+                  <modules><module>core</module></modules>
+                  <properties><lib.version>%s</lib.version></properties>
+                  <dependencyManagement><dependencies>
+                    <dependency><groupId>com.example</groupId><artifactId>lib</artifactId><version>${lib.version}</version></dependency>
+                  </dependencies></dependencyManagement>
+                </project>
+                """.formatted(libVersion));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.mcp.maven;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ReactorAnalyzer.
+ */
+@DisplayName("ReactorAnalyzer Tests")
+class ReactorAnalyzerTest {
+
+    @TempDir
+    Path localRepository;
+
+    @TempDir
+    Path projectDir;
+
+    @Test
+    @DisplayName("Should discover nested modules, order the reactor and memoize the graph")
+    void testNestedReactor() throws Exception {
+        // Arrange
+        // root -> services (aggregator) -> api, impl; root -> app
+        // impl depends on api, app depends on impl
+        module("", "root", "pom", List.of("services", "app"), List.of());
+        module("services", "services", "pom", List.of("api", "impl"), List.of());
+        module("services/api", "api", "jar", List.of(), List.of());
+        module("services/impl", "impl", "jar", List.of(), List.of("api"));
+        module("app", "app", "jar", List.of(), List.of("impl"));
+        source("services/api/src/main/java/Api.java");
+        source("services/impl/src/main/java/Impl.java");
+        source("services/impl/src/test/java/ImplTest.java");
+        ReactorAnalyzer analyzer = new ReactorAnalyzer(new DependencyGraphResolver(localRepository).models());
+
+        // Act
+        ReactorGraph graph = analyzer.analyze(projectDir);
+        ReactorGraph repeated = analyzer.analyze(projectDir);
+
+        // Assert
+        assertEquals(List.of("", "services", "services/api", "services/impl", "app"),
+                graph.modules().stream().map(ReactorGraph.Module::name).toList());
+        assertEquals(List.of("com.example:root", "com.example:services", "com.example:api", "com.example:impl",
+                "com.example:app"), graph.buildOrder());
+        assertEquals(List.of("com.example:root", "com.example:services", "com.example:api", "com.example:impl",
+                "com.example:app"), graph.criticalPath());
+        assertTrue(graph.cyclic().isEmpty());
+        assertEquals(List.of("com.example:services", "com.example:api"), graph.module("services/impl").upstream());
+        assertEquals(List.of("com.example:impl", "com.example:app"), graph.transitiveDownstream("com.example:api"));
+        ReactorGraph.Module impl = graph.module("com.example:impl");
+        assertEquals(3, impl.files());
+        assertEquals(1, impl.mainJavaFiles());
+        assertEquals(1, impl.testJavaFiles());
+        assertEquals(1, graph.module("services").files());
+        assertSame(graph, repeated);
+        assertEquals(Map.of("cachedReactors", 1, "hits", 1L, "misses", 1L), analyzer.stats());
+    }
+
+    private void module(String dir, String artifactId, String packaging, List<String> modules,
+                        List<String> dependencies) throws Exception {
+        Path moduleDir = projectDir.resolve(dir);
+        Files.createDirectories(moduleDir);
+        String parent = dir.isEmpty() ? "" : "<parent><groupId>com.example</groupId><artifactId>"
+                + (dir.startsWith("services/") ? "services" : "root") + "</artifactId><version>1</version>"
+                + "<relativePath>../pom.xml</relativePath></parent>";
+        StringBuilder body = new StringBuilder("<modules>");
+        modules.forEach(module -> body.append("<module>").append(module).append("</module>"));
+        body.append("</modules><dependencies>");
+        dependencies.forEach(dependency -> body.append("<dependency><groupId>com.example</groupId><artifactId>")
+                .append(dependency).append("</artifactId><version>1</version></dependency>"));
+        body.append("</dependencies>");
+        Files.writeString(moduleDir.resolve("pom.xml"), """
+                <project>
+                  <modelVersion>4.0.0</modelVersion>
+                  %s
+                  <groupId>com.example</groupId>
+                  <artifactId>%s</artifactId>
+                  <version>1</version>
+                  <packaging>%s</packaging>
+                  %s
+                </project>
+                """.formatted(parent, artifactId, packaging, body));
+    }
+
+    private void source(String file) throws Exception {
+        Path path = projectDir.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "class " + path.getFileName().toString().replace(".java", "") + " {}");
+    }
+}
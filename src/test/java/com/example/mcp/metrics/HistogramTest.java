@@ -0,0 +1,65 @@
+package com.example.mcp.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Histogram and the metrics built on it.
+ */
+@DisplayName("Histogram Tests")
+class HistogramTest {
+
+    @Test
+    @DisplayName("Should report percentiles within the bucket precision")
+    void testPercentiles() {
+        // Arrange
+        Histogram histogram = new Histogram();
+
+        // Act
+        IntStream.rangeClosed(1, 10_000).forEach(histogram::record);
+
+        // Assert
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000, histogram.percentile(50), 5_000 * 0.04);
+        assertEquals(9_900, histogram.percentile(99), 9_900 * 0.04);
+        assertEquals(10_000, histogram.percentile(100));
+        assertEquals(0, new Histogram().percentile(50));
+    }
+
+    @Test
+    @DisplayName("Should map every value into a bucket that contains it")
+    void testBucketsContainTheirValues() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789L, 1L << 40}) {
+            int bucket = Histogram.bucketOf(value);
+            assertTrue(Histogram.highestValueIn(bucket) >= value, "Bucket too low for " + value);
+            assertTrue(bucket == 0 || Histogram.highestValueIn(bucket - 1) < value, "Bucket too high for " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep in-flight gauges across a reset")
+    void testResetKeepsInFlight() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        OperationMetrics tool = registry.tool("security-scan");
+        long first = tool.start();
+        tool.finish(first, true);
+        tool.start();
+
+        // Act
+        registry.reset();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Object> scan = (Map<String, Object>) ((Map<String, Object>) registry.snapshot().get("tools"))
+                .get("security-scan");
+        assertEquals(0L, scan.get("count"));
+        assertEquals(0L, scan.get("errors"));
+        assertEquals(1L, scan.get("inFlight"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.mcp.parsing;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CompilationUnitCache.
+ */
+@DisplayName("CompilationUnitCache Tests")
+class CompilationUnitCacheTest {
+
+    @TempDir
+    Path sourceDir;
+
+    @Test
+    @DisplayName("Should parse a file once until its content changes")
+    void testReusesUnchangedFiles() throws Exception {
+        // Arrange
+        Path file = sourceDir.resolve("App.java");
+        Files.writeString(file, "class App { void run() {} }");
+        CompilationUnitCache cache = new CompilationUnitCache(CompilationUnitCache.DEFAULT_MAX_BYTES);
+
+        // Act
+        CompilationUnit first = cache.parse(file).orElseThrow();
+        CompilationUnit repeated = cache.parse(file).orElseThrow();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5_000));
+        CompilationUnit touched = cache.parse(file).orElseThrow();
+        Files.writeString(file, "class App { void run() {} void stop() {} }");
+        CompilationUnit edited = cache.parse(file).orElseThrow();
+
+        // Assert
+        assertSame(first, repeated);
+        assertSame(first, touched);
+        assertNotSame(first, edited);
+        assertEquals(2, edited.findAll(MethodDeclaration.class).size());
+        Map<String, Object> stats = cache.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("revalidations"));
+        assertEquals(2L, stats.get("misses"));
+    }
+
+    @Test
+    @DisplayName("Should demote ASTs over the budget to soft references and cache parse failures")
+    void testDemotesOverBudget() throws Exception {
+        // Arrange
+        Path first = sourceDir.resolve("First.java");
+        Path second = sourceDir.resolve("Second.java");
+        Path broken = sourceDir.resolve("Broken.java");
+        Files.writeString(first, "class First { int a; }");
+        Files.writeString(second, "class Second { int b; }");
+        Files.writeString(broken, "class Broken {");
+        CompilationUnitCache cache = new CompilationUnitCache(1);
+
+        // Act
+        CompilationUnit parsed = cache.parse(first).orElseThrow();
+        cache.parse(second);
+        CompilationUnit promoted = cache.parse(first).orElseThrow();
+        boolean brokenParsed = cache.parse(broken).isPresent() || cache.parse(broken).isPresent();
+
+        // Assert
+        assertSame(parsed, promoted);
+        assertFalse(brokenParsed);
+        Map<String, Object> stats = cache.stats();
+        assertEquals(0, stats.get("entries"));
+        assertTrue((long) stats.get("demotions") >= 2);
+        assertEquals(3L, stats.get("misses"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.mcp.parsing;
+
+import com.github.javaparser.ast.body.TypeDeclaration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ParsingService.
+ */
+@DisplayName("ParsingService Tests")
+class ParsingServiceTest {
+
+    @TempDir
+    Path sourceDir;
+
+    @Test
+    @DisplayName("Should parse files in parallel and return results in request order")
+    void testParsesInRequestOrder() throws Exception {
+        // Arrange
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Path file = sourceDir.resolve("Type" + i + ".java");
+            Files.writeString(file, "record Type" + i + "(int value) {}");
+            files.add(file);
+        }
+        Path broken = sourceDir.resolve("Broken.java");
+        Files.writeString(broken, "class Broken {");
+        files.add(broken);
+        files.add(sourceDir.resolve("Missing.java"));
+        ParsingService service = new ParsingService(new CompilationUnitCache(CompilationUnitCache.DEFAULT_MAX_BYTES), 4);
+
+        // Act
+        List<ParsingService.ParsedFile> results = service.parseAll(files);
+        List<String> streamed = new ArrayList<>();
+        service.parseEach(files.subList(0, 40),
+                parsed -> streamed.add(parsed.unit().getType(0).getNameAsString()));
+
+        // Assert
+        assertEquals(files, results.stream().map(ParsingService.ParsedFile::path).toList());
+        for (int i = 0; i < 40; i++) {
+            TypeDeclaration<?> type = results.get(i).compilationUnit().orElseThrow().getType(0);
+            assertEquals("Type" + i, type.getNameAsString());
+            assertEquals("Type" + i, streamed.get(i));
+        }
+        assertNull(results.get(40).unit());
+        assertNull(results.get(40).error());
+        assertInstanceOf(NoSuchFileException.class, results.get(41).error());
+    }
+
+    @Test
+    @DisplayName("Should reuse idle parsers for single-file parses on fresh threads")
+    void testReusesParsersAcrossThreads() throws Exception {
+        // Arrange
+        ParsingService service = new ParsingService(new CompilationUnitCache(CompilationUnitCache.DEFAULT_MAX_BYTES), 1);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            files.add(Files.writeString(sourceDir.resolve("Call" + i + ".java"), "class Call" + i + " {}"));
+        }
+        service.parse(files.get(0));
+        long created = ParsingService.createdParsers();
+
+        // Act: one fresh thread per call, as tool calls run
+        for (Path file : files.subList(1, files.size())) {
+            Thread thread = new Thread(() -> {
+                try {
+                    service.parse(file);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(created, ParsingService.createdParsers());
+    }
+}
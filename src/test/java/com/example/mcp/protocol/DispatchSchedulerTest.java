@@ -0,0 +1,43 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.tools.ToolLane;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DispatchScheduler.
+ */
+@DisplayName("DispatchScheduler Tests")
+class DispatchSchedulerTest {
+
+    @Test
+    @DisplayName("Should give back a lane slot when the executor refuses the task")
+    void testRollsBackReservationOnRejection() throws Exception {
+        // Arrange
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        DispatchScheduler scheduler = new DispatchScheduler(Map.of(ToolLane.LIGHT, 1, ToolLane.HEAVY, 1), 4,
+                threads -> stopped);
+
+        // Act
+        boolean first = scheduler.submit(ToolLane.LIGHT, "tool", 1, () -> { });
+        boolean second = scheduler.submit(ToolLane.LIGHT, "tool", 1, () -> { });
+        scheduler.shutdown();
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> light = (Map<String, Object>) scheduler.stats().get("light");
+        assertEquals(0, light.get("running"));
+        assertEquals(0, light.get("queued"));
+        assertEquals(0L, light.get("admitted"));
+        assertEquals(2L, light.get("rejected"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.mcp.protocol;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streamable HTTP transport.
+ */
+@DisplayName("HttpServerTransport Tests")
+class HttpServerTransportTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private McpServer server;
+    private HttpServerTransport transport;
+    private URI endpoint;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new McpServer("test-server", "1.0.0", Map.of());
+        server.registerTool(new McpServerTest.CancellableTool("scan", context -> {
+            context.results().progress(1, 2, "file 1");
+            context.results().progress(2, 2, "file 2");
+            return Map.of("done", true);
+        }));
+        transport = new HttpServerTransport(server, new InetSocketAddress("127.0.0.1", 0));
+        transport.start();
+        endpoint = URI.create("http://127.0.0.1:" + transport.getPort() + HttpServerTransport.DEFAULT_PATH);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+    }
+
+    @Test
+    @DisplayName("Should keep initialize state and calls separate per session")
+    void testSessions() throws Exception {
+        // Arrange
+        String list = McpServerTest.request(2, "tools/list", "{}");
+
+        // Act
+        HttpResponse<String> withoutSession = post(null, list, "application/json");
+        HttpResponse<String> first = post(null, McpServerTest.request(1, "initialize", "{}"), "application/json");
+        HttpResponse<String> second = post(null, McpServerTest.request(1, "initialize", "{}"), "application/json");
+        String firstId = first.headers().firstValue(HttpServerTransport.SESSION_HEADER).orElseThrow();
+        String secondId = second.headers().firstValue(HttpServerTransport.SESSION_HEADER).orElseThrow();
+        HttpResponse<String> listed = post(secondId, list, "application/json");
+        HttpResponse<String> deleted = client.send(HttpRequest.newBuilder(endpoint)
+                .header(HttpServerTransport.SESSION_HEADER, firstId)
+                .DELETE().build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> afterDelete = post(firstId, list, "application/json");
+
+        // Assert
+        assertEquals(400, withoutSession.statusCode(), "Only initialize may open a session");
+        assertEquals(200, first.statusCode());
+        assertNotEquals(firstId, secondId);
+        assertEquals(200, listed.statusCode());
+        assertEquals("scan", objectMapper.readTree(listed.body()).get("result").get("tools").get(0).get("name").asText());
+        assertEquals(204, deleted.statusCode());
+        assertEquals(404, afterDelete.statusCode());
+    }
+
+    @Test
+    @DisplayName("Should stream progress as server-sent events before the response")
+    void testProgressOverEventStream() throws Exception {
+        // Arrange
+        String session = post(null, McpServerTest.request(1, "initialize", "{}"), "application/json")
+                .headers().firstValue(HttpServerTransport.SESSION_HEADER).orElseThrow();
+        String call = McpServerTest.request(2, "tools/call",
+                "{\"name\":\"scan\",\"arguments\":{},\"_meta\":{\"progressToken\":\"p1\"}}");
+
+        // Act
+        HttpResponse<String> response = post(session, call, "application/json, text/event-stream");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("text/event-stream", response.headers().firstValue("Content-Type").orElseThrow());
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : response.body().split("\n")) {
+            if (line.startsWith("data: ")) {
+                events.add(objectMapper.readTree(line.substring("data: ".length())));
+            }
+        }
+        assertTrue(events.size() >= 2, "Expected progress events and a response");
+        assertEquals("notifications/progress", events.get(0).get("method").asText());
+        assertEquals("p1", events.get(0).get("params").get("progressToken").asText());
+        JsonNode last = events.get(events.size() - 1);
+        assertEquals(2, last.get("id").asInt());
+        assertTrue(last.get("result").get("content").get("done").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Should answer a progress call with only the response when the client takes no event stream")
+    void testProgressDroppedWithoutEventStream() throws Exception {
+        // Arrange
+        String session = post(null, McpServerTest.request(1, "initialize", "{}"), "application/json")
+                .headers().firstValue(HttpServerTransport.SESSION_HEADER).orElseThrow();
+        String call = McpServerTest.request(2, "tools/call",
+                "{\"name\":\"scan\",\"arguments\":{},\"_meta\":{\"progressToken\":\"p1\"}}");
+
+        // Act
+        HttpResponse<String> response = post(session, call, "application/json");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertEquals(2, body.get("id").asInt());
+        assertTrue(body.get("result").get("content").get("done").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Should accept notifications without a response body")
+    void testNotificationsAccepted() throws Exception {
+        // Arrange
+        String session = post(null, McpServerTest.request(1, "initialize", "{}"), "application/json")
+                .headers().firstValue(HttpServerTransport.SESSION_HEADER).orElseThrow();
+
+        // Act
+        HttpResponse<String> response = post(session,
+                "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}", "application/json");
+
+        // Assert
+        assertEquals(202, response.statusCode());
+        assertTrue(response.body().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep sessions alive on any request and drop idle ones without new sessions")
+    void testExpiresIdleSessions() throws Exception {
+        // Arrange
+        transport.close();
+        transport = new HttpServerTransport(server, new InetSocketAddress("127.0.0.1", 0),
+                HttpServerTransport.DEFAULT_PATH, 300);
+        transport.start();
+        endpoint = URI.create("http://127.0.0.1:" + transport.getPort() + HttpServerTransport.DEFAULT_PATH);
+        String session = post(null, McpServerTest.request(1, "initialize", "{}"), "application/json")
+                .headers().firstValue(HttpServerTransport.SESSION_HEADER).orElseThrow();
+        String list = McpServerTest.request(2, "tools/list", "{}");
+
+        // Act: GETs are refused, but still show the client is there
+        for (int i = 0; i < 8; i++) {
+            client.send(HttpRequest.newBuilder(endpoint).header(HttpServerTransport.SESSION_HEADER, session)
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            Thread.sleep(100);
+        }
+        HttpResponse<String> kept = post(session, list, "application/json");
+        Thread.sleep(1_000);
+        HttpResponse<String> expired = post(session, list, "application/json");
+
+        // Assert
+        assertEquals(200, kept.statusCode());
+        assertEquals(404, expired.statusCode());
+    }
+
+    private HttpResponse<String> post(String session, String body, String accept) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", "application/json")
+                .header("Accept", accept)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (session != null) {
+            request.header(HttpServerTransport.SESSION_HEADER, session);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,603 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.tools.Tool;
+import com.example.mcp.tools.ToolContext;
+import com.example.mcp.tools.ToolLane;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for McpServer request dispatch.
+ */
+@DisplayName("McpServer Tests")
+class McpServerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private McpServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = new McpServer("test-server", "1.0.0", Map.of());
+    }
+
+    @Test
+    @DisplayName("Should answer quick requests while a slow tool call is running")
+    void testConcurrentDispatchAnswersOutOfOrder() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        server.registerTool(new StubTool("slow-tool", args -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS), "Slow tool was never released");
+            return Map.of("done", true);
+        }));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"slow-tool\",\"arguments\":{}}"),
+                request(3, "tools/list", "{}")
+        )) {
+            @Override
+            public void writeLine(String line) {
+                super.writeLine(line);
+                // Only release the slow tool once the later tools/list has been answered
+                if (line.contains("\"id\":3")) {
+                    release.countDown();
+                }
+            }
+        };
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(3, responses.size());
+        assertEquals(1, responses.get(0).get("id").asInt());
+        assertEquals(3, responses.get(1).get("id").asInt(), "tools/list should not wait for the slow call");
+        assertEquals(2, responses.get(2).get("id").asInt());
+        assertTrue(responses.get(2).get("result").get("content").get("done").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Should handle requests in order when concurrent dispatch is disabled")
+    void testSequentialDispatch() throws Exception {
+        // Arrange
+        server.setConcurrentDispatch(false);
+        server.registerTool(new StubTool("echo", args -> args));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"echo\",\"arguments\":{\"value\":42}}"),
+                request(3, "tools/list", "{}")
+        ));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(List.of(1, 2, 3), responses.stream().map(r -> r.get("id").asInt()).toList());
+        assertEquals(42, responses.get(1).get("result").get("content").get("value").asInt());
+    }
+
+    @Test
+    @DisplayName("Should reject calls before initialize")
+    void testNotInitialized() throws Exception {
+        // Arrange
+        InMemoryTransport transport = new InMemoryTransport(List.of(request(1, "tools/list", "{}")));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        JsonNode response = transport.responses(objectMapper).get(0);
+        assertEquals(-32002, response.get("error").get("code").asInt());
+    }
+
+    @Test
+    @DisplayName("Should execute batch members in parallel and answer with one array")
+    void testBatchRequest() throws Exception {
+        // Arrange
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        server.registerTool(new StubTool("rendezvous", args -> {
+            bothRunning.countDown();
+            // Only completes if the other member runs at the same time
+            assertTrue(bothRunning.await(10, TimeUnit.SECONDS), "Batch members did not run concurrently");
+            return Map.of("key", args.get("key"));
+        }));
+        String batch = "["
+                + request(2, "tools/call", "{\"name\":\"rendezvous\",\"arguments\":{\"key\":\"A\"}}") + ","
+                + request(3, "tools/call", "{\"name\":\"rendezvous\",\"arguments\":{\"key\":\"B\"}}") + ","
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/progress\",\"params\":{}},"
+                + "42"
+                + "]";
+        InMemoryTransport transport = new InMemoryTransport(List.of(request(1, "initialize", "{}"), batch));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(2, responses.size());
+        JsonNode batchResponse = responses.get(1);
+        assertTrue(batchResponse.isArray());
+        assertEquals(3, batchResponse.size(), "Notification must not be answered");
+        assertEquals(2, batchResponse.get(0).get("id").asInt());
+        assertEquals("A", batchResponse.get(0).get("result").get("content").get("key").asText());
+        assertEquals(3, batchResponse.get(1).get("id").asInt());
+        assertEquals(-32600, batchResponse.get(2).get("error").get("code").asInt());
+    }
+
+    @Test
+    @DisplayName("Should not answer notifications or notification-only batches")
+    void testNotificationsGetNoResponse() throws Exception {
+        // Arrange
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}",
+                "[{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}]",
+                "[]"
+        ));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(1, responses.size(), "Only the empty batch is answered");
+        assertEquals(-32600, responses.get(0).get("error").get("code").asInt());
+    }
+
+    @Test
+    @DisplayName("Should answer with an error when a tool result cannot be serialized")
+    void testUnserializableResult() throws Exception {
+        // Arrange
+        server.setConcurrentDispatch(false);
+        server.registerTool(new StubTool("opaque", args -> new Object()));
+        server.registerTool(new StubTool("echo", args -> args));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StdioTransport transport = new StdioTransport(new ByteArrayInputStream(String.join("\n",
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"opaque\",\"arguments\":{}}"),
+                "[" + request(3, "tools/call", "{\"name\":\"opaque\",\"arguments\":{}}") + ","
+                        + request(4, "tools/call", "{\"name\":\"echo\",\"arguments\":{\"v\":\"é\"}}") + "]"
+        ).getBytes(StandardCharsets.UTF_8)), output);
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length, "Failed results must not leave partial frames behind");
+        JsonNode single = objectMapper.readTree(lines[1]);
+        assertEquals(2, single.get("id").asInt());
+        assertEquals(-32603, single.get("error").get("code").asInt());
+        JsonNode batch = objectMapper.readTree(lines[2]);
+        assertEquals(-32603, batch.get(0).get("error").get("code").asInt());
+        assertEquals("é", batch.get(1).get("result").get("content").get("v").asText());
+    }
+
+    @Test
+    @DisplayName("Should page list results and rebuild them after registration changes")
+    void testListPaginationAndInvalidation() throws Exception {
+        // Arrange
+        server.setConcurrentDispatch(false);
+        server.setListPageSize(2);
+        for (String name : List.of("c-tool", "a-tool", "b-tool")) {
+            server.registerTool(new StubTool(name, args -> args));
+        }
+        List<String> requests = new ArrayList<>(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/list", "{}")
+        ));
+        InMemoryTransport transport = new InMemoryTransport(requests) {
+            @Override
+            public synchronized String readLine() {
+                String line = super.readLine();
+                if (line != null && line.contains("\"id\":4")) {
+                    // Registry changes between pages
+                    server.registerTool(new StubTool("d-tool", args -> args));
+                    server.unregisterTool("a-tool");
+                }
+                return line;
+            }
+
+            @Override
+            public synchronized void writeLine(String line) {
+                super.writeLine(line);
+                if (line.contains("\"id\":2")) {
+                    String cursor = line.replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+                    requests.add(request(3, "tools/list", "{\"cursor\":\"" + cursor + "\"}"));
+                    requests.add(request(4, "tools/list", "{}"));
+                    requests.add(request(5, "tools/list", "{\"cursor\":\"bogus\"}"));
+                }
+            }
+        };
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(List.of("a-tool", "b-tool"), toolNames(responses.get(1)));
+        assertEquals(List.of("c-tool"), toolNames(responses.get(2)));
+        assertFalse(responses.get(2).get("result").has("nextCursor"), "Last page has no cursor");
+        assertEquals(List.of("b-tool", "c-tool"), toolNames(responses.get(3)));
+        assertEquals(-32602, responses.get(4).get("error").get("code").asInt());
+    }
+
+    @Test
+    @DisplayName("Should cancel a running tool call on notifications/cancelled")
+    void testCancelledToolCall() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        server.registerTool(new CancellableTool("long-scan", context -> {
+            started.countDown();
+            while (true) {
+                context.throwIfCancelled();
+                Thread.sleep(5);
+            }
+        }));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"long-scan\",\"arguments\":{}}"),
+                "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/cancelled\","
+                        + "\"params\":{\"requestId\":2,\"reason\":\"user aborted\"}}"
+        )) {
+            @Override
+            public synchronized String readLine() {
+                String line = super.readLine();
+                if (line != null && line.contains("notifications/cancelled")) {
+                    // Only cancel once the tool is actually running
+                    try {
+                        assertTrue(started.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return line;
+            }
+        };
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(2, responses.size(), "The cancellation notification is not answered");
+        JsonNode error = responses.get(1).get("error");
+        assertEquals(-32800, error.get("code").asInt());
+        assertTrue(error.get("message").asText().contains("user aborted"));
+    }
+
+    @Test
+    @DisplayName("Should stop a tool call when its deadline passes")
+    void testToolCallDeadline() throws Exception {
+        // Arrange
+        server.setConcurrentDispatch(false);
+        server.setToolTimeoutMillis(60_000);
+        server.registerTool(new CancellableTool("stuck", context -> {
+            CountDownLatch cancelled = new CountDownLatch(1);
+            context.onCancel(cancelled::countDown);
+            assertTrue(cancelled.await(10, TimeUnit.SECONDS), "Deadline never fired");
+            context.throwIfCancelled();
+            return null;
+        }));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"stuck\",\"arguments\":{},\"timeoutMs\":50}")
+        ));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        JsonNode error = transport.responses(objectMapper).get(1).get("error");
+        assertEquals(-32001, error.get("code").asInt());
+    }
+
+    @Test
+    @DisplayName("Should send progress and partial results before the final response")
+    void testProgressNotifications() throws Exception {
+        // Arrange
+        server.setConcurrentDispatch(false);
+        server.registerTool(new CancellableTool("scan", context -> {
+            context.results().progress(1, 3, "file 1");
+            context.results().progress(2, 3, "file 2");
+            context.results().partialResult(Map.of("findings", List.of("SQL Injection Risk")));
+            context.results().progress(3, 3, "file 3");
+            return Map.of("done", true);
+        }));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"scan\",\"arguments\":{},\"_meta\":{\"progressToken\":\"tok\"}}"),
+                request(3, "tools/call", "{\"name\":\"scan\",\"arguments\":{}}")
+        ));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        List<JsonNode> notifications = responses.subList(1, responses.size() - 2);
+        assertFalse(notifications.isEmpty());
+        notifications.forEach(n -> {
+            assertEquals("notifications/progress", n.get("method").asText());
+            assertEquals("tok", n.get("params").get("progressToken").asText());
+        });
+        assertEquals(1, notifications.get(0).get("params").get("progress").asInt());
+        JsonNode last = notifications.get(notifications.size() - 1).get("params");
+        assertEquals(3, last.get("progress").asInt(), "The final report is never throttled");
+        assertEquals(3, last.get("total").asInt());
+        assertTrue(notifications.stream().anyMatch(n -> n.get("params").has("partialResult")));
+        assertEquals(2, responses.get(responses.size() - 2).get("id").asInt());
+        assertEquals(3, responses.get(responses.size() - 1).get("id").asInt(), "No progress without a token");
+    }
+
+    private static List<String> toolNames(JsonNode response) {
+        List<String> names = new ArrayList<>();
+        response.get("result").get("tools").forEach(tool -> names.add(tool.get("name").asText()));
+        return names;
+    }
+
+    @Test
+    @DisplayName("Should reject heavy calls as busy once the lane's queue is full, while light calls still run")
+    void testBusyRejectionAndLaneIsolation() throws Exception {
+        // Arrange
+        server.setHeavyWorkerThreads(1);
+        server.setDispatchQueueCapacity(1);
+        CountDownLatch release = new CountDownLatch(1);
+        server.registerTool(new HeavyTool("scan", 0, args -> {
+            assertTrue(release.await(10, TimeUnit.SECONDS), "Scan was never released");
+            return Map.of("done", true);
+        }));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"scan\",\"arguments\":{}}"),
+                request(3, "tools/call", "{\"name\":\"scan\",\"arguments\":{}}"),
+                request(4, "tools/call", "{\"name\":\"scan\",\"arguments\":{}}"),
+                request(5, "tools/list", "{}")
+        )) {
+            @Override
+            public void writeLine(String line) {
+                super.writeLine(line);
+                // Only release the scans once the light request has been answered
+                if (line.contains("\"id\":5")) {
+                    release.countDown();
+                }
+            }
+        };
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(5, responses.size());
+        JsonNode busy = responses.get(1);
+        assertEquals(4, busy.get("id").asInt(), "The call beyond the queue is rejected at once");
+        assertEquals(-32003, busy.get("error").get("code").asInt());
+        assertTrue(busy.get("error").get("data").get("retryAfterMs").asLong() >= 100);
+        assertEquals(5, responses.get(2).get("id").asInt(), "tools/list should not wait for the heavy lane");
+        assertEquals(2, responses.get(3).get("id").asInt());
+        assertEquals(3, responses.get(4).get("id").asInt());
+        assertTrue(responses.get(4).get("result").get("content").get("done").asBoolean());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> heavy = (Map<String, Object>) server.getDispatchStats().get("heavy");
+        assertEquals(2L, heavy.get("admitted"));
+        assertEquals(1L, heavy.get("rejected"));
+        assertEquals(2L, heavy.get("completed"));
+    }
+
+    @Test
+    @DisplayName("Should hold back calls over a tool's own limit while other heavy tools start")
+    void testPerToolConcurrencyLimit() throws Exception {
+        // Arrange
+        server.setHeavyWorkerThreads(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        server.registerTool(new HeavyTool("pmd", 1, args -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                assertTrue(release.await(10, TimeUnit.SECONDS), "PMD was never released");
+                return Map.of("tool", "pmd");
+            } finally {
+                running.decrementAndGet();
+            }
+        }));
+        server.registerTool(new HeavyTool("scan", 0, args -> Map.of("tool", "scan")));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                request(2, "tools/call", "{\"name\":\"pmd\",\"arguments\":{}}"),
+                request(3, "tools/call", "{\"name\":\"pmd\",\"arguments\":{}}"),
+                request(4, "tools/call", "{\"name\":\"scan\",\"arguments\":{}}")
+        )) {
+            @Override
+            public void writeLine(String line) {
+                super.writeLine(line);
+                if (line.contains("\"id\":4")) {
+                    release.countDown();
+                }
+            }
+        };
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        List<JsonNode> responses = transport.responses(objectMapper);
+        assertEquals(4, responses.size());
+        assertEquals(4, responses.get(1).get("id").asInt(), "scan should start ahead of the queued pmd call");
+        assertEquals(1, maxRunning.get(), "pmd calls should never overlap");
+        assertEquals(2, responses.get(2).get("id").asInt());
+        assertEquals(3, responses.get(3).get("id").asInt());
+    }
+
+    @Test
+    @DisplayName("Should record latency, errors and payload sizes per method and tool")
+    @SuppressWarnings("unchecked")
+    void testMetrics() throws Exception {
+        // Arrange
+        server.setConcurrentDispatch(false);
+        server.registerTool(new StubTool("echo", args -> args));
+        server.registerTool(new StubTool("broken", args -> {
+            throw new IllegalStateException("boom");
+        }));
+        InMemoryTransport transport = new InMemoryTransport(List.of(
+                request(1, "initialize", "{}"),
+                "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}",
+                request(2, "tools/call", "{\"name\":\"echo\",\"arguments\":{\"text\":\"hi\"}}"),
+                request(3, "tools/call", "{\"name\":\"broken\",\"arguments\":{}}")
+        ));
+
+        // Act
+        server.start(transport);
+
+        // Assert
+        Map<String, Object> snapshot = server.getMetrics().snapshot();
+        Map<String, Object> call = (Map<String, Object>) ((Map<String, Object>) snapshot.get("methods")).get("tools/call");
+        assertEquals(2L, call.get("count"));
+        assertEquals(1L, call.get("errors"));
+        assertEquals(0L, call.get("inFlight"));
+        assertTrue(((Map<String, Object>) call.get("requestBytes")).containsKey("p99"));
+        assertTrue((Double) ((Map<String, Object>) call.get("responseBytes")).get("max") > 0);
+        Map<String, Object> other = (Map<String, Object>) ((Map<String, Object>) snapshot.get("methods")).get("other");
+        assertEquals(1L, other.get("count"));
+        assertEquals(0L, other.get("errors"), "A notification has no response but did not fail");
+        Map<String, Object> tools = (Map<String, Object>) snapshot.get("tools");
+        assertEquals(1L, ((Map<String, Object>) tools.get("broken")).get("errors"));
+        assertEquals(0L, ((Map<String, Object>) tools.get("echo")).get("errors"));
+        assertTrue(snapshot.containsKey("dispatch"));
+    }
+
+    static String request(int id, String method, String params) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"" + method + "\",\"params\":" + params + "}";
+    }
+
+    /**
+     * Transport that replays a fixed list of request lines and records responses.
+     */
+    static class InMemoryTransport implements Transport {
+        private final List<String> requests;
+        private final List<String> written = new ArrayList<>();
+        private int position = 0;
+
+        InMemoryTransport(List<String> requests) {
+            this.requests = requests;
+        }
+
+        @Override
+        public synchronized String readLine() {
+            return position < requests.size() ? requests.get(position++) : null;
+        }
+
+        @Override
+        public synchronized void writeLine(String line) {
+            written.add(line);
+        }
+
+        synchronized List<JsonNode> responses(ObjectMapper mapper) throws Exception {
+            List<JsonNode> nodes = new ArrayList<>();
+            for (String line : written) {
+                nodes.add(mapper.readTree(line));
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Tool whose behaviour depends on the call context.
+     */
+    static class CancellableTool extends StubTool {
+        private final ContextBody body;
+
+        CancellableTool(String name, ContextBody body) {
+            super(name, args -> {
+                throw new UnsupportedOperationException("Needs a context");
+            });
+            this.body = body;
+        }
+
+        @Override
+        public Object execute(Map<String, Object> arguments, ToolContext context) throws Exception {
+            return body.apply(context);
+        }
+
+        interface ContextBody {
+            Object apply(ToolContext context) throws Exception;
+        }
+    }
+
+    /**
+     * Stub tool in the heavy lane with its own concurrency limit.
+     */
+    static class HeavyTool extends StubTool {
+        private final int maxConcurrency;
+
+        HeavyTool(String name, int maxConcurrency, Body body) {
+            super(name, body);
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public ToolLane getLane() {
+            return ToolLane.HEAVY;
+        }
+
+        @Override
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+    }
+
+    /**
+     * Minimal tool whose behaviour is supplied by the test.
+     */
+    static class StubTool implements Tool {
+        private final String name;
+        private final Body body;
+
+        StubTool(String name, Body body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Stub tool " + name;
+        }
+
+        @Override
+        public Map<String, Object> getSchema() {
+            return Map.of("name", name, "description", getDescription(),
+                    "inputSchema", Map.of("type", "object"));
+        }
+
+        @Override
+        public Object execute(Map<String, Object> arguments) throws Exception {
+            return body.apply(arguments);
+        }
+
+        interface Body {
+            Object apply(Map<String, Object> arguments) throws Exception;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.mcp.protocol;
+
+import com.example.mcp.resources.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ResourceRouter.
+ */
+@DisplayName("ResourceRouter Tests")
+class ResourceRouterTest {
+
+    private ResourceRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new ResourceRouter();
+    }
+
+    @Test
+    @DisplayName("Should extract parameters from a matching template")
+    void testRouteExtractsParameters() {
+        // Arrange
+        router.register(new StubResource("analysis", "cache://analysis/{projectPath}"));
+        router.register(new StubResource("file", "file://{project-id}/src/{path}.java"));
+
+        // Act
+        ResourceRouter.Match analysis = router.route("cache://analysis//home/user/app");
+        ResourceRouter.Match file = router.route("file://core/src/com/example/App.java");
+
+        // Assert
+        assertEquals("analysis", analysis.resource().getName());
+        assertEquals(Map.of("projectPath", "/home/user/app"), analysis.params());
+        assertEquals("file", file.resource().getName());
+        assertEquals(Map.of("project-id", "core", "path", "com/example/App"), file.params());
+    }
+
+    @Test
+    @DisplayName("Should make a query expression optional and pick only its variables")
+    void testQueryExpression() {
+        // Arrange
+        router.register(new StubResource("metrics", "metrics://server{?reset}"));
+        router.register(new StubResource("file", "file://{path}{?line}"));
+
+        // Act
+        ResourceRouter.Match plain = router.route("metrics://server");
+        ResourceRouter.Match reset = router.route("metrics://server?reset=true&other=1");
+        ResourceRouter.Match line = router.route("file://src/App.java?line=12");
+
+        // Assert
+        assertEquals(Map.of(), plain.params());
+        assertEquals(Map.of("reset", "true"), reset.params());
+        assertEquals(Map.of("path", "src/App.java", "line", "12"), line.params());
+        assertNull(router.route("metrics://serverless"));
+    }
+
+    @Test
+    @DisplayName("Should prefer the longest literal prefix and treat literals literally")
+    void testLongestPrefixWins() {
+        // Arrange
+        router.register(new StubResource("generic", "cache://{kind}/{key}"));
+        router.register(new StubResource("metrics", "cache://metrics/{key}"));
+        router.register(new StubResource("exact", "config://maven.settings"));
+
+        // Act & Assert
+        assertEquals("metrics", router.route("cache://metrics/latency").resource().getName());
+        assertEquals("generic", router.route("cache://analysis/x").resource().getName());
+        assertEquals("exact", router.route("config://maven.settings").resource().getName());
+        assertNull(router.route("config://mavenXsettings"), "Dots in templates are not wildcards");
+        assertNull(router.route("cache://metrics/"), "Parameters need at least one character");
+        assertNull(router.route("unknown://x"));
+    }
+
+    @Test
+    @DisplayName("Should replace a resource registered under the same name")
+    void testReRegisterReplacesRoute() {
+        // Arrange
+        router.register(new StubResource("analysis", "cache://analysis/{projectPath}"));
+
+        // Act
+        router.register(new StubResource("analysis", "cache://v2/{projectPath}"));
+
+        // Assert
+        assertNull(router.route("cache://analysis/app"));
+        assertEquals(Map.of("projectPath", "app"), router.route("cache://v2/app").params());
+    }
+
+    /**
+     * Resource that only carries a name and URI template.
+     */
+    private record StubResource(String name, String uri) implements Resource {
+
+        @Override
+        public String getUri() {
+            return uri;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return name;
+        }
+
+        @Override
+        public String getMimeType() {
+            return "application/json";
+        }
+
+        @Override
+        public Object read(Map<String, String> params) {
+            return params;
+        }
+    }
+}
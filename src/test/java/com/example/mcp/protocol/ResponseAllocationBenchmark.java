@@ -0,0 +1,129 @@
+package com.example.mcp.protocol;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the bytes allocated per large tools/call response by the streaming
+ * write path against the former tree-and-string path.
+ *
+ * <p>Run with {@code mvn test -Dtest=ResponseAllocationBenchmark -Dbenchmark=true}.
+ */
+@DisplayName("Response Allocation Benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ResponseAllocationBenchmark {
+
+    private static final int VIOLATIONS = 5000;
+    private static final int ROUNDS = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Object> report = pmdLikeReport();
+
+    @Test
+    @DisplayName("Streaming responses should allocate less than the tree-and-string path")
+    void compareAllocations() throws Exception {
+        // Arrange
+        String requests = requestLines();
+        runStreaming(requests);
+        runLegacy(requests);
+
+        // Act
+        long streaming = allocatedBy(() -> runStreaming(requests));
+        long legacy = allocatedBy(() -> runLegacy(requests));
+
+        // Assert
+        System.out.printf("tools/call with %d violations, %d calls: legacy %,d bytes/call, streaming %,d bytes/call%n",
+                VIOLATIONS, ROUNDS, legacy / ROUNDS, streaming / ROUNDS);
+        assertTrue(streaming < legacy, "Streaming path should allocate less than the legacy path");
+    }
+
+    private void runStreaming(String requests) throws Exception {
+        McpServer server = new McpServer("bench", "1.0.0", Map.of());
+        server.setConcurrentDispatch(false);
+        server.registerTool(new McpServerTest.StubTool("pmd", args -> report));
+        server.start(new StdioTransport(
+                new ByteArrayInputStream(requests.getBytes(StandardCharsets.UTF_8)), OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Reproduces the previous per-response work: parse from a string, convert
+     * the result to a tree, render it to a string and write it through a writer.
+     */
+    private void runLegacy(String requests) throws Exception {
+        BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+        for (String line : requests.split("\n")) {
+            JsonNode request = objectMapper.readTree(line);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> arguments = objectMapper.convertValue(request.get("params").get("arguments"), Map.class);
+            Object toolResult = arguments == null ? null : report;
+
+            ObjectNode result = objectMapper.createObjectNode();
+            result.set("content", objectMapper.valueToTree(toolResult));
+            ObjectNode response = objectMapper.createObjectNode();
+            response.put("jsonrpc", "2.0");
+            response.set("id", request.get("id"));
+            response.set("result", result);
+
+            writer.write(objectMapper.writeValueAsString(response));
+            writer.newLine();
+            writer.flush();
+        }
+    }
+
+    private static String requestLines() {
+        StringBuilder lines = new StringBuilder(McpServerTest.request(0, "initialize", "{}"));
+        for (int i = 1; i <= ROUNDS; i++) {
+            lines.append('\n').append(McpServerTest.request(i, "tools/call", "{\"name\":\"pmd\",\"arguments\":{}}"));
+        }
+        return lines.toString();
+    }
+
+    private static long allocatedBy(Action action) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        action.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static Map<String, Object> pmdLikeReport() {
+        List<Map<String, Object>> violations = new ArrayList<>(VIOLATIONS);
+        for (int i = 0; i < VIOLATIONS; i++) {
+            Map<String, Object> violation = new LinkedHashMap<>();
+            violation.put("file", "src/main/java/com/example/service/OrderService" + (i % 50) + ".java");
+            violation.put("line", 10 + i % 400);
+            violation.put("rule", "AvoidDuplicateLiterals");
+            violation.put("ruleSet", "Error Prone");
+            violation.put("priority", 3);
+            violation.put("message", "The String literal \"order-" + i + "\" appears 4 times in this file");
+            violations.add(violation);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalViolations", VIOLATIONS);
+        report.put("violations", violations);
+        return report;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws Exception;
+    }
+}
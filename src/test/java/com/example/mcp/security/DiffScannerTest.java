@@ -0,0 +1,74 @@
+package com.example.mcp.security;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DiffScanner.
+ */
+@DisplayName("DiffScanner Tests")
+class DiffScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should report only findings on changed lines, telling new ones from moved ones")
+    void testScansChangedLinesOnly() throws Exception {
+        // Arrange
+        Path project = Files.createDirectories(tempDir.resolve("service"));
+        Path dao = Files.createDirectories(project.resolve("src/main/java")).resolve("Dao.java");
+        Path untouched = project.resolve("src/main/java/Legacy.java");
+        try (Git git = Git.init().setDirectory(tempDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(dao, String.join("\n",
+                    "class Dao {",
+                    "    String PASSWORD = \"hunter2\";",
+                    "    int total;",
+                    "}"));
+            Files.writeString(untouched, "class Legacy { String token = \"abc\"; }");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Initial").setSign(false).call();
+
+            git.checkout().setCreateBranch(true).setName("feature").call();
+            Files.writeString(dao, String.join("\n",
+                    "class Dao {",
+                    "    int total;",
+                    "        String PASSWORD = \"hunter2\";",
+                    "    ResultSet rs = stmt.executeQuery(\"SELECT * FROM t WHERE id=\" + id);",
+                    "}"));
+            Files.writeString(project.resolve("README.md"), "String secret = \"not java\";");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Change").setSign(false).call();
+            // Uncommitted changes are not part of the diff
+            Files.writeString(untouched, "class Legacy { String apikey = \"xyz\"; }");
+        }
+
+        // Act
+        DiffScanner.DiffScan scan = new DiffScanner(new SourceScanner(1))
+                .scan(project, "main", "feature", file -> file.toString().endsWith(".java"));
+
+        // Assert
+        assertEquals(1, scan.files().size());
+        assertEquals(dao.toAbsolutePath().normalize(), scan.files().get(0).file());
+        assertEquals(List.of(new DiffScanner.LineRange(3, 4)), scan.files().get(0).changedLines());
+        assertEquals(List.of(
+                Map.entry(3, false),
+                Map.entry(4, true)
+        ), scan.findings().stream()
+                .map(finding -> Map.entry(finding.finding().line(), finding.introduced()))
+                .toList());
+        assertEquals("SQL Injection Risk", scan.findings().get(1).finding().title());
+        assertEquals(scan.base(), scan.mergeBase());
+        assertThrows(IllegalArgumentException.class,
+                () -> new DiffScanner(new SourceScanner(1)).scan(project, "missing", "feature", file -> true));
+    }
+}
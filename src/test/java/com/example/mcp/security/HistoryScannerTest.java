@@ -0,0 +1,75 @@
+package com.example.mcp.security;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for HistoryScanner.
+ */
+@DisplayName("HistoryScanner Tests")
+class HistoryScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should scan each blob of every ref once and only new objects on later scans")
+    void testScansHistoryIncrementally() throws Exception {
+        // Arrange
+        Path repo = Files.createDirectories(tempDir.resolve("repo"));
+        Path config = Files.createDirectories(repo.resolve("src/main/resources")).resolve("Config.java");
+        RevCommit leaked;
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(config, "class Config {\n    String password = \"hunter2\";\n}\n");
+            Files.writeString(repo.resolve("README.md"), "Docs\n");
+            git.add().addFilepattern(".").call();
+            leaked = git.commit().setMessage("Add config").setSign(false).call();
+
+            // Removing the secret leaves it in history; the unchanged README blob is not scanned again
+            Files.writeString(config, "class Config {\n    String password = System.getenv(\"PASSWORD\");\n}\n");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Read password from the environment").setSign(false).call();
+
+            git.checkout().setCreateBranch(true).setName("experiment").call();
+            Files.write(repo.resolve("logo.png"), new byte[]{(byte) 0x89, 'P', 'N', 'G', 0, 0, 0});
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Add logo").setSign(false).call();
+        }
+        HistoryScanner scanner = new HistoryScanner(2);
+        scanner.setStateDirectory(tempDir.resolve("state"));
+
+        // Act
+        HistoryScanner.HistoryScan first = scanner.scan(repo, () -> false);
+        try (Git git = Git.open(repo.toFile())) {
+            Files.writeString(repo.resolve("Token.java"), "class Token { String api_key = 'abc123'; }\n");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("Add token").setSign(false).call();
+        }
+        HistoryScanner.HistoryScan second = scanner.scan(repo, () -> false);
+
+        // Assert
+        assertEquals(3, first.commits());
+        assertEquals(3, first.scannedBlobs());
+        assertEquals(1, first.skippedBlobs());
+        assertEquals(0, first.knownObjects());
+        assertEquals(List.of(new HistoryScanner.Finding(first.findings().get(0).blob(),
+                "src/main/resources/Config.java", leaked.getName(), 2,
+                "Found hardcoded secret in source code: password")), first.findings());
+
+        assertEquals(4, second.commits());
+        assertEquals(1, second.scannedBlobs());
+        assertTrue(second.knownObjects() > 0);
+        assertEquals(1, second.newFindings());
+        assertEquals(List.of("Token.java", "src/main/resources/Config.java"),
+                second.findings().stream().map(HistoryScanner.Finding::path).sorted().toList());
+    }
+}
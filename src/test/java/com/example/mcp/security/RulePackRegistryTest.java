@@ -0,0 +1,82 @@
+package com.example.mcp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RulePackRegistry.
+ */
+@DisplayName("RulePackRegistry Tests")
+class RulePackRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should scan with user and project rule packs and reload them when they change")
+    void testLoadsAndReloadsRulePacks() throws Exception {
+        // Arrange
+        Path userRules = Files.createDirectories(tempDir.resolve("home/rules"));
+        Path project = Files.createDirectories(tempDir.resolve("project"));
+        Path projectRules = Files.createDirectories(project.resolve(".sdlc-tools/rules"));
+        Files.writeString(userRules.resolve("acme.json"), """
+                {"name": "acme", "rules": [
+                  {"id": "ACME-001", "severity": "high", "cwe": "CWE-200", "hints": ["acme.internal"],
+                   "pattern": "https?://[a-z.]*acme\\\\.internal"},
+                  {"id": "ACME-002", "pattern": "(a"},
+                  {"id": "ACME-003", "severity": "URGENT", "pattern": "x"}
+                ]}
+                """);
+        Path local = projectRules.resolve("local.json");
+        Files.writeString(local, """
+                {"rules": [{"id": "LOCAL-001", "title": "Debug Flag", "pattern": "(?i)debug\\\\s*=\\\\s*true"}]}
+                """);
+        Path source = Files.writeString(project.resolve("App.java"),
+                "class App {\n  String url = \"https://api.acme.internal/v1\";\n  boolean DEBUG = true;\n}\n");
+        SourceScanner base = new SourceScanner(1);
+        RulePackRegistry registry = new RulePackRegistry(userRules, base);
+
+        // Act
+        RulePackRegistry.RuleSet first = registry.forProject(project);
+        List<SourceScanner.Finding> findings = first.scanner().scanAll(List.of(source)).get(0).findings();
+        RulePackRegistry.RuleSet unchanged = registry.forProject(project);
+
+        Files.writeString(local, """
+                {"rules": [{"id": "LOCAL-002", "pattern": "boolean"}]}
+                """);
+        Files.setLastModifiedTime(local, FileTime.fromMillis(Files.getLastModifiedTime(local).toMillis() + 10_000));
+        RulePackRegistry.RuleSet edited = registry.forProject(project);
+        Files.delete(local);
+        Files.delete(userRules.resolve("acme.json"));
+        RulePackRegistry.RuleSet removed = registry.forProject(project);
+
+        // Assert
+        assertEquals(List.of("acme", "local"), first.packs());
+        assertEquals(2, first.rules());
+        assertEquals(2, first.errors().size());
+        assertTrue(first.errors().get(0).startsWith("acme/ACME-002: "), first.errors().get(0));
+        assertEquals("acme/ACME-003: Unknown severity URGENT", first.errors().get(1));
+        assertEquals(List.of("ACME-001@2:HIGH:CWE-200", "LOCAL-001@3:MEDIUM:null"), findings.stream()
+                .filter(finding -> finding.rule() != null)
+                .map(finding -> finding.rule() + "@" + finding.line() + ":" + finding.severity() + ":" + finding.cwe())
+                .toList());
+
+        assertSame(first.scanner(), unchanged.scanner());
+        assertEquals(first.stamp(), unchanged.stamp());
+        assertNotEquals(first.stamp(), edited.stamp());
+        assertEquals(List.of("LOCAL-002"), edited.scanner().scanAll(List.of(source)).get(0).findings().stream()
+                .filter(finding -> finding.rule() != null && finding.rule().startsWith("LOCAL"))
+                .map(SourceScanner.Finding::rule).toList());
+        assertSame(base, removed.scanner());
+        assertEquals("", removed.stamp());
+        assertEquals(0, registry.stats().get("packs"));
+    }
+}
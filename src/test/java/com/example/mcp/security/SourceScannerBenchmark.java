@@ -0,0 +1,175 @@
+package com.example.mcp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the single-pass parallel scanner against the former scan, which
+ * split each file into lines and ran every rule on every line, one file at
+ * a time, on a corpus of one million lines.
+ *
+ * <p>Run with {@code mvn test -Dtest=SourceScannerBenchmark -Dbenchmark=true}.
+ */
+@DisplayName("Source Scanner Benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SourceScannerBenchmark {
+
+    private static final int FILES = 2000;
+    private static final int LINES_PER_FILE = 500;
+    private static final int ROUNDS = 3;
+
+    private static final Pattern SQL_INJECTION_PATTERN = Pattern.compile(
+            "Statement|PreparedStatement|ResultSet|executeQuery|executeUpdate|execute\\(" +
+            "|\"\\s*\\+\\s*[a-zA-Z_]|String\\.format.*SELECT|String\\.format.*UPDATE");
+    private static final Pattern XSS_PATTERN = Pattern.compile(
+            "innerHTML|document\\.write|eval\\(|response\\.getWriter|out\\.print|getParameter|getElementById");
+    private static final Pattern HARDCODED_SECRET_PATTERN = Pattern.compile(
+            "(password|apikey|api_key|secret|token|pwd|passwd|credential)\\s*=\\s*[\"']([^\"']+)[\"']",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern WEAK_CRYPTO_PATTERN = Pattern.compile(
+            "MD5|MD2|SHA1|DES|RC4|Random\\(\\)|Math\\.random\\(\\)|SecureRandom\\(\\s*\\)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DESERIALIZATION_PATTERN = Pattern.compile(
+            "readObject|readObjectNoData|readResolve|ObjectInputStream|readField|newInstance");
+
+    private static final String[] CODE = {
+            "    private final Map<String, List<Order>> ordersByCustomer = new HashMap<>();",
+            "    public int total(int a, int b) {",
+            "        return a + b;",
+            "    }",
+            "    // Keeps the order book consistent across partial fills",
+            "        for (Order order : orders) { sum += order.quantity() * order.price(); }",
+            "        logger.info(\"Processed {} orders for {}\", count, customerId);",
+            "        if (order == null) { throw new IllegalArgumentException(\"order\"); }",
+            "        String label = customer.name() + \" (\" + customer.id() + \")\";",
+            "    @Override",
+    };
+
+    private static final String[] VULNERABLE = {
+            "        String apiKey = \"sk-live-1234\";",
+            "        ResultSet rs = stmt.executeQuery(\"SELECT * FROM t WHERE id=\" + id);",
+            "        out.print(request.getParameter(\"q\"));",
+            "        MessageDigest md = MessageDigest.getInstance(\"MD5\");",
+            "        ObjectInputStream in = new ObjectInputStream(socket.getInputStream());",
+            "        Runtime.getRuntime().exec(command);",
+            "        factory.setValidating(false);",
+    };
+
+    @TempDir
+    Path corpus;
+
+    @Test
+    @DisplayName("Single-pass parallel scanning should find the same issues faster than per-line regexes")
+    void compareScanners() throws Exception {
+        // Arrange
+        List<Path> files = writeCorpus();
+        SourceScanner scanner = SourceScanner.shared();
+        List<String> expected = scanLegacy(files);
+        List<String> actual = scanCurrent(scanner, files);
+
+        // Act
+        long legacyNanos = Long.MAX_VALUE;
+        long currentNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            scanLegacy(files);
+            legacyNanos = Math.min(legacyNanos, System.nanoTime() - started);
+            started = System.nanoTime();
+            scanCurrent(scanner, files);
+            currentNanos = Math.min(currentNanos, System.nanoTime() - started);
+        }
+
+        // Assert
+        System.out.printf("%,d lines in %d files, %d findings: legacy %d ms, single-pass %d ms on %d threads (%.1fx)%n",
+                FILES * LINES_PER_FILE, FILES, expected.size(), legacyNanos / 1_000_000, currentNanos / 1_000_000,
+                scanner.getParallelism(), (double) legacyNanos / currentNanos);
+        assertEquals(expected, actual);
+        assertTrue(currentNanos < legacyNanos, "Single-pass scanning should be faster than the legacy scan");
+    }
+
+    private List<Path> writeCorpus() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int f = 0; f < FILES; f++) {
+            StringBuilder source = new StringBuilder("class Service").append(f).append(" {\n");
+            for (int line = 1; line < LINES_PER_FILE; line++) {
+                int seed = f * LINES_PER_FILE + line;
+                source.append(seed % 97 == 0 ? VULNERABLE[seed % VULNERABLE.length] : CODE[seed % CODE.length])
+                        .append('\n');
+            }
+            Path file = corpus.resolve("Service" + f + ".java");
+            Files.writeString(file, source);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static List<String> scanCurrent(SourceScanner scanner, List<Path> files) {
+        List<String> findings = new ArrayList<>();
+        for (SourceScanner.ScannedFile file : scanner.scanAll(files)) {
+            for (SourceScanner.Finding finding : file.findings()) {
+                findings.add(finding.file() + ":" + finding.line() + " " + finding.title() + ": " + finding.description());
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * Reproduces the former scan: split each file into lines, then run every rule on every line.
+     */
+    private static List<String> scanLegacy(List<Path> files) throws Exception {
+        List<String> findings = new ArrayList<>();
+        for (Path file : files) {
+            String[] lines = Files.readString(file).split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i];
+                String location = file + ":" + (i + 1) + " ";
+                if (SQL_INJECTION_PATTERN.matcher(line).find() &&
+                        (line.contains("+") || line.contains("String.format") || line.contains("\".*\" +"))) {
+                    findings.add(location + "SQL Injection Risk: Potential SQL injection vulnerability detected. "
+                            + "String concatenation with user input in SQL query.");
+                }
+                Matcher secretMatcher = HARDCODED_SECRET_PATTERN.matcher(line);
+                if (secretMatcher.find()) {
+                    findings.add(location + "Hardcoded Secret Detected: Found hardcoded secret in source code: "
+                            + secretMatcher.group(1));
+                }
+                if (XSS_PATTERN.matcher(line).find() && line.contains("getParameter")) {
+                    findings.add(location + "Cross-Site Scripting (XSS) Risk: Potential XSS vulnerability: "
+                            + "user input is used without proper sanitization.");
+                }
+                if (WEAK_CRYPTO_PATTERN.matcher(line).find()) {
+                    findings.add(location + "Weak Cryptography Algorithm: Use of weak or deprecated "
+                            + "cryptographic algorithm detected.");
+                }
+                if (DESERIALIZATION_PATTERN.matcher(line).find() && line.contains("ObjectInputStream")) {
+                    findings.add(location + "Insecure Deserialization: ObjectInputStream is used to deserialize "
+                            + "untrusted data, which can lead to RCE attacks.");
+                }
+                if (line.contains("Runtime.getRuntime().exec") || line.contains("ProcessBuilder")) {
+                    findings.add(location + "Command Injection Risk: Direct execution of runtime commands detected.");
+                }
+                if (line.contains("DirContext") && line.contains("search") && line.contains("+")) {
+                    findings.add(location + "LDAP Injection Risk: Potential LDAP injection vulnerability detected.");
+                }
+                if (line.contains("setValidating(false)") || line.contains("XXE") ||
+                        line.contains("expandEntityReferences=true")) {
+                    findings.add(location + "XML External Entity (XXE) Attack Risk: XML parsing with disabled "
+                            + "security features or entity expansion enabled.");
+                }
+            }
+        }
+        return findings;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.mcp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SourceScanner.
+ */
+@DisplayName("SourceScanner Tests")
+class SourceScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should report each rule on its line, in rule order, only on lines the rule matches")
+    void testFindsIssuesPerLine() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("Dao.java");
+        Files.writeString(file, String.join("\r\n",
+                "class Dao {",
+                "    String PASSWORD = \"hunter2\";",
+                "    ResultSet rs = stmt.executeQuery(\"SELECT * FROM t WHERE id=\" + id);",
+                "    String name = request.getParameter(\"name\");",
+                "    MessageDigest md = MessageDigest.getInstance(\"md5\"); ObjectInputStream in;",
+                "    new ProcessBuilder(cmd); ctx.search(base, \"(uid=\" + user + \")\"); DirContext ctx;",
+                "    factory.setValidating(false);",
+                "    int total = a + b; // plain arithmetic",
+                "}"));
+        Path broken = tempDir.resolve("Broken.java");
+        Files.write(broken, new byte[]{'c', (byte) 0xC3, '('});
+
+        // Act
+        List<SourceScanner.ScannedFile> results = new SourceScanner(2).scanAll(List.of(file, broken));
+
+        // Assert
+        List<SourceScanner.Finding> findings = results.get(0).findings();
+        assertEquals(List.of(
+                Map.entry(2, "Hardcoded Secret Detected"),
+                Map.entry(3, "SQL Injection Risk"),
+                Map.entry(4, "Cross-Site Scripting (XSS) Risk"),
+                Map.entry(5, "Weak Cryptography Algorithm"),
+                Map.entry(5, "Insecure Deserialization"),
+                Map.entry(6, "SQL Injection Risk"),
+                Map.entry(6, "Command Injection Risk"),
+                Map.entry(6, "LDAP Injection Risk"),
+                Map.entry(7, "XML External Entity (XXE) Attack Risk")
+        ), findings.stream().map(finding -> Map.entry(finding.line(), finding.title())).toList());
+        assertEquals("Found hardcoded secret in source code: PASSWORD", findings.get(0).description());
+        assertEquals(file, findings.get(0).file());
+        assertInstanceOf(IOException.class, results.get(1).error());
+    }
+
+    @Test
+    @DisplayName("Should find literals regardless of ASCII case in one pass")
+    void testMultiPatternMatcher() {
+        // Arrange
+        MultiPatternMatcher matcher = new MultiPatternMatcher(Map.of("he", 1L, "she", 2L, "hers", 4L, "his", 8L));
+
+        // Act
+        long ushers = matcher.scan("USHERS");
+        long history = matcher.scan("a hIstory");
+        long none = matcher.scan("h e s \u00e9");
+
+        // Assert
+        assertEquals(1L | 2L | 4L, ushers);
+        assertEquals(8L, history);
+        assertEquals(0L, none);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.mcp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times building an index of 50,000 advisories from a zipped dump and
+ * looking up the 2,000 artifacts of a large resolved graph in it.
+ *
+ * <p>Run with {@code mvn test -Dtest=VulnerabilityIndexBenchmark -Dbenchmark=true}.
+ */
+@DisplayName("Vulnerability Index Benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VulnerabilityIndexBenchmark {
+
+    private static final int ADVISORIES = 50_000;
+    private static final int ARTIFACTS = 10_000;
+    private static final int LOOKUPS = 2000;
+    private static final int ROUNDS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should look up 2,000 artifacts in milliseconds")
+    void benchmarkLookups() throws Exception {
+        Path dump = tempDir.resolve("all.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(dump))) {
+            for (int i = 0; i < ADVISORIES; i++) {
+                zip.putNextEntry(new ZipEntry("GHSA-" + i + ".json"));
+                int major = i % 5;
+                String json = "{\"id\": \"GHSA-" + i + "\", \"summary\": \"Issue " + i + "\","
+                        + " \"affected\": [{\"package\": {\"ecosystem\": \"Maven\","
+                        + " \"name\": \"org.example" + (i % ARTIFACTS) / 100 + ":artifact-" + i % ARTIFACTS + "\"},"
+                        + " \"ranges\": [{\"type\": \"ECOSYSTEM\", \"events\": [{\"introduced\": \"" + major + ".0\"},"
+                        + " {\"fixed\": \"" + major + ".4." + i % 7 + "\"}]}]}]}";
+                zip.write(json.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        Path indexFile = tempDir.resolve("vulnerabilities.idx");
+
+        long started = System.nanoTime();
+        VulnerabilityIndex.build(dump, indexFile, "benchmark");
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+        VulnerabilityIndex index = VulnerabilityIndex.open(indexFile);
+
+        int matched = 0;
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            matched = 0;
+            started = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                int artifact = i * (ARTIFACTS / LOOKUPS);
+                matched += index.lookup("org.example" + artifact / 100, "artifact-" + artifact, "0.3.0").size();
+            }
+            best = Math.min(best, System.nanoTime() - started);
+        }
+
+        System.out.printf("Indexed %d advisories in %d ms (%d bytes); %d lookups in %.2f ms, %d matches%n",
+                ADVISORIES, buildMillis, Files.size(indexFile), LOOKUPS, best / 1e6, matched);
+        assertEquals(ADVISORIES, index.advisoryCount());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.mcp.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for VulnerabilityIndex.
+ */
+@DisplayName("VulnerabilityIndex Tests")
+class VulnerabilityIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should match versions against fixed, last_affected, open and listed ranges in Maven order")
+    void testLookupMatchesRanges() throws Exception {
+        // Arrange
+        Path dump = Files.createDirectories(tempDir.resolve("osv"));
+        Files.writeString(dump.resolve("GHSA-jfh8-c2jp-5v3q.json"), """
+                {"id": "GHSA-jfh8-c2jp-5v3q", "aliases": ["CVE-2021-44228"],
+                 "summary": "Remote code injection in Log4j",
+                 "database_specific": {"severity": "CRITICAL"},
+                 "affected": [{"package": {"ecosystem": "Maven", "name": "org.apache.logging.log4j:log4j-core"},
+                   "ranges": [{"type": "ECOSYSTEM", "events": [
+                     {"introduced": "2.0-beta9"}, {"fixed": "2.3.1"},
+                     {"introduced": "2.4"}, {"fixed": "2.12.2"},
+                     {"introduced": "2.13.0"}, {"fixed": "2.15.0"}]}]}]}
+                """);
+        Files.writeString(dump.resolve("GHSA-open.json"), """
+                {"id": "GHSA-open", "summary": "Unfixed issue",
+                 "database_specific": {"severity": "MODERATE"},
+                 "affected": [{"package": {"ecosystem": "Maven", "name": "com.example:lib"},
+                   "ranges": [{"type": "ECOSYSTEM", "events": [{"introduced": "0"}, {"last_affected": "1.4"}]},
+                              {"type": "ECOSYSTEM", "events": [{"introduced": "3.0"}]}],
+                   "versions": ["2.1"]}]}
+                """);
+        Files.writeString(dump.resolve("PYSEC-1.json"), """
+                {"id": "PYSEC-1", "affected": [{"package": {"ecosystem": "PyPI", "name": "lib"},
+                   "ranges": [{"type": "ECOSYSTEM", "events": [{"introduced": "0"}]}]}]}
+                """);
+        Path indexFile = tempDir.resolve("index/vulnerabilities.idx");
+
+        // Act
+        int advisories = VulnerabilityIndex.build(dump, indexFile, "stamp-1");
+        VulnerabilityIndex index = VulnerabilityIndex.open(indexFile);
+
+        // Assert
+        assertEquals(2, advisories);
+        assertEquals(2, index.artifactCount());
+        assertEquals("stamp-1", index.sourceStamp());
+
+        List<VulnerabilityIndex.Advisory> log4shell = index.lookup("org.apache.logging.log4j", "log4j-core", "2.14.1");
+        assertEquals(1, log4shell.size());
+        assertEquals("GHSA-jfh8-c2jp-5v3q", log4shell.get(0).id());
+        assertEquals(List.of("CVE-2021-44228"), log4shell.get(0).aliases());
+        assertEquals("CRITICAL", log4shell.get(0).severity());
+        assertEquals("2.15.0", log4shell.get(0).fixedVersion());
+        assertEquals("2.12.2", index.lookup("org.apache.logging.log4j", "log4j-core", "2.10.0").get(0).fixedVersion());
+        assertTrue(index.lookup("org.apache.logging.log4j", "log4j-core", "2.15.0").isEmpty());
+        assertTrue(index.lookup("org.apache.logging.log4j", "log4j-core", "2.12.2").isEmpty());
+        assertTrue(index.lookup("org.apache.logging.log4j", "log4j-core", "2.0-beta8").isEmpty());
+        assertTrue(index.lookup("org.apache.logging.log4j", "log4j-api", "2.14.1").isEmpty());
+
+        assertEquals("MEDIUM", index.lookup("com.example", "lib", "1.4").get(0).severity());
+        assertNull(index.lookup("com.example", "lib", "1.0").get(0).fixedVersion());
+        assertTrue(index.lookup("com.example", "lib", "1.5").isEmpty());
+        assertEquals(1, index.lookup("com.example", "lib", "2.1").size());
+        assertTrue(index.lookup("com.example", "lib", "2.2").isEmpty());
+        assertEquals(1, index.lookup("com.example", "lib", "3.7.1").size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild into a new file and keep handed-out indexes readable")
+    void testRebuildWritesNewGeneration() throws Exception {
+        // Arrange
+        Path dump = Files.createDirectories(tempDir.resolve("osv"));
+        Path advisory = dump.resolve("GHSA-1.json");
+        Files.writeString(advisory, """
+                {"id": "GHSA-1", "affected": [{"package": {"ecosystem": "Maven", "name": "com.example:lib"},
+                   "ranges": [{"type": "ECOSYSTEM", "events": [{"introduced": "0"}, {"fixed": "1.0"}]}]}]}
+                """);
+        Path indexFile = tempDir.resolve("index/vulnerabilities.idx");
+        VulnerabilityDatabase database = new VulnerabilityDatabase();
+        database.configure(dump, indexFile);
+
+        // Act
+        VulnerabilityIndex first = database.index();
+        Files.writeString(advisory, Files.readString(advisory).replace("\"1.0\"", "\"2.0\""));
+        Files.setLastModifiedTime(advisory, FileTime.fromMillis(Files.getLastModifiedTime(advisory).toMillis() + 10_000));
+        // Configuring again skips the check interval and reopens the newest file from disk
+        database.configure(dump, indexFile);
+        VulnerabilityIndex second = database.index();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("1.0", first.lookup("com.example", "lib", "0.5").get(0).fixedVersion());
+        assertEquals("2.0", second.lookup("com.example", "lib", "0.5").get(0).fixedVersion());
+        assertFalse(Files.exists(indexFile.resolveSibling("vulnerabilities.idx.1")));
+        assertTrue(Files.exists(indexFile.resolveSibling("vulnerabilities.idx.2")));
+        assertThrows(FileAlreadyExistsException.class, () ->
+                VulnerabilityIndex.build(dump, indexFile.resolveSibling("vulnerabilities.idx.2"), "stamp"));
+    }
+}